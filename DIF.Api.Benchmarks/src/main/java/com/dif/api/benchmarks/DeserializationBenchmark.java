@@ -0,0 +1,91 @@
+package com.dif.api.benchmarks;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.models.response.ApiResponse;
+import com.dif.api.models.response.InventoryStock;
+import com.dif.api.models.response.OrderDetail;
+import com.dif.api.models.response.PaginatedResponse;
+import com.dif.api.models.response.Product;
+import com.dif.api.models.response.TrackingDetail;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures response deserialization through the ObjectMapper shared by all API clients,
+ * using the same envelope types as {@code BaseApiClient.readData} and {@code readPage}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class DeserializationBenchmark {
+    
+    @Param
+    private PayloadSize size;
+    
+    private ObjectMapper objectMapper;
+    private JavaType orderDetailType;
+    private JavaType trackingDetailType;
+    private JavaType productPageType;
+    private JavaType batchInventoryType;
+    private byte[] orderDetailJson;
+    private byte[] trackingDetailJson;
+    private byte[] productPageJson;
+    private byte[] batchInventoryJson;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = BaseApiClient.getObjectMapper();
+        TypeFactory types = objectMapper.getTypeFactory();
+        orderDetailType = types.constructParametricType(ApiResponse.class, OrderDetail.class);
+        trackingDetailType = types.constructParametricType(ApiResponse.class, TrackingDetail.class);
+        productPageType = types.constructParametricType(PaginatedResponse.class, Product.class);
+        batchInventoryType = types.constructParametricType(ApiResponse.class,
+                types.constructMapType(Map.class, types.constructType(String.class),
+                        types.constructCollectionType(List.class, InventoryStock.class)));
+        
+        orderDetailJson = Payloads.orderDetailJson(size);
+        trackingDetailJson = Payloads.trackingDetailJson(size);
+        productPageJson = Payloads.productPageJson(size);
+        batchInventoryJson = Payloads.batchInventoryJson(size);
+    }
+    
+    @Benchmark
+    public ApiResponse<OrderDetail> orderDetail() throws IOException {
+        return objectMapper.readValue(orderDetailJson, orderDetailType);
+    }
+    
+    @Benchmark
+    public ApiResponse<TrackingDetail> trackingDetail() throws IOException {
+        return objectMapper.readValue(trackingDetailJson, trackingDetailType);
+    }
+    
+    @Benchmark
+    public PaginatedResponse<Product> productPage() throws IOException {
+        return objectMapper.readValue(productPageJson, productPageType);
+    }
+    
+    @Benchmark
+    public ApiResponse<Map<String, List<InventoryStock>>> batchInventory() throws IOException {
+        return objectMapper.readValue(batchInventoryJson, batchInventoryType);
+    }
+}
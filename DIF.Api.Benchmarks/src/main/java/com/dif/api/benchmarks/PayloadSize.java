@@ -0,0 +1,43 @@
+package com.dif.api.benchmarks;
+
+/**
+ * Payload size profiles shared by the benchmarks.
+ */
+public enum PayloadSize {
+    
+    SMALL(1, 3, 10, 1),
+    TYPICAL(10, 25, 50, 25),
+    HUGE(500, 2000, 1000, 500);
+    
+    private final int orderLines;
+    private final int statusEvents;
+    private final int pageSize;
+    private final int inventorySkus;
+    
+    PayloadSize(int orderLines, int statusEvents, int pageSize, int inventorySkus) {
+        this.orderLines = orderLines;
+        this.statusEvents = statusEvents;
+        this.pageSize = pageSize;
+        this.inventorySkus = inventorySkus;
+    }
+    
+    /** Lines per order request and order detail. */
+    public int getOrderLines() {
+        return orderLines;
+    }
+    
+    /** Events in a shipment status history. */
+    public int getStatusEvents() {
+        return statusEvents;
+    }
+    
+    /** Products per catalog page. */
+    public int getPageSize() {
+        return pageSize;
+    }
+    
+    /** SKUs per batch inventory response. */
+    public int getInventorySkus() {
+        return inventorySkus;
+    }
+}
@@ -0,0 +1,121 @@
+package com.dif.api.benchmarks;
+
+import com.dif.api.builders.PlaceOrderRequestBuilder;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.request.PlaceOrderRequest;
+import com.dif.api.models.response.InventoryStock;
+import com.dif.api.models.response.OrderDetail;
+import com.dif.api.models.response.TrackingDetail;
+import com.dif.api.models.response.TrackingStatusEvent;
+import com.dif.api.stub.StubCatalog;
+import com.dif.api.stub.StubJson;
+import com.dif.api.stub.StubOrderStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds benchmark payloads with the stub server's data generator, so JSON bodies have
+ * the same shape and property names as real API responses.
+ */
+public final class Payloads {
+    
+    private static final String DISTRIBUTOR_ID = "ss";
+    private static final StubCatalog catalog = new StubCatalog(ApiConfig.getStubSeed(), ApiConfig.getStubProductCount());
+    private static final StubOrderStore orders = new StubOrderStore(catalog, ApiConfig.getStubOrderCount(), 0);
+    
+    private Payloads() {
+        // Utility class
+    }
+    
+    /**
+     * Builds an order request with the profile's number of lines.
+     * @param size Payload size
+     * @return Order request
+     */
+    public static PlaceOrderRequest placeOrderRequest(PayloadSize size) {
+        PlaceOrderRequestBuilder builder = PlaceOrderRequestBuilder.builder()
+                .withDistributorId(DISTRIBUTOR_ID)
+                .withPoNumber("BENCH-" + size.name())
+                .withDefaultPayment();
+        for (int i = 0; i < size.getOrderLines(); i++) {
+            builder.withLine(catalog.skuOf(i * 7L), 1 + i % 24);
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Builds an ApiResponse body carrying an order with the profile's number of lines.
+     * @param size Payload size
+     * @return JSON body
+     */
+    public static byte[] orderDetailJson(PayloadSize size) {
+        return json(StubJson.ok(placeOrder(size), "Order retrieved successfully"));
+    }
+    
+    /**
+     * Builds an ApiResponse body carrying a shipment with the profile's number of status events.
+     * @param size Payload size
+     * @return JSON body
+     */
+    public static byte[] trackingDetailJson(PayloadSize size) {
+        OrderDetail order = placeOrder(size);
+        TrackingDetail shipment = orders.shipmentForOrder(UUID.fromString(order.getOrderId()));
+        List<TrackingStatusEvent> history = new ArrayList<>(shipment.getStatusHistory());
+        Instant timestamp = Instant.parse(order.getOrderTimestamp());
+        while (history.size() < size.getStatusEvents()) {
+            timestamp = timestamp.plus(37, ChronoUnit.MINUTES);
+            TrackingStatusEvent event = new TrackingStatusEvent();
+            event.setStatus("In Transit");
+            event.setTimestamp(timestamp.toString());
+            event.setLocation("Hub " + (history.size() % 97));
+            event.setDescription("Package arrived at carrier facility");
+            history.add(event);
+        }
+        shipment.setStatusHistory(history);
+        return json(StubJson.ok(shipment, "Tracking retrieved successfully"));
+    }
+    
+    /**
+     * Builds a PaginatedResponse body of products with the profile's page size.
+     * @param size Payload size
+     * @return JSON body
+     */
+    public static byte[] productPageJson(PayloadSize size) {
+        long[] total = new long[1];
+        return json(StubJson.page(catalog.listProducts(Map.of(), 1, size.getPageSize(), total), 1, size.getPageSize(), total[0]));
+    }
+    
+    /**
+     * Builds an ApiResponse body of batch inventory keyed by SKU with the profile's number of SKUs.
+     * @param size Payload size
+     * @return JSON body
+     */
+    public static byte[] batchInventoryJson(PayloadSize size) {
+        Map<String, List<InventoryStock>> inventory = new LinkedHashMap<>();
+        for (int i = 0; i < size.getInventorySkus(); i++) {
+            long n = i * 13L;
+            inventory.put(catalog.skuOf(n), catalog.inventory(n, DISTRIBUTOR_ID));
+        }
+        return json(StubJson.ok(inventory, "Retrieved inventory for " + inventory.size() + " SKUs"));
+    }
+    
+    private static OrderDetail placeOrder(PayloadSize size) {
+        return orders.place(placeOrderRequest(size)).getDetail();
+    }
+    
+    private static byte[] json(Object value) {
+        try {
+            return StubJson.mapper().writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to build benchmark payload", e);
+        }
+    }
+}
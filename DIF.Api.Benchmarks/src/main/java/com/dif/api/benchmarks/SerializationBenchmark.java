@@ -0,0 +1,48 @@
+package com.dif.api.benchmarks;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.models.request.PlaceOrderRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures request serialization through the ObjectMapper shared by all API clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SerializationBenchmark {
+    
+    @Param
+    private PayloadSize size;
+    
+    private ObjectMapper objectMapper;
+    private PlaceOrderRequest request;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = BaseApiClient.getObjectMapper();
+        request = Payloads.placeOrderRequest(size);
+    }
+    
+    @Benchmark
+    public byte[] placeOrderRequestToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(request);
+    }
+}
@@ -0,0 +1,267 @@
+package com.dif.api.benchmarks.load;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.OrdersApiClient;
+import com.dif.api.client.TrackingApiClient;
+import com.dif.api.factory.TestDataFactory;
+import com.dif.api.instrumentation.LatencyRecorder;
+import com.dif.api.models.request.TrackingUpdateRequest;
+import com.dif.api.models.response.OrderResponse;
+import com.dif.api.models.response.TrackingDetail;
+import com.dif.api.models.response.TrackingInfo;
+import com.dif.api.stub.StubApiServer;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Load simulator measuring how long order and shipment changes take to become visible to readers.
+ * <p>
+ * Usage: {@code FreshnessLagSimulator [--orders 200] [--concurrency 16] [--max-updates 12]
+ * [--visibility-timeout-ms 500] [--poll-interval-ms 10] [--results target/load-results.json] [--api]}
+ * <p>
+ * Each virtual user places an order through {@link OrdersApiClient}, then advances its shipment with
+ * POST /api/tracking/update until it is delivered. After each write it polls GET /api/tracking/{orderId},
+ * GET /api/tracking/shipment/{trackingNumber} and, once delivered, the delivery confirmation, until they
+ * reflect the change. Lag runs from the write's response to the first read showing the change, so it includes
+ * one read round trip. An update can legitimately leave a shipment in transit, so a view still unchanged after
+ * the visibility timeout only counts as stale when the other view already saw a change.
+ * <p>
+ * The first read of an order's tracking is recorded separately as a plain round trip, since tracking is
+ * created with the order and there is no lag to measure.
+ * <p>
+ * Lag p50/p99 per view are written with {@link LatencyRecorder#writeResults} for the regression gate;
+ * throughput is printed with the report. By default the API is served by the in-process stub server.
+ * {@code --api} targets base.url instead, which only works against an API that creates tracking for the orders
+ * it places; the .NET mock only tracks its seeded shipments, so the run stops after one probe order there.
+ */
+public final class FreshnessLagSimulator {
+    
+    static final String FIRST_TRACKING_READ = "read.tracking-after-order";
+    static final String ORDER_TRACKING = "freshness.tracking-by-order";
+    static final String SHIPMENT_TRACKING = "freshness.tracking-by-number";
+    static final String DELIVERY_CONFIRMATION = "freshness.delivery-confirmation";
+    private static final String[] SCENARIOS = {ORDER_TRACKING, SHIPMENT_TRACKING, DELIVERY_CONFIRMATION, FIRST_TRACKING_READ};
+    
+    private final OrdersApiClient ordersApi = new OrdersApiClient();
+    private final TrackingApiClient trackingApi = new TrackingApiClient();
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+    private final int maxUpdates;
+    private final long visibilityTimeoutNanos;
+    private final long pollIntervalMillis;
+    private final ExecutorService views;
+    private final LongAdder ordersCompleted = new LongAdder();
+    private final LongAdder ordersFailed = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder transitions = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder staleReads = new LongAdder();
+    
+    private FreshnessLagSimulator(int concurrency, int maxUpdates, long visibilityTimeoutMillis, long pollIntervalMillis) {
+        for (String scenario : SCENARIOS) {
+            recorders.put(scenario, new LatencyRecorder(scenario));
+        }
+        this.maxUpdates = maxUpdates;
+        this.visibilityTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(visibilityTimeoutMillis);
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.views = Executors.newFixedThreadPool(concurrency * 2, daemon("freshness-reader"));
+    }
+    
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseArgs(args);
+        int orders = Integer.parseInt(options.getOrDefault("orders", "200"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        Path results = Paths.get(options.getOrDefault("results", "target/load-results.json"));
+        if (!options.containsKey("api")) {
+            StubApiServer.startShared();
+        }
+        
+        FreshnessLagSimulator simulator = new FreshnessLagSimulator(concurrency,
+                Integer.parseInt(options.getOrDefault("max-updates", "12")),
+                Long.parseLong(options.getOrDefault("visibility-timeout-ms", "500")),
+                Long.parseLong(options.getOrDefault("poll-interval-ms", "10")));
+        if (options.containsKey("api") && !simulator.tracksPlacedOrders()) {
+            System.err.println("The API at base.url does not create tracking for placed orders (the .NET mock only "
+                    + "tracks its seeded shipments); run without --api to use the in-process stub");
+            System.exit(2);
+        }
+        double elapsedSeconds = simulator.run(orders, concurrency);
+        
+        LatencyRecorder.writeResults(results, simulator.recorders.values());
+        System.out.print(simulator.report(orders, concurrency, elapsedSeconds));
+        System.out.println("Lag percentiles written to " + results.toAbsolutePath());
+        System.exit(0);
+    }
+    
+    private double run(int orders, int concurrency) {
+        ExecutorService users = Executors.newFixedThreadPool(concurrency, daemon("freshness-user"));
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> lifecycles = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            String distributorId = TestDataFactory.VALID_DISTRIBUTOR_IDS.get(i % TestDataFactory.VALID_DISTRIBUTOR_IDS.size());
+            lifecycles.add(CompletableFuture.runAsync(() -> {
+                try {
+                    lifecycle(distributorId);
+                } catch (RuntimeException e) {
+                    ordersFailed.increment();
+                    System.err.println("Order lifecycle failed: " + e.getMessage());
+                }
+            }, users));
+        }
+        CompletableFuture.allOf(lifecycles.toArray(CompletableFuture[]::new)).join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        users.shutdownNow();
+        views.shutdownNow();
+        return elapsedSeconds;
+    }
+    
+    /**
+     * Places one probe order and checks that its tracking can be read.
+     */
+    private boolean tracksPlacedOrders() {
+        Response placed = ordersApi.placeOrder(TestDataFactory.createOrderRequestForDistributor(
+                TestDataFactory.VALID_DISTRIBUTOR_IDS.get(0)));
+        if (placed.getStatusCode() != 201) {
+            throw new IllegalStateException("POST /api/orders returned HTTP " + placed.getStatusCode());
+        }
+        String orderId = BaseApiClient.readData(placed, OrderResponse.class).getOrderId();
+        return trackingApi.getTrackingByOrderId(orderId).getStatusCode() == 200;
+    }
+    
+    private void lifecycle(String distributorId) {
+        Response placed = ordersApi.placeOrder(TestDataFactory.createOrderRequestForDistributor(distributorId));
+        long placedAt = System.nanoTime();
+        if (placed.getStatusCode() != 201) {
+            throw new IllegalStateException("POST /api/orders returned HTTP " + placed.getStatusCode());
+        }
+        String orderId = BaseApiClient.readData(placed, OrderResponse.class).getOrderId();
+        TrackingInfo created = observe(placedAt, FIRST_TRACKING_READ, () -> trackingApi.getTrackingByOrderId(orderId),
+                response -> BaseApiClient.readData(response, TrackingInfo.class), info -> true);
+        if (created == null) {
+            throw new IllegalStateException("Tracking for order " + orderId + " never became visible");
+        }
+        String trackingNumber = created.getTrackingNumber();
+        String status = created.getCurrentStatus();
+        
+        for (int update = 0; update < maxUpdates && !"Delivered".equals(status); update++) {
+            Response response = trackingApi.triggerTrackingUpdate(
+                    TrackingUpdateRequest.builder().trackingNumbers(List.of(trackingNumber)).build());
+            long writtenAt = System.nanoTime();
+            updates.increment();
+            if (response.getStatusCode() != 200) {
+                continue;
+            }
+            String previous = status;
+            CompletableFuture<TrackingInfo> byOrder = CompletableFuture.supplyAsync(() -> observe(writtenAt, ORDER_TRACKING,
+                    () -> trackingApi.getTrackingByOrderId(orderId), r -> BaseApiClient.readData(r, TrackingInfo.class),
+                    info -> !previous.equals(info.getCurrentStatus())), views);
+            CompletableFuture<TrackingDetail> byNumber = CompletableFuture.supplyAsync(() -> observe(writtenAt, SHIPMENT_TRACKING,
+                    () -> trackingApi.getTrackingByNumber(trackingNumber), r -> BaseApiClient.readData(r, TrackingDetail.class),
+                    detail -> !previous.equals(detail.getCurrentStatus())), views);
+            TrackingInfo orderView = byOrder.join();
+            TrackingDetail shipmentView = byNumber.join();
+            if (orderView == null && shipmentView == null) {
+                // The update kept the shipment where it was
+                continue;
+            }
+            if (orderView == null || shipmentView == null) {
+                staleReads.increment();
+            }
+            transitions.increment();
+            status = shipmentView != null ? shipmentView.getCurrentStatus() : orderView.getCurrentStatus();
+            if ("Delivered".equals(status)) {
+                observe(writtenAt, DELIVERY_CONFIRMATION, () -> trackingApi.getDeliveryConfirmation(orderId),
+                        r -> Boolean.TRUE, confirmed -> true);
+            }
+        }
+        ordersCompleted.increment();
+    }
+    
+    /**
+     * Polls a read view until it shows the expected change and records the lag since the write.
+     * @return Observed value, or null if the view did not change within the visibility timeout
+     */
+    private <T> T observe(long writtenAt, String scenario, Supplier<Response> read, Function<Response, T> reader,
+                          Predicate<T> changed) {
+        long deadline = writtenAt + visibilityTimeoutNanos;
+        while (true) {
+            Response response = read.get();
+            reads.increment();
+            if (response.getStatusCode() == 200) {
+                T value = reader.apply(response);
+                if (value != null && changed.test(value)) {
+                    recorders.get(scenario).record(System.nanoTime() - writtenAt);
+                    return value;
+                }
+            }
+            if (System.nanoTime() >= deadline) {
+                return null;
+            }
+            try {
+                Thread.sleep(pollIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+    
+    private String report(int orders, int concurrency, double elapsedSeconds) {
+        StringBuilder report = new StringBuilder(String.format("Freshness lag: %d orders, %d virtual users, %.1f s%n",
+                orders, concurrency, elapsedSeconds));
+        report.append(String.format("Throughput: %.1f orders/s, %.1f updates/s, %.1f transitions/s, %.1f reads/s%n",
+                ordersCompleted.sum() / elapsedSeconds, updates.sum() / elapsedSeconds,
+                transitions.sum() / elapsedSeconds, reads.sum() / elapsedSeconds));
+        report.append(String.format("Completed %d, failed %d, stale reads past the visibility timeout %d%n",
+                ordersCompleted.sum(), ordersFailed.sum(), staleReads.sum()));
+        report.append(String.format("%-34s %8s %10s %10s %10s %10s%n", "view", "samples", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (String scenario : SCENARIOS) {
+            LatencyRecorder recorder = recorders.get(scenario);
+            if (recorder.getCount() == 0) {
+                report.append(String.format("%-34s %8d%n", scenario, 0));
+                continue;
+            }
+            report.append(String.format("%-34s %8d %10.2f %10.2f %10.2f %10.2f%n", scenario, recorder.getCount(),
+                    recorder.percentile(50).getValue(), recorder.percentile(90).getValue(),
+                    recorder.percentile(99).getValue(), recorder.percentile(100).getValue()));
+        }
+        return report.toString();
+    }
+    
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,85 @@
+package com.dif.api.benchmarks.regression;
+
+/**
+ * Comparison of one metric between the baseline and the current run.
+ * A change is significant only when the two confidence intervals do not overlap and the
+ * scores differ by more than the minimum change. Results without an interval are never flagged.
+ */
+public class BenchmarkComparison {
+    
+    /**
+     * Outcome of a comparison.
+     */
+    public enum Verdict {
+        REGRESSED, IMPROVED, INCONCLUSIVE, UNCHANGED, NEW, MISSING
+    }
+    
+    private final MetricResult baseline;
+    private final MetricResult current;
+    private final Verdict verdict;
+    private final double changePercent;
+    
+    private BenchmarkComparison(MetricResult baseline, MetricResult current, Verdict verdict, double changePercent) {
+        this.baseline = baseline;
+        this.current = current;
+        this.verdict = verdict;
+        this.changePercent = changePercent;
+    }
+    
+    /**
+     * Compares a metric against its baseline.
+     * @param baseline Baseline result, null if the metric is new
+     * @param current Current result, null if the metric disappeared
+     * @param minChangePercent Smallest relative change reported as a regression or improvement
+     * @return Comparison
+     */
+    public static BenchmarkComparison compare(MetricResult baseline, MetricResult current, double minChangePercent) {
+        if (baseline == null) {
+            return new BenchmarkComparison(null, current, Verdict.NEW, Double.NaN);
+        }
+        if (current == null) {
+            return new BenchmarkComparison(baseline, null, Verdict.MISSING, Double.NaN);
+        }
+        double change = baseline.getScore() == 0 ? 0 : (current.getScore() - baseline.getScore()) / Math.abs(baseline.getScore()) * 100;
+        boolean better = current.isHigherBetter() ? change > 0 : change < 0;
+        if (Math.abs(change) < minChangePercent) {
+            return new BenchmarkComparison(baseline, current, Verdict.UNCHANGED, change);
+        }
+        if (!baseline.hasConfidenceInterval() || !current.hasConfidenceInterval()) {
+            // A single-iteration run has no interval, so a raw mean difference is not evidence
+            return new BenchmarkComparison(baseline, current, Verdict.INCONCLUSIVE, change);
+        }
+        if (!intervalsSeparate(baseline, current)) {
+            return new BenchmarkComparison(baseline, current, Verdict.UNCHANGED, change);
+        }
+        return new BenchmarkComparison(baseline, current, better ? Verdict.IMPROVED : Verdict.REGRESSED, change);
+    }
+    
+    private static boolean intervalsSeparate(MetricResult baseline, MetricResult current) {
+        return current.getLower() > baseline.getUpper() || current.getUpper() < baseline.getLower();
+    }
+    
+    public MetricResult getBaseline() {
+        return baseline;
+    }
+    
+    public MetricResult getCurrent() {
+        return current;
+    }
+    
+    public Verdict getVerdict() {
+        return verdict;
+    }
+    
+    public double getChangePercent() {
+        return changePercent;
+    }
+    
+    /**
+     * Gets the benchmark and metric name of the compared result.
+     * @return Key
+     */
+    public String getKey() {
+        return current != null ? current.getKey() : baseline.getKey();
+    }
+}
@@ -0,0 +1,70 @@
+package com.dif.api.benchmarks.regression;
+
+/**
+ * One measured metric of a benchmark run: a score with its confidence interval.
+ */
+public class MetricResult {
+    
+    private final String benchmark;
+    private final String metric;
+    private final String unit;
+    private final double score;
+    private final double lower;
+    private final double upper;
+    private final boolean higherIsBetter;
+    
+    public MetricResult(String benchmark, String metric, String unit, double score, double lower, double upper,
+                        boolean higherIsBetter) {
+        this.benchmark = benchmark;
+        this.metric = metric;
+        this.unit = unit;
+        this.score = score;
+        this.lower = lower;
+        this.upper = upper;
+        this.higherIsBetter = higherIsBetter;
+    }
+    
+    /**
+     * Gets the key baseline and current results are matched on.
+     * @return Benchmark and metric name
+     */
+    public String getKey() {
+        return benchmark + " " + metric;
+    }
+    
+    public String getBenchmark() {
+        return benchmark;
+    }
+    
+    public String getMetric() {
+        return metric;
+    }
+    
+    public String getUnit() {
+        return unit;
+    }
+    
+    public double getScore() {
+        return score;
+    }
+    
+    public double getLower() {
+        return lower;
+    }
+    
+    public double getUpper() {
+        return upper;
+    }
+    
+    public boolean isHigherBetter() {
+        return higherIsBetter;
+    }
+    
+    /**
+     * Checks if the run produced a usable confidence interval (JMH reports NaN for a single iteration).
+     * @return true if both bounds are finite
+     */
+    public boolean hasConfidenceInterval() {
+        return Double.isFinite(lower) && Double.isFinite(upper);
+    }
+}
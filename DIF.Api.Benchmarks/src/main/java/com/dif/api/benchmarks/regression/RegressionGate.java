@@ -0,0 +1,197 @@
+package com.dif.api.benchmarks.regression;
+
+import com.dif.api.benchmarks.regression.BenchmarkComparison.Verdict;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares benchmark results against the baselines stored in the repository and fails on
+ * statistically significant regressions. Covers JMH throughput/allocation and load-test p50/p99.
+ * <p>
+ * Usage: {@code RegressionGate [--baseline-dir baselines] [--jmh target/jmh-result.json]
+ * [--load target/load-results.json] [--report target/regression-report.md] [--min-change 5] [--update]}
+ * <p>
+ * Exits with status 1 when any metric regressed; {@code --update} replaces the baselines with the current results.
+ */
+public final class RegressionGate {
+    
+    static final String JMH_BASELINE = "jmh-baseline.json";
+    static final String LOAD_BASELINE = "load-baseline.json";
+    
+    private RegressionGate() {
+        // Utility class
+    }
+    
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseArgs(args);
+        Path baselineDir = Paths.get(options.getOrDefault("baseline-dir", "baselines"));
+        Path jmhResults = Paths.get(options.getOrDefault("jmh", "target/jmh-result.json"));
+        Path loadResults = options.containsKey("load") ? Paths.get(options.get("load")) : null;
+        Path report = Paths.get(options.getOrDefault("report", "target/regression-report.md"));
+        double minChangePercent = Double.parseDouble(options.getOrDefault("min-change", "5"));
+        
+        if (options.containsKey("update")) {
+            updateBaseline(jmhResults, baselineDir.resolve(JMH_BASELINE));
+            if (loadResults != null) {
+                updateBaseline(loadResults, baselineDir.resolve(LOAD_BASELINE));
+            }
+            return;
+        }
+        
+        List<BenchmarkComparison> comparisons = new ArrayList<>();
+        if (Files.exists(jmhResults)) {
+            comparisons.addAll(compareFiles(baselineDir.resolve(JMH_BASELINE), jmhResults, ResultFiles::readJmh, minChangePercent));
+        }
+        if (loadResults != null && Files.exists(loadResults)) {
+            comparisons.addAll(compareFiles(baselineDir.resolve(LOAD_BASELINE), loadResults, ResultFiles::readLoadTest, minChangePercent));
+        }
+        if (comparisons.isEmpty()) {
+            System.err.println("No benchmark results found to compare (looked for " + jmhResults
+                    + (loadResults != null ? " and " + loadResults : "") + ")");
+            System.exit(2);
+        }
+        
+        String text = buildReport(comparisons, minChangePercent);
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        Files.write(report, text.getBytes(StandardCharsets.UTF_8));
+        System.out.print(text);
+        System.out.println("Report written to " + report.toAbsolutePath());
+        
+        if (comparisons.stream().anyMatch(c -> c.getVerdict() == Verdict.REGRESSED)) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Compares every metric of a current results file with the same metric in its baseline file.
+     * @param baselineFile Baseline file; if absent every metric is reported as new
+     * @param currentFile Current results file
+     * @param reader Reader of the file format
+     * @param minChangePercent Smallest relative change reported
+     * @return Comparisons in baseline order, followed by new metrics
+     * @throws IOException if a file cannot be read
+     */
+    public static List<BenchmarkComparison> compareFiles(Path baselineFile, Path currentFile, ResultReader reader,
+                                                         double minChangePercent) throws IOException {
+        Map<String, MetricResult> baseline = Files.exists(baselineFile) ? index(reader.read(baselineFile)) : Map.of();
+        Map<String, MetricResult> current = index(reader.read(currentFile));
+        Set<String> keys = new LinkedHashSet<>(baseline.keySet());
+        keys.addAll(current.keySet());
+        
+        List<BenchmarkComparison> comparisons = new ArrayList<>();
+        for (String key : keys) {
+            comparisons.add(BenchmarkComparison.compare(baseline.get(key), current.get(key), minChangePercent));
+        }
+        return comparisons;
+    }
+    
+    /**
+     * Builds a Markdown report with one table per benchmark, regressed benchmarks first.
+     * @param comparisons Comparisons to report
+     * @param minChangePercent Smallest relative change reported
+     * @return Report text
+     */
+    public static String buildReport(List<BenchmarkComparison> comparisons, double minChangePercent) {
+        Map<Verdict, Long> counts = comparisons.stream()
+                .collect(Collectors.groupingBy(BenchmarkComparison::getVerdict, Collectors.counting()));
+        StringBuilder report = new StringBuilder("# Benchmark regression report").append(System.lineSeparator())
+                .append(System.lineSeparator());
+        report.append(String.format("Significance: non-overlapping confidence intervals and at least %.1f%% change.%n", minChangePercent));
+        for (Verdict verdict : Verdict.values()) {
+            report.append(String.format("- %s: %d%n", verdict, counts.getOrDefault(verdict, 0L)));
+        }
+        
+        Map<String, List<BenchmarkComparison>> byBenchmark = new LinkedHashMap<>();
+        for (BenchmarkComparison comparison : comparisons) {
+            MetricResult result = comparison.getCurrent() != null ? comparison.getCurrent() : comparison.getBaseline();
+            byBenchmark.computeIfAbsent(result.getBenchmark(), k -> new ArrayList<>()).add(comparison);
+        }
+        List<Map.Entry<String, List<BenchmarkComparison>>> sections = new ArrayList<>(byBenchmark.entrySet());
+        sections.sort(Comparator.comparingInt(section -> worstVerdict(section.getValue()).ordinal()));
+        
+        for (Map.Entry<String, List<BenchmarkComparison>> section : sections) {
+            report.append(System.lineSeparator())
+                    .append("## ").append(section.getKey()).append(" - ").append(worstVerdict(section.getValue()))
+                    .append(System.lineSeparator()).append(System.lineSeparator());
+            report.append("| Metric | Baseline [CI] | Current [CI] | Change | Verdict |").append(System.lineSeparator());
+            report.append("|---|---|---|---|---|").append(System.lineSeparator());
+            for (BenchmarkComparison comparison : section.getValue()) {
+                MetricResult result = comparison.getCurrent() != null ? comparison.getCurrent() : comparison.getBaseline();
+                report.append(String.format("| %s (%s, %s is better) | %s | %s | %s | %s |%n",
+                        result.getMetric(), result.getUnit(), result.isHigherBetter() ? "higher" : "lower",
+                        format(comparison.getBaseline()), format(comparison.getCurrent()),
+                        Double.isNaN(comparison.getChangePercent()) ? "-" : String.format("%+.2f%%", comparison.getChangePercent()),
+                        comparison.getVerdict()));
+            }
+        }
+        return report.toString();
+    }
+    
+    private static Verdict worstVerdict(List<BenchmarkComparison> comparisons) {
+        return comparisons.stream().map(BenchmarkComparison::getVerdict)
+                .min(Comparator.naturalOrder()).orElse(Verdict.UNCHANGED);
+    }
+    
+    private static String format(MetricResult result) {
+        if (result == null) {
+            return "-";
+        }
+        if (!result.hasConfidenceInterval()) {
+            return String.format("%,.3f (no CI)", result.getScore());
+        }
+        return String.format("%,.3f [%,.3f, %,.3f]", result.getScore(), result.getLower(), result.getUpper());
+    }
+    
+    private static Map<String, MetricResult> index(List<MetricResult> results) {
+        return results.stream().collect(Collectors.toMap(MetricResult::getKey, Function.identity(),
+                (first, second) -> second, LinkedHashMap::new));
+    }
+    
+    private static void updateBaseline(Path current, Path baseline) throws IOException {
+        if (!Files.exists(current)) {
+            System.err.println("Skipping baseline update, " + current + " does not exist");
+            return;
+        }
+        Files.createDirectories(baseline.getParent());
+        Files.copy(current, baseline, StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("Baseline " + baseline + " updated from " + current);
+    }
+    
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean hasValue = i + 1 < args.length && !args[i + 1].startsWith("--");
+            options.put(name, hasValue ? args[++i] : "true");
+        }
+        return options;
+    }
+    
+    /**
+     * Reads a results file into metrics.
+     */
+    @FunctionalInterface
+    public interface ResultReader {
+        List<MetricResult> read(Path file) throws IOException;
+    }
+}
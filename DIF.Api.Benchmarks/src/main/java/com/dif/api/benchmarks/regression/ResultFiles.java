@@ -0,0 +1,96 @@
+package com.dif.api.benchmarks.regression;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.instrumentation.LoadTestResult;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads JMH JSON results and load-test results files into comparable metrics.
+ */
+public final class ResultFiles {
+    
+    /** Secondary JMH metric compared besides the primary score: bytes allocated per operation. */
+    static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    
+    private ResultFiles() {
+        // Utility class
+    }
+    
+    /**
+     * Reads a JMH result file written with -rf json.
+     * Throughput scores are higher-is-better; time-based modes and allocation are lower-is-better.
+     * @param file JMH JSON result file
+     * @return Primary and allocation metrics of every benchmark
+     * @throws IOException if the file cannot be read
+     */
+    public static List<MetricResult> readJmh(Path file) throws IOException {
+        List<MetricResult> results = new ArrayList<>();
+        for (JsonNode run : BaseApiClient.getObjectMapper().readTree(file.toFile())) {
+            String name = shortName(run.path("benchmark").asText()) + params(run.path("params"));
+            boolean throughput = "thrpt".equals(run.path("mode").asText());
+            results.add(metric(name, run.path("mode").asText(), run.path("primaryMetric"), throughput));
+            JsonNode allocation = run.path("secondaryMetrics").path(ALLOCATION_METRIC);
+            if (!allocation.isMissingNode()) {
+                results.add(metric(name, ALLOCATION_METRIC, allocation, false));
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Reads a load-test results file written by {@code LatencyRecorder.writeResults}.
+     * Latency percentiles are lower-is-better.
+     * @param file Load-test results file
+     * @return Percentile metrics of every scenario
+     * @throws IOException if the file cannot be read
+     */
+    public static List<MetricResult> readLoadTest(Path file) throws IOException {
+        LoadTestResult[] loadResults = BaseApiClient.getObjectMapper().readValue(file.toFile(), LoadTestResult[].class);
+        List<MetricResult> results = new ArrayList<>();
+        for (LoadTestResult result : loadResults) {
+            results.add(new MetricResult(result.getScenario(), result.getMetric(), result.getUnit(),
+                    result.getValue(), result.getLower(), result.getUpper(), false));
+        }
+        return results;
+    }
+    
+    private static MetricResult metric(String name, String metric, JsonNode node, boolean higherIsBetter) {
+        JsonNode confidence = node.path("scoreConfidence");
+        return new MetricResult(name, metric, node.path("scoreUnit").asText(),
+                number(node.path("score")), number(confidence.path(0)), number(confidence.path(1)), higherIsBetter);
+    }
+    
+    private static double number(JsonNode node) {
+        // JMH writes "NaN" as a string when a run has too few iterations for an interval
+        return node.isNumber() ? node.asDouble() : Double.NaN;
+    }
+    
+    private static String shortName(String benchmark) {
+        int method = benchmark.lastIndexOf('.');
+        int type = benchmark.lastIndexOf('.', method - 1);
+        return benchmark.substring(type + 1);
+    }
+    
+    private static String params(JsonNode params) {
+        if (params.isMissingNode() || params.isEmpty()) {
+            return "";
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            sorted.put(field.getKey(), field.getValue().asText());
+        }
+        StringBuilder text = new StringBuilder("[");
+        sorted.forEach((key, value) -> text.append(text.length() > 1 ? "," : "").append(key).append('=').append(value));
+        return text.append(']').toString();
+    }
+}
@@ -0,0 +1,676 @@
+package com.dif.api.catalog;
+
+import com.dif.api.inventory.InventoryIndex;
+import com.dif.api.models.request.ProductQuery;
+import com.dif.api.models.response.PaginatedResponse;
+import com.dif.api.models.response.Product;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable, in-process product catalog answering GET /api/products queries without a request.
+ * <p>
+ * Products are stored column by column: low-cardinality text fields are dictionary-encoded to int codes,
+ * prices and weights are unscaled longs with their scale, and the flags are bitmaps. styleCode, brandName, color,
+ * size and distributorId have inverted indexes: values held by at least 1/64 of the rows keep a bitmap, the
+ * rest a sorted row list. A query ANDs the bitmaps of its dense filters, drives from its most selective
+ * sparse filter, and checks the remaining filters against the code columns, so only the requested page is
+ * turned back into {@link Product} objects. SKU and GTIN have hash lookups.
+ * <p>
+ * Filters follow the API's ProductQueryDto: sku and brandName match case-insensitive substrings, gtin matches
+ * exactly, styleCode, color, size and distributorId match case-insensitively, and inStockOnly keeps SKUs with
+ * stock in any warehouse of the attached {@link InventoryIndex}. Results keep load order.
+ */
+public class CatalogIndex {
+    
+    static final int MAX_PAGE_SIZE = 100;
+    
+    // Columns are package-private so CatalogSnapshot can write and map them
+    final int size;
+    final TextColumn productIds;
+    final TextColumn skus;
+    final TextColumn gtins;
+    final TextColumn styleNames;
+    final TextColumn imageUrls;
+    final TextColumn descriptions;
+    final TextColumn lastUpdated;
+    final Column styleCodes;
+    final Column brandNames;
+    final Column colors;
+    final Column colorCodes;
+    final Column sizes;
+    final Column sizeCodes;
+    final Column categories;
+    final Column distributorIds;
+    final AmountColumn blankCosts;
+    final AmountColumn msrps;
+    final AmountColumn weights;
+    final BitSet active;
+    final BitSet discontinued;
+    final HashIndex rowsBySku;
+    final HashIndex rowsByGtin;
+    private volatile InventoryIndex inventory;
+    
+    /**
+     * A dictionary-encoded text column, optionally with an inverted index per value.
+     */
+    static final class Column {
+        final String[] values;
+        final int[] codes;
+        final Map<String, Integer> codeByKey;
+        final BitSet[] bitmaps;
+        final int[][] rows;
+        
+        Column(String[] values, int[] codes, boolean indexed) {
+            this.values = values;
+            this.codes = codes;
+            this.codeByKey = new HashMap<>();
+            for (int code = 0; code < values.length; code++) {
+                codeByKey.putIfAbsent(key(values[code]), code);
+            }
+            if (!indexed) {
+                this.bitmaps = null;
+                this.rows = null;
+                return;
+            }
+            int[] counts = new int[values.length];
+            for (int code : codes) {
+                if (code >= 0) {
+                    counts[code]++;
+                }
+            }
+            this.bitmaps = new BitSet[values.length];
+            this.rows = new int[values.length][];
+            for (int code = 0; code < values.length; code++) {
+                if ((long) counts[code] * 64 >= codes.length) {
+                    bitmaps[code] = new BitSet(codes.length);
+                } else {
+                    rows[code] = new int[counts[code]];
+                }
+            }
+            int[] filled = new int[values.length];
+            for (int row = 0; row < codes.length; row++) {
+                int code = codes[row];
+                if (code < 0) {
+                    continue;
+                }
+                if (bitmaps[code] != null) {
+                    bitmaps[code].set(row);
+                } else {
+                    rows[code][filled[code]++] = row;
+                }
+            }
+        }
+        
+        static Column encode(String[] raw, boolean indexed) {
+            Map<String, Integer> dictionary = new HashMap<>();
+            List<String> values = new ArrayList<>();
+            int[] codes = new int[raw.length];
+            for (int row = 0; row < raw.length; row++) {
+                if (raw[row] == null) {
+                    codes[row] = -1;
+                    continue;
+                }
+                codes[row] = dictionary.computeIfAbsent(raw[row], value -> {
+                    values.add(value);
+                    return values.size() - 1;
+                });
+            }
+            return new Column(values.toArray(new String[0]), codes, indexed);
+        }
+        
+        /**
+         * Gets the code of the value equal to a filter, ignoring case.
+         * @return Code, or -1 if no row has the value
+         */
+        int code(String filter) {
+            Integer code = codeByKey.get(key(filter));
+            return code == null ? -1 : code;
+        }
+        
+        String get(int row) {
+            return codes[row] < 0 ? null : values[codes[row]];
+        }
+    }
+    
+    /**
+     * A free-text column, held as strings or as UTF-8 slices of a mapped snapshot decoded on access.
+     */
+    static final class TextColumn {
+        private final String[] values;
+        private final ByteBuffer bytes;
+        private final int[] offsets;
+        private final BitSet nulls;
+        
+        private TextColumn(String[] values, ByteBuffer bytes, int[] offsets, BitSet nulls) {
+            this.values = values;
+            this.bytes = bytes;
+            this.offsets = offsets;
+            this.nulls = nulls;
+        }
+        
+        static TextColumn of(String[] values) {
+            return new TextColumn(values, null, null, null);
+        }
+        
+        /**
+         * @param bytes UTF-8 text of all rows
+         * @param offsets Start of each row in bytes, plus the end of the last row
+         * @param nulls Rows without a value
+         */
+        static TextColumn mapped(ByteBuffer bytes, int[] offsets, BitSet nulls) {
+            return new TextColumn(null, bytes, offsets, nulls);
+        }
+        
+        String get(int row) {
+            if (values != null) {
+                return values[row];
+            }
+            if (nulls.get(row)) {
+                return null;
+            }
+            byte[] text = new byte[offsets[row + 1] - offsets[row]];
+            bytes.get(offsets[row], text);
+            return new String(text, StandardCharsets.UTF_8);
+        }
+    }
+    
+    /**
+     * Open-addressing hash index from a text column to its rows; slots hold row + 1, 0 when empty.
+     * Several rows may share a key (one SKU at several distributors), so a lookup probes to the next empty slot.
+     */
+    static final class HashIndex {
+        final int[] slots;
+        private final TextColumn column;
+        private final boolean ignoreCase;
+        
+        HashIndex(int[] slots, TextColumn column, boolean ignoreCase) {
+            this.slots = slots;
+            this.column = column;
+            this.ignoreCase = ignoreCase;
+        }
+        
+        static HashIndex build(TextColumn column, int size, boolean ignoreCase) {
+            int capacity = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1;
+            int[] slots = new int[capacity];
+            for (int row = 0; row < size; row++) {
+                String value = column.get(row);
+                if (value != null) {
+                    int slot = slot(ignoreCase ? key(value) : value, capacity);
+                    while (slots[slot] != 0) {
+                        slot = (slot + 1) & (capacity - 1);
+                    }
+                    slots[slot] = row + 1;
+                }
+            }
+            return new HashIndex(slots, column, ignoreCase);
+        }
+        
+        private static int slot(String key, int capacity) {
+            int hash = key.hashCode() * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & (capacity - 1);
+        }
+        
+        /**
+         * Finds the rows of a key.
+         * @return Rows in load order, empty if none
+         */
+        int[] rows(String value) {
+            String wanted = ignoreCase ? key(value) : value;
+            int[] rows = new int[0];
+            for (int slot = slot(wanted, slots.length); slots[slot] != 0; slot = (slot + 1) & (slots.length - 1)) {
+                int row = slots[slot] - 1;
+                String candidate = column.get(row);
+                if (wanted.equals(ignoreCase ? key(candidate) : candidate)) {
+                    rows = Arrays.copyOf(rows, rows.length + 1);
+                    rows[rows.length - 1] = row;
+                }
+            }
+            Arrays.sort(rows);
+            return rows;
+        }
+    }
+    
+    /**
+     * A decimal column stored as unscaled longs plus their scales, so values come back exactly as loaded.
+     */
+    static final class AmountColumn {
+        static final byte NULL_SCALE = Byte.MIN_VALUE;
+        
+        final long[] unscaled;
+        final byte[] scales;
+        
+        AmountColumn(int size) {
+            this(new long[size], new byte[size]);
+        }
+        
+        AmountColumn(long[] unscaled, byte[] scales) {
+            this.unscaled = unscaled;
+            this.scales = scales;
+        }
+        
+        void set(int row, BigDecimal value) {
+            if (value == null) {
+                scales[row] = NULL_SCALE;
+            } else {
+                unscaled[row] = value.unscaledValue().longValueExact();
+                scales[row] = (byte) value.scale();
+            }
+        }
+        
+        BigDecimal get(int row) {
+            return scales[row] == NULL_SCALE ? null : BigDecimal.valueOf(unscaled[row], scales[row]);
+        }
+    }
+    
+    /**
+     * Builds the index of a product list.
+     * @param products Products in the order queries should return them
+     */
+    public CatalogIndex(Collection<Product> products) {
+        this.size = products.size();
+        String[] productIdValues = new String[size];
+        String[] skuValues = new String[size];
+        String[] gtinValues = new String[size];
+        String[] styleNameValues = new String[size];
+        String[] imageUrlValues = new String[size];
+        String[] descriptionValues = new String[size];
+        String[] lastUpdatedValues = new String[size];
+        String[] styleCodeValues = new String[size];
+        String[] brandValues = new String[size];
+        String[] colorValues = new String[size];
+        String[] colorCodeValues = new String[size];
+        String[] sizeValues = new String[size];
+        String[] sizeCodeValues = new String[size];
+        String[] categoryValues = new String[size];
+        String[] distributorValues = new String[size];
+        this.blankCosts = new AmountColumn(size);
+        this.msrps = new AmountColumn(size);
+        this.weights = new AmountColumn(size);
+        this.active = new BitSet(size);
+        this.discontinued = new BitSet(size);
+        
+        int row = 0;
+        for (Product product : products) {
+            productIdValues[row] = product.getProductId();
+            skuValues[row] = product.getSku();
+            gtinValues[row] = product.getGtin();
+            styleNameValues[row] = product.getStyleName();
+            imageUrlValues[row] = product.getImageUrl();
+            descriptionValues[row] = product.getDescription();
+            lastUpdatedValues[row] = product.getLastUpdated();
+            styleCodeValues[row] = product.getStyleCode();
+            brandValues[row] = product.getBrandName();
+            colorValues[row] = product.getColor();
+            colorCodeValues[row] = product.getColorCode();
+            sizeValues[row] = product.getSize();
+            sizeCodeValues[row] = product.getSizeCode();
+            categoryValues[row] = product.getCategory();
+            distributorValues[row] = product.getDistributorId();
+            blankCosts.set(row, product.getBlankCost());
+            msrps.set(row, product.getMsrp());
+            weights.set(row, product.getWeight());
+            active.set(row, product.isActive());
+            discontinued.set(row, product.isDiscontinued());
+            row++;
+        }
+        this.styleCodes = Column.encode(styleCodeValues, true);
+        this.brandNames = Column.encode(brandValues, true);
+        this.colors = Column.encode(colorValues, true);
+        this.colorCodes = Column.encode(colorCodeValues, false);
+        this.sizes = Column.encode(sizeValues, true);
+        this.sizeCodes = Column.encode(sizeCodeValues, false);
+        this.categories = Column.encode(categoryValues, false);
+        this.distributorIds = Column.encode(distributorValues, true);
+        this.productIds = TextColumn.of(productIdValues);
+        this.skus = TextColumn.of(skuValues);
+        this.gtins = TextColumn.of(gtinValues);
+        this.styleNames = TextColumn.of(styleNameValues);
+        this.imageUrls = TextColumn.of(imageUrlValues);
+        this.descriptions = TextColumn.of(descriptionValues);
+        this.lastUpdated = TextColumn.of(lastUpdatedValues);
+        this.rowsBySku = HashIndex.build(skus, size, true);
+        this.rowsByGtin = HashIndex.build(gtins, size, false);
+    }
+    
+    /**
+     * Assembles an index from stored columns; see CatalogSnapshot.
+     */
+    CatalogIndex(int size, TextColumn[] texts, Column[] dictionaries, AmountColumn[] amounts, BitSet active,
+                 BitSet discontinued, int[] skuSlots, int[] gtinSlots) {
+        this.size = size;
+        this.productIds = texts[0];
+        this.skus = texts[1];
+        this.gtins = texts[2];
+        this.styleNames = texts[3];
+        this.imageUrls = texts[4];
+        this.descriptions = texts[5];
+        this.lastUpdated = texts[6];
+        this.styleCodes = dictionaries[0];
+        this.brandNames = dictionaries[1];
+        this.colors = dictionaries[2];
+        this.colorCodes = dictionaries[3];
+        this.sizes = dictionaries[4];
+        this.sizeCodes = dictionaries[5];
+        this.categories = dictionaries[6];
+        this.distributorIds = dictionaries[7];
+        this.blankCosts = amounts[0];
+        this.msrps = amounts[1];
+        this.weights = amounts[2];
+        this.active = active;
+        this.discontinued = discontinued;
+        this.rowsBySku = new HashIndex(skuSlots, skus, true);
+        this.rowsByGtin = new HashIndex(gtinSlots, gtins, false);
+    }
+    
+    TextColumn[] texts() {
+        return new TextColumn[]{productIds, skus, gtins, styleNames, imageUrls, descriptions, lastUpdated};
+    }
+    
+    Column[] dictionaries() {
+        return new Column[]{styleCodes, brandNames, colors, colorCodes, sizes, sizeCodes, categories, distributorIds};
+    }
+    
+    AmountColumn[] amounts() {
+        return new AmountColumn[]{blankCosts, msrps, weights};
+    }
+    
+    static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Attaches the inventory inStockOnly queries are answered from.
+     * @param inventory Inventory index holding the catalog's SKUs
+     */
+    public void setInventory(InventoryIndex inventory) {
+        this.inventory = inventory;
+    }
+    
+    public InventoryIndex getInventory() {
+        return inventory;
+    }
+    
+    /**
+     * Runs a product query locally.
+     * @param query Filters and page; page defaults to 1 and pageSize to 50 as in the API
+     * @return Page in the API's response shape
+     * @throws IllegalArgumentException if page is below 1 or pageSize is outside 1..100
+     * @throws IllegalStateException if inStockOnly is set and no inventory is attached
+     */
+    public PaginatedResponse<Product> query(ProductQuery query) {
+        int page = query.getPage() == null ? 1 : query.getPage();
+        int pageSize = query.getPageSize() == null ? 50 : query.getPageSize();
+        if (page < 1 || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be at least 1 and pageSize between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Product> items = new ArrayList<>();
+        int total = scan(query, row -> items.add(product(row)), (long) (page - 1) * pageSize, pageSize);
+        
+        PaginatedResponse<Product> response = new PaginatedResponse<>();
+        response.setSuccess(true);
+        response.setItems(items);
+        response.setPage(page);
+        response.setPageSize(pageSize);
+        response.setTotalItems(total);
+        response.setTotalPages((total + pageSize - 1) / pageSize);
+        response.setHasNextPage(page < response.getTotalPages());
+        response.setHasPreviousPage(page > 1);
+        return response;
+    }
+    
+    /**
+     * Counts the products matching a query's filters.
+     * @param query Filters; page and pageSize are ignored
+     * @return Matching products
+     */
+    public int count(ProductQuery query) {
+        return scan(query, row -> { }, 0, 0);
+    }
+    
+    /**
+     * Gets every distributor's product for a SKU.
+     * @param sku SKU, any case
+     * @return Products in load order, empty if unknown
+     */
+    public List<Product> getBySku(String sku) {
+        return products(rowsBySku.rows(sku));
+    }
+    
+    /**
+     * Gets one distributor's product for a SKU.
+     * @param sku SKU, any case
+     * @param distributorId Distributor ID, any case
+     * @return Product, or null if the distributor does not carry the SKU
+     */
+    public Product getBySku(String sku, String distributorId) {
+        int[] rows = rowsBySku.rows(sku);
+        int distributor = distributorIds.code(distributorId);
+        if (distributor >= 0) {
+            for (int row : rows) {
+                if (distributorIds.codes[row] == distributor) {
+                    return product(row);
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Gets the products with a GTIN.
+     * @param gtin GTIN, exact
+     * @return Products in load order, empty if unknown
+     */
+    public List<Product> getByGtin(String gtin) {
+        return products(rowsByGtin.rows(gtin));
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private List<Product> products(int[] rows) {
+        if (rows.length == 0) {
+            return Collections.emptyList();
+        }
+        List<Product> products = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            products.add(product(row));
+        }
+        return products;
+    }
+    
+    /**
+     * Materializes one row.
+     * @param row Row number
+     * @return New product
+     */
+    Product product(int row) {
+        Product product = new Product();
+        product.setProductId(productIds.get(row));
+        product.setSku(skus.get(row));
+        product.setStyleCode(styleCodes.get(row));
+        product.setStyleName(styleNames.get(row));
+        product.setBrandName(brandNames.get(row));
+        product.setGtin(gtins.get(row));
+        product.setColor(colors.get(row));
+        product.setColorCode(colorCodes.get(row));
+        product.setSize(sizes.get(row));
+        product.setSizeCode(sizeCodes.get(row));
+        product.setImageUrl(imageUrls.get(row));
+        product.setBlankCost(blankCosts.get(row));
+        product.setMsrp(msrps.get(row));
+        product.setDescription(descriptions.get(row));
+        product.setCategory(categories.get(row));
+        product.setWeight(weights.get(row));
+        product.setDistributorId(distributorIds.get(row));
+        product.setActive(active.get(row));
+        product.setDiscontinued(discontinued.get(row));
+        product.setLastUpdated(lastUpdated.get(row));
+        return product;
+    }
+    
+    /**
+     * Visits matching rows in order.
+     * @param query Filters
+     * @param sink Receives matching rows after the first {@code skip}, at most {@code limit} of them
+     * @param skip Matching rows to count without visiting
+     * @param limit Most rows to visit
+     * @return Total matching rows
+     */
+    private int scan(ProductQuery query, IntConsumer sink, long skip, int limit) {
+        List<BitSet> dense = new ArrayList<>();
+        List<int[]> sparse = new ArrayList<>();
+        List<IntPredicate> checks = new ArrayList<>();
+        if (!equalityFilter(styleCodes, query.getStyleCode(), dense, sparse, checks)
+                || !equalityFilter(colors, query.getColor(), dense, sparse, checks)
+                || !equalityFilter(sizes, query.getSize(), dense, sparse, checks)
+                || !equalityFilter(distributorIds, query.getDistributorId(), dense, sparse, checks)) {
+            return 0;
+        }
+        if (present(query.getGtin())) {
+            int[] rows = rowsByGtin.rows(query.getGtin());
+            if (rows.length == 0) {
+                return 0;
+            }
+            sparse.add(rows);
+            checks.add(row -> query.getGtin().equals(gtins.get(row)));
+        }
+        if (present(query.getBrandName())) {
+            String brand = key(query.getBrandName());
+            boolean[] matches = new boolean[brandNames.values.length];
+            boolean any = false;
+            for (int code = 0; code < matches.length; code++) {
+                matches[code] = key(brandNames.values[code]).contains(brand);
+                any |= matches[code];
+            }
+            if (!any) {
+                return 0;
+            }
+            if (sparse.isEmpty()) {
+                dense.add(union(brandNames, matches));
+            } else {
+                checks.add(row -> brandNames.codes[row] >= 0 && matches[brandNames.codes[row]]);
+            }
+        }
+        if (present(query.getSku())) {
+            String sku = key(query.getSku());
+            checks.add(row -> skus.get(row) != null && key(skus.get(row)).contains(sku));
+        }
+        if (Boolean.TRUE.equals(query.getInStockOnly())) {
+            InventoryIndex stock = inventory;
+            if (stock == null) {
+                throw new IllegalStateException("inStockOnly needs an inventory index; call setInventory first");
+            }
+            checks.add(row -> skus.get(row) != null && stock.getTotalAvailable(stock.skuId(skus.get(row))) > 0);
+        }
+        
+        BitSet filter = null;
+        for (BitSet bitmap : dense) {
+            if (filter == null) {
+                filter = (BitSet) bitmap.clone();
+            } else {
+                filter.and(bitmap);
+            }
+        }
+        IntPredicate matches = row -> true;
+        for (IntPredicate check : checks) {
+            matches = matches.and(check);
+        }
+        
+        int total = 0;
+        int visited = 0;
+        if (!sparse.isEmpty()) {
+            int[] driver = sparse.get(0);
+            for (int[] rows : sparse) {
+                if (rows.length < driver.length) {
+                    driver = rows;
+                }
+            }
+            for (int row : driver) {
+                if ((filter == null || filter.get(row)) && matches.test(row) && total++ >= skip && visited++ < limit) {
+                    sink.accept(row);
+                }
+            }
+        } else if (filter != null && checks.isEmpty()) {
+            // Every filter is in the bitmap: count with cardinality and walk only up to the page
+            total = filter.cardinality();
+            int row = filter.nextSetBit(0);
+            for (long i = 0; i < skip && row >= 0; i++) {
+                row = filter.nextSetBit(row + 1);
+            }
+            for (; row >= 0 && visited++ < limit; row = filter.nextSetBit(row + 1)) {
+                sink.accept(row);
+            }
+        } else if (filter != null) {
+            for (int row = filter.nextSetBit(0); row >= 0; row = filter.nextSetBit(row + 1)) {
+                if (matches.test(row) && total++ >= skip && visited++ < limit) {
+                    sink.accept(row);
+                }
+            }
+        } else {
+            for (int row = 0; row < size; row++) {
+                if (matches.test(row) && total++ >= skip && visited++ < limit) {
+                    sink.accept(row);
+                }
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Adds an exact, case-insensitive filter on an indexed column.
+     * @return false if no row can match
+     */
+    private static boolean equalityFilter(Column column, String value, List<BitSet> dense, List<int[]> sparse,
+                                          List<IntPredicate> checks) {
+        if (!present(value)) {
+            return true;
+        }
+        int code = column.code(value);
+        if (code < 0) {
+            return false;
+        }
+        if (column.bitmaps[code] != null) {
+            dense.add(column.bitmaps[code]);
+        } else {
+            sparse.add(column.rows[code]);
+            checks.add(row -> column.codes[row] == code);
+        }
+        return true;
+    }
+    
+    private static BitSet union(Column column, boolean[] codes) {
+        BitSet rows = new BitSet(column.codes.length);
+        for (int code = 0; code < codes.length; code++) {
+            if (!codes[code]) {
+                continue;
+            }
+            if (column.bitmaps[code] != null) {
+                rows.or(column.bitmaps[code]);
+            } else {
+                for (int row : column.rows[code]) {
+                    rows.set(row);
+                }
+            }
+        }
+        return rows;
+    }
+    
+    private static boolean present(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
@@ -0,0 +1,149 @@
+package com.dif.api.catalog;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.ProductsApiClient;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.request.ProductQuery;
+import com.dif.api.models.response.PaginatedResponse;
+import com.dif.api.models.response.Product;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pages through GET /api/products and builds a {@link CatalogIndex} of the result.
+ * The first page tells how many pages follow; the rest are fetched catalog.load.threads at a time and
+ * reassembled in page order. With a distributorId filter each page takes a permit from that distributor's
+ * {@link DistributorRateLimiter} bucket. catalog.load.max.products caps the load for large catalogs.
+ */
+public class CatalogLoader {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CatalogLoader.class);
+    
+    private final ProductsApiClient productsApi;
+    private final DistributorRateLimiter rateLimiter;
+    private final int threads;
+    private final int pageSize;
+    private final int maxProducts;
+    
+    /**
+     * Creates a loader over the shared rate limiter, configured from catalog.load.*.
+     */
+    public CatalogLoader() {
+        this(new ProductsApiClient(), DistributorRateLimiter.getShared());
+    }
+    
+    public CatalogLoader(ProductsApiClient productsApi, DistributorRateLimiter rateLimiter) {
+        this.productsApi = productsApi;
+        this.rateLimiter = rateLimiter;
+        this.threads = Math.max(1, ApiConfig.getCatalogLoadThreads());
+        this.pageSize = Math.min(CatalogIndex.MAX_PAGE_SIZE, Math.max(1, ApiConfig.getCatalogLoadPageSize()));
+        this.maxProducts = ApiConfig.getCatalogLoadMaxProducts();
+    }
+    
+    /**
+     * Loads the products matching a filter; page and pageSize of the filter are ignored.
+     * @param filter API filters scoping the catalog, e.g. a distributorId or brandName
+     * @return Index of the loaded products in API order
+     * @throws IllegalStateException if a page request fails
+     */
+    public CatalogIndex load(ProductQuery filter) {
+        return new CatalogIndex(fetch(filter));
+    }
+    
+    /**
+     * Fetches the products matching a filter.
+     * @param filter API filters; page and pageSize are ignored
+     * @return Products in API order
+     * @throws IllegalStateException if a page request fails
+     */
+    public List<Product> fetch(ProductQuery filter) {
+        long start = System.nanoTime();
+        PaginatedResponse<Product> first = page(filter, 1);
+        int pages = first.getTotalPages();
+        if (maxProducts > 0) {
+            pages = Math.min(pages, (maxProducts + pageSize - 1) / pageSize);
+        }
+        List<Product> products = new ArrayList<>(first.getItems() == null ? List.of() : first.getItems());
+        if (pages > 1) {
+            ExecutorService workers = Executors.newFixedThreadPool(Math.min(threads, pages - 1), runnable -> {
+                Thread thread = new Thread(runnable, "catalog-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<CompletableFuture<PaginatedResponse<Product>>> rest = new ArrayList<>();
+                for (int page = 2; page <= pages; page++) {
+                    int number = page;
+                    rest.add(CompletableFuture.supplyAsync(() -> page(filter, number), workers));
+                }
+                for (CompletableFuture<PaginatedResponse<Product>> page : rest) {
+                    List<Product> items = page.join().getItems();
+                    if (items != null) {
+                        products.addAll(items);
+                    }
+                }
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+        if (maxProducts > 0 && products.size() > maxProducts) {
+            products = new ArrayList<>(products.subList(0, maxProducts));
+        }
+        logger.info("Loaded {} of {} catalog products in {} pages in {} ms", products.size(), first.getTotalItems(),
+                pages, (System.nanoTime() - start) / 1_000_000);
+        return products;
+    }
+    
+    private PaginatedResponse<Product> page(ProductQuery filter, int page) {
+        Map<String, String> params = queryParams(filter);
+        params.put("page", String.valueOf(page));
+        params.put("pageSize", String.valueOf(pageSize));
+        if (filter.getDistributorId() != null) {
+            rateLimiter.acquire(filter.getDistributorId());
+        }
+        Response response = productsApi.listProducts(params);
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("GET /api/products page " + page + " returned HTTP " + response.getStatusCode());
+        }
+        return BaseApiClient.readPage(response, Product.class);
+    }
+    
+    /**
+     * Converts the filters of a query to GET /api/products query parameters.
+     * @param query Product query
+     * @return Parameters of the set filters, without page and pageSize
+     */
+    static Map<String, String> queryParams(ProductQuery query) {
+        Map<String, String> params = new HashMap<>();
+        putIfSet(params, "sku", query.getSku());
+        putIfSet(params, "styleCode", query.getStyleCode());
+        putIfSet(params, "brandName", query.getBrandName());
+        putIfSet(params, "gtin", query.getGtin());
+        putIfSet(params, "color", query.getColor());
+        putIfSet(params, "size", query.getSize());
+        putIfSet(params, "distributorId", query.getDistributorId());
+        if (query.getInStockOnly() != null) {
+            params.put("inStockOnly", query.getInStockOnly().toString());
+        }
+        return params;
+    }
+    
+    private static void putIfSet(Map<String, String> params, String name, String value) {
+        if (value != null && !value.isEmpty()) {
+            params.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.dif.api.catalog;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.models.request.ProductQuery;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.BitSet;
+
+/**
+ * Memory-mapped, on-disk copy of a {@link CatalogIndex}, so a new JVM opens the catalog in milliseconds
+ * instead of paging through GET /api/products.
+ * <p>
+ * Opening bulk-copies the code, amount and hash columns and rebuilds the inverted indexes from the codes; free
+ * text (SKU, GTIN, names, descriptions, ...) stays in the mapping and is decoded when a row is read. The snapshot
+ * remembers the filter it was loaded with and its watermark, the newest lastUpdated it holds, for
+ * {@link CatalogSync}.
+ * <p>
+ * Layout: a 32-byte header (magic "DIFCATL1", row count, reserved, created-at millis, reserved), the scope
+ * ({@code int length | ProductQuery JSON}) and watermark ({@code int length | text}, -1 if none), then the columns
+ * in {@link CatalogIndex} order: text columns ({@code null bitmap | int[rows + 1] offsets | int length | UTF-8}),
+ * dictionary columns ({@code byte indexed | int count | values | int[rows] codes}), amount columns
+ * ({@code long[rows] unscaled | byte[rows] scales}), the active and discontinued bitmaps
+ * ({@code int words | long[words]}) and the SKU and GTIN hash slots ({@code int length | int[length]}).
+ * Strings are {@code int length | UTF-8}, -1 for null. A snapshot is written to a temporary file and moved into
+ * place, so readers never see a partial one.
+ */
+public class CatalogSnapshot {
+    
+    static final byte[] MAGIC = "DIFCATL1".getBytes(StandardCharsets.US_ASCII);
+    static final int ROW_COUNT_POSITION = 8;
+    static final int CREATED_AT_POSITION = 16;
+    static final int HEADER_SIZE = 32;
+    
+    private final Path file;
+    private final CatalogIndex index;
+    private final ProductQuery scope;
+    private final String watermark;
+    private final long createdAtMillis;
+    
+    /**
+     * Maps a snapshot file.
+     * @param file Snapshot file
+     * @throws IOException if the file cannot be read or is not a catalog snapshot
+     */
+    public CatalogSnapshot(Path file) throws IOException {
+        this.file = file;
+        MappedByteBuffer mapping;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot " + file + " is larger than 2 GB");
+            }
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        checkMagic(mapping, file);
+        try {
+            int size = mapping.getInt(ROW_COUNT_POSITION);
+            this.createdAtMillis = mapping.getLong(CREATED_AT_POSITION);
+            Reader reader = new Reader(mapping, HEADER_SIZE);
+            this.scope = BaseApiClient.getObjectMapper().readValue(reader.string(), ProductQuery.class);
+            this.watermark = reader.string();
+            
+            CatalogIndex.TextColumn[] texts = new CatalogIndex.TextColumn[7];
+            for (int i = 0; i < texts.length; i++) {
+                BitSet nulls = reader.bitSet();
+                int[] offsets = reader.ints(size + 1);
+                texts[i] = CatalogIndex.TextColumn.mapped(reader.slice(reader.integer()), offsets, nulls);
+            }
+            CatalogIndex.Column[] dictionaries = new CatalogIndex.Column[8];
+            for (int i = 0; i < dictionaries.length; i++) {
+                boolean indexed = reader.flag();
+                String[] values = new String[reader.integer()];
+                for (int code = 0; code < values.length; code++) {
+                    values[code] = reader.string();
+                }
+                dictionaries[i] = new CatalogIndex.Column(values, reader.ints(size), indexed);
+            }
+            CatalogIndex.AmountColumn[] amounts = new CatalogIndex.AmountColumn[3];
+            for (int i = 0; i < amounts.length; i++) {
+                amounts[i] = new CatalogIndex.AmountColumn(reader.longs(size), reader.bytes(size));
+            }
+            BitSet active = reader.bitSet();
+            BitSet discontinued = reader.bitSet();
+            int[] skuSlots = reader.ints(reader.integer());
+            int[] gtinSlots = reader.ints(reader.integer());
+            this.index = new CatalogIndex(size, texts, dictionaries, amounts, active, discontinued, skuSlots, gtinSlots);
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException("Catalog snapshot " + file + " is truncated", e);
+        }
+    }
+    
+    static void checkMagic(ByteBuffer buffer, Path file) throws IOException {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.capacity() <= i || buffer.get(i) != MAGIC[i]) {
+                throw new IOException(file + " is not a catalog snapshot");
+            }
+        }
+    }
+    
+    /**
+     * Writes an index to a snapshot file, replacing any previous snapshot atomically.
+     * @param file Snapshot file
+     * @param index Catalog index
+     * @param scope Filter the index was loaded with
+     * @param watermark Newest lastUpdated in the index, or null
+     * @return The written snapshot, mapped
+     * @throws IOException if the file cannot be written
+     */
+    public static CatalogSnapshot write(Path file, CatalogIndex index, ProductQuery scope, String watermark)
+            throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        int size = index.size();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.write(MAGIC);
+            out.writeInt(size);
+            out.writeInt(0);
+            out.writeLong(System.currentTimeMillis());
+            out.writeLong(0);
+            writeString(out, BaseApiClient.getObjectMapper().writeValueAsString(scope));
+            writeString(out, watermark);
+            
+            for (CatalogIndex.TextColumn column : index.texts()) {
+                BitSet nulls = new BitSet(size);
+                int[] offsets = new int[size + 1];
+                byte[][] values = new byte[size][];
+                long length = 0;
+                for (int row = 0; row < size; row++) {
+                    String value = column.get(row);
+                    offsets[row] = (int) length;
+                    if (value == null) {
+                        nulls.set(row);
+                    } else {
+                        values[row] = value.getBytes(StandardCharsets.UTF_8);
+                        length += values[row].length;
+                        if (length > Integer.MAX_VALUE) {
+                            throw new IOException("Catalog text column is larger than 2 GB");
+                        }
+                    }
+                }
+                offsets[size] = (int) length;
+                writeBitSet(out, nulls);
+                writeInts(out, offsets);
+                out.writeInt((int) length);
+                for (byte[] value : values) {
+                    if (value != null) {
+                        out.write(value);
+                    }
+                }
+            }
+            for (CatalogIndex.Column column : index.dictionaries()) {
+                out.writeByte(column.bitmaps != null ? 1 : 0);
+                out.writeInt(column.values.length);
+                for (String value : column.values) {
+                    writeString(out, value);
+                }
+                writeInts(out, column.codes);
+            }
+            for (CatalogIndex.AmountColumn column : index.amounts()) {
+                for (long unscaled : column.unscaled) {
+                    out.writeLong(unscaled);
+                }
+                out.write(column.scales);
+            }
+            writeBitSet(out, index.active);
+            writeBitSet(out, index.discontinued);
+            out.writeInt(index.rowsBySku.slots.length);
+            writeInts(out, index.rowsBySku.slots);
+            out.writeInt(index.rowsByGtin.slots.length);
+            writeInts(out, index.rowsByGtin.slots);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new CatalogSnapshot(file);
+    }
+    
+    /**
+     * Finds the newest lastUpdated of an index.
+     * @param index Catalog index
+     * @return Newest lastUpdated as written by the API, or null if no row has one
+     */
+    public static String watermark(CatalogIndex index) {
+        String newest = null;
+        Instant newestInstant = null;
+        for (int row = 0; row < index.size(); row++) {
+            String value = index.lastUpdated.get(row);
+            Instant instant = parse(value);
+            if (instant != null && (newestInstant == null || instant.isAfter(newestInstant))) {
+                newest = value;
+                newestInstant = instant;
+            }
+        }
+        return newest;
+    }
+    
+    /**
+     * Parses a lastUpdated value.
+     * @param value ISO-8601 instant
+     * @return Instant, or null if the value is missing or malformed
+     */
+    static Instant parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+    
+    private static void writeBitSet(DataOutputStream out, BitSet bits) throws IOException {
+        long[] words = bits.toLongArray();
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+    
+    /**
+     * Sequential cursor over the mapping.
+     */
+    private static final class Reader {
+        private final ByteBuffer mapping;
+        private int position;
+        
+        Reader(ByteBuffer mapping, int position) {
+            this.mapping = mapping;
+            this.position = position;
+        }
+        
+        int integer() {
+            int value = mapping.getInt(position);
+            position += Integer.BYTES;
+            return value;
+        }
+        
+        boolean flag() {
+            return mapping.get(position++) != 0;
+        }
+        
+        String string() {
+            int length = integer();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            mapping.get(position, bytes);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        
+        ByteBuffer slice(int length) {
+            ByteBuffer slice = mapping.slice(position, length).asReadOnlyBuffer();
+            position += length;
+            return slice;
+        }
+        
+        int[] ints(int count) {
+            int[] values = new int[count];
+            mapping.slice(position, count * Integer.BYTES).asIntBuffer().get(values);
+            position += count * Integer.BYTES;
+            return values;
+        }
+        
+        long[] longs(int count) {
+            long[] values = new long[count];
+            mapping.slice(position, count * Long.BYTES).asLongBuffer().get(values);
+            position += count * Long.BYTES;
+            return values;
+        }
+        
+        byte[] bytes(int count) {
+            byte[] values = new byte[count];
+            mapping.get(position, values);
+            position += count;
+            return values;
+        }
+        
+        BitSet bitSet() {
+            return BitSet.valueOf(longs(integer()));
+        }
+    }
+    
+    public CatalogIndex getIndex() {
+        return index;
+    }
+    
+    /**
+     * Gets the filter the snapshot was loaded with.
+     * @return API filters; page and pageSize are unset
+     */
+    public ProductQuery getScope() {
+        return scope;
+    }
+    
+    /**
+     * Gets the newest lastUpdated in the snapshot.
+     * @return ISO-8601 instant, or null if no product had one
+     */
+    public String getWatermark() {
+        return watermark;
+    }
+    
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+}
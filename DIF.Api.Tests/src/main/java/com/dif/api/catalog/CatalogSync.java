@@ -0,0 +1,238 @@
+package com.dif.api.catalog;
+
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.request.ProductQuery;
+import com.dif.api.models.response.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a {@link CatalogSnapshot} on disk in step with the API.
+ * <p>
+ * {@link #warmStart(ProductQuery)} opens the snapshot when it holds the requested scope, so a new JVM queries the
+ * catalog in milliseconds, and only pages through GET /api/products when there is no usable snapshot.
+ * {@link #sync()} then catches up: products that are new, gone, or whose lastUpdated is past the snapshot's
+ * watermark count as changes, and only a changed catalog is re-indexed and written back. GET /api/products has
+ * no lastUpdated filter, so the listing is still read in full; run the sync in the background with
+ * {@link #start()} while tests use the warm index.
+ */
+public class CatalogSync implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSync.class);
+    
+    private final CatalogLoader loader;
+    private final Path file;
+    private final Object syncLock = new Object();
+    private volatile CatalogSnapshot snapshot;
+    private ScheduledExecutorService syncer;
+    
+    /**
+     * Outcome of one delta sync.
+     */
+    public static final class SyncResult {
+        private final int added;
+        private final int updated;
+        private final int removed;
+        private final String watermark;
+        private final long elapsedMillis;
+        
+        SyncResult(int added, int updated, int removed, String watermark, long elapsedMillis) {
+            this.added = added;
+            this.updated = updated;
+            this.removed = removed;
+            this.watermark = watermark;
+            this.elapsedMillis = elapsedMillis;
+        }
+        
+        public int getAdded() {
+            return added;
+        }
+        
+        public int getUpdated() {
+            return updated;
+        }
+        
+        public int getRemoved() {
+            return removed;
+        }
+        
+        /**
+         * Gets the watermark after the sync.
+         * @return Newest lastUpdated in the snapshot, or null if none
+         */
+        public String getWatermark() {
+            return watermark;
+        }
+        
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+        
+        /**
+         * Tells whether the snapshot was rewritten.
+         * @return true if any product was added, updated or removed
+         */
+        public boolean isChanged() {
+            return added + updated + removed > 0;
+        }
+    }
+    
+    /**
+     * Creates a sync over the configured catalog.snapshot.file.
+     */
+    public CatalogSync() {
+        this(new CatalogLoader(), Paths.get(ApiConfig.getCatalogSnapshotFile()));
+    }
+    
+    public CatalogSync(CatalogLoader loader, Path file) {
+        this.loader = loader;
+        this.file = file;
+    }
+    
+    /**
+     * Opens the snapshot for a scope, or loads the scope from the API and writes a new snapshot.
+     * @param scope API filters scoping the catalog; page and pageSize are ignored
+     * @return Catalog index
+     * @throws UncheckedIOException if a new snapshot cannot be written
+     * @throws IllegalStateException if a page request fails
+     */
+    public CatalogIndex warmStart(ProductQuery scope) {
+        if (Files.isRegularFile(file)) {
+            try {
+                long start = System.nanoTime();
+                CatalogSnapshot existing = new CatalogSnapshot(file);
+                if (CatalogLoader.queryParams(existing.getScope()).equals(CatalogLoader.queryParams(scope))) {
+                    snapshot = existing;
+                    logger.info("Opened catalog snapshot {} ({} products, watermark {}) in {} ms", file,
+                            existing.getIndex().size(), existing.getWatermark(), (System.nanoTime() - start) / 1_000_000);
+                    return existing.getIndex();
+                }
+                logger.info("Catalog snapshot {} holds another scope; reloading", file);
+            } catch (IOException e) {
+                logger.warn("Cannot open catalog snapshot {}; reloading: {}", file, e.getMessage());
+            }
+        }
+        CatalogIndex index = loader.load(scope);
+        snapshot = write(index, scope, CatalogSnapshot.watermark(index));
+        return snapshot.getIndex();
+    }
+    
+    /**
+     * Fetches the snapshot's scope and rewrites the snapshot if any product changed since its watermark.
+     * @return Change counts and the new watermark
+     * @throws IllegalStateException if there is no snapshot yet or a page request fails
+     * @throws UncheckedIOException if the snapshot cannot be written
+     */
+    public SyncResult sync() {
+        synchronized (syncLock) {
+            CatalogSnapshot current = snapshot;
+            if (current == null) {
+                throw new IllegalStateException("No catalog snapshot; call warmStart first");
+            }
+            long start = System.nanoTime();
+            CatalogIndex index = current.getIndex();
+            Instant watermark = CatalogSnapshot.parse(current.getWatermark());
+            List<Product> products = loader.fetch(current.getScope());
+            int added = 0;
+            int updated = 0;
+            for (Product product : products) {
+                if (product.getSku() == null || index.getBySku(product.getSku(), product.getDistributorId()) == null) {
+                    added++;
+                } else {
+                    Instant lastUpdated = CatalogSnapshot.parse(product.getLastUpdated());
+                    if (lastUpdated != null && (watermark == null || lastUpdated.isAfter(watermark))) {
+                        updated++;
+                    }
+                }
+            }
+            int removed = Math.max(0, index.size() - (products.size() - added));
+            String newWatermark = current.getWatermark();
+            if (added + updated + removed > 0) {
+                CatalogIndex next = new CatalogIndex(products);
+                next.setInventory(index.getInventory());
+                newWatermark = CatalogSnapshot.watermark(next);
+                snapshot = write(next, current.getScope(), newWatermark);
+            }
+            SyncResult result = new SyncResult(added, updated, removed, newWatermark, (System.nanoTime() - start) / 1_000_000);
+            logger.info("Catalog sync: {} added, {} updated, {} removed, watermark {}, {} ms", added, updated, removed,
+                    newWatermark, result.getElapsedMillis());
+            return result;
+        }
+    }
+    
+    /**
+     * Starts syncing every catalog.snapshot.sync.interval.seconds on a daemon thread.
+     */
+    public synchronized void start() {
+        start(Duration.ofSeconds(ApiConfig.getCatalogSnapshotSyncIntervalSeconds()));
+    }
+    
+    /**
+     * Starts syncing on a daemon thread, the first time right away; failures are logged and retried next time.
+     * @param interval Delay between the end of one sync and the start of the next
+     */
+    public synchronized void start(Duration interval) {
+        if (syncer != null) {
+            return;
+        }
+        syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(() -> {
+            try {
+                sync();
+            } catch (RuntimeException e) {
+                logger.warn("Catalog sync failed: {}", e.getMessage());
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    private CatalogSnapshot write(CatalogIndex index, ProductQuery scope, String watermark) {
+        try {
+            long start = System.nanoTime();
+            CatalogSnapshot written = CatalogSnapshot.write(file, index, scope, watermark);
+            written.getIndex().setInventory(index.getInventory());
+            logger.info("Wrote catalog snapshot {} ({} products) in {} ms", file, index.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write catalog snapshot " + file, e);
+        }
+    }
+    
+    /**
+     * Gets the current catalog; replaced by each sync that finds changes.
+     * @return Catalog index, or null before {@link #warmStart(ProductQuery)}
+     */
+    public CatalogIndex getIndex() {
+        CatalogSnapshot current = snapshot;
+        return current == null ? null : current.getIndex();
+    }
+    
+    public CatalogSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (syncer != null) {
+            syncer.shutdownNow();
+            syncer = null;
+        }
+    }
+}
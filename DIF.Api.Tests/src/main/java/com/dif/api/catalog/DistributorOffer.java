@@ -0,0 +1,49 @@
+package com.dif.api.catalog;
+
+import com.dif.api.models.response.InventoryStock;
+import com.dif.api.models.response.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One distributor's answer in a {@link ProductComparison}: its product and stock, or why there is none.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistributorOffer {
+    
+    /**
+     * Outcome of a distributor lookup.
+     */
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        TIMED_OUT,
+        RATE_LIMITED,
+        FAILED
+    }
+    
+    private String distributorId;
+    private Status status;
+    private Product product;
+    private List<InventoryStock> inventory;
+    private String detail;
+    private double elapsedMillis;
+    
+    public BigDecimal getBlankCost() {
+        return product == null ? null : product.getBlankCost();
+    }
+    
+    /**
+     * Sums quantityAvailable over the distributor's warehouses.
+     * @return Units available, or null if the inventory did not arrive
+     */
+    public Integer getQuantityAvailable() {
+        return inventory == null ? null : inventory.stream().mapToInt(InventoryStock::getQuantityAvailable).sum();
+    }
+}
@@ -0,0 +1,235 @@
+package com.dif.api.catalog;
+
+import com.dif.api.client.ApiStatusException;
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.DistributorTopology;
+import com.dif.api.client.ProductsApiClient;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.response.InventoryStock;
+import com.dif.api.models.response.PaginatedResponse;
+import com.dif.api.models.response.Product;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scatter-gather lookup of one SKU or GTIN at every active distributor.
+ * <p>
+ * Each distributor's product and inventory are requested in parallel (a GTIN is resolved to the distributor's
+ * SKU first), and the lookup waits until a global deadline at most. Whatever arrived is merged into a
+ * {@link ProductComparison}; a distributor still running at the deadline is reported as timed out, one whose
+ * rate-limit bucket is empty is skipped rather than waited for, and a 429 pauses that distributor's bucket.
+ * A product whose inventory missed the deadline is still reported, with unknown availability. The distributors
+ * come from the shared {@link DistributorTopology}.
+ */
+public class DistributorProductLookup implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DistributorProductLookup.class);
+    
+    private final ProductsApiClient productsApi;
+    private final DistributorTopology topology;
+    private final DistributorRateLimiter rateLimiter;
+    private final ExecutorService workers;
+    
+    /**
+     * Creates a lookup over the shared rate limiter, configured from product.lookup.*.
+     */
+    public DistributorProductLookup() {
+        this(new ProductsApiClient(), DistributorTopology.getShared(), DistributorRateLimiter.getShared(),
+                ApiConfig.getProductLookupThreads());
+    }
+    
+    /**
+     * @param productsApi Products client
+     * @param topology Active distributors
+     * @param rateLimiter Limiter consulted before each request to a distributor
+     * @param threads Requests in flight at once
+     */
+    public DistributorProductLookup(ProductsApiClient productsApi, DistributorTopology topology,
+                                    DistributorRateLimiter rateLimiter, int threads) {
+        this.productsApi = productsApi;
+        this.topology = topology;
+        this.rateLimiter = rateLimiter;
+        this.workers = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "product-lookup");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Looks a SKU up at every active distributor.
+     * @param sku SKU
+     * @param deadline Time budget of the whole lookup, including the distributor list when it is refreshed
+     * @return Offers per distributor, found ones first by blankCost
+     * @throws IllegalStateException if the distributor list cannot be fetched
+     */
+    public ProductComparison bySku(String sku, Duration deadline) {
+        return lookup(sku, null, deadline);
+    }
+    
+    /**
+     * Looks a GTIN up at every active distributor.
+     * @param gtin GTIN, exact
+     * @param deadline Time budget of the whole lookup, including the distributor list when it is refreshed
+     * @return Offers per distributor, found ones first by blankCost
+     * @throws IllegalStateException if the distributor list cannot be fetched
+     */
+    public ProductComparison byGtin(String gtin, Duration deadline) {
+        return lookup(null, gtin, deadline);
+    }
+    
+    private ProductComparison lookup(String sku, String gtin, Duration deadline) {
+        long start = System.nanoTime();
+        long deadlineAt = start + deadline.toNanos();
+        List<DistributorOffer> offers = new ArrayList<>();
+        Map<String, CompletableFuture<Product>> products = new LinkedHashMap<>();
+        Map<String, CompletableFuture<List<InventoryStock>>> inventories = new LinkedHashMap<>();
+        for (String distributorId : topology.distributorIds()) {
+            DistributorOffer offer = new DistributorOffer(distributorId, null, null, null, null, 0);
+            offers.add(offer);
+            if (!rateLimiter.tryAcquire(distributorId)) {
+                offer.setStatus(DistributorOffer.Status.RATE_LIMITED);
+                offer.setDetail("client-side rate limit exhausted");
+                continue;
+            }
+            CompletableFuture<Product> product = CompletableFuture.supplyAsync(() -> sku != null
+                    ? productBySku(sku, distributorId) : productByGtin(gtin, distributorId), workers);
+            products.put(distributorId, product);
+            inventories.put(distributorId, sku != null
+                    ? CompletableFuture.supplyAsync(() -> inventory(sku, distributorId), workers)
+                    : product.thenApplyAsync(found -> found == null ? null : inventory(found.getSku(), distributorId), workers));
+        }
+        
+        List<CompletableFuture<?>> all = new ArrayList<>(products.values());
+        all.addAll(inventories.values());
+        try {
+            CompletableFuture.allOf(all.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadlineAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Distributors are judged one by one below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+        for (DistributorOffer offer : offers) {
+            CompletableFuture<Product> product = products.get(offer.getDistributorId());
+            if (product == null) {
+                continue;
+            }
+            offer.setElapsedMillis(elapsedMillis);
+            if (!product.isDone()) {
+                offer.setStatus(DistributorOffer.Status.TIMED_OUT);
+                offer.setDetail("no product within " + deadline.toMillis() + " ms");
+                continue;
+            }
+            try {
+                offer.setProduct(product.join());
+            } catch (RuntimeException e) {
+                fail(offer, e);
+                continue;
+            }
+            if (offer.getProduct() == null) {
+                offer.setStatus(DistributorOffer.Status.NOT_FOUND);
+                continue;
+            }
+            offer.setStatus(DistributorOffer.Status.FOUND);
+            CompletableFuture<List<InventoryStock>> inventory = inventories.get(offer.getDistributorId());
+            if (!inventory.isDone()) {
+                offer.setDetail("no inventory within " + deadline.toMillis() + " ms");
+                continue;
+            }
+            try {
+                offer.setInventory(inventory.join());
+            } catch (RuntimeException e) {
+                offer.setDetail("inventory unavailable: " + cause(e).getMessage());
+            }
+        }
+        
+        offers.sort(Comparator.comparing((DistributorOffer offer) -> offer.getStatus() != DistributorOffer.Status.FOUND)
+                .thenComparing(DistributorOffer::getBlankCost, Comparator.nullsLast(Comparator.<BigDecimal>naturalOrder())));
+        ProductComparison comparison = new ProductComparison(sku, gtin, offers, elapsedMillis);
+        DistributorOffer cheapest = comparison.cheapest(0);
+        logger.info("Looked up {} at {} distributors: {} found, cheapest {} in {} ms", sku != null ? sku : "GTIN " + gtin,
+                offers.size(), offers.stream().filter(offer -> offer.getStatus() == DistributorOffer.Status.FOUND).count(),
+                cheapest == null ? "none" : cheapest.getDistributorId() + " " + cheapest.getBlankCost(),
+                String.format("%.1f", elapsedMillis));
+        return comparison;
+    }
+    
+    private static void fail(DistributorOffer offer, RuntimeException e) {
+        Throwable cause = cause(e);
+        offer.setStatus(cause instanceof ApiStatusException && ((ApiStatusException) cause).isRateLimited()
+                ? DistributorOffer.Status.RATE_LIMITED : DistributorOffer.Status.FAILED);
+        offer.setDetail(cause.getMessage());
+    }
+    
+    private static Throwable cause(RuntimeException e) {
+        return e.getCause() != null ? e.getCause() : e;
+    }
+    
+    private Product productBySku(String sku, String distributorId) {
+        Response response = productsApi.getProductBySku(sku, distributorId);
+        if (response.getStatusCode() == 404) {
+            return null;
+        }
+        check(response, distributorId, "GET /api/products/" + sku);
+        return BaseApiClient.readData(response, Product.class);
+    }
+    
+    private Product productByGtin(String gtin, String distributorId) {
+        Response response = productsApi.listProducts(Map.of("gtin", gtin, "distributorId", distributorId, "pageSize", "1"));
+        check(response, distributorId, "GET /api/products?gtin=" + gtin);
+        PaginatedResponse<Product> page = BaseApiClient.readPage(response, Product.class);
+        return page.getItems() == null || page.getItems().isEmpty() ? null : page.getItems().get(0);
+    }
+    
+    /**
+     * Fetches a distributor's stock of a SKU, taking a permit of its own.
+     * @throws IllegalStateException if the distributor's bucket is empty or the request fails
+     */
+    private List<InventoryStock> inventory(String sku, String distributorId) {
+        if (!rateLimiter.tryAcquire(distributorId)) {
+            throw new IllegalStateException("client-side rate limit exhausted");
+        }
+        Response response = productsApi.getInventory(sku, distributorId);
+        check(response, distributorId, "GET /api/products/" + sku + "/inventory");
+        return BaseApiClient.readDataList(response, InventoryStock.class);
+    }
+    
+    /**
+     * Throws unless a response is 200; a 429 also pauses the distributor's bucket for its Retry-After.
+     * @throws ApiStatusException if the response is not 200
+     */
+    private void check(Response response, String distributorId, String request) {
+        if (response.getStatusCode() == 429) {
+            String retryAfter = response.getHeader("Retry-After");
+            rateLimiter.pause(distributorId, retryAfter != null && retryAfter.matches("\\d+")
+                    ? Duration.ofSeconds(Long.parseLong(retryAfter)) : Duration.ofSeconds(1));
+        }
+        if (response.getStatusCode() != 200) {
+            throw new ApiStatusException(request + " for " + distributorId, response.getStatusCode());
+        }
+    }
+    
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
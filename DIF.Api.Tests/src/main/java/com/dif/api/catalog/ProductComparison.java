@@ -0,0 +1,44 @@
+package com.dif.api.catalog;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Outcome of a scatter-gather product lookup: every distributor's offer, found ones first by blankCost.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductComparison {
+    
+    private String sku;
+    private String gtin;
+    private List<DistributorOffer> offers;
+    private double elapsedMillis;
+    
+    /**
+     * Finds the cheapest offer with enough stock.
+     * @param units Units needed; 0 accepts offers whose inventory did not arrive
+     * @return Offer with the lowest blankCost, or null if none qualifies
+     */
+    public DistributorOffer cheapest(int units) {
+        return offers.stream()
+                .filter(offer -> offer.getStatus() == DistributorOffer.Status.FOUND && offer.getBlankCost() != null)
+                .filter(offer -> units <= 0 || (offer.getQuantityAvailable() != null && offer.getQuantityAvailable() >= units))
+                .min(Comparator.comparing(DistributorOffer::getBlankCost))
+                .orElse(null);
+    }
+    
+    /**
+     * Checks whether every distributor answered, with inventory, before the deadline.
+     * @return True if no lookup timed out, was rate limited or failed and every found product has its inventory
+     */
+    public boolean isComplete() {
+        return offers.stream().allMatch(offer -> offer.getStatus() == DistributorOffer.Status.NOT_FOUND
+                || (offer.getStatus() == DistributorOffer.Status.FOUND && offer.getInventory() != null));
+    }
+}
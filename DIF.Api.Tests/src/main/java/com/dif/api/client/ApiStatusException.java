@@ -0,0 +1,33 @@
+package com.dif.api.client;
+
+/**
+ * Thrown when the API answers a request with an unexpected status code.
+ * Carries the status so callers can tell a 429 from other failures without parsing the message.
+ */
+public class ApiStatusException extends IllegalStateException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final int statusCode;
+    
+    /**
+     * @param request Request that failed, e.g. "GET /api/products/G500-BLA-M for ss"
+     * @param statusCode HTTP status code of the response
+     */
+    public ApiStatusException(String request, int statusCode) {
+        super(request + " returned HTTP " + statusCode);
+        this.statusCode = statusCode;
+    }
+    
+    public int getStatusCode() {
+        return statusCode;
+    }
+    
+    /**
+     * Tells whether the API rejected the request for its rate limit.
+     * @return true for a 429
+     */
+    public boolean isRateLimited() {
+        return statusCode == 429;
+    }
+}
@@ -1,12 +1,23 @@
 package com.dif.api.client;
 
 import com.dif.api.config.ApiConfig;
+import com.dif.api.instrumentation.AllocationTracker;
+import com.dif.api.instrumentation.ApiCallEventFilter;
+import com.dif.api.instrumentation.PhaseTimingFilter;
+import com.dif.api.instrumentation.TimedHttpClientFactory;
+import com.dif.api.models.response.ApiResponse;
+import com.dif.api.models.response.PaginatedResponse;
+import com.dif.api.traffic.TrafficArchives;
+import com.dif.api.traffic.TrafficRecordingFilter;
+import com.dif.api.traffic.TrafficReplayFilter;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
 import io.restassured.config.ObjectMapperConfig;
 import io.restassured.config.RestAssuredConfig;
 import io.restassured.filter.log.LogDetail;
@@ -16,17 +27,25 @@ import io.restassured.specification.RequestSpecification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Base API client providing common Rest Assured configuration and methods.
  * All endpoint-specific clients should extend this class.
+ * Clients hold no per-request state and are safe to share between threads.
  */
 public abstract class BaseApiClient {
     
     protected static final Logger logger = LoggerFactory.getLogger(BaseApiClient.class);
     protected final RequestSpecification requestSpec;
     protected static final ObjectMapper objectMapper;
+    private static final ApiCallEventFilter apiCallEventFilter = new ApiCallEventFilter();
+    private static final PhaseTimingFilter phaseTimingFilter = new PhaseTimingFilter();
+    private static final TrafficRecordingFilter trafficRecordingFilter = new TrafficRecordingFilter();
+    private static final TrafficReplayFilter trafficReplayFilter = new TrafficReplayFilter();
     
     static {
         // Configure Jackson ObjectMapper
@@ -34,19 +53,41 @@ public abstract class BaseApiClient {
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        
+        // Configure RestAssured response logging once; clients are constructed concurrently by parallel tests
+        if (ApiConfig.isResponseLoggingEnabled()) {
+            RestAssured.enableLoggingOfRequestAndResponseIfValidationFails(LogDetail.ALL);
+        }
     }
     
     /**
      * Constructs a BaseApiClient with default configuration.
      */
     public BaseApiClient() {
+        RestAssuredConfig config = RestAssuredConfig.config()
+                .objectMapperConfig(ObjectMapperConfig.objectMapperConfig()
+                        .jackson2ObjectMapperFactory((type, s) -> objectMapper));
+        
         RequestSpecBuilder builder = new RequestSpecBuilder()
                 .setBaseUri(ApiConfig.getBaseUrl())
                 .setContentType(ContentType.JSON)
                 .setAccept(ContentType.JSON)
-                .setConfig(RestAssuredConfig.config()
-                        .objectMapperConfig(ObjectMapperConfig.objectMapperConfig()
-                                .jackson2ObjectMapperFactory((type, s) -> objectMapper)));
+                .addFilter(apiCallEventFilter);
+        
+        // Time connection, write, first byte and body phases through an instrumented transport
+        if (ApiConfig.isPhaseTimingEnabled()) {
+            config = config.httpClient(HttpClientConfig.httpClientConfig()
+                    .httpClientFactory(new TimedHttpClientFactory()));
+            builder.addFilter(phaseTimingFilter);
+        }
+        
+        // Record or replay traffic innermost, so instrumentation still sees every call
+        if (TrafficArchives.isRecording()) {
+            builder.addFilter(trafficRecordingFilter);
+        } else if (TrafficArchives.isReplaying()) {
+            builder.addFilter(trafficReplayFilter);
+        }
+        builder.setConfig(config);
         
         // Add logging based on configuration
         if (ApiConfig.isRequestLoggingEnabled()) {
@@ -54,11 +95,6 @@ public abstract class BaseApiClient {
         }
         
         this.requestSpec = builder.build();
-        
-        // Configure RestAssured response logging
-        if (ApiConfig.isResponseLoggingEnabled()) {
-            RestAssured.enableLoggingOfRequestAndResponseIfValidationFails(LogDetail.ALL);
-        }
     }
     
     /**
@@ -67,11 +103,13 @@ public abstract class BaseApiClient {
      * @return Response object
      */
     protected Response get(String path) {
-        logger.debug("GET request to: {}", path);
-        return RestAssured.given()
-                .spec(requestSpec)
-                .when()
-                .get(path);
+        return AllocationTracker.trackEndpoint("GET", path, () -> {
+            logger.debug("GET request to: {}", path);
+            return RestAssured.given()
+                    .spec(requestSpec)
+                    .when()
+                    .get(path);
+        });
     }
     
     /**
@@ -81,11 +119,13 @@ public abstract class BaseApiClient {
      * @return Response object
      */
     protected Response get(String path, Object... pathParams) {
-        logger.debug("GET request to: {} with params: {}", path, pathParams);
-        return RestAssured.given()
-                .spec(requestSpec)
-                .when()
-                .get(path, pathParams);
+        return AllocationTracker.trackEndpoint("GET", path, () -> {
+            logger.debug("GET request to: {} with params: {}", path, pathParams);
+            return RestAssured.given()
+                    .spec(requestSpec)
+                    .when()
+                    .get(path, pathParams);
+        });
     }
     
     /**
@@ -95,12 +135,32 @@ public abstract class BaseApiClient {
      * @return Response object
      */
     protected Response getWithQueryParams(String path, Map<String, ?> queryParams) {
-        logger.debug("GET request to: {} with query params: {}", path, queryParams);
-        return RestAssured.given()
-                .spec(requestSpec)
-                .queryParams(queryParams)
-                .when()
-                .get(path);
+        return AllocationTracker.trackEndpoint("GET", path, () -> {
+            logger.debug("GET request to: {} with query params: {}", path, queryParams);
+            return RestAssured.given()
+                    .spec(requestSpec)
+                    .queryParams(queryParams)
+                    .when()
+                    .get(path);
+        });
+    }
+    
+    /**
+     * Performs a GET request with path and query parameters.
+     * @param path API endpoint path with placeholders
+     * @param queryParams Query parameters map
+     * @param pathParams Path parameter values
+     * @return Response object
+     */
+    protected Response getWithQueryParams(String path, Map<String, ?> queryParams, Object... pathParams) {
+        return AllocationTracker.trackEndpoint("GET", path, () -> {
+            logger.debug("GET request to: {} with params: {} and query params: {}", path, pathParams, queryParams);
+            return RestAssured.given()
+                    .spec(requestSpec)
+                    .queryParams(queryParams)
+                    .when()
+                    .get(path, pathParams);
+        });
     }
     
     /**
@@ -110,12 +170,14 @@ public abstract class BaseApiClient {
      * @return Response object
      */
     protected Response post(String path, Object body) {
-        logger.debug("POST request to: {} with body: {}", path, body);
-        return RestAssured.given()
-                .spec(requestSpec)
-                .body(body)
-                .when()
-                .post(path);
+        return AllocationTracker.trackEndpoint("POST", path, () -> {
+            logger.debug("POST request to: {} with body: {}", path, body);
+            return RestAssured.given()
+                    .spec(requestSpec)
+                    .body(body)
+                    .when()
+                    .post(path);
+        });
     }
     
     /**
@@ -126,12 +188,14 @@ public abstract class BaseApiClient {
      * @return Response object
      */
     protected Response post(String path, Object body, Object... pathParams) {
-        logger.debug("POST request to: {} with body: {} and params: {}", path, body, pathParams);
-        return RestAssured.given()
-                .spec(requestSpec)
-                .body(body)
-                .when()
-                .post(path, pathParams);
+        return AllocationTracker.trackEndpoint("POST", path, () -> {
+            logger.debug("POST request to: {} with body: {} and params: {}", path, body, pathParams);
+            return RestAssured.given()
+                    .spec(requestSpec)
+                    .body(body)
+                    .when()
+                    .post(path, pathParams);
+        });
     }
     
     /**
@@ -141,12 +205,14 @@ public abstract class BaseApiClient {
      * @return Response object
      */
     protected Response put(String path, Object body) {
-        logger.debug("PUT request to: {} with body: {}", path, body);
-        return RestAssured.given()
-                .spec(requestSpec)
-                .body(body)
-                .when()
-                .put(path);
+        return AllocationTracker.trackEndpoint("PUT", path, () -> {
+            logger.debug("PUT request to: {} with body: {}", path, body);
+            return RestAssured.given()
+                    .spec(requestSpec)
+                    .body(body)
+                    .when()
+                    .put(path);
+        });
     }
     
     /**
@@ -155,11 +221,66 @@ public abstract class BaseApiClient {
      * @return Response object
      */
     protected Response delete(String path) {
-        logger.debug("DELETE request to: {}", path);
-        return RestAssured.given()
-                .spec(requestSpec)
-                .when()
-                .delete(path);
+        return AllocationTracker.trackEndpoint("DELETE", path, () -> {
+            logger.debug("DELETE request to: {}", path);
+            return RestAssured.given()
+                    .spec(requestSpec)
+                    .when()
+                    .delete(path);
+        });
+    }
+    
+    /**
+     * Deserializes the "data" payload of an ApiResponse into the given model type.
+     * Allocations are recorded against the model type.
+     * @param response Response with an ApiResponse body
+     * @param type Model class of the data payload
+     * @param <T> Model type
+     * @return Data payload, or null if the response has none
+     */
+    public static <T> T readData(Response response, Class<T> type) {
+        return readData(response, objectMapper.getTypeFactory().constructType(type), type);
+    }
+    
+    /**
+     * Deserializes a list "data" payload of an ApiResponse into a list of the given model type.
+     * Allocations are recorded against the model type.
+     * @param response Response with an ApiResponse body
+     * @param type Model class of the list elements
+     * @param <T> Model type
+     * @return List payload, or null if the response has none
+     */
+    public static <T> List<T> readDataList(Response response, Class<T> type) {
+        return readData(response, objectMapper.getTypeFactory().constructCollectionType(List.class, type), type);
+    }
+    
+    /**
+     * Deserializes a PaginatedResponse body with items of the given model type.
+     * Allocations are recorded against the model type.
+     * @param response Response with a PaginatedResponse body
+     * @param type Model class of the page items
+     * @param <T> Model type
+     * @return Deserialized page
+     */
+    public static <T> PaginatedResponse<T> readPage(Response response, Class<T> type) {
+        JavaType pageType = objectMapper.getTypeFactory().constructParametricType(PaginatedResponse.class, type);
+        return AllocationTracker.trackModel(type, () -> deserialize(response.asByteArray(), pageType));
+    }
+    
+    private static <T> T readData(Response response, JavaType dataType, Class<?> model) {
+        JavaType wrapperType = objectMapper.getTypeFactory().constructParametricType(ApiResponse.class, dataType);
+        return AllocationTracker.trackModel(model, () -> {
+            ApiResponse<T> wrapper = deserialize(response.asByteArray(), wrapperType);
+            return wrapper.getData();
+        });
+    }
+    
+    private static <T> T deserialize(byte[] body, JavaType type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to deserialize response as " + type, e);
+        }
     }
     
     /**
@@ -0,0 +1,121 @@
+package com.dif.api.client;
+
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.response.Distributor;
+import com.dif.api.models.response.Warehouse;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Cached view of which distributors and warehouses requests can go to: the active distributors with an API
+ * integration and their active warehouses. Both lists are reused for distributor.topology.ttl.seconds, so
+ * helpers that fan out per distributor (rate shopping, the rate matrix, product lookup) do not each list them.
+ */
+public class DistributorTopology {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DistributorTopology.class);
+    private static DistributorTopology shared;
+    
+    private final DistributorsApiClient distributorsApi;
+    private final long ttlNanos;
+    private List<String> distributorIds;
+    private long distributorsFetchedAt;
+    private Map<String, List<String>> warehouses;
+    private long warehousesFetchedAt;
+    
+    /**
+     * @param distributorsApi Distributors client
+     * @param ttl How long a fetched list is reused
+     */
+    public DistributorTopology(DistributorsApiClient distributorsApi, Duration ttl) {
+        this.distributorsApi = distributorsApi;
+        this.ttlNanos = ttl.toNanos();
+    }
+    
+    /**
+     * Gets the topology shared by all helpers in the JVM, configured from distributor.topology.ttl.seconds.
+     * @return Shared topology
+     */
+    public static synchronized DistributorTopology getShared() {
+        if (shared == null) {
+            shared = new DistributorTopology(new DistributorsApiClient(),
+                    Duration.ofSeconds(ApiConfig.getDistributorTopologyTtlSeconds()));
+        }
+        return shared;
+    }
+    
+    /**
+     * Gets the active distributors with an API integration.
+     * @return Distributor IDs in API order
+     * @throws IllegalStateException if the distributor list cannot be fetched
+     */
+    public synchronized List<String> distributorIds() {
+        if (distributorIds != null && System.nanoTime() - distributorsFetchedAt < ttlNanos) {
+            return distributorIds;
+        }
+        Response response = distributorsApi.listDistributors();
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("GET /api/distributors returned HTTP " + response.getStatusCode());
+        }
+        List<String> active = new ArrayList<>();
+        List<Distributor> distributors = BaseApiClient.readDataList(response, Distributor.class);
+        if (distributors != null) {
+            for (Distributor distributor : distributors) {
+                if (distributor.isActive() && distributor.isHasApiIntegration()) {
+                    active.add(distributor.getDistributorId());
+                }
+            }
+        }
+        distributorIds = Collections.unmodifiableList(active);
+        distributorsFetchedAt = System.nanoTime();
+        logger.debug("Active distributors: {}", distributorIds);
+        return distributorIds;
+    }
+    
+    /**
+     * Gets the active warehouses of every active distributor, fetching the warehouse lists in parallel.
+     * @param executor Executor the warehouse requests run on
+     * @return Active warehouse codes per distributor ID, in API order; a distributor without a warehouse
+     *         list maps to a single null code, which lets the API pick its default origin
+     * @throws IllegalStateException if the distributor list cannot be fetched
+     */
+    public synchronized Map<String, List<String>> warehouses(Executor executor) {
+        if (warehouses != null && System.nanoTime() - warehousesFetchedAt < ttlNanos) {
+            return warehouses;
+        }
+        Map<String, CompletableFuture<List<String>>> pending = new LinkedHashMap<>();
+        for (String distributorId : distributorIds()) {
+            pending.put(distributorId, CompletableFuture.supplyAsync(() -> activeWarehouses(distributorId), executor));
+        }
+        Map<String, List<String>> topology = new LinkedHashMap<>();
+        pending.forEach((distributorId, codes) -> topology.put(distributorId, codes.join()));
+        warehouses = Collections.unmodifiableMap(topology);
+        warehousesFetchedAt = System.nanoTime();
+        logger.debug("Active warehouses: {}", warehouses);
+        return warehouses;
+    }
+    
+    private List<String> activeWarehouses(String distributorId) {
+        Response response = distributorsApi.getWarehouses(distributorId);
+        List<String> codes = new ArrayList<>();
+        List<Warehouse> listed = response.getStatusCode() == 200
+                ? BaseApiClient.readDataList(response, Warehouse.class) : null;
+        if (listed != null) {
+            listed.stream().filter(Warehouse::isActive).forEach(warehouse -> codes.add(warehouse.getWarehouseCode()));
+        }
+        if (codes.isEmpty()) {
+            codes.add(null);
+        }
+        return Collections.unmodifiableList(codes);
+    }
+}
@@ -1,10 +1,14 @@
 package com.dif.api.client;
 
 import com.dif.api.models.request.PlaceOrderRequest;
+import com.dif.api.models.response.OrderDetail;
+import com.dif.api.polling.PollingScheduler;
 import io.restassured.response.Response;
 
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * API client for Orders endpoints.
@@ -96,4 +100,33 @@ public class OrdersApiClient extends BaseApiClient {
     public Response getOrderByDistributorId(String distributorOrderId) {
         return get(ORDER_BY_DISTRIBUTOR_ID_PATH, distributorOrderId);
     }
+    
+    /**
+     * Polls GET /api/orders/{orderId} until the order reaches a status, charging polls to the order's distributor.
+     * @param orderId Order ID (GUID)
+     * @param status Awaited status (e.g., "Shipped")
+     * @param deadline Time to give up at
+     * @return Future completed with the order once it has the status
+     */
+    public CompletableFuture<OrderDetail> awaitOrderStatusAsync(String orderId, String status, Instant deadline) {
+        return PollingScheduler.getShared().await("order " + orderId + " to reach status " + status,
+                () -> getOrder(orderId),
+                response -> response.getStatusCode() == 200 ? readData(response, OrderDetail.class) : null,
+                order -> status.equalsIgnoreCase(order.getStatus()),
+                null,
+                OrderDetail::getDistributorId,
+                deadline);
+    }
+    
+    /**
+     * Waits until an order reaches a status.
+     * @param orderId Order ID (GUID)
+     * @param status Awaited status (e.g., "Shipped")
+     * @param deadline Time to give up at
+     * @return Order with the status
+     * @throws com.dif.api.polling.AwaitTimeoutException if the status is not reached by the deadline
+     */
+    public OrderDetail awaitOrderStatus(String orderId, String status, Instant deadline) {
+        return PollingScheduler.join(awaitOrderStatusAsync(orderId, status, deadline));
+    }
 }
@@ -59,6 +59,16 @@ public class ProductsApiClient extends BaseApiClient {
         return get(PRODUCT_BY_SKU_PATH, sku);
     }
     
+    /**
+     * GET /api/products/{sku}?distributorId= - Get one distributor's product by SKU.
+     * @param sku Product SKU
+     * @param distributorId Distributor ID
+     * @return Response with product details
+     */
+    public Response getProductBySku(String sku, String distributorId) {
+        return getWithQueryParams(PRODUCT_BY_SKU_PATH, Map.of("distributorId", distributorId), sku);
+    }
+    
     /**
      * GET /api/products/{sku}/inventory - Get inventory for a specific SKU.
      * @param sku Product SKU
@@ -68,6 +78,16 @@ public class ProductsApiClient extends BaseApiClient {
         return get(INVENTORY_PATH, sku);
     }
     
+    /**
+     * GET /api/products/{sku}/inventory?distributorId= - Get one distributor's inventory for a SKU.
+     * @param sku Product SKU
+     * @param distributorId Distributor ID
+     * @return Response with inventory data across the distributor's warehouses
+     */
+    public Response getInventory(String sku, String distributorId) {
+        return getWithQueryParams(INVENTORY_PATH, Map.of("distributorId", distributorId), sku);
+    }
+    
     /**
      * GET /api/products/inventory/batch - Get batch inventory for multiple SKUs.
      * @param skus List of SKUs to get inventory for
@@ -1,8 +1,14 @@
 package com.dif.api.client;
 
 import com.dif.api.models.request.TrackingUpdateRequest;
+import com.dif.api.models.response.DeliveryConfirmation;
+import com.dif.api.models.response.TrackingDetail;
+import com.dif.api.polling.PollingScheduler;
 import io.restassured.response.Response;
 
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * API client for Tracking endpoints.
  * Provides methods to interact with /api/tracking/* endpoints.
@@ -78,4 +84,64 @@ public class TrackingApiClient extends BaseApiClient {
     public Response getMisshipments() {
         return get(MISSHIPMENTS_PATH);
     }
+    
+    /**
+     * Polls GET /api/tracking/shipment/{trackingNumber} until the shipment reaches a status,
+     * charging polls to the shipment's distributor.
+     * @param trackingNumber Carrier tracking number
+     * @param status Awaited status (e.g., "Delivered")
+     * @param deadline Time to give up at
+     * @return Future completed with the shipment once it has the status
+     */
+    public CompletableFuture<TrackingDetail> awaitShipmentStatusAsync(String trackingNumber, String status, Instant deadline) {
+        return PollingScheduler.getShared().await("shipment " + trackingNumber + " to reach status " + status,
+                () -> getTrackingByNumber(trackingNumber),
+                response -> response.getStatusCode() == 200 ? readData(response, TrackingDetail.class) : null,
+                shipment -> status.equalsIgnoreCase(shipment.getCurrentStatus()),
+                null,
+                TrackingDetail::getDistributorId,
+                deadline);
+    }
+    
+    /**
+     * Waits until a shipment reaches a status.
+     * @param trackingNumber Carrier tracking number
+     * @param status Awaited status (e.g., "Delivered")
+     * @param deadline Time to give up at
+     * @return Shipment with the status
+     * @throws com.dif.api.polling.AwaitTimeoutException if the status is not reached by the deadline
+     */
+    public TrackingDetail awaitShipmentStatus(String trackingNumber, String status, Instant deadline) {
+        return PollingScheduler.join(awaitShipmentStatusAsync(trackingNumber, status, deadline));
+    }
+    
+    /**
+     * Polls GET /api/tracking/{orderId}/delivery-confirmation until a confirmation appears.
+     * @param orderId Order ID (GUID)
+     * @param distributorId Distributor of the order, whose rate limit polls are charged to
+     * @param deadline Time to give up at
+     * @return Future completed with the delivery confirmation
+     */
+    public CompletableFuture<DeliveryConfirmation> awaitDeliveryConfirmationAsync(String orderId, String distributorId,
+                                                                                  Instant deadline) {
+        return PollingScheduler.getShared().await("delivery confirmation of order " + orderId,
+                () -> getDeliveryConfirmation(orderId),
+                response -> response.getStatusCode() == 200 ? readData(response, DeliveryConfirmation.class) : null,
+                confirmation -> true,
+                distributorId,
+                confirmation -> null,
+                deadline);
+    }
+    
+    /**
+     * Waits until a delivery confirmation appears for an order.
+     * @param orderId Order ID (GUID)
+     * @param distributorId Distributor of the order
+     * @param deadline Time to give up at
+     * @return Delivery confirmation
+     * @throws com.dif.api.polling.AwaitTimeoutException if no confirmation appears by the deadline
+     */
+    public DeliveryConfirmation awaitDeliveryConfirmation(String orderId, String distributorId, Instant deadline) {
+        return PollingScheduler.join(awaitDeliveryConfirmationAsync(orderId, distributorId, deadline));
+    }
 }
@@ -2,6 +2,7 @@ package com.dif.api.config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.Properties;
 
 /**
@@ -69,6 +70,727 @@ public class ApiConfig {
         return getProperty("default.distributor.id", "ss");
     }
     
+    /**
+     * Checks if a JDK Flight Recorder recording should be started for each suite.
+     * @return true if JFR recording is enabled
+     */
+    public static boolean isJfrRecordingEnabled() {
+        return Boolean.parseBoolean(getProperty("jfr.recording.enabled", "false"));
+    }
+    
+    /**
+     * Gets the JFR settings used for the suite recording.
+     * @return Settings name ("default" or "profile")
+     */
+    public static String getJfrSettings() {
+        return getProperty("jfr.settings", "profile");
+    }
+    
+    /**
+     * Gets how long recorded JFR data is retained, in minutes.
+     * @return Maximum recording age in minutes
+     */
+    public static int getJfrMaxAgeMinutes() {
+        return Integer.parseInt(getProperty("jfr.max.age.minutes", "30"));
+    }
+    
+    /**
+     * Gets the directory JFR recordings and snapshots are written to.
+     * @return Dump directory path
+     */
+    public static String getJfrDumpDirectory() {
+        return getProperty("jfr.dump.directory", "target/jfr");
+    }
+    
+    /**
+     * Gets the latency above which a request is considered slow.
+     * @return Slow request threshold in milliseconds
+     */
+    public static long getSlowRequestThresholdMs() {
+        return Long.parseLong(getProperty("jfr.slow.request.threshold.ms", "2000"));
+    }
+    
+    /**
+     * Gets the minimum interval between two slow request snapshots.
+     * @return Minimum snapshot interval in milliseconds
+     */
+    public static long getJfrSnapshotMinIntervalMs() {
+        return Long.parseLong(getProperty("jfr.snapshot.min.interval.ms", "10000"));
+    }
+    
+    /**
+     * Gets the maximum number of slow request snapshots written per run.
+     * @return Maximum snapshot count
+     */
+    public static int getJfrMaxSnapshots() {
+        return Integer.parseInt(getProperty("jfr.max.snapshots", "5"));
+    }
+    
+    /**
+     * Checks if per-call allocation accounting is enabled.
+     * @return true if allocation tracking is enabled
+     */
+    public static boolean isAllocationTrackingEnabled() {
+        return Boolean.parseBoolean(getProperty("alloc.tracking.enabled", "false"));
+    }
+    
+    /**
+     * Gets the file the allocation ranking report is written to at the end of a suite.
+     * @return Report file path
+     */
+    public static String getAllocationReportFile() {
+        return getProperty("alloc.report.file", "target/reports/allocations.txt");
+    }
+    
+    /**
+     * Checks if per-phase timing (acquire, connect, write, TTFB, body read) is enabled.
+     * @return true if phase timing is enabled
+     */
+    public static boolean isPhaseTimingEnabled() {
+        return Boolean.parseBoolean(getProperty("phase.timing.enabled", "false"));
+    }
+    
+    /**
+     * Gets the file the phase timing report is written to at the end of a suite.
+     * @return Report file path
+     */
+    public static String getPhaseReportFile() {
+        return getProperty("phase.report.file", "target/reports/phase-timings.txt");
+    }
+    
+    /**
+     * Checks if the in-JVM stub API server should be started before the suite.
+     * @return true if the stub server is enabled
+     */
+    public static boolean isStubServerEnabled() {
+        return Boolean.parseBoolean(getProperty("stub.server.enabled", "false"));
+    }
+    
+    /**
+     * Gets the port of the stub API server, taken from base.url unless stub.server.port is set.
+     * @return Port number
+     */
+    public static int getStubServerPort() {
+        int urlPort = java.net.URI.create(getBaseUrl()).getPort();
+        return Integer.parseInt(getProperty("stub.server.port", String.valueOf(urlPort > 0 ? urlPort : 5000)));
+    }
+    
+    /**
+     * Gets the number of stub server worker threads.
+     * @return Thread count
+     */
+    public static int getStubWorkerThreads() {
+        return Integer.parseInt(getProperty("stub.server.threads", "32"));
+    }
+    
+    /**
+     * Gets the seed the stub dataset is generated from.
+     * @return Seed
+     */
+    public static long getStubSeed() {
+        return Long.parseLong(getProperty("stub.seed", "42"));
+    }
+    
+    /**
+     * Gets the number of products in the generated stub catalog.
+     * @return Product count
+     */
+    public static long getStubProductCount() {
+        return Long.parseLong(getProperty("stub.products.count", "1000000"));
+    }
+    
+    /**
+     * Gets the number of seeded orders in the stub dataset.
+     * @return Order count
+     */
+    public static long getStubOrderCount() {
+        return Long.parseLong(getProperty("stub.orders.count", "1000000"));
+    }
+    
+    /**
+     * Gets how many seeded shipments the stub exposes to the pending, misshipment and batch update routes.
+     * @return Active shipment window
+     */
+    public static int getStubTrackingWindow() {
+        return Integer.parseInt(getProperty("stub.tracking.window", "1000"));
+    }
+    
+    /**
+     * Checks if the stub rejects order placement over 60 requests per minute per distributor with 429.
+     * @return true if rate limits are enforced
+     */
+    public static boolean isStubRateLimitEnforced() {
+        return Boolean.parseBoolean(getProperty("stub.rate.limit.enforced", "false"));
+    }
+    
+    /**
+     * Checks if the stub writes the orders it places into the JDBC database (see db.connection.string).
+     * @return true if placed orders are mirrored to the database
+     */
+    public static boolean isStubDatabaseMirrorEnabled() {
+        return Boolean.parseBoolean(getProperty("stub.database.mirror", "false"));
+    }
+    
+    /**
+     * Gets the latency distribution spec of a stub route (e.g., "lognormal:20:0.6").
+     * @param route Route name (e.g., "orders.place")
+     * @return Latency spec
+     */
+    public static String getStubLatency(String route) {
+        return getProperty("stub.latency." + route, getProperty("stub.latency.default", "none"));
+    }
+    
+    /**
+     * Gets the injected error rate of a stub route.
+     * @param route Route name
+     * @return Error rate between 0 and 1
+     */
+    public static double getStubErrorRate(String route) {
+        return Double.parseDouble(getProperty("stub.error.rate." + route, getProperty("stub.error.rate.default", "0")));
+    }
+    
+    /**
+     * Gets the HTTP status returned for injected errors on a stub route.
+     * @param route Route name
+     * @return HTTP status code
+     */
+    public static int getStubErrorStatus(String route) {
+        return Integer.parseInt(getProperty("stub.error.status." + route, getProperty("stub.error.status.default", "500")));
+    }
+    
+    /**
+     * Gets the traffic archive mode: off, record or replay.
+     * @return Traffic mode
+     */
+    public static String getTrafficMode() {
+        return getProperty("traffic.mode", "off").trim().toLowerCase();
+    }
+    
+    /**
+     * Gets the file API traffic is recorded to and replayed from.
+     * @return Archive file path
+     */
+    public static String getTrafficArchiveFile() {
+        return getProperty("traffic.archive.file", "target/traffic/api-traffic.dta");
+    }
+    
+    /**
+     * Gets the initial mapped size of a new traffic archive.
+     * @return Initial size in megabytes
+     */
+    public static int getTrafficArchiveInitialSizeMb() {
+        return Integer.parseInt(getProperty("traffic.archive.initial.size.mb", "16"));
+    }
+    
+    /**
+     * Gets the request body fields left out of traffic archive keys (generated values such as PO numbers).
+     * @return Ignored field names
+     */
+    public static String[] getTrafficKeyIgnoredFields() {
+        return getProperty("traffic.key.ignored.fields", "poNumber,emailConfirmation").split("\\s*,\\s*");
+    }
+    
+    /**
+     * Checks if replay forwards requests missing from the archive to the real API.
+     * @return true if unrecorded requests pass through
+     */
+    public static boolean isTrafficReplayPassthrough() {
+        return Boolean.parseBoolean(getProperty("traffic.replay.passthrough", "false"));
+    }
+    
+    /**
+     * Gets the number of orders the fixture pool places per distributor and line-mix profile.
+     * @return Orders per profile
+     */
+    public static int getFixturePoolOrdersPerProfile() {
+        return Integer.parseInt(getProperty("fixture.pool.orders.per.profile", "3"));
+    }
+    
+    /**
+     * Gets the number of threads the fixture pool places orders with.
+     * @return Placement threads
+     */
+    public static int getFixturePoolThreads() {
+        return Integer.parseInt(getProperty("fixture.pool.threads", "8"));
+    }
+    
+    /**
+     * Checks if test methods are ordered longest-first using recorded durations.
+     * @return true if the longest-first scheduler is enabled
+     */
+    public static boolean isTestSchedulerEnabled() {
+        return Boolean.parseBoolean(getProperty("test.scheduler.enabled", "true"));
+    }
+    
+    /**
+     * Gets the file per-test durations are kept in between runs (outside target so it survives mvn clean).
+     * @return History file path
+     */
+    public static String getTestDurationHistoryFile() {
+        return getProperty("test.scheduler.history.file", ".test-history/test-durations.json");
+    }
+    
+    /**
+     * Gets the weight of the newest run when smoothing recorded test durations.
+     * @return Smoothing factor between 0 and 1
+     */
+    public static double getTestDurationSmoothing() {
+        return Double.parseDouble(getProperty("test.scheduler.smoothing", "0.3"));
+    }
+    
+    /**
+     * Gets the sustained requests per minute client-side helpers allow themselves for a distributor,
+     * from client.rate.limit.{distributorId}.requests.per.minute or the shared default.
+     * @param distributorId Distributor ID (lower case)
+     * @return Requests per minute
+     */
+    public static int getClientRateLimitRequestsPerMinute(String distributorId) {
+        String fallback = getProperty("client.rate.limit.requests.per.minute", "60");
+        return Integer.parseInt(getProperty("client.rate.limit." + distributorId + ".requests.per.minute", fallback));
+    }
+    
+    /**
+     * Gets the requests per distributor client-side helpers may send back to back after being idle.
+     * @return Burst size
+     */
+    public static int getClientRateLimitBurst() {
+        return Integer.parseInt(getProperty("client.rate.limit.burst", "10"));
+    }
+    
+    /**
+     * Gets the interval between awaiting polls after the first poll and after every observed change.
+     * @return Initial poll interval in milliseconds
+     */
+    public static long getAwaitPollInitialMs() {
+        return Long.parseLong(getProperty("await.poll.initial.ms", "100"));
+    }
+    
+    /**
+     * Gets the longest interval between awaiting polls.
+     * @return Maximum poll interval in milliseconds
+     */
+    public static long getAwaitPollMaxMs() {
+        return Long.parseLong(getProperty("await.poll.max.ms", "2000"));
+    }
+    
+    /**
+     * Gets the growth of the awaiting poll interval while the observed state does not change.
+     * @return Interval multiplier
+     */
+    public static double getAwaitPollMultiplier() {
+        return Double.parseDouble(getProperty("await.poll.multiplier", "1.5"));
+    }
+    
+    /**
+     * Gets the number of threads sending awaiting polls.
+     * @return Poller threads
+     */
+    public static int getAwaitPollThreads() {
+        return Integer.parseInt(getProperty("await.poll.threads", "4"));
+    }
+    
+    /**
+     * Checks if DatabaseHelper queries the database over JDBC instead of going through the REST API.
+     * @return true if db.backend is jdbc
+     */
+    public static boolean isDatabaseJdbcBackend() {
+        return "jdbc".equalsIgnoreCase(getProperty("db.backend", "api"));
+    }
+    
+    /**
+     * Gets the JDBC URL of the DIF database; defaults to the embedded H2 stand-in.
+     * @return JDBC URL
+     */
+    public static String getDbConnectionString() {
+        return getProperty("db.connection.string", "jdbc:h2:mem:dif;DB_CLOSE_DELAY=-1");
+    }
+    
+    public static String getDbUsername() {
+        return getProperty("db.username", "sa");
+    }
+    
+    public static String getDbPassword() {
+        return getProperty("db.password", "");
+    }
+    
+    /**
+     * Gets the JDBC query timeout.
+     * @return Timeout in seconds
+     */
+    public static int getDbQueryTimeout() {
+        return Integer.parseInt(getProperty("db.query.timeout", "30"));
+    }
+    
+    /**
+     * Gets the maximum number of pooled JDBC connections.
+     * @return Pool size
+     */
+    public static int getDbPoolSize() {
+        return Integer.parseInt(getProperty("db.pool.size", "8"));
+    }
+    
+    /**
+     * Gets the number of prepared statements cached per pooled connection.
+     * @return Statement cache size
+     */
+    public static int getDbStatementCacheSize() {
+        return Integer.parseInt(getProperty("db.statement.cache.size", "64"));
+    }
+    
+    /**
+     * Gets the most order IDs bound into one IN (...) query.
+     * @return IN list batch size
+     */
+    public static int getDbInBatchSize() {
+        return Integer.parseInt(getProperty("db.in.batch.size", "100"));
+    }
+    
+    /**
+     * Gets the number of order lookups bulk DatabaseHelper queries run at once.
+     * @return Bulk query parallelism
+     */
+    public static int getDbBulkParallelism() {
+        return Integer.parseInt(getProperty("db.bulk.parallelism", "8"));
+    }
+    
+    /**
+     * Gets the number of order IDs timed together as one batch by bulk queries on the API backend
+     * (the JDBC backend batches by db.in.batch.size).
+     * @return Bulk batch size
+     */
+    public static int getDbBulkBatchSize() {
+        return Integer.parseInt(getProperty("db.bulk.batch.size", "50"));
+    }
+    
+    /**
+     * Gets the number of TrackingDetail fetches the tracking change feed runs at once.
+     * @return Detail fetch threads
+     */
+    public static int getTrackingFeedFetchThreads() {
+        return Integer.parseInt(getProperty("tracking.feed.fetch.threads", "4"));
+    }
+    
+    /**
+     * Gets the number of orders in the first POST /api/tracking/update chunk of a bulk refresh.
+     * @return Initial chunk size
+     */
+    public static int getTrackingRefreshChunkSize() {
+        return Integer.parseInt(getProperty("tracking.refresh.chunk.size", "100"));
+    }
+    
+    /**
+     * Gets the smallest chunk a bulk refresh shrinks to after failures.
+     * @return Minimum chunk size
+     */
+    public static int getTrackingRefreshMinChunkSize() {
+        return Integer.parseInt(getProperty("tracking.refresh.chunk.min", "10"));
+    }
+    
+    /**
+     * Gets the largest chunk a bulk refresh grows to.
+     * @return Maximum chunk size
+     */
+    public static int getTrackingRefreshMaxChunkSize() {
+        return Integer.parseInt(getProperty("tracking.refresh.chunk.max", "1000"));
+    }
+    
+    /**
+     * Gets the latency bulk refresh chunk sizes are tuned toward.
+     * @return Target chunk latency in milliseconds
+     */
+    public static long getTrackingRefreshChunkTargetMs() {
+        return Long.parseLong(getProperty("tracking.refresh.chunk.target.ms", "2000"));
+    }
+    
+    /**
+     * Gets the number of chunks a bulk refresh keeps in flight per distributor.
+     * @return Concurrent chunks per distributor
+     */
+    public static int getTrackingRefreshConcurrencyPerDistributor() {
+        return Integer.parseInt(getProperty("tracking.refresh.concurrency.per.distributor", "2"));
+    }
+    
+    /**
+     * Gets how many times an order is sent before a bulk refresh gives up on it.
+     * @return Attempts per order
+     */
+    public static int getTrackingRefreshMaxAttempts() {
+        return Integer.parseInt(getProperty("tracking.refresh.max.attempts", "3"));
+    }
+    
+    /**
+     * Gets the bulk refresh checkpoint file (outside target so an interrupted refresh survives mvn clean).
+     * @return Checkpoint file path
+     */
+    public static String getTrackingRefreshCheckpointFile() {
+        return getProperty("tracking.refresh.checkpoint.file", ".tracking-refresh/checkpoint.jsonl");
+    }
+    
+    /**
+     * Gets the number of orders the misshipment detector fetches and checks at once (default two per core).
+     * @return Detector parallelism
+     */
+    public static int getMisshipmentParallelism() {
+        return Integer.parseInt(getProperty("misshipment.parallelism",
+                String.valueOf(Runtime.getRuntime().availableProcessors() * 2)));
+    }
+    
+    /**
+     * Gets the number of orders the misshipment detector pulls from its source before earlier ones are checked.
+     * @return Orders in flight
+     */
+    public static int getMisshipmentMaxInFlight() {
+        return Integer.parseInt(getProperty("misshipment.max.in.flight", "256"));
+    }
+    
+    /**
+     * Gets the largest weight difference the misshipment detector does not treat as a mismatch.
+     * @return Weight tolerance in lbs
+     */
+    public static BigDecimal getMisshipmentWeightTolerance() {
+        return new BigDecimal(getProperty("misshipment.weight.tolerance", "0.01"));
+    }
+    
+    /**
+     * Gets the number of threads a bulk tracking lookup runs lookups on.
+     * @return Lookup threads
+     */
+    public static int getLookupThreads() {
+        return Integer.parseInt(getProperty("lookup.threads", "8"));
+    }
+    
+    /**
+     * Gets the number of tracking numbers a bulk lookup reads ahead of its sink.
+     * @return Lookups in flight
+     */
+    public static int getLookupMaxInFlight() {
+        return Integer.parseInt(getProperty("lookup.max.in.flight", "64"));
+    }
+    
+    /**
+     * Gets the number of results a bulk lookup queues for a slow sink before lookups block.
+     * @return Sink queue capacity
+     */
+    public static int getLookupSinkQueueCapacity() {
+        return Integer.parseInt(getProperty("lookup.sink.queue.capacity", "32"));
+    }
+    
+    /**
+     * Gets how long a bulk lookup remembers tracking numbers and confirmations that returned 404.
+     * @return Negative cache lifetime in seconds
+     */
+    public static long getLookupNegativeCacheTtlSeconds() {
+        return Long.parseLong(getProperty("lookup.negative.cache.ttl.seconds", "600"));
+    }
+    
+    /**
+     * Gets how long a memoized shipping estimate is served before it is fetched again.
+     * @return Freshness window in seconds
+     */
+    public static long getShippingQuoteTtlSeconds() {
+        return Long.parseLong(getProperty("shipping.quote.ttl.seconds", "300"));
+    }
+    
+    /**
+     * Gets the number of leading destination ZIP digits that identify a shipping zone in quote keys.
+     * @return ZIP prefix length
+     */
+    public static int getShippingQuoteZipPrefixLength() {
+        return Integer.parseInt(getProperty("shipping.quote.zip.prefix.length", "3"));
+    }
+    
+    /**
+     * Gets the number of shipping quote lanes kept in the cache.
+     * @return Maximum cached lanes
+     */
+    public static int getShippingQuoteMaxEntries() {
+        return Integer.parseInt(getProperty("shipping.quote.max.entries", "10000"));
+    }
+    
+    /**
+     * Gets the fraction of the freshness window after which warming re-fetches a lane.
+     * @return Refresh fraction between 0 and 1
+     */
+    public static double getShippingQuoteRefreshFraction() {
+        return Double.parseDouble(getProperty("shipping.quote.warm.refresh.fraction", "0.8"));
+    }
+    
+    /**
+     * Gets the number of most requested lanes the background warmer keeps fresh.
+     * @return Lanes warmed per pass
+     */
+    public static int getShippingQuoteWarmTop() {
+        return Integer.parseInt(getProperty("shipping.quote.warm.top", "50"));
+    }
+    
+    /**
+     * Gets the delay between background warming passes.
+     * @return Interval in seconds
+     */
+    public static long getShippingQuoteWarmIntervalSeconds() {
+        return Long.parseLong(getProperty("shipping.quote.warm.interval.seconds", "60"));
+    }
+    
+    /**
+     * Gets the number of distributor warehouse lanes rate shopping quotes at once.
+     * @return Rate shopping threads
+     */
+    public static int getRateShopThreads() {
+        return Integer.parseInt(getProperty("rate.shop.threads", "16"));
+    }
+    
+    /**
+     * Gets how long the shared active distributor and warehouse lists are reused.
+     * @return Topology lifetime in seconds
+     */
+    public static long getDistributorTopologyTtlSeconds() {
+        return Long.parseLong(getProperty("distributor.topology.ttl.seconds", "600"));
+    }
+    
+    /**
+     * Gets the file the precomputed shipping rate matrix is written to and read from.
+     * @return Rate matrix file path
+     */
+    public static String getRateMatrixFile() {
+        return getProperty("rate.matrix.file", ".rate-matrix/rates.bin");
+    }
+    
+    /**
+     * Gets the first three-digit destination ZIP prefix the rate matrix covers.
+     * @return First ZIP prefix
+     */
+    public static int getRateMatrixFirstZipPrefix() {
+        return Integer.parseInt(getProperty("rate.matrix.zip.prefix.first", "0"));
+    }
+    
+    /**
+     * Gets the last three-digit destination ZIP prefix the rate matrix covers.
+     * @return Last ZIP prefix
+     */
+    public static int getRateMatrixLastZipPrefix() {
+        return Integer.parseInt(getProperty("rate.matrix.zip.prefix.last", "999"));
+    }
+    
+    /**
+     * Gets the smaller cart size the rate matrix quotes to fit per-unit rates.
+     * @return Units of the first estimate
+     */
+    public static int getRateMatrixLowUnits() {
+        return Integer.parseInt(getProperty("rate.matrix.units.low", "1"));
+    }
+    
+    /**
+     * Gets the larger cart size the rate matrix quotes to fit per-unit rates.
+     * @return Units of the second estimate
+     */
+    public static int getRateMatrixHighUnits() {
+        return Integer.parseInt(getProperty("rate.matrix.units.high", "100"));
+    }
+    
+    /**
+     * Gets the SKU the rate matrix estimates are requested for.
+     * @return SKU
+     */
+    public static String getRateMatrixSku() {
+        return getProperty("rate.matrix.sku", "G500-BLA-M");
+    }
+    
+    /**
+     * Gets how many rate matrix requests run at once per distributor.
+     * @return Concurrent requests per distributor
+     */
+    public static int getRateMatrixConcurrencyPerDistributor() {
+        return Integer.parseInt(getProperty("rate.matrix.concurrency.per.distributor", "2"));
+    }
+    
+    /**
+     * Gets how often a failed rate matrix row is tried before it is left empty.
+     * @return Attempts per row
+     */
+    public static int getRateMatrixMaxAttempts() {
+        return Integer.parseInt(getProperty("rate.matrix.max.attempts", "3"));
+    }
+    
+    /**
+     * Gets how many SKUs the inventory index requests per batch inventory call.
+     * @return SKUs per request
+     */
+    public static int getInventoryIndexBatchSize() {
+        return Integer.parseInt(getProperty("inventory.index.batch.size", "100"));
+    }
+    
+    /**
+     * Gets how many batch inventory requests the inventory index runs at once.
+     * @return Fetch threads
+     */
+    public static int getInventoryIndexFetchThreads() {
+        return Integer.parseInt(getProperty("inventory.index.fetch.threads", "4"));
+    }
+    
+    /**
+     * Gets how many known SKUs one incremental inventory index refresh re-fetches.
+     * @return SKUs per refresh
+     */
+    public static int getInventoryIndexRefreshSkusPerTick() {
+        return Integer.parseInt(getProperty("inventory.index.refresh.skus.per.tick", "1000"));
+    }
+    
+    /**
+     * Gets the delay between background inventory index refreshes.
+     * @return Refresh interval in seconds
+     */
+    public static long getInventoryIndexRefreshIntervalSeconds() {
+        return Long.parseLong(getProperty("inventory.index.refresh.interval.seconds", "30"));
+    }
+    
+    /**
+     * Gets how many product pages the catalog loader fetches at once.
+     * @return Loader threads
+     */
+    public static int getCatalogLoadThreads() {
+        return Integer.parseInt(getProperty("catalog.load.threads", "4"));
+    }
+    
+    /**
+     * Gets the page size the catalog loader requests (the API allows up to 100).
+     * @return Products per page
+     */
+    public static int getCatalogLoadPageSize() {
+        return Integer.parseInt(getProperty("catalog.load.page.size", "100"));
+    }
+    
+    /**
+     * Gets the most products the catalog loader fetches, 0 for no limit.
+     * @return Product cap
+     */
+    public static int getCatalogLoadMaxProducts() {
+        return Integer.parseInt(getProperty("catalog.load.max.products", "0"));
+    }
+    
+    /**
+     * Gets the memory-mapped catalog snapshot file.
+     * @return Snapshot path, relative to the working directory unless absolute
+     */
+    public static String getCatalogSnapshotFile() {
+        return getProperty("catalog.snapshot.file", ".catalog/snapshot.bin");
+    }
+    
+    /**
+     * Gets the delay between background catalog snapshot syncs.
+     * @return Interval in seconds
+     */
+    public static int getCatalogSnapshotSyncIntervalSeconds() {
+        return Integer.parseInt(getProperty("catalog.snapshot.sync.interval.seconds", "300"));
+    }
+    
+    /**
+     * Gets how many product and inventory requests a scatter-gather product lookup runs at once.
+     * @return Lookup threads
+     */
+    public static int getProductLookupThreads() {
+        return Integer.parseInt(getProperty("product.lookup.threads", "16"));
+    }
+    
     /**
      * Gets a property value with a default fallback.
      * @param key Property key
@@ -0,0 +1,21 @@
+package com.dif.api.db;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Timing and outcome counts of one batch of a bulk query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTiming {
+    
+    private int batch;
+    private int size;
+    private int found;
+    private int missing;
+    private int failed;
+    private double elapsedMillis;
+}
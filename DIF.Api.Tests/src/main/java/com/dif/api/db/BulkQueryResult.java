@@ -0,0 +1,79 @@
+package com.dif.api.db;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Outcome of a bulk query over many order IDs. Every requested ID ends up in exactly one of
+ * {@link #getRows()}, {@link #getMissing()} or {@link #getFailures()}, so a failed lookup is
+ * never mistaken for an order that does not exist.
+ * @param <T> Row type
+ */
+public class BulkQueryResult<T> {
+    
+    private final Map<String, T> rows;
+    private final Set<String> missing;
+    private final Map<String, Exception> failures;
+    private final List<BatchTiming> batchTimings;
+    private final double elapsedMillis;
+    
+    public BulkQueryResult(Map<String, T> rows, Set<String> missing, Map<String, Exception> failures,
+                           List<BatchTiming> batchTimings, double elapsedMillis) {
+        this.rows = Collections.unmodifiableMap(rows);
+        this.missing = Collections.unmodifiableSet(missing);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.batchTimings = Collections.unmodifiableList(batchTimings);
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    /**
+     * Gets the rows found, keyed by order ID in request order.
+     * @return Rows by order ID
+     */
+    public Map<String, T> getRows() {
+        return rows;
+    }
+    
+    /**
+     * Gets the IDs that were queried successfully but have no row.
+     * @return Missing order IDs
+     */
+    public Set<String> getMissing() {
+        return missing;
+    }
+    
+    /**
+     * Gets the IDs whose query failed, with the failure.
+     * @return Failures by order ID
+     */
+    public Map<String, Exception> getFailures() {
+        return failures;
+    }
+    
+    public List<BatchTiming> getBatchTimings() {
+        return batchTimings;
+    }
+    
+    public double getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    /**
+     * Checks if every requested ID was found.
+     * @return true if nothing is missing or failed
+     */
+    public boolean isComplete() {
+        return missing.isEmpty() && failures.isEmpty();
+    }
+    
+    /**
+     * Streams the rows found in request order.
+     * @return Stream of order ID to row entries
+     */
+    public Stream<Map.Entry<String, T>> stream() {
+        return rows.entrySet().stream();
+    }
+}
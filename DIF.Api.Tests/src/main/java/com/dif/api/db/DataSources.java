@@ -0,0 +1,80 @@
+package com.dif.api.db;
+
+import com.dif.api.config.ApiConfig;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Shared pooled DataSource for the DIF database, configured from db.* settings.
+ * Pooled connections cache their prepared statements, so repeated queries skip parsing and planning.
+ * An embedded H2 URL gets the stand-in schema (Orders, OrderCosts, OrderLineItems) on first use.
+ */
+public final class DataSources {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DataSources.class);
+    private static final String H2_SCHEMA = "classpath:/db/h2-schema.sql";
+    private static BasicDataSource shared;
+    
+    private DataSources() {
+        // Utility class
+    }
+    
+    /**
+     * Gets the shared DataSource, creating the pool on first use.
+     * @return Pooled DataSource
+     * @throws IllegalStateException if the H2 stand-in schema cannot be created
+     */
+    public static synchronized DataSource getShared() {
+        if (shared == null) {
+            BasicDataSource dataSource = new BasicDataSource();
+            dataSource.setUrl(ApiConfig.getDbConnectionString());
+            dataSource.setUsername(ApiConfig.getDbUsername());
+            dataSource.setPassword(ApiConfig.getDbPassword());
+            dataSource.setMaxTotal(ApiConfig.getDbPoolSize());
+            dataSource.setMaxIdle(ApiConfig.getDbPoolSize());
+            dataSource.setDefaultQueryTimeout(Duration.ofSeconds(ApiConfig.getDbQueryTimeout()));
+            dataSource.setPoolPreparedStatements(true);
+            dataSource.setMaxOpenPreparedStatements(ApiConfig.getDbStatementCacheSize());
+            if (isH2(dataSource.getUrl())) {
+                createH2Schema(dataSource);
+            }
+            logger.info("Opened JDBC pool for {} (max {} connections)", dataSource.getUrl(), dataSource.getMaxTotal());
+            shared = dataSource;
+        }
+        return shared;
+    }
+    
+    /**
+     * Closes the shared pool if it was opened.
+     */
+    public static synchronized void close() {
+        if (shared != null) {
+            try {
+                shared.close();
+            } catch (SQLException e) {
+                logger.warn("Failed to close JDBC pool: {}", e.getMessage());
+            }
+            shared = null;
+        }
+    }
+    
+    private static boolean isH2(String url) {
+        return url != null && url.startsWith("jdbc:h2:");
+    }
+    
+    private static void createH2Schema(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM '" + H2_SCHEMA + "'");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to create the H2 stand-in schema from " + H2_SCHEMA, e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.dif.api.db;
+
+import com.dif.api.config.ApiConfig;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order queries against the DIF database, returning rows in the same map shape as {@code DatabaseHelper}.
+ * <p>
+ * Many orders are fetched with {@code IN (...)} queries of at most db.in.batch.size ids. Each batch is
+ * padded to the next power of two by repeating its last id, so only a handful of distinct statements
+ * exist and all of them stay in the pool's prepared statement cache.
+ */
+public class JdbcOrderQueries {
+    
+    private static final String ORDER_COLUMNS = "o.OrderId, o.DistributorOrderId, o.PoNumber, o.DistributorId, o.Status, "
+            + "o.WarehouseCode, o.WarehouseName, o.OrderTimestamp, o.ExpectedDeliveryDate, "
+            + "c.Subtotal, c.Shipping, c.Tax, c.SmallOrderFee, c.Total";
+    private static final String ORDERS_SQL = "SELECT " + ORDER_COLUMNS
+            + " FROM Orders o LEFT JOIN OrderCosts c ON c.OrderId = o.OrderId WHERE o.OrderId IN ";
+    private static final String COSTS_SQL = "SELECT OrderId, Subtotal, Shipping, Tax, SmallOrderFee, Total"
+            + " FROM OrderCosts WHERE OrderId IN ";
+    private static final String LINE_ITEMS_SQL = "SELECT OrderId, Sku, Gtin, Quantity, QuantityShipped, Price, LineTotal,"
+            + " StyleCode, Color, Size FROM OrderLineItems WHERE OrderId IN ";
+    private static final String LINE_ITEMS_ORDER_BY = " ORDER BY OrderId, LineNumber";
+    
+    private static JdbcOrderQueries shared;
+    
+    private final DataSource dataSource;
+    private final int batchSize;
+    
+    @FunctionalInterface
+    private interface RowReader<T> {
+        T read(ResultSet resultSet) throws SQLException;
+    }
+    
+    @FunctionalInterface
+    private interface Collector<R, T> {
+        void add(Map<String, R> byId, T row);
+    }
+    
+    /**
+     * @param dataSource Pooled DataSource
+     * @param batchSize Most order ids per IN query
+     */
+    public JdbcOrderQueries(DataSource dataSource, int batchSize) {
+        this.dataSource = dataSource;
+        this.batchSize = Math.max(1, batchSize);
+    }
+    
+    /**
+     * Gets the queries over the shared DataSource.
+     * @return Shared queries
+     */
+    public static synchronized JdbcOrderQueries getShared() {
+        if (shared == null) {
+            shared = new JdbcOrderQueries(DataSources.getShared(), ApiConfig.getDbInBatchSize());
+        }
+        return shared;
+    }
+    
+    /**
+     * SELECT ... FROM Orders LEFT JOIN OrderCosts WHERE OrderId IN (...)
+     * @param orderIds Order IDs
+     * @return Order rows with costs by order ID, in request order; missing orders are left out
+     * @throws SQLException if a query fails
+     */
+    public Map<String, Map<String, Object>> queryOrdersByIds(Collection<String> orderIds) throws SQLException {
+        Map<String, Map<String, Object>> rows = inBatches(orderIds, ORDERS_SQL, "", resultSet -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put("orderId", resultSet.getString("OrderId"));
+            row.put("distributorOrderId", resultSet.getString("DistributorOrderId"));
+            row.put("poNumber", resultSet.getString("PoNumber"));
+            row.put("distributorId", resultSet.getString("DistributorId"));
+            row.put("status", resultSet.getString("Status"));
+            putCosts(row, resultSet);
+            row.put("warehouseCode", resultSet.getString("WarehouseCode"));
+            row.put("warehouseName", resultSet.getString("WarehouseName"));
+            row.put("orderTimestamp", resultSet.getString("OrderTimestamp"));
+            row.put("expectedDeliveryDate", resultSet.getString("ExpectedDeliveryDate"));
+            return row;
+        }, (byId, row) -> byId.put((String) row.get("orderId"), row));
+        return inRequestOrder(orderIds, rows);
+    }
+    
+    /**
+     * SELECT Subtotal, Total, Shipping, Tax, SmallOrderFee FROM OrderCosts WHERE OrderId IN (...)
+     * @param orderIds Order IDs
+     * @return Cost rows by order ID, in request order; orders without costs are left out
+     * @throws SQLException if a query fails
+     */
+    public Map<String, Map<String, Object>> queryOrderCostsByIds(Collection<String> orderIds) throws SQLException {
+        Map<String, Map<String, Object>> rows = inBatches(orderIds, COSTS_SQL, "", resultSet -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put("orderId", resultSet.getString("OrderId"));
+            putCosts(row, resultSet);
+            return row;
+        }, (byId, row) -> byId.put((String) row.remove("orderId"), row));
+        return inRequestOrder(orderIds, rows);
+    }
+    
+    /**
+     * SELECT * FROM OrderLineItems WHERE OrderId IN (...) ORDER BY OrderId, LineNumber
+     * @param orderIds Order IDs
+     * @return Line item rows by order ID, in request order; orders without lines are left out
+     * @throws SQLException if a query fails
+     */
+    public Map<String, List<Map<String, Object>>> queryOrderLineItemsByIds(Collection<String> orderIds) throws SQLException {
+        Map<String, List<Map<String, Object>>> rows = inBatches(orderIds, LINE_ITEMS_SQL, LINE_ITEMS_ORDER_BY, resultSet -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put("orderId", resultSet.getString("OrderId"));
+            row.put("sku", resultSet.getString("Sku"));
+            row.put("gtin", resultSet.getString("Gtin"));
+            row.put("quantity", resultSet.getInt("Quantity"));
+            row.put("quantityShipped", resultSet.getInt("QuantityShipped"));
+            row.put("price", resultSet.getBigDecimal("Price").doubleValue());
+            row.put("lineTotal", resultSet.getBigDecimal("LineTotal").doubleValue());
+            row.put("styleCode", resultSet.getString("StyleCode"));
+            row.put("color", resultSet.getString("Color"));
+            row.put("size", resultSet.getString("Size"));
+            return row;
+        }, (byId, row) -> byId.computeIfAbsent((String) row.remove("orderId"), id -> new ArrayList<>()).add(row));
+        return inRequestOrder(orderIds, rows);
+    }
+    
+    private <R, T> Map<String, R> inBatches(Collection<String> orderIds, String sql, String suffix, RowReader<T> reader,
+                                            Collector<R, T> collector) throws SQLException {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        Map<String, R> byId = new HashMap<>();
+        if (ids.isEmpty()) {
+            return byId;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<String> batch = ids.subList(from, Math.min(ids.size(), from + batchSize));
+                int slots = paddedSize(batch.size());
+                // The pool caches one statement per distinct SQL string on each connection
+                try (PreparedStatement statement = connection.prepareStatement(sql + placeholders(slots) + suffix)) {
+                    for (int i = 0; i < slots; i++) {
+                        statement.setString(i + 1, batch.get(Math.min(i, batch.size() - 1)));
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            collector.add(byId, reader.read(resultSet));
+                        }
+                    }
+                }
+            }
+        }
+        return byId;
+    }
+    
+    private int paddedSize(int size) {
+        int padded = Integer.highestOneBit(size);
+        return Math.min(batchSize, padded == size ? size : padded << 1);
+    }
+    
+    private static String placeholders(int count) {
+        StringBuilder sql = new StringBuilder(count * 3 + 2).append('(');
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(')').toString();
+    }
+    
+    private static void putCosts(Map<String, Object> row, ResultSet resultSet) throws SQLException {
+        row.put("subtotal", toDouble(resultSet.getBigDecimal("Subtotal")));
+        row.put("total", toDouble(resultSet.getBigDecimal("Total")));
+        row.put("shipping", toDouble(resultSet.getBigDecimal("Shipping")));
+        row.put("tax", toDouble(resultSet.getBigDecimal("Tax")));
+        row.put("smallOrderFee", toDouble(resultSet.getBigDecimal("SmallOrderFee")));
+    }
+    
+    private static Double toDouble(BigDecimal value) {
+        return value == null ? null : value.doubleValue();
+    }
+    
+    private static <R> Map<String, R> inRequestOrder(Collection<String> orderIds, Map<String, R> byId) {
+        Map<String, R> ordered = new LinkedHashMap<>();
+        for (String orderId : orderIds) {
+            R row = byId.get(orderId);
+            if (row != null) {
+                ordered.put(orderId, row);
+            }
+        }
+        return ordered;
+    }
+}
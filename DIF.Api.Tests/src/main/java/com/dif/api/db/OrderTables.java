@@ -0,0 +1,105 @@
+package com.dif.api.db;
+
+import com.dif.api.models.response.OrderCosts;
+import com.dif.api.models.response.OrderDetail;
+import com.dif.api.models.response.OrderLineDetail;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Writes orders into the Orders, OrderCosts and OrderLineItems tables, one transaction per order.
+ * Used by the stub API server to fill the H2 stand-in database with the orders it places.
+ */
+public final class OrderTables {
+    
+    private static final String INSERT_ORDER = "INSERT INTO Orders (OrderId, DistributorOrderId, PoNumber, DistributorId,"
+            + " Status, WarehouseCode, WarehouseName, OrderTimestamp, ExpectedDeliveryDate) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_COSTS = "INSERT INTO OrderCosts (OrderId, Subtotal, Shipping, Tax, SmallOrderFee, Total)"
+            + " VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LINE = "INSERT INTO OrderLineItems (OrderId, LineNumber, Sku, Gtin, Quantity,"
+            + " QuantityShipped, Price, LineTotal, StyleCode, Color, Size) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private OrderTables() {
+        // Utility class
+    }
+    
+    /**
+     * Inserts an order with its costs and line items; line items go in as one batch.
+     * @param dataSource DataSource to write to
+     * @param detail Order detail with lines
+     * @param costs Order costs, may be null
+     * @throws SQLException if the insert fails; nothing is written in that case
+     */
+    public static void insert(DataSource dataSource, OrderDetail detail, OrderCosts costs) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                insertOrder(connection, detail);
+                if (costs != null) {
+                    insertCosts(connection, detail.getOrderId(), costs);
+                }
+                if (detail.getLines() != null && !detail.getLines().isEmpty()) {
+                    insertLines(connection, detail.getOrderId(), detail.getLines());
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+    
+    private static void insertOrder(Connection connection, OrderDetail detail) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_ORDER)) {
+            statement.setString(1, detail.getOrderId());
+            statement.setString(2, detail.getDistributorOrderId());
+            statement.setString(3, detail.getPoNumber());
+            statement.setString(4, detail.getDistributorId());
+            statement.setString(5, detail.getStatus());
+            statement.setString(6, detail.getWarehouseCode());
+            statement.setString(7, detail.getWarehouseName());
+            statement.setString(8, detail.getOrderTimestamp());
+            statement.setString(9, detail.getExpectedDeliveryDate());
+            statement.executeUpdate();
+        }
+    }
+    
+    private static void insertCosts(Connection connection, String orderId, OrderCosts costs) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_COSTS)) {
+            statement.setString(1, orderId);
+            statement.setBigDecimal(2, costs.getSubtotal());
+            statement.setBigDecimal(3, costs.getShipping());
+            statement.setBigDecimal(4, costs.getTax());
+            statement.setBigDecimal(5, costs.getSmallOrderFee());
+            statement.setBigDecimal(6, costs.getTotal());
+            statement.executeUpdate();
+        }
+    }
+    
+    private static void insertLines(Connection connection, String orderId, List<OrderLineDetail> lines) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_LINE)) {
+            for (int i = 0; i < lines.size(); i++) {
+                OrderLineDetail line = lines.get(i);
+                statement.setString(1, orderId);
+                statement.setInt(2, i + 1);
+                statement.setString(3, line.getSku());
+                statement.setString(4, line.getGtin());
+                statement.setInt(5, line.getQuantity());
+                statement.setInt(6, line.getQuantityShipped());
+                statement.setBigDecimal(7, line.getPrice());
+                statement.setBigDecimal(8, line.getLineTotal());
+                statement.setString(9, line.getStyleCode());
+                statement.setString(10, line.getColor());
+                statement.setString(11, line.getSize());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+}
@@ -11,6 +11,7 @@ import com.dif.api.models.request.ShippingEstimateRequest;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Factory class for generating test data.
@@ -18,6 +19,9 @@ import java.util.UUID;
  */
 public class TestDataFactory {
     
+    // Sequence keeping PO numbers unique when tests place orders in parallel
+    private static final AtomicLong PO_SEQUENCE = new AtomicLong();
+    
     // Valid distributor IDs
     public static final List<String> VALID_DISTRIBUTOR_IDS = Arrays.asList("ss", "img", "sanmar");
     public static final String DEFAULT_DISTRIBUTOR_ID = "ss";
@@ -211,7 +215,16 @@ public class TestDataFactory {
      * @return Unique PO number
      */
     public static String generatePoNumber() {
-        return "TEST-" + System.currentTimeMillis();
+        return generatePoNumber("TEST");
+    }
+    
+    /**
+     * Generates a PO number that stays unique across threads.
+     * @param prefix PO number prefix (e.g., "TRACK-TEST")
+     * @return Unique PO number
+     */
+    public static String generatePoNumber(String prefix) {
+        return prefix + "-" + System.currentTimeMillis() + "-" + PO_SEQUENCE.incrementAndGet();
     }
     
     /**
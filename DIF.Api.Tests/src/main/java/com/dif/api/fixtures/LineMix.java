@@ -0,0 +1,32 @@
+package com.dif.api.fixtures;
+
+import com.dif.api.models.request.OrderLine;
+
+import java.util.List;
+
+/**
+ * Line-mix profiles of pooled fixture orders.
+ */
+public enum LineMix {
+    
+    /** One line of 10 units. */
+    SINGLE_LINE(List.of(line("G500-BLA-M", 10))),
+    /** Two lines of the same style in different sizes. */
+    TWO_LINE(List.of(line("G500-BLA-M", 12), line("G500-BLA-L", 24))),
+    /** Two lines with distinct quantities, for line item checks. */
+    MIXED_QUANTITY(List.of(line("G500-BLA-M", 15), line("G500-BLA-L", 25)));
+    
+    private final List<OrderLine> lines;
+    
+    LineMix(List<OrderLine> lines) {
+        this.lines = lines;
+    }
+    
+    public List<OrderLine> getLines() {
+        return lines;
+    }
+    
+    private static OrderLine line(String sku, int quantity) {
+        return OrderLine.builder().identifier(sku).qty(quantity).build();
+    }
+}
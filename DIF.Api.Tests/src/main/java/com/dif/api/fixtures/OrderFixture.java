@@ -0,0 +1,53 @@
+package com.dif.api.fixtures;
+
+import com.dif.api.models.request.PlaceOrderRequest;
+import com.dif.api.models.response.OrderResponse;
+
+/**
+ * An order placed by the {@link OrderFixturePool}, with its request and placement response.
+ * Fixtures are shared between tests and must only be read.
+ */
+public class OrderFixture {
+    
+    private final LineMix lineMix;
+    private final PlaceOrderRequest request;
+    private final OrderResponse placement;
+    
+    public OrderFixture(LineMix lineMix, PlaceOrderRequest request, OrderResponse placement) {
+        this.lineMix = lineMix;
+        this.request = request;
+        this.placement = placement;
+    }
+    
+    public String getOrderId() {
+        return placement.getOrderId();
+    }
+    
+    public String getDistributorOrderId() {
+        return placement.getDistributorOrderId();
+    }
+    
+    public String getPoNumber() {
+        return placement.getPoNumber();
+    }
+    
+    public String getDistributorId() {
+        return request.getDistributorId();
+    }
+    
+    public LineMix getLineMix() {
+        return lineMix;
+    }
+    
+    public PlaceOrderRequest getRequest() {
+        return request;
+    }
+    
+    /**
+     * Gets the data returned when the order was placed (IDs, status and costs).
+     * @return Placement response data
+     */
+    public OrderResponse getPlacement() {
+        return placement;
+    }
+}
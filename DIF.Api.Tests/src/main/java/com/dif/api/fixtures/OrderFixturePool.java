@@ -0,0 +1,131 @@
+package com.dif.api.fixtures;
+
+import com.dif.api.builders.PlaceOrderRequestBuilder;
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.OrdersApiClient;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.factory.TestDataFactory;
+import com.dif.api.models.request.PlaceOrderRequest;
+import com.dif.api.models.response.OrderResponse;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Suite-wide pool of pre-placed orders leased to read-only tests.
+ * The first lease of a distributor and line-mix profile places the profile's orders concurrently;
+ * later leases hand out those orders round-robin without calling the order endpoint again.
+ */
+public class OrderFixturePool {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderFixturePool.class);
+    private static OrderFixturePool shared;
+    
+    private final OrdersApiClient ordersApi = new OrdersApiClient();
+    private final int ordersPerProfile;
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<List<OrderFixture>>> profiles = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+    private final AtomicInteger placedOrders = new AtomicInteger();
+    
+    /**
+     * Creates a pool.
+     * @param ordersPerProfile Orders placed per distributor and line-mix profile
+     * @param threads Threads placing orders concurrently
+     */
+    public OrderFixturePool(int ordersPerProfile, int threads) {
+        this.ordersPerProfile = Math.max(1, ordersPerProfile);
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "order-fixture-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Gets the pool shared by the whole suite, sized from configuration.
+     * @return Shared pool
+     */
+    public static synchronized OrderFixturePool getShared() {
+        if (shared == null) {
+            shared = new OrderFixturePool(ApiConfig.getFixturePoolOrdersPerProfile(), ApiConfig.getFixturePoolThreads());
+        }
+        return shared;
+    }
+    
+    /**
+     * Leases a placed order of a distributor and line-mix profile.
+     * Leased orders may be handed to other tests at the same time and must not be modified.
+     * @param distributorId Distributor ID
+     * @param lineMix Line-mix profile
+     * @return Order fixture
+     */
+    public OrderFixture lease(String distributorId, LineMix lineMix) {
+        String key = distributorId + "/" + lineMix;
+        CompletableFuture<List<OrderFixture>> profile = profiles.computeIfAbsent(key, k -> provision(distributorId, lineMix));
+        List<OrderFixture> fixtures;
+        try {
+            fixtures = profile.join();
+        } catch (CompletionException e) {
+            // Forget the failed placement so the next lease of the profile tries again
+            profiles.remove(key, profile);
+            throw new IllegalStateException("Order fixtures for " + key + " could not be placed", e.getCause());
+        }
+        int slot = cursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        return fixtures.get(Math.floorMod(slot, fixtures.size()));
+    }
+    
+    /**
+     * Gets the number of orders the pool has placed.
+     * @return Placed order count
+     */
+    public int getPlacedOrders() {
+        return placedOrders.get();
+    }
+    
+    private CompletableFuture<List<OrderFixture>> provision(String distributorId, LineMix lineMix) {
+        long start = System.nanoTime();
+        List<CompletableFuture<OrderFixture>> placements = new ArrayList<>();
+        for (int i = 0; i < ordersPerProfile; i++) {
+            placements.add(CompletableFuture.supplyAsync(() -> place(distributorId, lineMix), executor));
+        }
+        return CompletableFuture.allOf(placements.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    List<OrderFixture> fixtures = new ArrayList<>();
+                    placements.forEach(placement -> fixtures.add(placement.join()));
+                    logger.info("Placed {} fixture orders for {}/{} in {} ms", fixtures.size(), distributorId, lineMix,
+                            (System.nanoTime() - start) / 1_000_000);
+                    return List.copyOf(fixtures);
+                });
+    }
+    
+    private OrderFixture place(String distributorId, LineMix lineMix) {
+        PlaceOrderRequest request = PlaceOrderRequestBuilder.builder()
+                .withDistributorId(distributorId)
+                .withShippingAddress(PlaceOrderRequestBuilder.createDefaultShippingAddress())
+                .withShippingMethod("1")
+                .withPoNumber(TestDataFactory.generatePoNumber("FIXTURE"))
+                .withTestOrder(true)
+                .withLines(lineMix.getLines())
+                .withDefaultPayment()
+                .build();
+        
+        Response response = ordersApi.placeOrder(request);
+        if (response.getStatusCode() != 201) {
+            throw new IllegalStateException("Placing fixture order for " + distributorId + " returned "
+                    + response.getStatusCode() + ": " + response.asString());
+        }
+        placedOrders.incrementAndGet();
+        return new OrderFixture(lineMix, request, BaseApiClient.readData(response, OrderResponse.class));
+    }
+}
@@ -0,0 +1,54 @@
+package com.dif.api.instrumentation;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe allocation counters for a single endpoint or response model.
+ */
+public class AllocationStats {
+    
+    private final String key;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder totalBytes = new LongAdder();
+    private final LongAccumulator maxBytes = new LongAccumulator(Math::max, 0);
+    
+    public AllocationStats(String key) {
+        this.key = key;
+    }
+    
+    /**
+     * Records the bytes allocated by one call.
+     * @param bytes Allocated bytes
+     */
+    public void record(long bytes) {
+        calls.increment();
+        totalBytes.add(bytes);
+        maxBytes.accumulate(bytes);
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public long getCalls() {
+        return calls.sum();
+    }
+    
+    public long getTotalBytes() {
+        return totalBytes.sum();
+    }
+    
+    public long getMaxBytes() {
+        return maxBytes.get();
+    }
+    
+    /**
+     * Gets the mean bytes allocated per call.
+     * @return Average bytes per call, or 0 if nothing was recorded
+     */
+    public long getAverageBytes() {
+        long count = getCalls();
+        return count == 0 ? 0 : getTotalBytes() / count;
+    }
+}
@@ -0,0 +1,171 @@
+package com.dif.api.instrumentation;
+
+import com.dif.api.config.ApiConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Measures heap bytes allocated by the calling thread per API call and per response model,
+ * using {@code com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}.
+ * Measurements are inclusive: a tracked call nested in another is counted in both.
+ */
+public final class AllocationTracker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AllocationTracker.class);
+    private static final com.sun.management.ThreadMXBean threadMXBean = initThreadMXBean();
+    private static final boolean enabled = threadMXBean != null && ApiConfig.isAllocationTrackingEnabled();
+    
+    private static final Map<String, AllocationStats> endpointStats = new ConcurrentHashMap<>();
+    private static final Map<String, AllocationStats> modelStats = new ConcurrentHashMap<>();
+    
+    private AllocationTracker() {
+        // Utility class
+    }
+    
+    private static com.sun.management.ThreadMXBean initThreadMXBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            logger.warn("Thread allocation accounting is not supported on this JVM");
+            return null;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!bean.isThreadAllocatedMemorySupported()) {
+            logger.warn("Thread allocation accounting is not supported on this JVM");
+            return null;
+        }
+        if (!bean.isThreadAllocatedMemoryEnabled()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return bean;
+    }
+    
+    /**
+     * Runs an API call and records the bytes it allocated against its endpoint.
+     * @param method HTTP method
+     * @param endpoint Endpoint template (e.g. "/api/orders/{orderId}")
+     * @param call The call to measure
+     * @param <T> Result type
+     * @return Result of the call
+     */
+    public static <T> T trackEndpoint(String method, String endpoint, Supplier<T> call) {
+        return track(endpointStats, method + " " + endpoint, call);
+    }
+    
+    /**
+     * Runs a response deserialization and records the bytes it allocated against the model type.
+     * @param model Response model class
+     * @param call The deserialization to measure
+     * @param <T> Result type
+     * @return Result of the call
+     */
+    public static <T> T trackModel(Class<?> model, Supplier<T> call) {
+        return track(modelStats, model.getSimpleName(), call);
+    }
+    
+    private static <T> T track(Map<String, AllocationStats> stats, String key, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        
+        long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        try {
+            return call.get();
+        } finally {
+            long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+            stats.computeIfAbsent(key, AllocationStats::new).record(allocated);
+        }
+    }
+    
+    /**
+     * Gets endpoint statistics ranked by total allocated bytes, largest first.
+     * @return Ranked endpoint statistics
+     */
+    public static List<AllocationStats> getEndpointRanking() {
+        return rank(endpointStats);
+    }
+    
+    /**
+     * Gets response model statistics ranked by total allocated bytes, largest first.
+     * @return Ranked model statistics
+     */
+    public static List<AllocationStats> getModelRanking() {
+        return rank(modelStats);
+    }
+    
+    /**
+     * Clears all collected statistics.
+     */
+    public static void reset() {
+        endpointStats.clear();
+        modelStats.clear();
+    }
+    
+    /**
+     * Builds a plain text report ranking the biggest allocators by endpoint and by response model.
+     * @return Report text
+     */
+    public static String buildReport() {
+        StringBuilder report = new StringBuilder();
+        appendSection(report, "Allocations by endpoint", getEndpointRanking());
+        report.append(System.lineSeparator());
+        appendSection(report, "Allocations by response model", getModelRanking());
+        return report.toString();
+    }
+    
+    /**
+     * Writes the allocation report to the configured report file, if any calls were tracked.
+     * @return Path of the written report, or null if nothing was tracked
+     */
+    public static Path writeReport() {
+        if (endpointStats.isEmpty() && modelStats.isEmpty()) {
+            return null;
+        }
+        
+        Path target = Paths.get(ApiConfig.getAllocationReportFile());
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            Files.write(target, buildReport().getBytes(StandardCharsets.UTF_8));
+            logger.info("Allocation report written to: {}", target.toAbsolutePath());
+            return target;
+        } catch (IOException e) {
+            logger.error("Failed to write allocation report to: {}", target, e);
+            return null;
+        }
+    }
+    
+    private static List<AllocationStats> rank(Map<String, AllocationStats> stats) {
+        return stats.values().stream()
+                .sorted(Comparator.comparingLong(AllocationStats::getTotalBytes).reversed())
+                .collect(Collectors.toList());
+    }
+    
+    private static void appendSection(StringBuilder report, String title, List<AllocationStats> ranking) {
+        String newLine = System.lineSeparator();
+        report.append(title).append(newLine);
+        report.append(String.format("%-4s %-60s %10s %14s %14s %14s%n", "#", "Key", "Calls", "Total KB", "Avg KB/call", "Max KB"));
+        int rank = 1;
+        for (AllocationStats stats : ranking) {
+            report.append(String.format("%-4d %-60s %10d %14.1f %14.1f %14.1f%n",
+                    rank++,
+                    stats.getKey(),
+                    stats.getCalls(),
+                    stats.getTotalBytes() / 1024.0,
+                    stats.getAverageBytes() / 1024.0,
+                    stats.getMaxBytes() / 1024.0));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.dif.api.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event emitted for every API call made through BaseApiClient.
+ * The event duration covers the full call, including reading the response body.
+ */
+@Name("com.dif.api.ApiCall")
+@Label("API Call")
+@Category({"DIF API", "HTTP"})
+@Description("HTTP call issued by the DIF API test clients")
+@StackTrace(false)
+public class ApiCallEvent extends jdk.jfr.Event {
+    
+    @Label("Method")
+    public String method;
+    
+    @Label("Endpoint")
+    @Description("Endpoint template, e.g. /api/orders/{orderId}")
+    public String endpoint;
+    
+    @Label("URI")
+    public String uri;
+    
+    @Label("Status Code")
+    public int statusCode;
+    
+    @Label("Response Bytes")
+    @DataAmount
+    public long responseBytes;
+    
+    @Label("Slow")
+    @Description("True when the call exceeded the configured slow request threshold")
+    public boolean slow;
+}
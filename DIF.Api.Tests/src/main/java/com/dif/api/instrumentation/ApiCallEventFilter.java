@@ -0,0 +1,50 @@
+package com.dif.api.instrumentation;
+
+import com.dif.api.config.ApiConfig;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.time.Duration;
+
+/**
+ * Rest Assured filter that emits an {@link ApiCallEvent} for every call and triggers
+ * a JFR snapshot when a call exceeds the slow request threshold.
+ */
+public class ApiCallEventFilter implements Filter {
+    
+    private final long slowThresholdNanos = Duration.ofMillis(ApiConfig.getSlowRequestThresholdMs()).toNanos();
+    
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        ApiCallEvent event = new ApiCallEvent();
+        long start = System.nanoTime();
+        event.begin();
+        
+        Response response = ctx.next(requestSpec, responseSpec);
+        byte[] body = response.asByteArray();
+        
+        event.end();
+        long elapsedNanos = System.nanoTime() - start;
+        boolean slow = elapsedNanos > slowThresholdNanos;
+        
+        if (event.shouldCommit()) {
+            event.method = requestSpec.getMethod();
+            event.endpoint = requestSpec.getUserDefinedPath();
+            event.uri = requestSpec.getURI();
+            event.statusCode = response.getStatusCode();
+            event.responseBytes = body.length;
+            event.slow = slow;
+            event.commit();
+        }
+        
+        if (slow) {
+            FlightRecordingManager.onSlowRequest(requestSpec.getUserDefinedPath(), Duration.ofNanos(elapsedNanos));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,147 @@
+package com.dif.api.instrumentation;
+
+import com.dif.api.config.ApiConfig;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manages the per-suite JDK Flight Recorder recording and slow request snapshots.
+ * Snapshots are written on a background thread so the slow call itself is not delayed further.
+ */
+public final class FlightRecordingManager {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingManager.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    
+    private static final AtomicInteger snapshotCount = new AtomicInteger();
+    private static final AtomicLong lastSnapshotNanos = new AtomicLong();
+    private static final ExecutorService snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jfr-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private static Recording suiteRecording;
+    
+    private FlightRecordingManager() {
+        // Utility class
+    }
+    
+    /**
+     * Starts a recording for the current suite if JFR recording is enabled in configuration.
+     * Calling this while a recording is already running has no effect.
+     * @param suiteName Suite name, used in the recording name and dump file names
+     */
+    public static synchronized void startSuiteRecording(String suiteName) {
+        if (!ApiConfig.isJfrRecordingEnabled() || suiteRecording != null) {
+            return;
+        }
+        
+        try {
+            Configuration settings = Configuration.getConfiguration(ApiConfig.getJfrSettings());
+            Recording recording = new Recording(settings);
+            recording.setName("dif-api-" + suiteName);
+            recording.setToDisk(true);
+            recording.setMaxAge(Duration.ofMinutes(ApiConfig.getJfrMaxAgeMinutes()));
+            recording.enable(ApiCallEvent.class).withoutStackTrace();
+            recording.start();
+            suiteRecording = recording;
+            logger.info("Started JFR recording '{}' with '{}' settings", recording.getName(), settings.getName());
+        } catch (IOException | ParseException e) {
+            logger.error("Failed to start JFR recording for suite: {}", suiteName, e);
+        }
+    }
+    
+    /**
+     * Stops the suite recording and dumps it to the configured dump directory.
+     * @return Path of the dumped recording, or null if no recording was running
+     */
+    public static synchronized Path stopSuiteRecording() {
+        if (suiteRecording == null) {
+            return null;
+        }
+        
+        Recording recording = suiteRecording;
+        suiteRecording = null;
+        try {
+            Path target = dumpDirectory().resolve(recording.getName() + ".jfr");
+            recording.dump(target);
+            logger.info("JFR recording written to: {}", target.toAbsolutePath());
+            return target;
+        } catch (IOException e) {
+            logger.error("Failed to dump JFR recording '{}'", recording.getName(), e);
+            return null;
+        } finally {
+            recording.close();
+        }
+    }
+    
+    /**
+     * Checks whether a suite recording is currently running.
+     * @return true if recording
+     */
+    public static synchronized boolean isRecording() {
+        return suiteRecording != null;
+    }
+    
+    /**
+     * Requests a snapshot dump after a slow call. Snapshots are rate limited by the configured
+     * minimum interval and capped at the configured maximum count per JVM.
+     * @param endpoint Endpoint template of the slow call
+     * @param elapsed Elapsed time of the slow call
+     */
+    public static void onSlowRequest(String endpoint, Duration elapsed) {
+        if (!isRecording()) {
+            return;
+        }
+        
+        long now = System.nanoTime();
+        long last = lastSnapshotNanos.get();
+        long minInterval = Duration.ofMillis(ApiConfig.getJfrSnapshotMinIntervalMs()).toNanos();
+        if (last != 0 && now - last < minInterval) {
+            return;
+        }
+        if (!lastSnapshotNanos.compareAndSet(last, now)) {
+            return;
+        }
+        if (snapshotCount.incrementAndGet() > ApiConfig.getJfrMaxSnapshots()) {
+            return;
+        }
+        
+        logger.warn("Slow request to {} took {} ms - dumping JFR snapshot", endpoint, elapsed.toMillis());
+        snapshotExecutor.execute(() -> dumpSnapshot(endpoint));
+    }
+    
+    private static void dumpSnapshot(String endpoint) {
+        String safeEndpoint = endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "");
+        String fileName = "slow-" + safeEndpoint + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr";
+        
+        try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+            Path target = dumpDirectory().resolve(fileName);
+            snapshot.dump(target);
+            logger.info("JFR snapshot written to: {}", target.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Failed to dump JFR snapshot for slow request to {}", endpoint, e);
+        }
+    }
+    
+    private static Path dumpDirectory() throws IOException {
+        return Files.createDirectories(Paths.get(ApiConfig.getJfrDumpDirectory()));
+    }
+}
@@ -0,0 +1,21 @@
+package com.dif.api.instrumentation;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Starts the JFR recording when a suite starts and dumps it when the suite finishes, named after the suite.
+ * TestNG does not inject the suite into @BeforeSuite methods, so the recording hooks live in a suite listener.
+ */
+public class FlightRecordingSuiteListener implements ISuiteListener {
+    
+    @Override
+    public void onStart(ISuite suite) {
+        FlightRecordingManager.startSuiteRecording(suite.getName());
+    }
+    
+    @Override
+    public void onFinish(ISuite suite) {
+        FlightRecordingManager.stopSuiteRecording();
+    }
+}
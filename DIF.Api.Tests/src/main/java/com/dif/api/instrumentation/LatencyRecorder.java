@@ -0,0 +1,113 @@
+package com.dif.api.instrumentation;
+
+import com.dif.api.client.BaseApiClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Thread-safe recorder of latency samples for one load-test scenario.
+ * Percentiles come with distribution-free confidence intervals (order statistics around the
+ * binomial rank), so runs can be compared without assuming normally distributed latencies.
+ */
+public class LatencyRecorder {
+    
+    /** z-score of the two-sided 99% confidence level. */
+    private static final double Z_99 = 2.5758;
+    
+    private final String scenario;
+    private long[] samples = new long[1024];
+    private int count;
+    
+    public LatencyRecorder(String scenario) {
+        this.scenario = scenario;
+    }
+    
+    /**
+     * Records one latency sample.
+     * @param nanos Latency in nanoseconds
+     */
+    public synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+    
+    public String getScenario() {
+        return scenario;
+    }
+    
+    public synchronized int getCount() {
+        return count;
+    }
+    
+    /**
+     * Summarizes a percentile with its 99% confidence interval.
+     * A bound whose rank falls outside the samples is NaN, because too few samples were recorded to bound the
+     * percentile on that side; the regression gate treats such a result as inconclusive.
+     * @param percentile Percentile between 0 and 100 (e.g., 99 for p99)
+     * @return Result in milliseconds, or null if nothing was recorded
+     */
+    public synchronized LoadTestResult percentile(double percentile) {
+        if (count == 0) {
+            return null;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        double q = percentile / 100.0;
+        double spread = Z_99 * Math.sqrt(count * q * (1 - q));
+        int rank = Math.max(0, Math.min(count - 1, (int) Math.ceil(count * q) - 1));
+        int lowerRank = (int) Math.floor(count * q - spread) - 1;
+        int upperRank = (int) Math.ceil(count * q + spread) - 1;
+        return new LoadTestResult(scenario, metricName(percentile), "ms",
+                toMillis(sorted[rank]), bound(sorted, lowerRank), bound(sorted, upperRank), count);
+    }
+    
+    /**
+     * Summarizes the p50 and p99 latencies.
+     * @return p50 and p99 results, empty if nothing was recorded
+     */
+    public List<LoadTestResult> summarize() {
+        List<LoadTestResult> results = new ArrayList<>();
+        for (double percentile : new double[] {50, 99}) {
+            LoadTestResult result = percentile(percentile);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Writes the p50/p99 summaries of several scenarios as a load-test results file.
+     * @param target Results file
+     * @param recorders Scenario recorders
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeResults(Path target, Collection<LatencyRecorder> recorders) throws IOException {
+        List<LoadTestResult> results = new ArrayList<>();
+        recorders.forEach(recorder -> results.addAll(recorder.summarize()));
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        BaseApiClient.getObjectMapper().writerWithDefaultPrettyPrinter().writeValue(target.toFile(), results);
+    }
+    
+    private double bound(long[] sorted, int rank) {
+        return rank >= 0 && rank < count ? toMillis(sorted[rank]) : Double.NaN;
+    }
+    
+    private static String metricName(double percentile) {
+        return percentile == Math.rint(percentile) ? "p" + (long) percentile : "p" + percentile;
+    }
+    
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
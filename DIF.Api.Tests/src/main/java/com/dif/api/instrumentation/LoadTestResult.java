@@ -0,0 +1,25 @@
+package com.dif.api.instrumentation;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One latency percentile of a load-test scenario with its confidence interval.
+ * A list of these is the load-test results file compared by the benchmark regression gate.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class LoadTestResult {
+    
+    private String scenario;
+    private String metric;
+    private String unit;
+    private double value;
+    private double lower;
+    private double upper;
+    private long samples;
+}
@@ -0,0 +1,112 @@
+package com.dif.api.instrumentation;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe per-endpoint aggregate of phase timings and response sizes.
+ */
+public class PhaseStats {
+    
+    private final String endpoint;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAdder connectNanos = new LongAdder();
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+    private final LongAdder timeToFirstByteNanos = new LongAdder();
+    private final LongAdder bodyReadNanos = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxTotalNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAccumulator maxResponseBytes = new LongAccumulator(Math::max, 0);
+    
+    public PhaseStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+    
+    /**
+     * Adds a completed call to the aggregate.
+     * @param timings Timings of the completed call
+     */
+    public void record(PhaseTimings timings) {
+        calls.increment();
+        acquireNanos.add(timings.getAcquireNanos());
+        if (timings.getConnectNanos() > 0) {
+            connections.increment();
+            connectNanos.add(timings.getConnectNanos());
+        }
+        writeNanos.add(timings.getWriteNanos());
+        timeToFirstByteNanos.add(timings.getTimeToFirstByteNanos());
+        bodyReadNanos.add(timings.getBodyReadNanos());
+        totalNanos.add(timings.getTotalNanos());
+        maxTotalNanos.accumulate(timings.getTotalNanos());
+        responseBytes.add(timings.getResponseBytes());
+        maxResponseBytes.accumulate(timings.getResponseBytes());
+    }
+    
+    public String getEndpoint() {
+        return endpoint;
+    }
+    
+    public long getCalls() {
+        return calls.sum();
+    }
+    
+    /**
+     * Gets the number of calls that opened a new connection.
+     * @return Connection count
+     */
+    public long getConnections() {
+        return connections.sum();
+    }
+    
+    public double getAverageAcquireMs() {
+        return averageMs(acquireNanos.sum(), getCalls());
+    }
+    
+    /**
+     * Gets the average connect time over calls that actually connected.
+     * @return Average connect time in milliseconds
+     */
+    public double getAverageConnectMs() {
+        return averageMs(connectNanos.sum(), getConnections());
+    }
+    
+    public double getAverageWriteMs() {
+        return averageMs(writeNanos.sum(), getCalls());
+    }
+    
+    public double getAverageTimeToFirstByteMs() {
+        return averageMs(timeToFirstByteNanos.sum(), getCalls());
+    }
+    
+    public double getAverageBodyReadMs() {
+        return averageMs(bodyReadNanos.sum(), getCalls());
+    }
+    
+    public double getAverageTotalMs() {
+        return averageMs(totalNanos.sum(), getCalls());
+    }
+    
+    public double getMaxTotalMs() {
+        return maxTotalNanos.get() / 1_000_000.0;
+    }
+    
+    public long getTotalResponseBytes() {
+        return responseBytes.sum();
+    }
+    
+    public long getAverageResponseBytes() {
+        long count = getCalls();
+        return count == 0 ? 0 : getTotalResponseBytes() / count;
+    }
+    
+    public long getMaxResponseBytes() {
+        return maxResponseBytes.get();
+    }
+    
+    private static double averageMs(long nanos, long count) {
+        return count == 0 ? 0 : nanos / 1_000_000.0 / count;
+    }
+}
@@ -0,0 +1,119 @@
+package com.dif.api.instrumentation;
+
+import com.dif.api.config.ApiConfig;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Rest Assured filter that times each call phase (connection acquisition, connect,
+ * request write, time to first byte, body read) and records response sizes per endpoint template.
+ * Connect, write and first byte timestamps come from the {@link TimedHttpClientFactory} transport.
+ */
+public class PhaseTimingFilter implements Filter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PhaseTimingFilter.class);
+    private static final Map<String, PhaseStats> endpointStats = new ConcurrentHashMap<>();
+    
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        PhaseTimings timings = PhaseTimings.begin();
+        Response response;
+        long bodyBytes = 0;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            bodyBytes = response.asByteArray().length;
+        } finally {
+            // Unbinds the timings from the thread even on an Error, so they cannot leak into its next call
+            timings.end(bodyBytes);
+        }
+        
+        String endpoint = requestSpec.getMethod() + " " + requestSpec.getUserDefinedPath();
+        endpointStats.computeIfAbsent(endpoint, PhaseStats::new).record(timings);
+        return response;
+    }
+    
+    /**
+     * Gets endpoint statistics ranked by average total time, slowest first.
+     * @return Ranked endpoint statistics
+     */
+    public static List<PhaseStats> getEndpointStats() {
+        return endpointStats.values().stream()
+                .sorted(Comparator.comparingDouble(PhaseStats::getAverageTotalMs).reversed())
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Clears all collected statistics.
+     */
+    public static void reset() {
+        endpointStats.clear();
+    }
+    
+    /**
+     * Builds a plain text report of average phase timings and response sizes per endpoint.
+     * @return Report text
+     */
+    public static String buildReport() {
+        StringBuilder report = new StringBuilder("Phase timings by endpoint (averages in ms)").append(System.lineSeparator());
+        report.append(String.format("%-50s %7s %6s %9s %9s %9s %9s %9s %9s %9s %11s %11s%n",
+                "Endpoint", "Calls", "Conns", "Acquire", "Connect", "Write", "TTFB", "Body", "Total", "Max",
+                "Avg bytes", "Max bytes"));
+        for (PhaseStats stats : getEndpointStats()) {
+            report.append(String.format("%-50s %7d %6d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f %11d %11d%n",
+                    stats.getEndpoint(),
+                    stats.getCalls(),
+                    stats.getConnections(),
+                    stats.getAverageAcquireMs(),
+                    stats.getAverageConnectMs(),
+                    stats.getAverageWriteMs(),
+                    stats.getAverageTimeToFirstByteMs(),
+                    stats.getAverageBodyReadMs(),
+                    stats.getAverageTotalMs(),
+                    stats.getMaxTotalMs(),
+                    stats.getAverageResponseBytes(),
+                    stats.getMaxResponseBytes()));
+        }
+        return report.toString();
+    }
+    
+    /**
+     * Writes the phase timing report to the configured report file, if any calls were recorded.
+     * @return Path of the written report, or null if nothing was recorded
+     */
+    public static Path writeReport() {
+        if (endpointStats.isEmpty()) {
+            return null;
+        }
+        
+        Path target = Paths.get(ApiConfig.getPhaseReportFile());
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            Files.write(target, buildReport().getBytes(StandardCharsets.UTF_8));
+            logger.info("Phase timing report written to: {}", target.toAbsolutePath());
+            return target;
+        } catch (IOException e) {
+            logger.error("Failed to write phase timing report to: {}", target, e);
+            return null;
+        }
+    }
+}
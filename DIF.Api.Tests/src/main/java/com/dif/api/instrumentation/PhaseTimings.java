@@ -0,0 +1,115 @@
+package com.dif.api.instrumentation;
+
+/**
+ * Per-request timestamps for the phases of a single HTTP call.
+ * Bound to the calling thread while the call is in flight; Rest Assured executes
+ * the request on the calling thread, so the transport hooks can find it there.
+ */
+public class PhaseTimings {
+    
+    private static final ThreadLocal<PhaseTimings> current = new ThreadLocal<>();
+    
+    private final long startNanos = System.nanoTime();
+    private long connectNanos;
+    private long sendStartNanos;
+    private long sendEndNanos;
+    private long headersReceivedNanos;
+    private long endNanos;
+    private long responseBytes;
+    
+    /**
+     * Starts timing a call on the current thread.
+     * @return New timings bound to the current thread
+     */
+    public static PhaseTimings begin() {
+        PhaseTimings timings = new PhaseTimings();
+        current.set(timings);
+        return timings;
+    }
+    
+    /**
+     * Gets the timings of the call in flight on the current thread.
+     * @return Current timings, or null if no timed call is in flight
+     */
+    public static PhaseTimings current() {
+        return current.get();
+    }
+    
+    /**
+     * Completes the call and unbinds it from the current thread.
+     * @param bodyBytes Size of the response body in bytes
+     */
+    public void end(long bodyBytes) {
+        this.endNanos = System.nanoTime();
+        this.responseBytes = bodyBytes;
+        current.remove();
+    }
+    
+    void addConnectNanos(long nanos) {
+        connectNanos += nanos;
+    }
+    
+    void markSendStart() {
+        sendStartNanos = System.nanoTime();
+    }
+    
+    void markSendEnd() {
+        sendEndNanos = System.nanoTime();
+    }
+    
+    void markHeadersReceived() {
+        headersReceivedNanos = System.nanoTime();
+    }
+    
+    /**
+     * Time spent obtaining a connection, excluding the TCP/TLS connect itself.
+     * @return Nanoseconds
+     */
+    public long getAcquireNanos() {
+        return sendStartNanos == 0 ? 0 : Math.max(0, sendStartNanos - startNanos - connectNanos);
+    }
+    
+    /**
+     * Time spent establishing the TCP (and TLS) connection. Zero when a connection was reused.
+     * @return Nanoseconds
+     */
+    public long getConnectNanos() {
+        return connectNanos;
+    }
+    
+    /**
+     * Time spent writing the request line, headers and body.
+     * @return Nanoseconds
+     */
+    public long getWriteNanos() {
+        return sendEndNanos == 0 ? 0 : sendEndNanos - sendStartNanos;
+    }
+    
+    /**
+     * Time from the request being written until the response headers arrived.
+     * @return Nanoseconds
+     */
+    public long getTimeToFirstByteNanos() {
+        return headersReceivedNanos == 0 ? 0 : headersReceivedNanos - sendEndNanos;
+    }
+    
+    /**
+     * Time from the response headers arriving until the body was fully read.
+     * @return Nanoseconds
+     */
+    public long getBodyReadNanos() {
+        return headersReceivedNanos == 0 ? 0 : endNanos - headersReceivedNanos;
+    }
+    
+    /**
+     * Total time of the call.
+     * @return Nanoseconds
+     */
+    public long getTotalNanos() {
+        return endNanos - startNanos;
+    }
+    
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+}
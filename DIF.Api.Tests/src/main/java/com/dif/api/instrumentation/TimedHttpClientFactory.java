@@ -0,0 +1,150 @@
+package com.dif.api.instrumentation;
+
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.BasicClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Rest Assured HttpClient factory whose clients report connect, request write and
+ * time-to-first-byte timestamps into the {@link PhaseTimings} of the calling thread.
+ * Builds on the same DefaultHttpClient Rest Assured uses by default.
+ */
+@SuppressWarnings("deprecation")
+public class TimedHttpClientFactory implements HttpClientConfig.HttpClientFactory {
+    
+    @Override
+    public HttpClient createHttpClient() {
+        return new DefaultHttpClient() {
+            @Override
+            protected ClientConnectionManager createClientConnectionManager() {
+                return new BasicClientConnectionManager(createTimedSchemeRegistry());
+            }
+            
+            @Override
+            protected HttpRequestExecutor createRequestExecutor() {
+                return new TimedRequestExecutor();
+            }
+        };
+    }
+    
+    private static SchemeRegistry createTimedSchemeRegistry() {
+        SchemeRegistry defaults = SchemeRegistryFactory.createDefault();
+        SchemeRegistry timed = new SchemeRegistry();
+        for (String name : defaults.getSchemeNames()) {
+            Scheme scheme = defaults.getScheme(name);
+            SchemeSocketFactory factory = scheme.getSchemeSocketFactory();
+            SchemeSocketFactory timedFactory = factory instanceof SchemeLayeredSocketFactory
+                    ? new TimedLayeredSocketFactory((SchemeLayeredSocketFactory) factory)
+                    : new TimedSocketFactory(factory);
+            timed.register(new Scheme(name, scheme.getDefaultPort(), timedFactory));
+        }
+        return timed;
+    }
+    
+    /**
+     * Records the time spent in connectSocket, which covers the TCP connect and TLS handshake.
+     */
+    private static class TimedSocketFactory implements SchemeSocketFactory {
+        
+        private final SchemeSocketFactory delegate;
+        
+        TimedSocketFactory(SchemeSocketFactory delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public Socket createSocket(HttpParams params) throws IOException {
+            return delegate.createSocket(params);
+        }
+        
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException, ConnectTimeoutException {
+            long start = System.nanoTime();
+            try {
+                return delegate.connectSocket(socket, remoteAddress, localAddress, params);
+            } finally {
+                PhaseTimings timings = PhaseTimings.current();
+                if (timings != null) {
+                    timings.addConnectNanos(System.nanoTime() - start);
+                }
+            }
+        }
+        
+        @Override
+        public boolean isSecure(Socket socket) {
+            return delegate.isSecure(socket);
+        }
+        
+    }
+    
+    /**
+     * Layered (TLS) variant, kept separate so HttpClient still plans secure routes for it.
+     */
+    private static class TimedLayeredSocketFactory extends TimedSocketFactory implements SchemeLayeredSocketFactory {
+        
+        private final SchemeLayeredSocketFactory layeredDelegate;
+        
+        TimedLayeredSocketFactory(SchemeLayeredSocketFactory delegate) {
+            super(delegate);
+            this.layeredDelegate = delegate;
+        }
+        
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params) throws IOException {
+            return layeredDelegate.createLayeredSocket(socket, target, port, params);
+        }
+    }
+    
+    /**
+     * Marks when the request starts and finishes being written and when the response headers arrive.
+     */
+    private static class TimedRequestExecutor extends HttpRequestExecutor {
+        
+        @Override
+        protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                throws IOException, HttpException {
+            PhaseTimings timings = PhaseTimings.current();
+            if (timings != null) {
+                timings.markSendStart();
+            }
+            try {
+                return super.doSendRequest(request, conn, context);
+            } finally {
+                if (timings != null) {
+                    timings.markSendEnd();
+                }
+            }
+        }
+        
+        @Override
+        protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                throws HttpException, IOException {
+            HttpResponse response = super.doReceiveResponse(request, conn, context);
+            PhaseTimings timings = PhaseTimings.current();
+            if (timings != null) {
+                timings.markHeadersReceived();
+            }
+            return response;
+        }
+    }
+}
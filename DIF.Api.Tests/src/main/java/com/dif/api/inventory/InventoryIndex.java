@@ -0,0 +1,448 @@
+package com.dif.api.inventory;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.ProductsApiClient;
+import com.dif.api.config.ApiConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory inventory snapshot built from GET /api/products/inventory/batch, laid out for cart checks.
+ * <p>
+ * SKUs and warehouses ("distributorId|WAREHOUSE") are interned to dense int ids, and quantityAvailable and
+ * quantityReserved live in two int arrays indexed by {@code skuId * stride + warehouseId}. A cart check is a
+ * handful of array reads with no boxing or hashing once the cart's SKU ids are resolved, which is what
+ * {@link #canFulfill(int, int[], int[])} expects. Refreshes copy each SKU's new row over the old one in place and
+ * only replace the arrays when the index grows, so readers never block. The price is that consistency is per
+ * cell, not per row: a cell goes straight from its old to its new quantity, but a concurrent reader can see a row
+ * half copied (some warehouses refreshed, or quantityAvailable refreshed before quantityReserved) and a refresh of
+ * several SKUs applied to only some of them.
+ * <p>
+ * {@link #load(Collection)} adds or refreshes SKUs; {@link #refreshNext()} (or the background refresher)
+ * re-fetches the next inventory.index.refresh.skus.per.tick known SKUs round-robin.
+ */
+public class InventoryIndex implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InventoryIndex.class);
+    private static final int INITIAL_STRIDE = 16;
+    private static final int INITIAL_SKUS = 1024;
+    
+    private final ProductsApiClient productsApi;
+    private final int batchSize;
+    private final ExecutorService fetchers;
+    private final Map<String, Integer> skuIds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> warehouseIds = new ConcurrentHashMap<>();
+    private final List<String> skus = new ArrayList<>();
+    private final List<String> warehouses = new ArrayList<>();
+    private volatile Table table;
+    private int refreshCursor;
+    private ScheduledExecutorService refresher;
+    
+    /**
+     * Quantities of every SKU and warehouse; replaced as a whole when the index grows.
+     */
+    private static final class Table {
+        private final int stride;
+        private final int skuCapacity;
+        private final int[] available;
+        private final int[] reserved;
+        
+        private Table(int stride, int skuCapacity) {
+            this.stride = stride;
+            this.skuCapacity = skuCapacity;
+            this.available = new int[stride * skuCapacity];
+            this.reserved = new int[stride * skuCapacity];
+        }
+        
+        private Table grow(int warehouseCount, int skuCount) {
+            int newStride = stride;
+            while (newStride < warehouseCount) {
+                newStride *= 2;
+            }
+            int newCapacity = skuCapacity;
+            while (newCapacity < skuCount) {
+                newCapacity *= 2;
+            }
+            if (newStride == stride && newCapacity == skuCapacity) {
+                return this;
+            }
+            Table grown = new Table(newStride, newCapacity);
+            for (int sku = 0; sku < skuCapacity; sku++) {
+                System.arraycopy(available, sku * stride, grown.available, sku * newStride, stride);
+                System.arraycopy(reserved, sku * stride, grown.reserved, sku * newStride, stride);
+            }
+            return grown;
+        }
+    }
+    
+    /**
+     * Creates an empty index configured from inventory.index.*.
+     */
+    public InventoryIndex() {
+        this(new ProductsApiClient(), ApiConfig.getInventoryIndexBatchSize(), ApiConfig.getInventoryIndexFetchThreads());
+    }
+    
+    /**
+     * @param productsApi Products client
+     * @param batchSize SKUs per batch inventory request
+     * @param fetchThreads Batch requests in flight at once
+     */
+    public InventoryIndex(ProductsApiClient productsApi, int batchSize, int fetchThreads) {
+        this(productsApi, batchSize, fetchThreads, INITIAL_STRIDE, INITIAL_SKUS);
+    }
+    
+    /**
+     * @param productsApi Products client
+     * @param batchSize SKUs per batch inventory request
+     * @param fetchThreads Batch requests in flight at once
+     * @param warehouseCapacity Warehouses the quantity arrays hold before they are first grown
+     * @param skuCapacity SKUs the quantity arrays hold before they are first grown
+     */
+    public InventoryIndex(ProductsApiClient productsApi, int batchSize, int fetchThreads,
+                          int warehouseCapacity, int skuCapacity) {
+        this.productsApi = productsApi;
+        this.batchSize = Math.max(1, batchSize);
+        this.table = new Table(Math.max(1, warehouseCapacity), Math.max(1, skuCapacity));
+        this.fetchers = Executors.newFixedThreadPool(Math.max(1, fetchThreads), runnable -> {
+            Thread thread = new Thread(runnable, "inventory-index-fetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Fetches inventory of SKUs and adds them to the index, or refreshes them if already known.
+     * @param skuList SKUs to load
+     * @return Number of quantity cells that changed
+     * @throws IllegalStateException if a batch request fails
+     */
+    public int load(Collection<String> skuList) {
+        long start = System.nanoTime();
+        List<String> unique = new ArrayList<>(new LinkedHashSet<>(skuList));
+        List<CompletableFuture<Integer>> batches = new ArrayList<>();
+        for (int from = 0; from < unique.size(); from += batchSize) {
+            List<String> batch = unique.subList(from, Math.min(unique.size(), from + batchSize));
+            batches.add(CompletableFuture.supplyAsync(() -> apply(fetch(batch)), fetchers));
+        }
+        int changed = 0;
+        try {
+            for (CompletableFuture<Integer> batch : batches) {
+                changed += batch.join();
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        logger.debug("Loaded inventory of {} SKUs in {} batches: {} cells changed in {} ms", unique.size(),
+                batches.size(), changed, (System.nanoTime() - start) / 1_000_000);
+        return changed;
+    }
+    
+    /**
+     * Refreshes the next slice of known SKUs, continuing where the previous call stopped.
+     * @return Number of quantity cells that changed
+     */
+    public int refreshNext() {
+        List<String> slice = new ArrayList<>();
+        synchronized (this) {
+            int count = Math.min(skus.size(), ApiConfig.getInventoryIndexRefreshSkusPerTick());
+            for (int i = 0; i < count; i++) {
+                refreshCursor = refreshCursor % skus.size();
+                slice.add(skus.get(refreshCursor++));
+            }
+        }
+        return slice.isEmpty() ? 0 : load(slice);
+    }
+    
+    /**
+     * Refreshes on a daemon thread every inventory.index.refresh.interval.seconds until {@link #close()}.
+     */
+    public synchronized void start() {
+        start(Duration.ofSeconds(ApiConfig.getInventoryIndexRefreshIntervalSeconds()));
+    }
+    
+    /**
+     * Refreshes on a daemon thread at a fixed delay until {@link #close()}; failed refreshes are logged and retried.
+     * @param interval Delay between the end of one refresh and the start of the next
+     */
+    public synchronized void start(Duration interval) {
+        if (refresher != null) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-index-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                refreshNext();
+            } catch (RuntimeException e) {
+                logger.warn("Inventory index refresh failed: {}", e.getMessage());
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Checks whether one warehouse has enough available stock for every line of a cart.
+     * @param warehouseId Warehouse ID from {@link #warehouseId(String, String)}
+     * @param skuIdList SKU IDs of the cart lines from {@link #skuIds(List)}
+     * @param quantities Quantity of each line
+     * @return true if every line is covered by quantityAvailable; false for unknown SKUs or warehouses
+     */
+    public boolean canFulfill(int warehouseId, int[] skuIdList, int[] quantities) {
+        Table current = table;
+        if (warehouseId < 0 || warehouseId >= current.stride) {
+            return false;
+        }
+        for (int i = 0; i < skuIdList.length; i++) {
+            int sku = skuIdList[i];
+            if (sku < 0 || sku >= current.skuCapacity || current.available[sku * current.stride + warehouseId] < quantities[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Checks whether one warehouse can ship a whole cart; resolves codes on every call, so prefer
+     * {@link #canFulfill(int, int[], int[])} in hot loops.
+     * @param distributorId Distributor ID
+     * @param warehouseCode Warehouse code
+     * @param cart Quantity per SKU
+     * @return true if every SKU is available in the requested quantity
+     */
+    public boolean canFulfill(String distributorId, String warehouseCode, Map<String, Integer> cart) {
+        int[] skuIdList = new int[cart.size()];
+        int[] quantities = new int[cart.size()];
+        Iterator<Map.Entry<String, Integer>> lines = cart.entrySet().iterator();
+        for (int i = 0; lines.hasNext(); i++) {
+            Map.Entry<String, Integer> line = lines.next();
+            skuIdList[i] = skuId(line.getKey());
+            quantities[i] = line.getValue();
+        }
+        return canFulfill(warehouseId(distributorId, warehouseCode), skuIdList, quantities);
+    }
+    
+    /**
+     * Finds every warehouse that can ship a whole cart on its own.
+     * @param skuIdList SKU IDs of the cart lines
+     * @param quantities Quantity of each line
+     * @return Warehouse IDs in ascending order
+     */
+    public int[] fulfillingWarehouses(int[] skuIdList, int[] quantities) {
+        int count = getWarehouseCount();
+        int[] found = new int[count];
+        int size = 0;
+        for (int warehouse = 0; warehouse < count; warehouse++) {
+            if (canFulfill(warehouse, skuIdList, quantities)) {
+                found[size++] = warehouse;
+            }
+        }
+        return Arrays.copyOf(found, size);
+    }
+    
+    /**
+     * Gets the quantity available of a SKU at a warehouse.
+     * @param skuId SKU ID
+     * @param warehouseId Warehouse ID
+     * @return quantityAvailable, 0 if unknown
+     */
+    public int getAvailable(int skuId, int warehouseId) {
+        Table current = table;
+        return skuId < 0 || skuId >= current.skuCapacity || warehouseId < 0 || warehouseId >= current.stride
+                ? 0 : current.available[skuId * current.stride + warehouseId];
+    }
+    
+    /**
+     * Gets the quantity reserved of a SKU at a warehouse.
+     * @param skuId SKU ID
+     * @param warehouseId Warehouse ID
+     * @return quantityReserved, 0 if unknown
+     */
+    public int getReserved(int skuId, int warehouseId) {
+        Table current = table;
+        return skuId < 0 || skuId >= current.skuCapacity || warehouseId < 0 || warehouseId >= current.stride
+                ? 0 : current.reserved[skuId * current.stride + warehouseId];
+    }
+    
+    /**
+     * Gets the quantity available of a SKU across all warehouses.
+     * @param skuId SKU ID
+     * @return Sum of quantityAvailable, 0 if unknown
+     */
+    public int getTotalAvailable(int skuId) {
+        Table current = table;
+        if (skuId < 0 || skuId >= current.skuCapacity) {
+            return 0;
+        }
+        int total = 0;
+        for (int i = skuId * current.stride, end = i + current.stride; i < end; i++) {
+            total += current.available[i];
+        }
+        return total;
+    }
+    
+    /**
+     * Resolves a SKU to its id.
+     * @param sku SKU
+     * @return SKU ID, or -1 if the SKU was never loaded
+     */
+    public int skuId(String sku) {
+        Integer id = skuIds.get(sku.toUpperCase(Locale.ROOT));
+        return id == null ? -1 : id;
+    }
+    
+    /**
+     * Resolves cart SKUs to ids once, for repeated {@link #canFulfill(int, int[], int[])} calls.
+     * @param skuList SKUs
+     * @return SKU IDs in the same order, -1 for unknown SKUs
+     */
+    public int[] skuIds(List<String> skuList) {
+        int[] ids = new int[skuList.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = skuId(skuList.get(i));
+        }
+        return ids;
+    }
+    
+    /**
+     * Resolves a warehouse to its id.
+     * @param distributorId Distributor ID
+     * @param warehouseCode Warehouse code
+     * @return Warehouse ID, or -1 if no loaded SKU is stocked there
+     */
+    public int warehouseId(String distributorId, String warehouseCode) {
+        Integer id = warehouseIds.get(warehouseKey(distributorId, warehouseCode));
+        return id == null ? -1 : id;
+    }
+    
+    /**
+     * Gets a warehouse by id.
+     * @param warehouseId Warehouse ID
+     * @return "distributorId|WAREHOUSE"
+     */
+    public synchronized String getWarehouse(int warehouseId) {
+        return warehouses.get(warehouseId);
+    }
+    
+    public synchronized int getWarehouseCount() {
+        return warehouses.size();
+    }
+    
+    public synchronized int getSkuCount() {
+        return skus.size();
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+        fetchers.shutdownNow();
+    }
+    
+    private static String warehouseKey(String distributorId, String warehouseCode) {
+        return (distributorId == null ? "" : distributorId.toLowerCase(Locale.ROOT)) + "|"
+                + warehouseCode.toUpperCase(Locale.ROOT);
+    }
+    
+    private JsonNode fetch(List<String> batch) {
+        Response response = productsApi.getBatchInventory(batch);
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("GET /api/products/inventory/batch returned HTTP " + response.getStatusCode());
+        }
+        try {
+            return BaseApiClient.getObjectMapper().readTree(response.asByteArray()).path("data");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Writes the stock rows of a batch response. Each SKU's row is built aside and copied over the old one, so a
+     * cell goes straight from its old to its new quantity and never shows a partial sum; the copy itself is not
+     * atomic, so a concurrent reader may see part of a row refreshed. Warehouses missing from the answer drop to 0.
+     */
+    private synchronized int apply(JsonNode data) {
+        int changed = 0;
+        Iterator<Map.Entry<String, JsonNode>> entries = data.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            String sku = entry.getKey().toUpperCase(Locale.ROOT);
+            List<int[]> cells = new ArrayList<>();
+            for (JsonNode stock : entry.getValue()) {
+                String warehouseCode = stock.path("warehouseCode").asText(null);
+                if (warehouseCode != null) {
+                    int warehouse = internWarehouse(warehouseKey(stock.path("distributorId").asText(null), warehouseCode));
+                    cells.add(new int[]{warehouse, stock.path("quantityAvailable").asInt(), stock.path("quantityReserved").asInt()});
+                }
+            }
+            int skuId = internSku(sku);
+            Table current = table;
+            int[] available = new int[current.stride];
+            int[] reserved = new int[current.stride];
+            for (int[] cell : cells) {
+                available[cell[0]] += cell[1];
+                reserved[cell[0]] += cell[2];
+            }
+            int row = skuId * current.stride;
+            for (int warehouse = 0; warehouse < current.stride; warehouse++) {
+                if (current.available[row + warehouse] != available[warehouse]
+                        || current.reserved[row + warehouse] != reserved[warehouse]) {
+                    changed++;
+                }
+            }
+            System.arraycopy(available, 0, current.available, row, current.stride);
+            System.arraycopy(reserved, 0, current.reserved, row, current.stride);
+            // The arrays are written in place, so this volatile write of the same table is what publishes the
+            // row: a reader that loads the field afterwards sees every cell copied above
+            table = current;
+        }
+        return changed;
+    }
+    
+    private int internSku(String sku) {
+        Integer id = skuIds.get(sku);
+        if (id != null) {
+            return id;
+        }
+        skus.add(sku);
+        table = table.grow(warehouses.size(), skus.size());
+        skuIds.put(sku, skus.size() - 1);
+        return skus.size() - 1;
+    }
+    
+    private int internWarehouse(String key) {
+        Integer id = warehouseIds.get(key);
+        if (id != null) {
+            return id;
+        }
+        warehouses.add(key);
+        table = table.grow(warehouses.size(), Math.max(1, skus.size()));
+        warehouseIds.put(key, warehouses.size() - 1);
+        return warehouses.size() - 1;
+    }
+}
@@ -0,0 +1,30 @@
+package com.dif.api.models.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Product filters of GET /api/products, mirroring the API's ProductQueryDto.
+ * sku and brandName match substrings, gtin matches exactly, the other filters match case-insensitively.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductQuery {
+    
+    private String sku;
+    private String styleCode;
+    private String brandName;
+    private String gtin;
+    private String color;
+    private String size;
+    private String distributorId;
+    private Boolean inStockOnly;
+    private Integer page;
+    private Integer pageSize;
+}
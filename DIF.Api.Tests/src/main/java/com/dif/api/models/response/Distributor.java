@@ -1,6 +1,7 @@
 package com.dif.api.models.response;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -18,6 +19,7 @@ public class Distributor {
     private String code;
     private String apiBaseUrl;
     private boolean hasApiIntegration;
+    @JsonProperty("isActive")
     private boolean isActive;
     private String apiVersion;
     private String healthStatus;
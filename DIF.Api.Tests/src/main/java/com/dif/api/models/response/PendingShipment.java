@@ -19,4 +19,6 @@ public class PendingShipment {
     private String carrier;
     private String currentStatus;
     private String estimatedDelivery;
+    private String lastUpdated;
+    private String distributorId;
 }
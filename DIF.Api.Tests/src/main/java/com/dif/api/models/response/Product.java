@@ -1,6 +1,7 @@
 package com.dif.api.models.response;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -32,7 +33,9 @@ public class Product {
     private String category;
     private BigDecimal weight;
     private String distributorId;
+    @JsonProperty("isActive")
     private boolean isActive;
+    @JsonProperty("isDiscontinued")
     private boolean isDiscontinued;
     private String lastUpdated;
 }
@@ -1,6 +1,7 @@
 package com.dif.api.models.response;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -20,6 +21,8 @@ public class RateLimitConfig {
     private int burstAllowance;
     private int currentRequestCount;
     private int remainingRequests;
+    @JsonProperty("isApproachingLimit")
     private boolean isApproachingLimit;
+    @JsonProperty("isRateLimited")
     private boolean isRateLimited;
 }
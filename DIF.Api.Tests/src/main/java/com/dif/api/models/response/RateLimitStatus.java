@@ -1,6 +1,7 @@
 package com.dif.api.models.response;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -18,7 +19,9 @@ public class RateLimitStatus {
     private int requestsPerMinute;
     private int currentRequestCount;
     private int remainingRequests;
+    @JsonProperty("isApproachingLimit")
     private boolean isApproachingLimit;
+    @JsonProperty("isRateLimited")
     private boolean isRateLimited;
     private int secondsUntilReset;
     private int queueDepth;
@@ -1,6 +1,7 @@
 package com.dif.api.models.response;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -22,6 +23,7 @@ public class ShippingOption {
     private int estimatedTransitDays;
     private BigDecimal estimatedCost;
     private String distributorId;
+    @JsonProperty("isAvailable")
     private boolean isAvailable;
     private String description;
 }
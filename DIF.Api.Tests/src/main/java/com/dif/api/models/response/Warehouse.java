@@ -1,6 +1,7 @@
 package com.dif.api.models.response;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -24,5 +25,6 @@ public class Warehouse {
     private String cutoffTime;
     private String timezone;
     private String distributorId;
+    @JsonProperty("isActive")
     private boolean isActive;
 }
@@ -0,0 +1,28 @@
+package com.dif.api.polling;
+
+/**
+ * Thrown when an awaited state is not reached before the deadline.
+ * Carries the last observed value so a failing test can report how far the state got.
+ */
+public class AwaitTimeoutException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final transient Object lastObserved;
+    private final int polls;
+    
+    public AwaitTimeoutException(String description, Object lastObserved, int polls, Throwable lastError) {
+        super("Timed out waiting for " + description + " after " + polls + " polls; last observed: "
+                + (lastObserved == null ? "nothing" : lastObserved), lastError);
+        this.lastObserved = lastObserved;
+        this.polls = polls;
+    }
+    
+    public Object getLastObserved() {
+        return lastObserved;
+    }
+    
+    public int getPolls() {
+        return polls;
+    }
+}
@@ -0,0 +1,219 @@
+package com.dif.api.polling;
+
+import com.dif.api.config.ApiConfig;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Polls the API until a state is reached, with many concurrent waits multiplexed onto one scheduler thread.
+ * <p>
+ * A waiting caller holds only a future; the scheduler thread times every poll and hands it to a small
+ * poller pool. The interval starts short, grows while the observed value stays the same and drops back
+ * when it changes. Once a wait knows its distributor, every later poll takes a permit from the shared
+ * {@link DistributorRateLimiter}, and a 429 pauses that distributor's bucket.
+ */
+public class PollingScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PollingScheduler.class);
+    private static final double JITTER = 0.1;
+    private static PollingScheduler shared;
+    
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService pollers;
+    private final DistributorRateLimiter rateLimiter;
+    private final long initialIntervalNanos;
+    private final long maxIntervalNanos;
+    private final double multiplier;
+    
+    /**
+     * Creates a scheduler.
+     * @param rateLimiter Limiter polls are charged to
+     * @param initialInterval Interval after the first poll and after every observed change
+     * @param maxInterval Longest interval between polls
+     * @param multiplier Interval growth while nothing changes
+     * @param pollerThreads Threads sending polls
+     */
+    public PollingScheduler(DistributorRateLimiter rateLimiter, Duration initialInterval, Duration maxInterval,
+                            double multiplier, int pollerThreads) {
+        this.rateLimiter = rateLimiter;
+        this.initialIntervalNanos = Math.max(1, initialInterval.toNanos());
+        this.maxIntervalNanos = Math.max(initialIntervalNanos, maxInterval.toNanos());
+        this.multiplier = Math.max(1.0, multiplier);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "await-scheduler"));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pollers = Executors.newFixedThreadPool(Math.max(1, pollerThreads),
+                runnable -> daemon(runnable, "await-poller-" + threadNumber.incrementAndGet()));
+    }
+    
+    /**
+     * Gets the scheduler shared by all API clients, configured from await.poll.* settings.
+     * @return Shared scheduler
+     */
+    public static synchronized PollingScheduler getShared() {
+        if (shared == null) {
+            shared = new PollingScheduler(DistributorRateLimiter.getShared(),
+                    Duration.ofMillis(ApiConfig.getAwaitPollInitialMs()), Duration.ofMillis(ApiConfig.getAwaitPollMaxMs()),
+                    ApiConfig.getAwaitPollMultiplier(), ApiConfig.getAwaitPollThreads());
+        }
+        return shared;
+    }
+    
+    /**
+     * Starts waiting for a state. The first poll is sent immediately.
+     * @param description What is awaited, used in the timeout message
+     * @param poll Sends one poll request
+     * @param reader Reads the observed value from a response, null if there is none yet (e.g. 404)
+     * @param condition Whether an observed value is the awaited state
+     * @param distributorId Distributor whose rate limit polls are charged to, null until an observed value names it
+     * @param distributorOf Distributor an observed value belongs to, may return null
+     * @param deadline Time after which the wait fails with {@link AwaitTimeoutException}
+     * @param <T> Observed value type
+     * @return Future completed with the first value meeting the condition; cancelling it stops the polls
+     */
+    public <T> CompletableFuture<T> await(String description, Supplier<Response> poll, Function<Response, T> reader,
+                                          Predicate<T> condition, String distributorId, Function<T, String> distributorOf,
+                                          Instant deadline) {
+        Wait<T> wait = new Wait<>(description, poll, reader, condition, distributorId, distributorOf,
+                System.nanoTime() + Math.max(0, Duration.between(Instant.now(), deadline).toNanos()));
+        pollers.execute(wait);
+        return wait.result;
+    }
+    
+    /**
+     * Waits for a future from {@link #await}, rethrowing its failure unwrapped.
+     * @param future Await future
+     * @param <T> Observed value type
+     * @return Awaited value
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    private final class Wait<T> implements Runnable {
+        private final String description;
+        private final Supplier<Response> poll;
+        private final Function<Response, T> reader;
+        private final Predicate<T> condition;
+        private final Function<T, String> distributorOf;
+        private final long deadlineNanos;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private long intervalNanos = initialIntervalNanos;
+        private T lastObserved;
+        private RuntimeException lastError;
+        private String distributorId;
+        private int polls;
+        
+        Wait(String description, Supplier<Response> poll, Function<Response, T> reader, Predicate<T> condition,
+             String distributorId, Function<T, String> distributorOf, long deadlineNanos) {
+            this.description = description;
+            this.poll = poll;
+            this.reader = reader;
+            this.condition = condition;
+            this.distributorId = distributorId;
+            this.distributorOf = distributorOf;
+            this.deadlineNanos = deadlineNanos;
+        }
+        
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                return;
+            }
+            polls++;
+            try {
+                Response response = poll.get();
+                if (response.getStatusCode() == 429) {
+                    throttled(response);
+                } else {
+                    T value = reader.apply(response);
+                    if (value != null) {
+                        String owner = distributorOf.apply(value);
+                        distributorId = owner != null ? owner : distributorId;
+                        if (condition.test(value)) {
+                            logger.debug("Reached {} after {} polls", description, polls);
+                            result.complete(value);
+                            return;
+                        }
+                    }
+                    observed(value);
+                }
+            } catch (RuntimeException e) {
+                lastError = e;
+                observed(lastObserved);
+            }
+            scheduleNext();
+        }
+        
+        private void observed(T value) {
+            // Back off while nothing changes; poll quickly again once the state starts moving
+            intervalNanos = Objects.equals(value, lastObserved)
+                    ? Math.min(maxIntervalNanos, (long) (intervalNanos * multiplier))
+                    : initialIntervalNanos;
+            lastObserved = value;
+        }
+        
+        private void throttled(Response response) {
+            intervalNanos = maxIntervalNanos;
+            if (distributorId != null) {
+                String retryAfter = response.getHeader("Retry-After");
+                long pauseNanos = retryAfter != null && retryAfter.matches("\\d+")
+                        ? TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter)) : maxIntervalNanos;
+                rateLimiter.pause(distributorId, Duration.ofNanos(pauseNanos));
+            }
+        }
+        
+        private void scheduleNext() {
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) {
+                timeOut();
+                return;
+            }
+            long jittered = (long) (intervalNanos * (1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER)));
+            long delay = Math.min(jittered, remaining);
+            if (distributorId != null) {
+                long permitDelay = rateLimiter.reserve(distributorId, remaining);
+                if (permitDelay < 0) {
+                    // The rate limit leaves no room for another poll before the deadline
+                    scheduler.schedule(this::timeOut, remaining, TimeUnit.NANOSECONDS);
+                    return;
+                }
+                delay = Math.max(delay, permitDelay);
+            }
+            scheduler.schedule(() -> pollers.execute(this), delay, TimeUnit.NANOSECONDS);
+        }
+        
+        private void timeOut() {
+            result.completeExceptionally(new AwaitTimeoutException(description, lastObserved, polls, lastError));
+        }
+    }
+    
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,176 @@
+package com.dif.api.ratelimit;
+
+import com.dif.api.config.ApiConfig;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToIntFunction;
+
+/**
+ * Client-side token bucket per distributor, so helpers that fan out requests stay within the
+ * API's per-distributor rate limit instead of provoking 429s.
+ * <p>
+ * Permits are reserved rather than waited for: {@link #reserve(String)} takes a permit immediately
+ * and returns how long the caller must wait before using it, which lets schedulers delay work
+ * without parking a thread. A 429 from the API can {@link #pause(String, Duration) pause} a bucket.
+ */
+public class DistributorRateLimiter {
+    
+    private static DistributorRateLimiter shared;
+    
+    private final ToIntFunction<String> requestsPerMinute;
+    private final double burst;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    
+    private final class Bucket {
+        private final double permitsPerNano;
+        private double tokens = burst;
+        private long refillFrom = System.nanoTime();
+        
+        Bucket(int requestsPerMinute) {
+            this.permitsPerNano = Math.max(1, requestsPerMinute) / (double) TimeUnit.MINUTES.toNanos(1);
+        }
+        
+        private void refill(long now) {
+            if (now > refillFrom) {
+                tokens = Math.min(burst, tokens + (now - refillFrom) * permitsPerNano);
+                refillFrom = now;
+            }
+        }
+        
+        synchronized long reserve(long now, long maxWaitNanos) {
+            refill(now);
+            long wait = Math.max(0, refillFrom - now);
+            if (tokens < 1) {
+                wait += (long) Math.ceil((1 - tokens) / permitsPerNano);
+            }
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            tokens -= 1;
+            return wait;
+        }
+        
+        synchronized boolean tryAcquire(long now) {
+            refill(now);
+            if (now < refillFrom || tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+        
+        synchronized void pause(long now, long nanos) {
+            refill(now);
+            tokens = Math.min(tokens, 0);
+            refillFrom = Math.max(refillFrom, now + nanos);
+        }
+        
+        synchronized double available(long now) {
+            refill(now);
+            return now < refillFrom ? 0 : Math.max(0, tokens);
+        }
+    }
+    
+    /**
+     * Creates a limiter with the same rate for every distributor.
+     * @param requestsPerMinute Sustained requests per minute per distributor
+     * @param burst Requests a distributor may make back to back after being idle
+     */
+    public DistributorRateLimiter(int requestsPerMinute, int burst) {
+        this(distributorId -> requestsPerMinute, burst);
+    }
+    
+    /**
+     * Creates a limiter with a rate per distributor.
+     * @param requestsPerMinute Sustained requests per minute of a distributor ID (lower case)
+     * @param burst Requests a distributor may make back to back after being idle
+     */
+    public DistributorRateLimiter(ToIntFunction<String> requestsPerMinute, int burst) {
+        this.requestsPerMinute = requestsPerMinute;
+        this.burst = Math.max(1, burst);
+    }
+    
+    /**
+     * Gets the limiter shared by all helpers in the JVM, sized from configuration.
+     * @return Shared limiter
+     */
+    public static synchronized DistributorRateLimiter getShared() {
+        if (shared == null) {
+            shared = new DistributorRateLimiter(ApiConfig::getClientRateLimitRequestsPerMinute,
+                    ApiConfig.getClientRateLimitBurst());
+        }
+        return shared;
+    }
+    
+    /**
+     * Reserves a permit for a distributor.
+     * @param distributorId Distributor ID
+     * @return Nanoseconds to wait before sending the request, 0 if it may go now
+     */
+    public long reserve(String distributorId) {
+        return reserve(distributorId, Long.MAX_VALUE);
+    }
+    
+    /**
+     * Reserves a permit for a distributor only if it can be used within a time limit.
+     * @param distributorId Distributor ID
+     * @param maxWaitNanos Longest acceptable wait
+     * @return Nanoseconds to wait before sending the request, or -1 if that would exceed maxWaitNanos, in which
+     * case no permit is taken
+     */
+    public long reserve(String distributorId, long maxWaitNanos) {
+        return bucket(distributorId).reserve(System.nanoTime(), maxWaitNanos);
+    }
+    
+    /**
+     * Takes a permit only if one is available now.
+     * @param distributorId Distributor ID
+     * @return true if a permit was taken
+     */
+    public boolean tryAcquire(String distributorId) {
+        return bucket(distributorId).tryAcquire(System.nanoTime());
+    }
+    
+    /**
+     * Takes a permit, parking the calling thread until it may be used.
+     * @param distributorId Distributor ID
+     */
+    public void acquire(String distributorId) {
+        long deadline = System.nanoTime() + reserve(distributorId);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Interrupted while waiting for a " + distributorId + " rate limit permit");
+            }
+        }
+    }
+    
+    /**
+     * Stops handing out permits for a distributor for a while, e.g. after the API answered 429.
+     * @param distributorId Distributor ID
+     * @param duration Pause length
+     */
+    public void pause(String distributorId, Duration duration) {
+        bucket(distributorId).pause(System.nanoTime(), duration.toNanos());
+    }
+    
+    /**
+     * Gets the permits a distributor could use right now.
+     * @param distributorId Distributor ID
+     * @return Whole permits available
+     */
+    public int getAvailablePermits(String distributorId) {
+        return (int) bucket(distributorId).available(System.nanoTime());
+    }
+    
+    private Bucket bucket(String distributorId) {
+        return buckets.computeIfAbsent(distributorId.toLowerCase(Locale.ROOT),
+                id -> new Bucket(requestsPerMinute.applyAsInt(id)));
+    }
+}
@@ -0,0 +1,334 @@
+package com.dif.api.shipping;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Read-only, memory-mapped matrix of precomputed shipping rates by destination ZIP prefix, origin lane
+ * (distributor warehouse) and shipping method, built by {@link RateMatrixBuilder}.
+ * <p>
+ * Every cell holds a linear rate fitted from two estimates (fixed part plus a per-unit part) and the transit
+ * days, so any cart size is priced without a request. Lookups read the mapping directly and allocate nothing
+ * but the result, which keeps them in the microsecond range.
+ * <p>
+ * Layout: a 64-byte header (magic "DIFRATE1", built-at millis, first prefix, prefix count, lane count, method
+ * count, low units, high units, cell offset, filled cells, reserved), the lane table
+ * ({@code short length | "distributorId|WAREHOUSE"}), the method table
+ * ({@code short length | code | short length | name | short length | carrier}), then 12-byte cells of
+ * {@code int fixed | int perUnit | short transitDays | short state} in prefix, lane, method order, packed without
+ * padding. Amounts are in ten-thousandths of a dollar.
+ */
+public class RateMatrix {
+    
+    static final byte[] MAGIC = "DIFRATE1".getBytes(StandardCharsets.US_ASCII);
+    static final int BUILT_AT_POSITION = 8;
+    static final int FIRST_PREFIX_POSITION = 16;
+    static final int PREFIX_COUNT_POSITION = 20;
+    static final int LANE_COUNT_POSITION = 24;
+    static final int METHOD_COUNT_POSITION = 28;
+    static final int LOW_UNITS_POSITION = 32;
+    static final int HIGH_UNITS_POSITION = 36;
+    static final int CELL_OFFSET_POSITION = 40;
+    static final int FILLED_CELLS_POSITION = 44;
+    static final int HEADER_SIZE = 64;
+    static final int CELL_SIZE = 12;
+    static final int AMOUNT_SCALE = 4;
+    
+    static final short EMPTY = 0;
+    static final short FILLED = 1;
+    static final short NOT_OFFERED = 2;
+    
+    private final Path file;
+    private final MappedByteBuffer mapping;
+    private final int firstPrefix;
+    private final int prefixCount;
+    private final int methodCount;
+    private final int cellOffset;
+    private final List<String> lanes = new ArrayList<>();
+    private final Map<String, Integer> laneIndex = new HashMap<>();
+    private final List<Method> methods = new ArrayList<>();
+    private final Map<String, Integer> methodIndex = new HashMap<>();
+    
+    /**
+     * A shipping method column of the matrix.
+     */
+    static final class Method {
+        final String code;
+        final String name;
+        final String carrier;
+        
+        Method(String code, String name, String carrier) {
+            this.code = code;
+            this.name = name;
+            this.carrier = carrier;
+        }
+    }
+    
+    /**
+     * Maps a matrix file and reads its lane and method tables.
+     * @param file Matrix file
+     * @throws IOException if the file cannot be read or is not a rate matrix
+     */
+    public RateMatrix(Path file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Rate matrix " + file + " is larger than 2 GB");
+            }
+            this.mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        checkMagic(mapping, file);
+        this.firstPrefix = mapping.getInt(FIRST_PREFIX_POSITION);
+        this.prefixCount = mapping.getInt(PREFIX_COUNT_POSITION);
+        this.methodCount = mapping.getInt(METHOD_COUNT_POSITION);
+        this.cellOffset = mapping.getInt(CELL_OFFSET_POSITION);
+        
+        ByteBuffer tables = mapping.duplicate().position(HEADER_SIZE);
+        int laneCount = mapping.getInt(LANE_COUNT_POSITION);
+        for (int i = 0; i < laneCount; i++) {
+            String lane = readString(tables);
+            lanes.add(lane);
+            laneIndex.put(lane, i);
+        }
+        for (int i = 0; i < methodCount; i++) {
+            Method method = new Method(readString(tables), readString(tables), readString(tables));
+            methods.add(method);
+            methodIndex.put(method.code, i);
+        }
+        if ((long) cellOffset + (long) prefixCount * laneCount * methodCount * CELL_SIZE > mapping.capacity()) {
+            throw new IOException("Rate matrix " + file + " is truncated");
+        }
+    }
+    
+    static void checkMagic(ByteBuffer buffer, Path file) throws IOException {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.capacity() <= i || buffer.get(i) != MAGIC[i]) {
+                throw new IOException(file + " is not a rate matrix");
+            }
+        }
+    }
+    
+    static String laneKey(String distributorId, String warehouseCode) {
+        return distributorId.toLowerCase(Locale.ROOT) + "|"
+                + (warehouseCode == null ? "" : warehouseCode.toUpperCase(Locale.ROOT));
+    }
+    
+    static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    static void writeString(ByteBuffer buffer, String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+    
+    /**
+     * Gets the estimated cost of shipping a cart.
+     * @param destinationZip Destination ZIP code
+     * @param distributorId Distributor ID
+     * @param warehouseCode Origin warehouse code
+     * @param methodCode Shipping method code
+     * @param units Total units in the cart
+     * @return Estimated cost, or null if the matrix has no rate for the combination
+     */
+    public BigDecimal getCost(String destinationZip, String distributorId, String warehouseCode, String methodCode,
+                              int units) {
+        int cell = cell(destinationZip, distributorId, warehouseCode, methodCode);
+        return cell < 0 ? null : cost(cell, units);
+    }
+    
+    /**
+     * Gets the estimated transit days.
+     * @param destinationZip Destination ZIP code
+     * @param distributorId Distributor ID
+     * @param warehouseCode Origin warehouse code
+     * @param methodCode Shipping method code
+     * @return Transit days, or -1 if the matrix has no rate for the combination
+     */
+    public int getTransitDays(String destinationZip, String distributorId, String warehouseCode, String methodCode) {
+        int cell = cell(destinationZip, distributorId, warehouseCode, methodCode);
+        return cell < 0 ? -1 : mapping.getShort(cell + 2 * Integer.BYTES);
+    }
+    
+    /**
+     * Gets every precomputed option for a destination.
+     * @param destinationZip Destination ZIP code
+     * @param units Total units in the cart
+     * @return Quotes of all lanes and methods with a rate, in matrix order; empty if the prefix is not covered
+     */
+    public List<RateQuote> quotes(String destinationZip, int units) {
+        int prefix = prefixIndex(destinationZip);
+        if (prefix < 0) {
+            return Collections.emptyList();
+        }
+        List<RateQuote> quotes = new ArrayList<>();
+        for (int lane = 0; lane < lanes.size(); lane++) {
+            for (int method = 0; method < methodCount; method++) {
+                int cell = offset(prefix, lane, method);
+                if (mapping.getShort(cell + 2 * Integer.BYTES + Short.BYTES) == FILLED) {
+                    quotes.add(quote(lane, method, cell, units));
+                }
+            }
+        }
+        return quotes;
+    }
+    
+    /**
+     * Gets the best precomputed option for a destination.
+     * @param destinationZip Destination ZIP code
+     * @param units Total units in the cart
+     * @param criterion What the best quote minimizes
+     * @return Best quote, or null if the prefix has no rates
+     */
+    public RateQuote best(String destinationZip, int units, RateShopCriterion criterion) {
+        int prefix = prefixIndex(destinationZip);
+        if (prefix < 0) {
+            return null;
+        }
+        // Compares the raw cells and builds only the winning quote, in the same order as criterion.order()
+        int bestLane = -1;
+        int bestMethod = -1;
+        long bestAmount = 0;
+        int bestDays = 0;
+        for (int lane = 0; lane < lanes.size(); lane++) {
+            for (int method = 0; method < methodCount; method++) {
+                int cell = offset(prefix, lane, method);
+                if (mapping.getShort(cell + 2 * Integer.BYTES + Short.BYTES) != FILLED) {
+                    continue;
+                }
+                long amount = amount(cell, units);
+                int days = mapping.getShort(cell + 2 * Integer.BYTES);
+                boolean better = bestLane < 0 || (criterion == RateShopCriterion.TRANSIT_DAYS
+                        ? days < bestDays || days == bestDays && amount < bestAmount
+                        : amount < bestAmount || amount == bestAmount && days < bestDays);
+                if (better) {
+                    bestLane = lane;
+                    bestMethod = method;
+                    bestAmount = amount;
+                    bestDays = days;
+                }
+            }
+        }
+        return bestLane < 0 ? null : quote(bestLane, bestMethod, offset(prefix, bestLane, bestMethod), units);
+    }
+    
+    private int cell(String destinationZip, String distributorId, String warehouseCode, String methodCode) {
+        int prefix = prefixIndex(destinationZip);
+        Integer lane = laneIndex.get(laneKey(distributorId, warehouseCode));
+        Integer method = methodIndex.get(methodCode);
+        if (prefix < 0 || lane == null || method == null) {
+            return -1;
+        }
+        int cell = offset(prefix, lane, method);
+        return mapping.getShort(cell + 2 * Integer.BYTES + Short.BYTES) == FILLED ? cell : -1;
+    }
+    
+    private int prefixIndex(String destinationZip) {
+        if (destinationZip == null || destinationZip.length() < 3) {
+            return -1;
+        }
+        int prefix = 0;
+        for (int i = 0; i < 3; i++) {
+            char digit = destinationZip.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            prefix = prefix * 10 + digit - '0';
+        }
+        prefix -= firstPrefix;
+        return prefix >= 0 && prefix < prefixCount ? prefix : -1;
+    }
+    
+    private int offset(int prefix, int lane, int method) {
+        return cellOffset + ((prefix * lanes.size() + lane) * methodCount + method) * CELL_SIZE;
+    }
+    
+    private long amount(int cell, int units) {
+        return mapping.getInt(cell) + (long) mapping.getInt(cell + Integer.BYTES) * units;
+    }
+    
+    private BigDecimal cost(int cell, int units) {
+        return BigDecimal.valueOf(amount(cell, units), AMOUNT_SCALE).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    private RateQuote quote(int lane, int method, int cell, int units) {
+        String key = lanes.get(lane);
+        int separator = key.indexOf('|');
+        String warehouseCode = key.substring(separator + 1);
+        Method column = methods.get(method);
+        return new RateQuote(key.substring(0, separator), warehouseCode.isEmpty() ? null : warehouseCode, column.code,
+                column.name, column.carrier, cost(cell, units), mapping.getShort(cell + 2 * Integer.BYTES), null);
+    }
+    
+    /**
+     * Gets the lanes in matrix order.
+     * @return Lane keys, "distributorId|WAREHOUSE"
+     */
+    public List<String> getLanes() {
+        return Collections.unmodifiableList(lanes);
+    }
+    
+    List<Method> getMethods() {
+        return Collections.unmodifiableList(methods);
+    }
+    
+    public int getFirstPrefix() {
+        return firstPrefix;
+    }
+    
+    public int getPrefixCount() {
+        return prefixCount;
+    }
+    
+    public int getLowUnits() {
+        return mapping.getInt(LOW_UNITS_POSITION);
+    }
+    
+    public int getHighUnits() {
+        return mapping.getInt(HIGH_UNITS_POSITION);
+    }
+    
+    public long getBuiltAtMillis() {
+        return mapping.getLong(BUILT_AT_POSITION);
+    }
+    
+    /**
+     * Gets how many cells hold a rate or are known not to be offered.
+     * @return Settled cells
+     */
+    public int getFilledCells() {
+        return mapping.getInt(FILLED_CELLS_POSITION);
+    }
+    
+    public int getCellCount() {
+        return prefixCount * lanes.size() * methodCount;
+    }
+    
+    /**
+     * Checks whether every cell was settled by the builder.
+     * @return true if no cell is still empty
+     */
+    public boolean isComplete() {
+        return getFilledCells() >= getCellCount();
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,402 @@
+package com.dif.api.shipping;
+
+import com.dif.api.client.ApiStatusException;
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.DistributorTopology;
+import com.dif.api.client.DistributorsApiClient;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.request.ShippingEstimateItem;
+import com.dif.api.models.request.ShippingEstimateRequest;
+import com.dif.api.models.response.ShippingEstimate;
+import com.dif.api.models.response.ShippingOptionEstimate;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch job that fills a {@link RateMatrix} file with shipping estimates for every ZIP prefix in
+ * rate.matrix.zip.prefix.first..last and every active distributor warehouse.
+ * <p>
+ * Each prefix and warehouse is quoted twice, for rate.matrix.units.low and rate.matrix.units.high units, and
+ * every shipping method of the answer is stored as a fixed plus per-unit rate. Requests take permits from the
+ * distributor's {@link DistributorRateLimiter} bucket, a 429 pauses the bucket and requeues the row, and other
+ * failures are retried up to rate.matrix.max.attempts times. Rows are written to the mapped file as they
+ * arrive, so rerunning the job against the same file and warehouses only fetches the rows that are missing or
+ * were left partly written.
+ */
+public class RateMatrixBuilder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RateMatrixBuilder.class);
+    
+    private final DistributorsApiClient distributorsApi;
+    private final DistributorTopology topology;
+    private final DistributorRateLimiter rateLimiter;
+    private final int firstPrefix;
+    private final int prefixCount;
+    private final int lowUnits;
+    private final int highUnits;
+    private final String sku;
+    private final int concurrencyPerDistributor;
+    private final int maxAttempts;
+    
+    /**
+     * One prefix and warehouse to quote.
+     */
+    private static final class Row {
+        private final int prefix;
+        private final int lane;
+        private final String distributorId;
+        private final String warehouseCode;
+        private int attempts;
+        
+        private Row(int prefix, int lane, String distributorId, String warehouseCode) {
+            this.prefix = prefix;
+            this.lane = lane;
+            this.distributorId = distributorId;
+            this.warehouseCode = warehouseCode;
+        }
+    }
+    
+    /**
+     * Creates a builder over the shared rate limiter, configured from rate.matrix.*.
+     */
+    public RateMatrixBuilder() {
+        this(new DistributorsApiClient(), DistributorTopology.getShared(), DistributorRateLimiter.getShared());
+    }
+    
+    public RateMatrixBuilder(DistributorsApiClient distributorsApi, DistributorTopology topology,
+                             DistributorRateLimiter rateLimiter) {
+        this(distributorsApi, topology, rateLimiter, ApiConfig.getRateMatrixFirstZipPrefix(),
+                ApiConfig.getRateMatrixLastZipPrefix());
+    }
+    
+    /**
+     * Creates a builder for a range of ZIP prefixes; the other settings come from rate.matrix.*.
+     * @param distributorsApi Distributors client
+     * @param topology Active distributors and warehouses
+     * @param rateLimiter Limiter estimate requests take permits from
+     * @param firstPrefix First three-digit destination ZIP prefix
+     * @param lastPrefix Last three-digit destination ZIP prefix, inclusive
+     */
+    public RateMatrixBuilder(DistributorsApiClient distributorsApi, DistributorTopology topology,
+                             DistributorRateLimiter rateLimiter, int firstPrefix, int lastPrefix) {
+        this.distributorsApi = distributorsApi;
+        this.topology = topology;
+        this.rateLimiter = rateLimiter;
+        this.firstPrefix = Math.max(0, firstPrefix);
+        this.prefixCount = Math.max(1, Math.min(999, lastPrefix) - this.firstPrefix + 1);
+        this.lowUnits = Math.max(1, ApiConfig.getRateMatrixLowUnits());
+        this.highUnits = Math.max(lowUnits, ApiConfig.getRateMatrixHighUnits());
+        this.sku = ApiConfig.getRateMatrixSku();
+        this.concurrencyPerDistributor = Math.max(1, ApiConfig.getRateMatrixConcurrencyPerDistributor());
+        this.maxAttempts = Math.max(1, ApiConfig.getRateMatrixMaxAttempts());
+    }
+    
+    /**
+     * Builds or completes the matrix file configured by rate.matrix.file.
+     * @return Matrix mapped from the file
+     */
+    public RateMatrix build() {
+        return build(Paths.get(ApiConfig.getRateMatrixFile()));
+    }
+    
+    /**
+     * Builds a matrix file, or completes it if it already holds a matrix for the same prefixes, unit counts
+     * and warehouses; otherwise the file is replaced.
+     * @param file Matrix file
+     * @return Matrix mapped from the file; {@link RateMatrix#isComplete()} is false if some rows failed
+     * @throws IllegalStateException if the distributor list or the shipping methods cannot be fetched
+     */
+    public RateMatrix build(Path file) {
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "rate-matrix-builder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<String[]> lanes = new ArrayList<>();
+            topology.warehouses(workers).forEach((distributorId, warehouseCodes) ->
+                    warehouseCodes.forEach(warehouseCode -> lanes.add(new String[]{distributorId, warehouseCode})));
+            if (lanes.isEmpty()) {
+                throw new IllegalStateException("No active distributor warehouses to build a rate matrix for");
+            }
+            
+            List<RateMatrix.Method> methods = reusableMethods(file, lanes);
+            Row probe = null;
+            ShippingEstimate[] probeEstimates = null;
+            if (methods == null) {
+                // The methods are the columns of the file, so one row is fetched before the file is laid out
+                probe = new Row(0, 0, lanes.get(0)[0], lanes.get(0)[1]);
+                probeEstimates = fetchWithRetries(probe);
+                if (probeEstimates == null || probeEstimates[0].getOptions() == null
+                        || probeEstimates[0].getOptions().isEmpty()) {
+                    throw new IllegalStateException("Cannot read the shipping methods of " + probe.distributorId);
+                }
+                methods = new ArrayList<>();
+                for (ShippingOptionEstimate option : probeEstimates[0].getOptions()) {
+                    methods.add(new RateMatrix.Method(option.getMethodCode(), option.getMethodName(), option.getCarrier()));
+                }
+                create(file, lanes, methods);
+            }
+            
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                int cellOffset = mapping.getInt(RateMatrix.CELL_OFFSET_POSITION);
+                AtomicInteger filled = new AtomicInteger(mapping.getInt(RateMatrix.FILLED_CELLS_POSITION));
+                List<RateMatrix.Method> columns = methods;
+                if (probe != null) {
+                    write(mapping, cellOffset, lanes.size(), columns, probe, probeEstimates, filled);
+                }
+                
+                Map<String, Queue<Row>> queues = new LinkedHashMap<>();
+                int resumed = 0;
+                for (int prefix = 0; prefix < prefixCount; prefix++) {
+                    for (int lane = 0; lane < lanes.size(); lane++) {
+                        if (isWritten(mapping, cellOffset, lanes.size(), columns.size(), prefix, lane)) {
+                            resumed++;
+                            continue;
+                        }
+                        String distributorId = lanes.get(lane)[0];
+                        queues.computeIfAbsent(distributorId, id -> new ConcurrentLinkedQueue<>())
+                                .add(new Row(prefix, lane, distributorId, lanes.get(lane)[1]));
+                    }
+                }
+                
+                AtomicInteger fetched = new AtomicInteger();
+                AtomicInteger failed = new AtomicInteger();
+                List<CompletableFuture<Void>> running = new ArrayList<>();
+                for (Queue<Row> queue : queues.values()) {
+                    for (int i = 0; i < concurrencyPerDistributor; i++) {
+                        running.add(CompletableFuture.runAsync(() -> {
+                            Row row;
+                            while ((row = queue.poll()) != null && !Thread.currentThread().isInterrupted()) {
+                                ShippingEstimate[] estimates = fetch(row, queue, failed);
+                                if (estimates != null) {
+                                    write(mapping, cellOffset, lanes.size(), columns, row, estimates, filled);
+                                    fetched.incrementAndGet();
+                                }
+                            }
+                        }, workers));
+                    }
+                }
+                CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+                
+                mapping.putInt(RateMatrix.FILLED_CELLS_POSITION, filled.get());
+                mapping.putLong(RateMatrix.BUILT_AT_POSITION, System.currentTimeMillis());
+                mapping.force();
+                logger.info("Rate matrix {}: {} prefixes x {} warehouses x {} methods, {} rows fetched, {} resumed, "
+                                + "{} failed in {} s", file, prefixCount, lanes.size(), columns.size(),
+                        fetched.get() + (probe == null ? 0 : 1), resumed - (probe == null ? 0 : 1), failed.get(),
+                        String.format("%.1f", (System.nanoTime() - start) / 1_000_000_000.0));
+            }
+            return new RateMatrix(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write rate matrix " + file, e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+    
+    /**
+     * Fetches a row once.
+     * @return Low and high unit estimates, or null if the row was requeued or gave up
+     */
+    private ShippingEstimate[] fetch(Row row, Queue<Row> queue, AtomicInteger failed) {
+        try {
+            ShippingEstimate low = estimate(row, lowUnits);
+            ShippingEstimate high = low == null ? null : highUnits == lowUnits ? low : estimate(row, highUnits);
+            if (high == null) {
+                queue.add(row);
+                return null;
+            }
+            return new ShippingEstimate[]{low, high};
+        } catch (RuntimeException e) {
+            if (++row.attempts < maxAttempts) {
+                queue.add(row);
+            } else {
+                failed.incrementAndGet();
+                logger.warn("Giving up on rate matrix row {}/{} prefix {}: {}", row.distributorId, row.warehouseCode,
+                        zip(firstPrefix + row.prefix), e.getMessage());
+            }
+            return null;
+        }
+    }
+    
+    private ShippingEstimate[] fetchWithRetries(Row row) {
+        Queue<Row> retries = new ConcurrentLinkedQueue<>();
+        AtomicInteger failed = new AtomicInteger();
+        do {
+            ShippingEstimate[] estimates = fetch(row, retries, failed);
+            if (estimates != null) {
+                return estimates;
+            }
+        } while (retries.poll() != null);
+        return null;
+    }
+    
+    /**
+     * Requests one estimate.
+     * @return Estimate, or null after a 429 paused the distributor's bucket
+     */
+    private ShippingEstimate estimate(Row row, int units) {
+        rateLimiter.acquire(row.distributorId);
+        ShippingEstimateRequest request = ShippingEstimateRequest.builder()
+                .distributorId(row.distributorId)
+                .originWarehouseCode(row.warehouseCode)
+                .destinationZip(zip(firstPrefix + row.prefix) + "01")
+                .items(List.of(ShippingEstimateItem.builder().sku(sku).quantity(units).build()))
+                .build();
+        Response response = distributorsApi.getShippingEstimate(row.distributorId, request);
+        if (response.getStatusCode() == 429) {
+            String retryAfter = response.getHeader("Retry-After");
+            rateLimiter.pause(row.distributorId, retryAfter != null && retryAfter.matches("\\d+")
+                    ? Duration.ofSeconds(Long.parseLong(retryAfter)) : Duration.ofSeconds(1));
+            return null;
+        }
+        if (response.getStatusCode() != 200) {
+            throw new ApiStatusException("POST /api/distributors/" + row.distributorId + "/shipping-estimate",
+                    response.getStatusCode());
+        }
+        return BaseApiClient.readData(response, ShippingEstimate.class);
+    }
+    
+    /**
+     * Checks whether every cell of a row has a state. A run killed while writing a row leaves only its first
+     * cells set, so the row is fetched again rather than resumed.
+     */
+    private static boolean isWritten(MappedByteBuffer mapping, int cellOffset, int laneCount, int methodCount,
+                                     int prefix, int lane) {
+        for (int method = 0; method < methodCount; method++) {
+            int cell = cellOffset + ((prefix * laneCount + lane) * methodCount + method) * RateMatrix.CELL_SIZE;
+            if (mapping.getShort(cell + 2 * Integer.BYTES + Short.BYTES) == RateMatrix.EMPTY) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Writes the cells of a row; each cell's state is written last so a reader never sees half a rate.
+     */
+    private void write(MappedByteBuffer mapping, int cellOffset, int laneCount, List<RateMatrix.Method> methods,
+                       Row row, ShippingEstimate[] estimates, AtomicInteger filled) {
+        for (int method = 0; method < methods.size(); method++) {
+            int cell = cellOffset + ((row.prefix * laneCount + row.lane) * methods.size() + method) * RateMatrix.CELL_SIZE;
+            ShippingOptionEstimate low = option(estimates[0], methods.get(method).code);
+            ShippingOptionEstimate high = option(estimates[1], methods.get(method).code);
+            if (low == null || high == null || low.getEstimatedCost() == null || high.getEstimatedCost() == null) {
+                mapping.putShort(cell + 2 * Integer.BYTES + Short.BYTES, RateMatrix.NOT_OFFERED);
+            } else {
+                long lowAmount = amount(low.getEstimatedCost());
+                long perUnit = highUnits == lowUnits ? 0
+                        : Math.round((amount(high.getEstimatedCost()) - lowAmount) / (double) (highUnits - lowUnits));
+                mapping.putInt(cell, Math.toIntExact(lowAmount - perUnit * lowUnits));
+                mapping.putInt(cell + Integer.BYTES, Math.toIntExact(perUnit));
+                mapping.putShort(cell + 2 * Integer.BYTES, (short) low.getEstimatedTransitDays());
+                mapping.putShort(cell + 2 * Integer.BYTES + Short.BYTES, RateMatrix.FILLED);
+            }
+        }
+        mapping.putInt(RateMatrix.FILLED_CELLS_POSITION, filled.addAndGet(methods.size()));
+    }
+    
+    private static ShippingOptionEstimate option(ShippingEstimate estimate, String methodCode) {
+        if (estimate.getOptions() == null) {
+            return null;
+        }
+        return estimate.getOptions().stream()
+                .filter(option -> methodCode.equals(option.getMethodCode()))
+                .findFirst()
+                .orElse(null);
+    }
+    
+    private static long amount(BigDecimal cost) {
+        return cost.movePointRight(RateMatrix.AMOUNT_SCALE).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+    
+    private static String zip(int prefix) {
+        return String.format("%03d", prefix);
+    }
+    
+    /**
+     * Gets the methods of an existing matrix file when the rest of this run can complete it.
+     * @return Methods, or null if the file is missing or describes a different matrix
+     */
+    private List<RateMatrix.Method> reusableMethods(Path file, List<String[]> lanes) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            RateMatrix existing = new RateMatrix(file);
+            List<String> laneKeys = new ArrayList<>();
+            lanes.forEach(lane -> laneKeys.add(RateMatrix.laneKey(lane[0], lane[1])));
+            if (existing.getFirstPrefix() == firstPrefix && existing.getPrefixCount() == prefixCount
+                    && existing.getLowUnits() == lowUnits && existing.getHighUnits() == highUnits
+                    && existing.getLanes().equals(laneKeys)) {
+                return existing.getMethods();
+            }
+            logger.info("Rate matrix {} was built for other prefixes, units or warehouses; rebuilding it", file);
+        } catch (IOException e) {
+            logger.warn("Cannot reuse rate matrix {}: {}", file, e.getMessage());
+        }
+        return null;
+    }
+    
+    private void create(Path file, List<String[]> lanes, List<RateMatrix.Method> methods) throws IOException {
+        ByteBuffer tables = ByteBuffer.allocate(1 << 16);
+        for (String[] lane : lanes) {
+            RateMatrix.writeString(tables, RateMatrix.laneKey(lane[0], lane[1]));
+        }
+        for (RateMatrix.Method method : methods) {
+            RateMatrix.writeString(tables, method.code);
+            RateMatrix.writeString(tables, method.name);
+            RateMatrix.writeString(tables, method.carrier);
+        }
+        int cellOffset = (RateMatrix.HEADER_SIZE + tables.position() + 7) & ~7;
+        long size = cellOffset + (long) prefixCount * lanes.size() * methods.size() * RateMatrix.CELL_SIZE;
+        
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            mapping.put(RateMatrix.MAGIC);
+            mapping.putLong(RateMatrix.BUILT_AT_POSITION, 0);
+            mapping.putInt(RateMatrix.FIRST_PREFIX_POSITION, firstPrefix);
+            mapping.putInt(RateMatrix.PREFIX_COUNT_POSITION, prefixCount);
+            mapping.putInt(RateMatrix.LANE_COUNT_POSITION, lanes.size());
+            mapping.putInt(RateMatrix.METHOD_COUNT_POSITION, methods.size());
+            mapping.putInt(RateMatrix.LOW_UNITS_POSITION, lowUnits);
+            mapping.putInt(RateMatrix.HIGH_UNITS_POSITION, highUnits);
+            mapping.putInt(RateMatrix.CELL_OFFSET_POSITION, cellOffset);
+            mapping.putInt(RateMatrix.FILLED_CELLS_POSITION, 0);
+            mapping.put(RateMatrix.HEADER_SIZE, tables.array(), 0, tables.position());
+            mapping.force();
+        }
+    }
+}
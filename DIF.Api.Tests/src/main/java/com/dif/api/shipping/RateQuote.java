@@ -0,0 +1,25 @@
+package com.dif.api.shipping;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One shipping option offered by one distributor warehouse during rate shopping.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateQuote {
+    
+    private String distributorId;
+    private String warehouseCode;
+    private String methodCode;
+    private String methodName;
+    private String carrier;
+    private BigDecimal estimatedCost;
+    private int estimatedTransitDays;
+    private String estimatedDeliveryDate;
+}
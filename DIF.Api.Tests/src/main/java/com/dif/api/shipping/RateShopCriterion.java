@@ -0,0 +1,32 @@
+package com.dif.api.shipping;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+
+/**
+ * What rate shopping optimizes for; each criterion breaks ties with the other.
+ */
+public enum RateShopCriterion {
+    
+    /** Lowest estimatedCost, then fewest estimatedTransitDays. */
+    COST(Comparator.comparing((RateQuote quote) -> quote.getEstimatedCost() == null ? BigDecimal.valueOf(Long.MAX_VALUE) : quote.getEstimatedCost())
+            .thenComparingInt(RateQuote::getEstimatedTransitDays)),
+    
+    /** Fewest estimatedTransitDays, then lowest estimatedCost. */
+    TRANSIT_DAYS(Comparator.comparingInt(RateQuote::getEstimatedTransitDays)
+            .thenComparing(quote -> quote.getEstimatedCost() == null ? BigDecimal.valueOf(Long.MAX_VALUE) : quote.getEstimatedCost()));
+    
+    private final Comparator<RateQuote> order;
+    
+    RateShopCriterion(Comparator<RateQuote> order) {
+        this.order = order;
+    }
+    
+    /**
+     * Gets the order in which quotes are ranked, best first.
+     * @return Quote comparator
+     */
+    public Comparator<RateQuote> order() {
+        return order;
+    }
+}
@@ -0,0 +1,30 @@
+package com.dif.api.shipping;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How one distributor warehouse fared during rate shopping.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateShopLane {
+    
+    /**
+     * Outcome of a lane.
+     */
+    public enum Status {
+        QUOTED,
+        TIMED_OUT,
+        RATE_LIMITED,
+        FAILED
+    }
+    
+    private String distributorId;
+    private String warehouseCode;
+    private Status status;
+    private String detail;
+    private double elapsedMillis;
+}
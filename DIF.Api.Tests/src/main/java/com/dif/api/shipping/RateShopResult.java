@@ -0,0 +1,30 @@
+package com.dif.api.shipping;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a rate shopping run: the best quote, every quote ranked, and how each lane fared.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateShopResult {
+    
+    private RateShopCriterion criterion;
+    private RateQuote best;
+    private List<RateQuote> quotes;
+    private List<RateShopLane> lanes;
+    private double elapsedMillis;
+    
+    /**
+     * Checks whether every lane returned a quote before the deadline.
+     * @return True if no lane timed out, was rate limited or failed
+     */
+    public boolean isComplete() {
+        return lanes.stream().allMatch(lane -> lane.getStatus() == RateShopLane.Status.QUOTED);
+    }
+}
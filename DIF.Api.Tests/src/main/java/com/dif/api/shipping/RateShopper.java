@@ -0,0 +1,163 @@
+package com.dif.api.shipping;
+
+import com.dif.api.client.ApiStatusException;
+import com.dif.api.client.DistributorTopology;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.request.ShippingEstimateRequest;
+import com.dif.api.models.response.ShippingEstimate;
+import com.dif.api.models.response.ShippingOptionEstimate;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Rate shopping across every active distributor and warehouse.
+ * <p>
+ * One shopping run fans out a shipping estimate per distributor warehouse in parallel through the
+ * {@link ShippingQuoteCache}, waits until a global deadline at most, and ranks whatever quotes arrived by cost
+ * or transit days. A lane still running at the deadline is reported as timed out and left to finish in the
+ * background, so its quote is cached for the next run. A distributor whose rate-limit bucket is empty is
+ * skipped rather than waited for. The distributors and warehouses come from the shared
+ * {@link DistributorTopology}.
+ */
+public class RateShopper implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RateShopper.class);
+    
+    private final DistributorTopology topology;
+    private final ShippingQuoteCache quoteCache;
+    private final DistributorRateLimiter rateLimiter;
+    private final ExecutorService workers;
+    
+    /**
+     * Creates a rate shopper over the shared quote cache and rate limiter, configured from rate.shop.*.
+     */
+    public RateShopper() {
+        this(DistributorTopology.getShared(), ShippingQuoteCache.getShared(), DistributorRateLimiter.getShared(),
+                ApiConfig.getRateShopThreads());
+    }
+    
+    /**
+     * @param topology Active distributors and warehouses
+     * @param quoteCache Cache estimates are fetched through
+     * @param rateLimiter Limiter consulted before a lane is fetched
+     * @param threads Lanes fetched at once
+     */
+    public RateShopper(DistributorTopology topology, ShippingQuoteCache quoteCache,
+                       DistributorRateLimiter rateLimiter, int threads) {
+        this.topology = topology;
+        this.quoteCache = quoteCache;
+        this.rateLimiter = rateLimiter;
+        this.workers = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "rate-shopper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Shops a shipment across all active distributors and their warehouses.
+     * @param request Estimate request; its distributor and origin warehouse are replaced per lane
+     * @param criterion What the best quote minimizes
+     * @param deadline Time budget of the whole run, including the distributor list when it is refreshed
+     * @return Best quote (null if none arrived in time), ranked quotes and per-lane outcomes
+     * @throws IllegalStateException if the distributor list cannot be fetched
+     */
+    public RateShopResult shop(ShippingEstimateRequest request, RateShopCriterion criterion, Duration deadline) {
+        long start = System.nanoTime();
+        long deadlineAt = start + deadline.toNanos();
+        List<RateShopLane> lanes = new ArrayList<>();
+        List<RateQuote> quotes = new ArrayList<>();
+        Map<RateShopLane, CompletableFuture<ShippingEstimate>> pending = new LinkedHashMap<>();
+        topology.warehouses(workers).forEach((distributorId, warehouseCodes) -> {
+            for (String warehouseCode : warehouseCodes) {
+                ShippingEstimateRequest laneRequest = ShippingEstimateRequest.builder()
+                        .distributorId(distributorId)
+                        .originWarehouseCode(warehouseCode)
+                        .destinationZip(request.getDestinationZip())
+                        .items(request.getItems())
+                        .preferredShippingMethod(request.getPreferredShippingMethod())
+                        .build();
+                RateShopLane lane = new RateShopLane(distributorId, warehouseCode, null, null, 0);
+                lanes.add(lane);
+                ShippingEstimate cached = quoteCache.getIfFresh(distributorId, laneRequest);
+                if (cached != null) {
+                    lane.setStatus(RateShopLane.Status.QUOTED);
+                    lane.setDetail("cached");
+                    addQuotes(quotes, distributorId, warehouseCode, cached);
+                } else if (rateLimiter.getAvailablePermits(distributorId) < 1) {
+                    lane.setStatus(RateShopLane.Status.RATE_LIMITED);
+                    lane.setDetail("client-side rate limit exhausted");
+                } else {
+                    pending.put(lane, CompletableFuture.supplyAsync(
+                            () -> quoteCache.getShippingEstimate(distributorId, laneRequest), workers));
+                }
+            }
+        });
+        
+        try {
+            CompletableFuture.allOf(pending.values().toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadlineAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Lanes are judged one by one below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+        pending.forEach((lane, future) -> {
+            lane.setElapsedMillis(elapsedMillis);
+            if (!future.isDone()) {
+                lane.setStatus(RateShopLane.Status.TIMED_OUT);
+                lane.setDetail("no estimate within " + deadline.toMillis() + " ms");
+                return;
+            }
+            try {
+                addQuotes(quotes, lane.getDistributorId(), lane.getWarehouseCode(), future.join());
+                lane.setStatus(RateShopLane.Status.QUOTED);
+            } catch (RuntimeException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                lane.setStatus(cause instanceof ApiStatusException && ((ApiStatusException) cause).isRateLimited()
+                        ? RateShopLane.Status.RATE_LIMITED : RateShopLane.Status.FAILED);
+                lane.setDetail(cause.getMessage());
+            }
+        });
+        
+        quotes.sort(criterion.order());
+        RateQuote best = quotes.isEmpty() ? null : quotes.get(0);
+        long quoted = lanes.stream().filter(lane -> lane.getStatus() == RateShopLane.Status.QUOTED).count();
+        logger.info("Rate shopped {} lanes by {}: {} quoted, {} quotes, best {} in {} ms", lanes.size(), criterion,
+                quoted, quotes.size(), best == null ? "none" : best.getDistributorId() + "/" + best.getWarehouseCode()
+                        + "/" + best.getMethodName() + " " + best.getEstimatedCost(), String.format("%.1f", elapsedMillis));
+        return new RateShopResult(criterion, best, quotes, lanes, elapsedMillis);
+    }
+    
+    private static void addQuotes(List<RateQuote> quotes, String distributorId, String warehouseCode,
+                                  ShippingEstimate estimate) {
+        if (estimate.getOptions() == null) {
+            return;
+        }
+        for (ShippingOptionEstimate option : estimate.getOptions()) {
+            quotes.add(new RateQuote(distributorId, warehouseCode, option.getMethodCode(), option.getMethodName(),
+                    option.getCarrier(), option.getEstimatedCost(), option.getEstimatedTransitDays(),
+                    option.getEstimatedDeliveryDate()));
+        }
+    }
+    
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,304 @@
+package com.dif.api.shipping;
+
+import com.dif.api.client.ApiStatusException;
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.DistributorsApiClient;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.request.ShippingEstimateRequest;
+import com.dif.api.models.response.ShippingEstimate;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Memoizes POST /api/distributors/{id}/shipping-estimate by {@link ShippingQuoteKey}.
+ * <p>
+ * A cached estimate is served while it is younger than shipping.quote.ttl.seconds, with the caller's own
+ * destination ZIP filled in. Concurrent misses on the same key share one request, and every request takes a
+ * permit from the distributor's {@link DistributorRateLimiter} bucket; a 429 pauses that bucket for the
+ * response's Retry-After (1 second without one). The cache counts requests per lane, and
+ * {@link #warmPopularLanes(int)} (or the background warmer) re-fetches the busiest lanes shortly before they
+ * expire, so popular quotes rarely miss.
+ */
+public class ShippingQuoteCache implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShippingQuoteCache.class);
+    private static ShippingQuoteCache shared;
+    
+    private final DistributorsApiClient distributorsApi;
+    private final DistributorRateLimiter rateLimiter;
+    private final long ttlNanos;
+    private final long refreshAfterNanos;
+    private final int maxEntries;
+    private final Map<String, Quote> quotes;
+    private final Map<String, CompletableFuture<ShippingEstimate>> loading = new ConcurrentHashMap<>();
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private ScheduledExecutorService warmer;
+    
+    private static final class Quote {
+        private final ShippingEstimate estimate;
+        private final long fetchedAt;
+        
+        private Quote(ShippingEstimate estimate, long fetchedAt) {
+            this.estimate = estimate;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+    
+    /**
+     * A distinct quote lane: the request that first used it and how often it was asked for since the last warm.
+     */
+    private static final class Lane {
+        private final String distributorId;
+        private final ShippingEstimateRequest request;
+        private final AtomicLong requests = new AtomicLong();
+        
+        private Lane(String distributorId, ShippingEstimateRequest request) {
+            this.distributorId = distributorId;
+            this.request = request;
+        }
+    }
+    
+    /**
+     * Creates a cache configured from shipping.quote.* and the shared rate limiter.
+     */
+    public ShippingQuoteCache() {
+        this(new DistributorsApiClient(), DistributorRateLimiter.getShared(),
+                Duration.ofSeconds(ApiConfig.getShippingQuoteTtlSeconds()), ApiConfig.getShippingQuoteMaxEntries(),
+                ApiConfig.getShippingQuoteRefreshFraction());
+    }
+    
+    /**
+     * @param distributorsApi Distributors client
+     * @param rateLimiter Limiter every estimate request takes a permit from
+     * @param ttl How long an estimate is served from the cache
+     * @param maxEntries Cached lanes kept before the least recently used is dropped
+     * @param refreshFraction Fraction of the ttl after which warming re-fetches a lane
+     */
+    public ShippingQuoteCache(DistributorsApiClient distributorsApi, DistributorRateLimiter rateLimiter, Duration ttl,
+                              int maxEntries, double refreshFraction) {
+        this.distributorsApi = distributorsApi;
+        this.rateLimiter = rateLimiter;
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAfterNanos = (long) (ttlNanos * Math.max(0, Math.min(1, refreshFraction)));
+        this.maxEntries = Math.max(1, maxEntries);
+        this.quotes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Quote> eldest) {
+                return size() > ShippingQuoteCache.this.maxEntries;
+            }
+        };
+    }
+    
+    /**
+     * Gets the process-wide cache.
+     * @return Shared cache
+     */
+    public static synchronized ShippingQuoteCache getShared() {
+        if (shared == null) {
+            shared = new ShippingQuoteCache();
+        }
+        return shared;
+    }
+    
+    /**
+     * Gets a shipping estimate, from the cache when a fresh one exists for the request's lane.
+     * @param distributorId Distributor ID
+     * @param request Estimate request
+     * @return Estimate for the caller's destination ZIP
+     * @throws ApiStatusException if the estimate has to be fetched and the API does not return one; a 429 also
+     * pauses the distributor's bucket
+     */
+    public ShippingEstimate getShippingEstimate(String distributorId, ShippingEstimateRequest request) {
+        String key = ShippingQuoteKey.of(distributorId, request);
+        lanes.computeIfAbsent(key, k -> new Lane(distributorId, request)).requests.incrementAndGet();
+        Quote quote = quote(key);
+        if (quote != null && System.nanoTime() - quote.fetchedAt < ttlNanos) {
+            hits.increment();
+            return copyFor(quote.estimate, request);
+        }
+        misses.increment();
+        return copyFor(load(key, distributorId, request), request);
+    }
+    
+    /**
+     * Gets a cached estimate without fetching; the request still counts toward its lane's popularity.
+     * @param distributorId Distributor ID
+     * @param request Estimate request
+     * @return Fresh estimate for the caller's destination ZIP, or null if none is cached
+     */
+    public ShippingEstimate getIfFresh(String distributorId, ShippingEstimateRequest request) {
+        String key = ShippingQuoteKey.of(distributorId, request);
+        lanes.computeIfAbsent(key, k -> new Lane(distributorId, request)).requests.incrementAndGet();
+        Quote quote = quote(key);
+        if (quote == null || System.nanoTime() - quote.fetchedAt >= ttlNanos) {
+            return null;
+        }
+        hits.increment();
+        return copyFor(quote.estimate, request);
+    }
+    
+    /**
+     * Fetches a lane now unless a fresh estimate is cached, so later requests for it hit the cache.
+     * @param distributorId Distributor ID
+     * @param request Representative request of the lane
+     */
+    public void warm(String distributorId, ShippingEstimateRequest request) {
+        String key = ShippingQuoteKey.of(distributorId, request);
+        lanes.computeIfAbsent(key, k -> new Lane(distributorId, request));
+        if (needsRefresh(key)) {
+            load(key, distributorId, request);
+        }
+    }
+    
+    /**
+     * Re-fetches the most requested lanes that are missing or close to expiring, then halves every lane's
+     * request count so popularity follows recent demand. Failed fetches are logged and retried next time.
+     * @param top Number of lanes considered
+     * @return Lanes re-fetched
+     */
+    public int warmPopularLanes(int top) {
+        List<Map.Entry<String, Lane>> popular = lanes.entrySet().stream()
+                .filter(entry -> entry.getValue().requests.get() > 0)
+                .sorted(Comparator.comparingLong((Map.Entry<String, Lane> entry) -> entry.getValue().requests.get()).reversed())
+                .limit(top)
+                .collect(Collectors.toList());
+        int warmed = 0;
+        for (Map.Entry<String, Lane> entry : popular) {
+            if (!needsRefresh(entry.getKey())) {
+                continue;
+            }
+            Lane lane = entry.getValue();
+            try {
+                load(entry.getKey(), lane.distributorId, lane.request);
+                warmed++;
+            } catch (RuntimeException e) {
+                logger.warn("Could not warm shipping quote lane {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        lanes.values().forEach(lane -> lane.requests.updateAndGet(count -> count / 2));
+        logger.debug("Warmed {} of the {} most requested shipping quote lanes", warmed, popular.size());
+        return warmed;
+    }
+    
+    /**
+     * Warms the shipping.quote.warm.top most requested lanes every shipping.quote.warm.interval.seconds
+     * on a daemon thread until {@link #close()}.
+     */
+    public synchronized void startWarming() {
+        if (warmer != null) {
+            return;
+        }
+        warmer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shipping-quote-warmer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = ApiConfig.getShippingQuoteWarmIntervalSeconds();
+        int top = ApiConfig.getShippingQuoteWarmTop();
+        warmer.scheduleWithFixedDelay(() -> warmPopularLanes(top), interval, interval, TimeUnit.SECONDS);
+    }
+    
+    public long getHitCount() {
+        return hits.sum();
+    }
+    
+    public long getMissCount() {
+        return misses.sum();
+    }
+    
+    public synchronized int size() {
+        return quotes.size();
+    }
+    
+    /**
+     * Drops every cached estimate; lane popularity is kept.
+     */
+    public synchronized void invalidateAll() {
+        quotes.clear();
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (warmer != null) {
+            warmer.shutdownNow();
+            warmer = null;
+        }
+    }
+    
+    private synchronized Quote quote(String key) {
+        return quotes.get(key);
+    }
+    
+    private boolean needsRefresh(String key) {
+        Quote quote = quote(key);
+        return quote == null || System.nanoTime() - quote.fetchedAt >= refreshAfterNanos;
+    }
+    
+    private ShippingEstimate load(String key, String distributorId, ShippingEstimateRequest request) {
+        CompletableFuture<ShippingEstimate> mine = new CompletableFuture<>();
+        CompletableFuture<ShippingEstimate> inFlight = loading.putIfAbsent(key, mine);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            rateLimiter.acquire(distributorId);
+            Response response = distributorsApi.getShippingEstimate(distributorId, request);
+            if (response.getStatusCode() == 429) {
+                String retryAfter = response.getHeader("Retry-After");
+                rateLimiter.pause(distributorId, retryAfter != null && retryAfter.matches("\\d+")
+                        ? Duration.ofSeconds(Long.parseLong(retryAfter)) : Duration.ofSeconds(1));
+            }
+            if (response.getStatusCode() != 200) {
+                throw new ApiStatusException("POST /api/distributors/" + distributorId + "/shipping-estimate",
+                        response.getStatusCode());
+            }
+            ShippingEstimate estimate = BaseApiClient.readData(response, ShippingEstimate.class);
+            store(key, estimate);
+            mine.complete(estimate);
+            return estimate;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+    
+    private synchronized void store(String key, ShippingEstimate estimate) {
+        quotes.put(key, new Quote(estimate, System.nanoTime()));
+        if (lanes.size() > maxEntries * 2) {
+            // Forget lanes that fell out of the cache so the popularity table stays bounded
+            lanes.keySet().removeIf(lane -> !quotes.containsKey(lane));
+        }
+    }
+    
+    private static ShippingEstimate copyFor(ShippingEstimate estimate, ShippingEstimateRequest request) {
+        ShippingEstimate copy = BaseApiClient.getObjectMapper().convertValue(estimate, ShippingEstimate.class);
+        copy.setDestinationZip(request.getDestinationZip());
+        return copy;
+    }
+}
@@ -0,0 +1,72 @@
+package com.dif.api.shipping;
+
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.request.ShippingEstimateItem;
+import com.dif.api.models.request.ShippingEstimateRequest;
+
+/**
+ * Builds the canonical cache key of a shipping estimate: distributor, origin warehouse, destination ZIP prefix,
+ * weight profile and preferred method. Quotes depend on the destination zone and total units shipped, not on
+ * the exact ZIP or on which SKUs make up the units, so requests that differ only in those share a key.
+ */
+public final class ShippingQuoteKey {
+    
+    private ShippingQuoteKey() {
+        // Utility class
+    }
+    
+    /**
+     * Builds the key of an estimate request using shipping.quote.zip.prefix.length.
+     * @param distributorId Distributor the estimate is requested from
+     * @param request Estimate request
+     * @return Canonical key
+     */
+    public static String of(String distributorId, ShippingEstimateRequest request) {
+        return of(distributorId, request, ApiConfig.getShippingQuoteZipPrefixLength());
+    }
+    
+    /**
+     * Builds the key of an estimate request.
+     * @param distributorId Distributor the estimate is requested from
+     * @param request Estimate request
+     * @param zipPrefixLength Leading ZIP digits that identify the destination zone
+     * @return Canonical key
+     */
+    public static String of(String distributorId, ShippingEstimateRequest request, int zipPrefixLength) {
+        return lower(distributorId)
+                + '|' + (request.getOriginWarehouseCode() == null ? "" : request.getOriginWarehouseCode().trim().toUpperCase())
+                + '|' + zipPrefix(request.getDestinationZip(), zipPrefixLength)
+                + '|' + units(request)
+                + '|' + lower(request.getPreferredShippingMethod());
+    }
+    
+    /**
+     * Gets the destination zone of a ZIP code: its leading digits, ignoring ZIP+4 and formatting.
+     * @param zip ZIP code, may be null
+     * @param length Number of leading digits
+     * @return ZIP prefix, empty if the ZIP has no digits
+     */
+    public static String zipPrefix(String zip, int length) {
+        if (zip == null) {
+            return "";
+        }
+        String digits = zip.replaceAll("[^0-9]", "");
+        return digits.length() <= length ? digits : digits.substring(0, length);
+    }
+    
+    /**
+     * Gets the weight profile of a request: the total units shipped.
+     * @param request Estimate request
+     * @return Total quantity across items
+     */
+    public static int units(ShippingEstimateRequest request) {
+        if (request.getItems() == null) {
+            return 0;
+        }
+        return request.getItems().stream().mapToInt(ShippingEstimateItem::getQuantity).sum();
+    }
+    
+    private static String lower(String value) {
+        return value == null ? "" : value.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,143 @@
+package com.dif.api.testng;
+
+import com.dif.api.config.ApiConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Orders test methods longest-first by historical duration and records their durations for the next run.
+ * <p>
+ * Starting the slowest methods first keeps a parallel run from ending on one long test while the other
+ * threads sit idle. Methods without history are estimated at the mean of the known ones. Serial runs keep
+ * declaration order, since reordering cannot shorten them. Tests lease fixtures instead of declaring
+ * dependsOnMethods, so there are no dependency chains to schedule.
+ */
+public class LongestFirstScheduler implements IMethodInterceptor, ITestListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LongestFirstScheduler.class);
+    
+    private final Map<String, LongAdder> runMillis = new ConcurrentHashMap<>();
+    private TestDurationHistory history;
+    
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!ApiConfig.isTestSchedulerEnabled() || methods.size() < 2
+                || context.getCurrentXmlTest().getParallel() == XmlSuite.ParallelMode.NONE) {
+            return methods;
+        }
+        TestDurationHistory known = getHistory();
+        int count = methods.size();
+        double[] millis = new double[count];
+        boolean[] estimated = new boolean[count];
+        double knownTotal = 0;
+        int knownCount = 0;
+        for (int i = 0; i < count; i++) {
+            OptionalDouble duration = known.getMillis(testId(methods.get(i).getMethod()));
+            if (duration.isPresent()) {
+                millis[i] = duration.getAsDouble();
+                knownTotal += millis[i];
+                knownCount++;
+            } else {
+                estimated[i] = true;
+            }
+        }
+        if (knownCount == 0) {
+            return methods;
+        }
+        double estimate = knownTotal / knownCount;
+        for (int i = 0; i < count; i++) {
+            if (estimated[i]) {
+                millis[i] = estimate;
+            }
+        }
+        
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer>comparingDouble(i -> -millis[i]).thenComparingInt(i -> i));
+        
+        List<IMethodInstance> scheduled = new ArrayList<>(count);
+        order.forEach(i -> scheduled.add(methods.get(i)));
+        logger.info("Scheduled {} test methods longest-first ({} from history); longest {} ms",
+                count, knownCount, Math.round(millis[order.get(0)]));
+        return scheduled;
+    }
+    
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        recordDuration(result);
+    }
+    
+    @Override
+    public void onTestFailure(ITestResult result) {
+        recordDuration(result);
+    }
+    
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        recordDuration(result);
+    }
+    
+    @Override
+    public void onTestFailedWithTimeout(ITestResult result) {
+        recordDuration(result);
+    }
+    
+    /**
+     * Folds this run's durations into the history and writes it.
+     * @param context Finished test context
+     */
+    @Override
+    public void onFinish(ITestContext context) {
+        if (!ApiConfig.isTestSchedulerEnabled() || runMillis.isEmpty()) {
+            return;
+        }
+        TestDurationHistory updated = getHistory();
+        runMillis.forEach((testId, total) -> updated.record(testId, total.sum()));
+        runMillis.clear();
+        try {
+            updated.save();
+            logger.info("Test duration history for {} methods written to {}", updated.size(), updated.getFile());
+        } catch (IOException e) {
+            logger.warn("Failed to write test duration history {}: {}", updated.getFile(), e.getMessage());
+        }
+    }
+    
+    private void recordDuration(ITestResult result) {
+        if (ApiConfig.isTestSchedulerEnabled()) {
+            // Data-driven methods are scheduled as a unit, so their invocations add up
+            runMillis.computeIfAbsent(testId(result.getMethod()), id -> new LongAdder())
+                    .add(Math.max(0, result.getEndMillis() - result.getStartMillis()));
+        }
+    }
+    
+    private synchronized TestDurationHistory getHistory() {
+        if (history == null) {
+            history = new TestDurationHistory(Path.of(ApiConfig.getTestDurationHistoryFile()),
+                    ApiConfig.getTestDurationSmoothing());
+        }
+        return history;
+    }
+    
+    private static String testId(ITestNGMethod method) {
+        return method.getQualifiedName();
+    }
+}
@@ -0,0 +1,20 @@
+package com.dif.api.testng;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Smoothed historical duration of one test method, as stored in the duration history file.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TestDuration {
+    
+    private double meanMillis;
+    private long lastMillis;
+    private long samples;
+}
@@ -0,0 +1,92 @@
+package com.dif.api.testng;
+
+import com.dif.api.client.BaseApiClient;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.TreeMap;
+
+/**
+ * Per-test durations carried across runs in a JSON file keyed by qualified method name.
+ * Each run is folded in with exponential smoothing, so one slow run does not reshuffle the schedule.
+ */
+public class TestDurationHistory {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TestDurationHistory.class);
+    
+    private final Path file;
+    private final double smoothing;
+    private final Map<String, TestDuration> durations = new TreeMap<>();
+    
+    /**
+     * Loads the history file; a missing or unreadable file starts an empty history.
+     * @param file History file
+     * @param smoothing Weight of the newest run, between 0 and 1
+     */
+    public TestDurationHistory(Path file, double smoothing) {
+        this.file = file;
+        this.smoothing = Math.max(0.0, Math.min(1.0, smoothing));
+        if (Files.isRegularFile(file)) {
+            try {
+                durations.putAll(BaseApiClient.getObjectMapper()
+                        .readValue(file.toFile(), new TypeReference<Map<String, TestDuration>>() {}));
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable test duration history {}: {}", file, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Gets the smoothed duration of a test.
+     * @param testId Qualified method name
+     * @return Duration in milliseconds, empty if the test has never run
+     */
+    public synchronized OptionalDouble getMillis(String testId) {
+        TestDuration duration = durations.get(testId);
+        return duration == null ? OptionalDouble.empty() : OptionalDouble.of(duration.getMeanMillis());
+    }
+    
+    /**
+     * Folds the duration of one run into the history.
+     * @param testId Qualified method name
+     * @param millis Duration of the run in milliseconds
+     */
+    public synchronized void record(String testId, long millis) {
+        TestDuration duration = durations.get(testId);
+        if (duration == null) {
+            durations.put(testId, new TestDuration(millis, millis, 1));
+            return;
+        }
+        duration.setMeanMillis(smoothing * millis + (1 - smoothing) * duration.getMeanMillis());
+        duration.setLastMillis(millis);
+        duration.setSamples(duration.getSamples() + 1);
+    }
+    
+    /**
+     * Writes the history through a temporary file so an interrupted write keeps the previous history.
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void save() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        BaseApiClient.getObjectMapper().writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), durations);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    public synchronized int size() {
+        return durations.size();
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+}
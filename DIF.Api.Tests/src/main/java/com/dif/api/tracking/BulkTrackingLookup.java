@@ -0,0 +1,278 @@
+package com.dif.api.tracking;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.TrackingApiClient;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.response.DeliveryConfirmation;
+import com.dif.api.models.response.TrackingDetail;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Looks up many tracking numbers through GET /api/tracking/shipment/{trackingNumber} and, for delivered
+ * shipments, GET /api/tracking/{orderId}/delivery-confirmation.
+ * <p>
+ * Tracking numbers are read lazily and deduplicated. At most lookup.max.in.flight lookups run at once, and
+ * results pass through a bounded queue to one sink thread: when the sink falls behind the queue fills,
+ * lookups block on it and the reader stops pulling input. 404s are remembered per instance for
+ * lookup.negative.cache.ttl.seconds, so a repeat run skips tracking numbers and orders known to be absent.
+ */
+public class BulkTrackingLookup {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BulkTrackingLookup.class);
+    private static final TrackingLookupRecord END = new TrackingLookupRecord();
+    
+    private final TrackingApiClient trackingApi;
+    private final int threads;
+    private final int maxInFlight;
+    private final int sinkQueueCapacity;
+    private final long negativeTtlNanos;
+    private final Map<String, Long> missingTrackingNumbers = new ConcurrentHashMap<>();
+    private final Map<String, Long> missingConfirmations = new ConcurrentHashMap<>();
+    
+    /**
+     * Creates a lookup configured from lookup.*.
+     */
+    public BulkTrackingLookup() {
+        this(new TrackingApiClient(), ApiConfig.getLookupThreads(), ApiConfig.getLookupMaxInFlight(),
+                ApiConfig.getLookupSinkQueueCapacity(), Duration.ofSeconds(ApiConfig.getLookupNegativeCacheTtlSeconds()));
+    }
+    
+    /**
+     * @param trackingApi Tracking client
+     * @param threads Lookup threads
+     * @param maxInFlight Tracking numbers read but not yet handed to the sink
+     * @param sinkQueueCapacity Results waiting for the sink before lookups block
+     * @param negativeTtl How long a 404 is remembered
+     */
+    public BulkTrackingLookup(TrackingApiClient trackingApi, int threads, int maxInFlight, int sinkQueueCapacity,
+                              Duration negativeTtl) {
+        this.trackingApi = trackingApi;
+        this.threads = Math.max(1, threads);
+        this.maxInFlight = Math.max(this.threads, maxInFlight);
+        this.sinkQueueCapacity = Math.max(1, sinkQueueCapacity);
+        this.negativeTtlNanos = negativeTtl.toNanos();
+    }
+    
+    /**
+     * Looks up the tracking numbers of a text file (one per line; blank lines and # comments are skipped)
+     * and writes one JSON record per line to the output file as results arrive.
+     * @param input Tracking number file
+     * @param output JSONL output file, replaced if present
+     * @return Run totals
+     * @throws UncheckedIOException if either file cannot be read or written
+     */
+    public TrackingLookupSummary run(Path input, Path output) {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            if (output.getParent() != null) {
+                Files.createDirectories(output.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                Iterator<String> trackingNumbers = reader.lines()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .iterator();
+                return run(trackingNumbers, record -> {
+                    try {
+                        writer.write(BaseApiClient.getObjectMapper().writeValueAsString(record));
+                        writer.newLine();
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Cannot write " + output, e);
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Bulk tracking lookup from " + input + " to " + output + " failed", e);
+        }
+    }
+    
+    /**
+     * Looks up a stream of tracking numbers, handing each distinct one's record to the sink.
+     * @param trackingNumbers Tracking numbers, consumed lazily
+     * @param sink Receives records in completion order, from a single thread
+     * @return Run totals
+     */
+    public TrackingLookupSummary run(Iterator<String> trackingNumbers, Consumer<TrackingLookupRecord> sink) {
+        long start = System.nanoTime();
+        Counters counters = new Counters();
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        BlockingQueue<TrackingLookupRecord> results = new ArrayBlockingQueue<>(sinkQueueCapacity);
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tracking-lookup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorService sinkThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracking-lookup-sink");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicReference<RuntimeException> sinkFailure = new AtomicReference<>();
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> drain(results, inFlight, sink, sinkFailure),
+                sinkThread);
+        
+        try {
+            while (trackingNumbers.hasNext() && sinkFailure.get() == null) {
+                String trackingNumber = trackingNumbers.next();
+                counters.read.increment();
+                if (!seen.add(trackingNumber)) {
+                    counters.duplicates.increment();
+                    continue;
+                }
+                // Released by the sink thread, so a slow sink throttles reading as well as lookups
+                inFlight.acquireUninterruptibly();
+                workers.execute(() -> put(results, lookup(trackingNumber, counters)));
+            }
+            inFlight.acquireUninterruptibly(maxInFlight);
+            put(results, END);
+            writer.join();
+        } finally {
+            workers.shutdownNow();
+            sinkThread.shutdownNow();
+        }
+        if (sinkFailure.get() != null) {
+            throw sinkFailure.get();
+        }
+        
+        TrackingLookupSummary summary = new TrackingLookupSummary(counters.read.sum(), counters.duplicates.sum(),
+                counters.found.sum(), counters.notFound.sum(), counters.negativeCacheHits.sum(), counters.failed.sum(),
+                counters.confirmations.sum(), (System.nanoTime() - start) / 1_000_000.0);
+        logger.info("Bulk tracking lookup: {} read, {} duplicates, {} found, {} not found ({} from negative cache), "
+                        + "{} failed, {} delivery confirmations in {} ms", summary.getRead(), summary.getDuplicates(),
+                summary.getFound(), summary.getNotFound(), summary.getNegativeCacheHits(), summary.getFailed(),
+                summary.getDeliveryConfirmations(), String.format("%.1f", summary.getElapsedMillis()));
+        return summary;
+    }
+    
+    private void drain(BlockingQueue<TrackingLookupRecord> results, Semaphore inFlight, Consumer<TrackingLookupRecord> sink,
+                       AtomicReference<RuntimeException> sinkFailure) {
+        while (true) {
+            TrackingLookupRecord record;
+            try {
+                record = results.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (record == END) {
+                return;
+            }
+            try {
+                // After a sink failure keep draining so blocked lookups finish, but stop delivering
+                if (sinkFailure.get() == null) {
+                    sink.accept(record);
+                }
+            } catch (RuntimeException e) {
+                sinkFailure.set(e);
+            } finally {
+                inFlight.release();
+            }
+        }
+    }
+    
+    private static void put(BlockingQueue<TrackingLookupRecord> results, TrackingLookupRecord record) {
+        try {
+            results.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handing a lookup result to the sink", e);
+        }
+    }
+    
+    private TrackingLookupRecord lookup(String trackingNumber, Counters counters) {
+        if (isCachedMissing(missingTrackingNumbers, trackingNumber)) {
+            counters.notFound.increment();
+            counters.negativeCacheHits.increment();
+            return new TrackingLookupRecord(trackingNumber, TrackingLookupOutcome.NOT_FOUND, true, null, null, null);
+        }
+        try {
+            Response response = trackingApi.getTrackingByNumber(trackingNumber);
+            if (response.getStatusCode() == 404) {
+                missingTrackingNumbers.put(trackingNumber, System.nanoTime());
+                counters.notFound.increment();
+                return new TrackingLookupRecord(trackingNumber, TrackingLookupOutcome.NOT_FOUND, false, null, null, null);
+            }
+            if (response.getStatusCode() != 200) {
+                counters.failed.increment();
+                return new TrackingLookupRecord(trackingNumber, TrackingLookupOutcome.FAILED, false, null, null,
+                        "GET /api/tracking/shipment returned HTTP " + response.getStatusCode());
+            }
+            TrackingDetail tracking = BaseApiClient.readData(response, TrackingDetail.class);
+            DeliveryConfirmation confirmation = null;
+            if ("Delivered".equals(tracking.getCurrentStatus())) {
+                confirmation = deliveryConfirmation(tracking.getOrderId());
+                if (confirmation != null) {
+                    counters.confirmations.increment();
+                }
+            }
+            counters.found.increment();
+            return new TrackingLookupRecord(trackingNumber, TrackingLookupOutcome.FOUND, false, tracking, confirmation, null);
+        } catch (RuntimeException e) {
+            counters.failed.increment();
+            return new TrackingLookupRecord(trackingNumber, TrackingLookupOutcome.FAILED, false, null, null, e.getMessage());
+        }
+    }
+    
+    private DeliveryConfirmation deliveryConfirmation(String orderId) {
+        if (orderId == null || isCachedMissing(missingConfirmations, orderId)) {
+            return null;
+        }
+        Response response = trackingApi.getDeliveryConfirmation(orderId);
+        if (response.getStatusCode() == 404) {
+            missingConfirmations.put(orderId, System.nanoTime());
+            return null;
+        }
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("GET /api/tracking/" + orderId + "/delivery-confirmation returned HTTP "
+                    + response.getStatusCode());
+        }
+        return BaseApiClient.readData(response, DeliveryConfirmation.class);
+    }
+    
+    private boolean isCachedMissing(Map<String, Long> cache, String key) {
+        Long cachedAt = cache.get(key);
+        if (cachedAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - cachedAt < negativeTtlNanos) {
+            return true;
+        }
+        cache.remove(key, cachedAt);
+        return false;
+    }
+    
+    private static final class Counters {
+        private final LongAdder read = new LongAdder();
+        private final LongAdder duplicates = new LongAdder();
+        private final LongAdder found = new LongAdder();
+        private final LongAdder notFound = new LongAdder();
+        private final LongAdder negativeCacheHits = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder confirmations = new LongAdder();
+    }
+}
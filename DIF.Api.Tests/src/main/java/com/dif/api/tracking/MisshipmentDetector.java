@@ -0,0 +1,259 @@
+package com.dif.api.tracking;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.OrdersApiClient;
+import com.dif.api.client.TrackingApiClient;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.response.MisshipmentAlert;
+import com.dif.api.models.response.OrderDetail;
+import com.dif.api.models.response.OrderLineDetail;
+import com.dif.api.models.response.TrackingDetail;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Streams order IDs through a parallel join of GET /api/tracking/{orderId}/all and GET /api/orders/{orderId},
+ * flagging shipments whose delivered boxes or weight do not match what was shipped, or whose shipments do
+ * not add up to the order's boxes, weight and line quantities.
+ * <p>
+ * Order IDs are pulled from the source only while fewer than misshipment.max.in.flight orders are being
+ * fetched, so memory stays bounded however long the stream is. Findings go to the sink as soon as their
+ * order has been checked. Each checked shipment is compared on the spot with the server's misshipment flag
+ * and the GET /api/tracking/misshipments alert list, which is the only state the run keeps.
+ */
+public class MisshipmentDetector {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MisshipmentDetector.class);
+    
+    private final TrackingApiClient trackingApi;
+    private final OrdersApiClient ordersApi;
+    private final int parallelism;
+    private final int maxInFlight;
+    private final BigDecimal weightTolerance;
+    
+    /**
+     * Creates a detector configured from misshipment.*.
+     */
+    public MisshipmentDetector() {
+        this(new TrackingApiClient(), new OrdersApiClient(), ApiConfig.getMisshipmentParallelism(),
+                ApiConfig.getMisshipmentMaxInFlight(), ApiConfig.getMisshipmentWeightTolerance());
+    }
+    
+    /**
+     * @param trackingApi Tracking client
+     * @param ordersApi Orders client
+     * @param parallelism Orders fetched and checked at once
+     * @param maxInFlight Orders pulled from the source but not yet checked
+     * @param weightTolerance Largest weight difference (lbs) that is not a mismatch
+     */
+    public MisshipmentDetector(TrackingApiClient trackingApi, OrdersApiClient ordersApi, int parallelism,
+                               int maxInFlight, BigDecimal weightTolerance) {
+        this.trackingApi = trackingApi;
+        this.ordersApi = ordersApi;
+        this.parallelism = Math.max(1, parallelism);
+        this.maxInFlight = Math.max(this.parallelism, maxInFlight);
+        this.weightTolerance = weightTolerance;
+    }
+    
+    /**
+     * Checks every order of the stream and compares the outcome with the server's alerts.
+     * @param orderIds Order IDs (GUIDs), consumed lazily
+     * @param sink Receives each finding once its order is checked; calls are serialized
+     * @return Run totals and agreement with the server
+     * @throws IllegalStateException if the misshipment alert list cannot be fetched
+     */
+    public MisshipmentReport run(Iterator<String> orderIds, Consumer<MisshipmentFinding> sink) {
+        long start = System.nanoTime();
+        Map<String, MisshipmentAlert> alerts = serverAlerts();
+        Set<String> alertsSeen = ConcurrentHashMap.newKeySet();
+        Counters counters = new Counters();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "misshipment-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try {
+            while (orderIds.hasNext()) {
+                String orderId = orderIds.next();
+                inFlight.acquireUninterruptibly();
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        checkOrder(orderId, alerts, alertsSeen, counters, sink);
+                    } catch (RuntimeException e) {
+                        counters.ordersFailed.increment();
+                        logger.warn("Misshipment check of order {} failed: {}", orderId, e.getMessage());
+                    }
+                }, workers).whenComplete((ignored, error) -> inFlight.release());
+            }
+            // Wait for the tail of the stream to drain
+            inFlight.acquireUninterruptibly(maxInFlight);
+        } finally {
+            workers.shutdownNow();
+        }
+        
+        MisshipmentReport report = new MisshipmentReport(counters.ordersProcessed.sum(), counters.ordersWithoutTracking.sum(),
+                counters.ordersFailed.sum(), counters.shipmentsChecked.sum(), counters.detected.sum(),
+                counters.serverFlagged.sum(), counters.agreed.sum(), counters.detectedOnly.sum(), counters.serverOnly.sum(),
+                alerts.size() - alertsSeen.size(), (System.nanoTime() - start) / 1_000_000.0);
+        logger.info("Misshipment detection: {} orders, {} shipments checked, {} detected, {} server-flagged, {} agreed, "
+                        + "{} detected only, {} server only, {} failed in {} ms", report.getOrdersProcessed(),
+                report.getShipmentsChecked(), report.getDetected(), report.getServerFlagged(), report.getAgreed(),
+                report.getDetectedOnly(), report.getServerOnly(), report.getOrdersFailed(),
+                String.format("%.1f", report.getElapsedMillis()));
+        return report;
+    }
+    
+    /**
+     * Checks one order's shipments against each other and against the order; no I/O.
+     * @param shipments Tracking legs of the order
+     * @param order Order the shipments belong to
+     * @param weightTolerance Largest weight difference (lbs) that is not a mismatch
+     * @return Mismatch reasons per tracking number; shipments without a mismatch are absent
+     */
+    public static Map<String, List<MisshipmentReason>> check(List<TrackingDetail> shipments, OrderDetail order,
+                                                             BigDecimal weightTolerance) {
+        List<MisshipmentReason> orderReasons = new ArrayList<>();
+        int boxes = 0;
+        BigDecimal weight = BigDecimal.ZERO;
+        boolean allDelivered = true;
+        for (TrackingDetail shipment : shipments) {
+            boxes += shipment.getNumBoxes();
+            weight = weight.add(shipment.getTotalWeight() == null ? BigDecimal.ZERO : shipment.getTotalWeight());
+            allDelivered &= "Delivered".equals(shipment.getCurrentStatus());
+        }
+        if (order.getTotalBoxes() > 0 && boxes != order.getTotalBoxes()) {
+            orderReasons.add(MisshipmentReason.ORDER_BOXES);
+        }
+        if (order.getTotalWeight() != null && differs(weight, order.getTotalWeight(), weightTolerance)) {
+            orderReasons.add(MisshipmentReason.ORDER_WEIGHT);
+        }
+        if (allDelivered && order.getLines() != null) {
+            for (OrderLineDetail line : order.getLines()) {
+                if (line.getQuantityShipped() != line.getQuantity()) {
+                    orderReasons.add(MisshipmentReason.LINE_QUANTITY);
+                    break;
+                }
+            }
+        }
+        
+        Map<String, List<MisshipmentReason>> flagged = new HashMap<>();
+        for (TrackingDetail shipment : shipments) {
+            List<MisshipmentReason> reasons = new ArrayList<>();
+            if (shipment.getBoxesDelivered() != null && shipment.getBoxesDelivered() != shipment.getNumBoxes()) {
+                reasons.add(MisshipmentReason.BOX_COUNT);
+            }
+            if (shipment.getWeightDelivered() != null && shipment.getTotalWeight() != null
+                    && differs(shipment.getWeightDelivered(), shipment.getTotalWeight(), weightTolerance)) {
+                reasons.add(MisshipmentReason.WEIGHT);
+            }
+            reasons.addAll(orderReasons);
+            if (!reasons.isEmpty()) {
+                flagged.put(shipment.getTrackingNumber(), reasons);
+            }
+        }
+        return flagged;
+    }
+    
+    private static boolean differs(BigDecimal actual, BigDecimal expected, BigDecimal tolerance) {
+        return actual.subtract(expected).abs().compareTo(tolerance) > 0;
+    }
+    
+    private Map<String, MisshipmentAlert> serverAlerts() {
+        Response response = trackingApi.getMisshipments();
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("GET /api/tracking/misshipments returned HTTP " + response.getStatusCode());
+        }
+        List<MisshipmentAlert> alerts = BaseApiClient.readDataList(response, MisshipmentAlert.class);
+        Map<String, MisshipmentAlert> byTrackingNumber = new HashMap<>();
+        if (alerts != null) {
+            alerts.forEach(alert -> byTrackingNumber.put(alert.getTrackingNumber(), alert));
+        }
+        return byTrackingNumber;
+    }
+    
+    private void checkOrder(String orderId, Map<String, MisshipmentAlert> alerts, Set<String> alertsSeen,
+                            Counters counters, Consumer<MisshipmentFinding> sink) {
+        Response trackingResponse = trackingApi.getAllTrackingForOrder(orderId);
+        if (trackingResponse.getStatusCode() != 200) {
+            throw new IllegalStateException("GET /api/tracking/" + orderId + "/all returned HTTP "
+                    + trackingResponse.getStatusCode());
+        }
+        List<TrackingDetail> shipments = BaseApiClient.readDataList(trackingResponse, TrackingDetail.class);
+        counters.ordersProcessed.increment();
+        if (shipments == null || shipments.isEmpty()) {
+            counters.ordersWithoutTracking.increment();
+            return;
+        }
+        Response orderResponse = ordersApi.getOrder(orderId);
+        if (orderResponse.getStatusCode() != 200) {
+            throw new IllegalStateException("GET /api/orders/" + orderId + " returned HTTP " + orderResponse.getStatusCode());
+        }
+        OrderDetail order = BaseApiClient.readData(orderResponse, OrderDetail.class);
+        
+        Map<String, List<MisshipmentReason>> flagged = check(shipments, order, weightTolerance);
+        for (TrackingDetail shipment : shipments) {
+            counters.shipmentsChecked.increment();
+            boolean alerted = alerts.containsKey(shipment.getTrackingNumber());
+            if (alerted) {
+                alertsSeen.add(shipment.getTrackingNumber());
+            }
+            boolean serverFlagged = alerted || shipment.isMisshipmentFlag();
+            List<MisshipmentReason> reasons = flagged.get(shipment.getTrackingNumber());
+            counters.tally(reasons != null, serverFlagged);
+            if (reasons != null) {
+                MisshipmentFinding finding = new MisshipmentFinding(orderId, shipment.getTrackingNumber(),
+                        shipment.getDistributorId(), reasons, shipment.getNumBoxes(), shipment.getBoxesDelivered(),
+                        shipment.getTotalWeight(), shipment.getWeightDelivered(), serverFlagged);
+                synchronized (sink) {
+                    sink.accept(finding);
+                }
+            }
+        }
+    }
+    
+    private static final class Counters {
+        private final LongAdder ordersProcessed = new LongAdder();
+        private final LongAdder ordersWithoutTracking = new LongAdder();
+        private final LongAdder ordersFailed = new LongAdder();
+        private final LongAdder shipmentsChecked = new LongAdder();
+        private final LongAdder detected = new LongAdder();
+        private final LongAdder serverFlagged = new LongAdder();
+        private final LongAdder agreed = new LongAdder();
+        private final LongAdder detectedOnly = new LongAdder();
+        private final LongAdder serverOnly = new LongAdder();
+        
+        private void tally(boolean detectedHere, boolean flaggedByServer) {
+            if (detectedHere) {
+                detected.increment();
+            }
+            if (flaggedByServer) {
+                serverFlagged.increment();
+            }
+            if (detectedHere && flaggedByServer) {
+                agreed.increment();
+            } else if (detectedHere) {
+                detectedOnly.increment();
+            } else if (flaggedByServer) {
+                serverOnly.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.dif.api.tracking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A shipment the misshipment detector flagged, with what was expected and what arrived.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MisshipmentFinding {
+    
+    private String orderId;
+    private String trackingNumber;
+    private String distributorId;
+    private List<MisshipmentReason> reasons;
+    private int numBoxes;
+    private Integer boxesDelivered;
+    private BigDecimal totalWeight;
+    private BigDecimal weightDelivered;
+    private boolean serverFlagged;
+}
@@ -0,0 +1,22 @@
+package com.dif.api.tracking;
+
+/**
+ * Why the misshipment detector flagged a shipment.
+ */
+public enum MisshipmentReason {
+    
+    /** Delivered box count differs from the boxes shipped. */
+    BOX_COUNT,
+    
+    /** Delivered weight differs from the shipped weight beyond the tolerance. */
+    WEIGHT,
+    
+    /** Boxes across the order's shipments differ from the order's total boxes. */
+    ORDER_BOXES,
+    
+    /** Weight across the order's shipments differs from the order's total weight beyond the tolerance. */
+    ORDER_WEIGHT,
+    
+    /** An order line shipped a different quantity than was ordered. */
+    LINE_QUANTITY
+}
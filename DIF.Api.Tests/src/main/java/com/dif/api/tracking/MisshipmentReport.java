@@ -0,0 +1,34 @@
+package com.dif.api.tracking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totals of a misshipment detection run and how they compare with the server's MisshipmentAlert list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MisshipmentReport {
+    
+    private long ordersProcessed;
+    private long ordersWithoutTracking;
+    private long ordersFailed;
+    private long shipmentsChecked;
+    private long detected;
+    private long serverFlagged;
+    private long agreed;
+    private long detectedOnly;
+    private long serverOnly;
+    private long alertsNotStreamed;
+    private double elapsedMillis;
+    
+    /**
+     * Checks whether the detector and the server flagged exactly the same streamed shipments.
+     * @return True if there was no disagreement
+     */
+    public boolean isConsistentWithServer() {
+        return detectedOnly == 0 && serverOnly == 0;
+    }
+}
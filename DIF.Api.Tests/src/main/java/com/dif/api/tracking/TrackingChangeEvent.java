@@ -0,0 +1,23 @@
+package com.dif.api.tracking;
+
+import com.dif.api.models.response.TrackingDetail;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One shipment change emitted by {@link TrackingChangeFeed}, with the freshly fetched detail.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackingChangeEvent {
+    
+    private TrackingChangeType type;
+    private String trackingNumber;
+    private String previousStatus;
+    private String currentStatus;
+    private String lastUpdated;
+    /** Detail fetched for the change; null for a completed shipment the API no longer returns. */
+    private TrackingDetail detail;
+}
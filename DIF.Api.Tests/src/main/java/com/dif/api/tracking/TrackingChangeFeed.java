@@ -0,0 +1,264 @@
+package com.dif.api.tracking;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.TrackingApiClient;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.response.PendingShipment;
+import com.dif.api.models.response.TrackingDetail;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Incremental change feed over GET /api/tracking/pending.
+ * <p>
+ * Each cycle downloads the pending list once and diffs it against the previous cycle by trackingNumber
+ * and lastUpdated. Only shipments that appeared, moved or left the list get their TrackingDetail fetched
+ * (concurrently, within the distributor's client-side rate limit), so the HTTP work of a cycle grows with
+ * the number of changes rather than the number of pending shipments. A shipment whose detail fetch fails
+ * keeps its previous snapshot and is reported again on the next cycle.
+ */
+public class TrackingChangeFeed implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TrackingChangeFeed.class);
+    
+    private final TrackingApiClient trackingApi;
+    private final DistributorRateLimiter rateLimiter;
+    private final ExecutorService fetchers;
+    private final Map<String, PendingShipment> snapshot = new HashMap<>();
+    private final List<Consumer<TrackingChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService scheduler;
+    
+    private static final class Change {
+        private final TrackingChangeType type;
+        private final PendingShipment previous;
+        private final PendingShipment current;
+        
+        private Change(TrackingChangeType type, PendingShipment previous, PendingShipment current) {
+            this.type = type;
+            this.previous = previous;
+            this.current = current;
+        }
+        
+        private PendingShipment latest() {
+            return current != null ? current : previous;
+        }
+    }
+    
+    /**
+     * Creates a feed with the shared rate limiter and tracking.feed.fetch.threads detail fetchers.
+     */
+    public TrackingChangeFeed() {
+        this(new TrackingApiClient(), DistributorRateLimiter.getShared(), ApiConfig.getTrackingFeedFetchThreads());
+    }
+    
+    /**
+     * @param trackingApi Tracking client
+     * @param rateLimiter Limiter detail fetches are charged to
+     * @param fetchThreads Detail fetches run at once
+     */
+    public TrackingChangeFeed(TrackingApiClient trackingApi, DistributorRateLimiter rateLimiter, int fetchThreads) {
+        this.trackingApi = trackingApi;
+        this.rateLimiter = rateLimiter;
+        this.fetchers = Executors.newFixedThreadPool(Math.max(1, fetchThreads), runnable -> {
+            Thread thread = new Thread(runnable, "tracking-feed-fetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Registers a listener called with every event, in emission order, from the polling thread.
+     * @param listener Event listener
+     */
+    public void addListener(Consumer<TrackingChangeEvent> listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Records the current pending list as the starting point without fetching detail or emitting events,
+     * so later cycles only report what changes from here.
+     * @return Shipments now tracked
+     * @throws IllegalStateException if the pending list cannot be fetched
+     */
+    public synchronized int baseline() {
+        snapshot.clear();
+        for (PendingShipment shipment : fetchPending()) {
+            if (shipment.getTrackingNumber() != null) {
+                snapshot.put(shipment.getTrackingNumber(), shipment);
+            }
+        }
+        logger.info("Tracking feed baselined on {} pending shipments", snapshot.size());
+        return snapshot.size();
+    }
+    
+    /**
+     * Runs one cycle: diffs the pending list against the last cycle and fetches detail for the changes.
+     * Without a {@link #baseline()} the first cycle reports every pending shipment as added.
+     * @return Events of this cycle, in pending list order followed by completed shipments
+     * @throws IllegalStateException if the pending list cannot be fetched
+     */
+    public synchronized List<TrackingChangeEvent> poll() {
+        long start = System.nanoTime();
+        List<PendingShipment> pending = fetchPending();
+        List<Change> changes = diff(pending);
+        
+        List<CompletableFuture<TrackingDetail>> details = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            details.add(CompletableFuture.supplyAsync(() -> fetchDetail(change), fetchers));
+        }
+        List<TrackingChangeEvent> events = new ArrayList<>(changes.size());
+        int failed = 0;
+        for (int i = 0; i < changes.size(); i++) {
+            Change change = changes.get(i);
+            TrackingDetail detail;
+            try {
+                detail = details.get(i).join();
+            } catch (CompletionException e) {
+                failed++;
+                logger.warn("Tracking feed could not fetch {}; retrying next cycle: {}",
+                        change.latest().getTrackingNumber(), e.getCause().getMessage());
+                continue;
+            }
+            events.add(apply(change, detail));
+        }
+        
+        logger.info("Tracking feed cycle: {} pending, {} changed, {} failed detail fetches in {} ms",
+                pending.size(), changes.size(), failed, (System.nanoTime() - start) / 1_000_000);
+        for (TrackingChangeEvent event : events) {
+            notifyListeners(event);
+        }
+        return events;
+    }
+    
+    /**
+     * Polls on a daemon thread at a fixed delay until {@link #close()}; failed cycles are logged and retried.
+     * @param interval Delay between the end of one cycle and the start of the next
+     */
+    public synchronized void start(Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracking-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (RuntimeException e) {
+                logger.warn("Tracking feed cycle failed: {}", e.getMessage());
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Gets the number of shipments the feed currently tracks as pending.
+     * @return Tracked shipments
+     */
+    public synchronized int getTrackedCount() {
+        return snapshot.size();
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        fetchers.shutdownNow();
+    }
+    
+    private List<PendingShipment> fetchPending() {
+        Response response = trackingApi.getPendingShipments();
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("GET /api/tracking/pending returned HTTP " + response.getStatusCode());
+        }
+        List<PendingShipment> pending = BaseApiClient.readDataList(response, PendingShipment.class);
+        return pending == null ? List.of() : pending;
+    }
+    
+    private List<Change> diff(List<PendingShipment> pending) {
+        List<Change> changes = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (PendingShipment shipment : pending) {
+            String trackingNumber = shipment.getTrackingNumber();
+            if (trackingNumber == null || !seen.add(trackingNumber)) {
+                continue;
+            }
+            PendingShipment previous = snapshot.get(trackingNumber);
+            if (previous == null) {
+                changes.add(new Change(TrackingChangeType.ADDED, null, shipment));
+            } else if (!Objects.equals(previous.getLastUpdated(), shipment.getLastUpdated())
+                    || !Objects.equals(previous.getCurrentStatus(), shipment.getCurrentStatus())) {
+                changes.add(new Change(TrackingChangeType.UPDATED, previous, shipment));
+            }
+        }
+        for (PendingShipment previous : snapshot.values()) {
+            if (!seen.contains(previous.getTrackingNumber())) {
+                changes.add(new Change(TrackingChangeType.COMPLETED, previous, null));
+            }
+        }
+        return changes;
+    }
+    
+    private TrackingDetail fetchDetail(Change change) {
+        PendingShipment shipment = change.latest();
+        if (shipment.getDistributorId() != null) {
+            rateLimiter.acquire(shipment.getDistributorId());
+        }
+        Response response = trackingApi.getTrackingByNumber(shipment.getTrackingNumber());
+        if (response.getStatusCode() == 200) {
+            return BaseApiClient.readData(response, TrackingDetail.class);
+        }
+        if (response.getStatusCode() == 404 && change.type == TrackingChangeType.COMPLETED) {
+            return null;
+        }
+        throw new IllegalStateException("GET /api/tracking/shipment/" + shipment.getTrackingNumber()
+                + " returned HTTP " + response.getStatusCode());
+    }
+    
+    private TrackingChangeEvent apply(Change change, TrackingDetail detail) {
+        PendingShipment shipment = change.latest();
+        if (change.type == TrackingChangeType.COMPLETED) {
+            snapshot.remove(shipment.getTrackingNumber());
+        } else {
+            snapshot.put(shipment.getTrackingNumber(), shipment);
+        }
+        return new TrackingChangeEvent(change.type, shipment.getTrackingNumber(),
+                change.previous == null ? null : change.previous.getCurrentStatus(),
+                detail != null ? detail.getCurrentStatus() : shipment.getCurrentStatus(),
+                detail != null ? detail.getLastUpdated() : shipment.getLastUpdated(),
+                detail);
+    }
+    
+    private void notifyListeners(TrackingChangeEvent event) {
+        for (Consumer<TrackingChangeEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                logger.warn("Tracking feed listener failed on {}: {}", event.getTrackingNumber(), e.getMessage());
+            }
+        }
+    }
+}
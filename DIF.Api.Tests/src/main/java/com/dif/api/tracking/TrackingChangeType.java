@@ -0,0 +1,13 @@
+package com.dif.api.tracking;
+
+/**
+ * Kind of change the tracking change feed saw for a shipment.
+ */
+public enum TrackingChangeType {
+    /** The shipment appeared in the pending list. */
+    ADDED,
+    /** The shipment's lastUpdated moved. */
+    UPDATED,
+    /** The shipment left the pending list, usually because it was delivered. */
+    COMPLETED
+}
@@ -0,0 +1,16 @@
+package com.dif.api.tracking;
+
+/**
+ * Result of looking up one tracking number in a bulk lookup.
+ */
+public enum TrackingLookupOutcome {
+    
+    /** The shipment was found; the delivery confirmation is attached once delivered. */
+    FOUND,
+    
+    /** The API returned 404, now or within the negative cache lifetime. */
+    NOT_FOUND,
+    
+    /** The lookup failed with another status or an exception. */
+    FAILED
+}
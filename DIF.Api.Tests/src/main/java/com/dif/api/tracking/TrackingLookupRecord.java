@@ -0,0 +1,23 @@
+package com.dif.api.tracking;
+
+import com.dif.api.models.response.DeliveryConfirmation;
+import com.dif.api.models.response.TrackingDetail;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a bulk tracking lookup's JSONL output.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackingLookupRecord {
+    
+    private String trackingNumber;
+    private TrackingLookupOutcome outcome;
+    private boolean negativeCacheHit;
+    private TrackingDetail tracking;
+    private DeliveryConfirmation deliveryConfirmation;
+    private String error;
+}
@@ -0,0 +1,23 @@
+package com.dif.api.tracking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totals of a bulk tracking lookup run.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackingLookupSummary {
+    
+    private long read;
+    private long duplicates;
+    private long found;
+    private long notFound;
+    private long negativeCacheHits;
+    private long failed;
+    private long deliveryConfirmations;
+    private double elapsedMillis;
+}
@@ -0,0 +1,176 @@
+package com.dif.api.tracking;
+
+import com.dif.api.client.BaseApiClient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only JSONL checkpoint of a bulk tracking refresh.
+ * The first line holds a fingerprint of the requested order IDs; each later line is a completed
+ * {@link TrackingRefreshChunk}, flushed as soon as the chunk succeeds. Reopening the file for the same
+ * order IDs resumes from it, cutting off a partial last line left by a killed run; a different fingerprint
+ * or an unreadable file starts over.
+ */
+public class TrackingRefreshCheckpoint implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TrackingRefreshCheckpoint.class);
+    
+    private final Path file;
+    private final Set<String> completedOrderIds = new HashSet<>();
+    private int shipmentsUpdated;
+    private BufferedWriter writer;
+    
+    /**
+     * Opens the checkpoint for a set of order IDs, resuming it if it was written for the same set.
+     * @param file Checkpoint file
+     * @param orderIds Order IDs of the refresh
+     * @throws IOException if the file cannot be read or written
+     */
+    public TrackingRefreshCheckpoint(Path file, Collection<String> orderIds) throws IOException {
+        this.file = file;
+        String fingerprint = fingerprint(orderIds);
+        if (Files.exists(file) && resume(fingerprint)) {
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            logger.info("Resuming tracking refresh from {}: {} orders already refreshed", file, completedOrderIds.size());
+            return;
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        writer.write(BaseApiClient.getObjectMapper().createObjectNode().put("fingerprint", fingerprint).toString());
+        writer.newLine();
+        writer.flush();
+    }
+    
+    private boolean resume(String fingerprint) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        int complete = content.length;
+        while (complete > 0 && content[complete - 1] != '\n') {
+            complete--;
+        }
+        List<String> lines = new String(content, 0, complete, StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        if (lines.isEmpty() || !fingerprint.equals(readFingerprint(lines.get(0)))) {
+            logger.info("Checkpoint {} belongs to a different refresh; starting over", file);
+            return false;
+        }
+        if (complete < content.length) {
+            // A run killed mid-write leaves a partial last line; cut it off so the next chunk starts on its own line
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(complete);
+            }
+            logger.warn("Dropped a partial last line of {} bytes from {}", content.length - complete, file);
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            try {
+                TrackingRefreshChunk chunk = BaseApiClient.getObjectMapper().readValue(line, TrackingRefreshChunk.class);
+                completedOrderIds.addAll(chunk.getOrderIds());
+                shipmentsUpdated += chunk.getShipmentsUpdated();
+            } catch (JsonProcessingException e) {
+                // The chunks of an unreadable line are simply refreshed again
+                logger.warn("Ignoring unreadable checkpoint line in {}", file);
+            }
+        }
+        return true;
+    }
+    
+    private static String readFingerprint(String line) {
+        try {
+            JsonNode header = BaseApiClient.getObjectMapper().readTree(line);
+            return header.path("fingerprint").asText(null);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+    
+    private static String fingerprint(Collection<String> orderIds) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String orderId : new TreeSet<>(orderIds)) {
+                digest.update(orderId.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    /**
+     * Records a completed chunk and flushes it to disk.
+     * @param chunk Completed chunk
+     * @throws IOException if the line cannot be written
+     * @throws IllegalStateException if the checkpoint was closed
+     */
+    public synchronized void append(TrackingRefreshChunk chunk) throws IOException {
+        if (writer == null) {
+            throw new IllegalStateException("Checkpoint " + file + " is closed");
+        }
+        writer.write(BaseApiClient.getObjectMapper().writeValueAsString(chunk));
+        writer.newLine();
+        writer.flush();
+        completedOrderIds.addAll(chunk.getOrderIds());
+        shipmentsUpdated += chunk.getShipmentsUpdated();
+    }
+    
+    /**
+     * Checks whether an order was refreshed by this or an earlier run.
+     * @param orderId Order ID
+     * @return True if a completed chunk contains the order
+     */
+    public synchronized boolean isCompleted(String orderId) {
+        return completedOrderIds.contains(orderId);
+    }
+    
+    public synchronized int getCompletedCount() {
+        return completedOrderIds.size();
+    }
+    
+    public synchronized int getShipmentsUpdated() {
+        return shipmentsUpdated;
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    /**
+     * Closes and deletes the checkpoint once the refresh has finished.
+     * @throws IOException if the file cannot be deleted
+     */
+    public synchronized void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.dif.api.tracking;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One completed POST /api/tracking/update chunk of a bulk tracking refresh.
+ * Also the line format of the refresh checkpoint file.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TrackingRefreshChunk {
+    
+    private String distributorId;
+    private List<String> orderIds;
+    private int trackingNumbers;
+    private int shipmentsUpdated;
+    private double elapsedMillis;
+}
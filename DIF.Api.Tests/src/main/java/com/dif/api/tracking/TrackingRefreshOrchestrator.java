@@ -0,0 +1,309 @@
+package com.dif.api.tracking;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.TrackingApiClient;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.request.TrackingUpdateRequest;
+import com.dif.api.models.response.PendingShipment;
+import com.dif.api.models.response.TrackingUpdateResponse;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Refreshes the tracking of many orders through POST /api/tracking/update without one giant call
+ * or one call per order.
+ * <p>
+ * The API only honours {@code trackingNumbers} (an update without them advances every pending shipment),
+ * so order IDs are first resolved to tracking numbers from one GET /api/tracking/pending; orders that are
+ * no longer pending have nothing to refresh. The tracking numbers are then grouped by distributor and sent
+ * in chunks, a few chunks in flight per distributor, each chunk taking one permit from that distributor's
+ * {@link DistributorRateLimiter} bucket. Chunk size adapts per distributor toward
+ * tracking.refresh.chunk.target.ms and halves after a failure. Every completed chunk is appended to a
+ * {@link TrackingRefreshCheckpoint}, so rerunning an interrupted refresh skips the orders already done.
+ */
+public class TrackingRefreshOrchestrator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TrackingRefreshOrchestrator.class);
+    
+    private final TrackingApiClient trackingApi;
+    private final DistributorRateLimiter rateLimiter;
+    private final int concurrencyPerDistributor;
+    private final int initialChunkSize;
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final long targetChunkMillis;
+    private final int maxAttempts;
+    
+    /**
+     * Creates an orchestrator configured from tracking.refresh.* and the shared rate limiter.
+     */
+    public TrackingRefreshOrchestrator() {
+        this(new TrackingApiClient(), DistributorRateLimiter.getShared());
+    }
+    
+    /**
+     * @param trackingApi Tracking client
+     * @param rateLimiter Limiter each chunk takes a permit from
+     */
+    public TrackingRefreshOrchestrator(TrackingApiClient trackingApi, DistributorRateLimiter rateLimiter) {
+        this.trackingApi = trackingApi;
+        this.rateLimiter = rateLimiter;
+        this.concurrencyPerDistributor = Math.max(1, ApiConfig.getTrackingRefreshConcurrencyPerDistributor());
+        this.minChunkSize = Math.max(1, ApiConfig.getTrackingRefreshMinChunkSize());
+        this.maxChunkSize = Math.max(minChunkSize, ApiConfig.getTrackingRefreshMaxChunkSize());
+        this.initialChunkSize = Math.min(maxChunkSize, Math.max(minChunkSize, ApiConfig.getTrackingRefreshChunkSize()));
+        this.targetChunkMillis = Math.max(1, ApiConfig.getTrackingRefreshChunkTargetMs());
+        this.maxAttempts = Math.max(1, ApiConfig.getTrackingRefreshMaxAttempts());
+    }
+    
+    /**
+     * Refreshes orders using the tracking.refresh.checkpoint.file checkpoint.
+     * @param orderIds Order IDs (GUIDs)
+     * @return Refresh outcome
+     */
+    public TrackingRefreshResult refresh(Collection<String> orderIds) {
+        return refresh(orderIds, Paths.get(ApiConfig.getTrackingRefreshCheckpointFile()));
+    }
+    
+    /**
+     * Refreshes orders, resuming from the checkpoint file if it was written for the same order IDs.
+     * The checkpoint is deleted once every pending order has been refreshed.
+     * @param orderIds Order IDs (GUIDs)
+     * @param checkpointFile Checkpoint file
+     * @return Refresh outcome
+     * @throws IllegalStateException if the pending list cannot be fetched
+     * @throws UncheckedIOException if the checkpoint cannot be read or written
+     */
+    public TrackingRefreshResult refresh(Collection<String> orderIds, Path checkpointFile) {
+        long start = System.nanoTime();
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        TrackingRefreshCheckpoint checkpoint;
+        try {
+            checkpoint = new TrackingRefreshCheckpoint(checkpointFile, ids);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open tracking refresh checkpoint " + checkpointFile, e);
+        }
+        int resumedOrders = checkpoint.getCompletedCount();
+        
+        Map<String, List<PendingShipment>> pendingByOrder = pendingByOrder();
+        Map<String, Lane> lanes = new LinkedHashMap<>();
+        List<String> notPending = new ArrayList<>();
+        for (String orderId : ids) {
+            if (checkpoint.isCompleted(orderId)) {
+                continue;
+            }
+            List<PendingShipment> shipments = pendingByOrder.get(orderId.toLowerCase());
+            if (shipments == null) {
+                notPending.add(orderId);
+                continue;
+            }
+            String distributorId = shipments.get(0).getDistributorId() == null
+                    ? "unknown" : shipments.get(0).getDistributorId().toLowerCase();
+            lanes.computeIfAbsent(distributorId, Lane::new).add(orderId, shipments);
+        }
+        
+        List<TrackingRefreshChunk> chunks = Collections.synchronizedList(new ArrayList<>());
+        Map<String, Boolean> failed = new ConcurrentHashMap<>();
+        if (!lanes.isEmpty()) {
+            ExecutorService workers = Executors.newFixedThreadPool(lanes.size() * concurrencyPerDistributor, runnable -> {
+                Thread thread = new Thread(runnable, "tracking-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<CompletableFuture<Void>> running = new ArrayList<>();
+                for (Lane lane : lanes.values()) {
+                    for (int i = 0; i < concurrencyPerDistributor; i++) {
+                        running.add(CompletableFuture.runAsync(() -> drain(lane, checkpoint, chunks, failed), workers));
+                    }
+                }
+                CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+            } catch (RuntimeException e) {
+                // Completed chunks are already on disk; keep the checkpoint so the rerun resumes
+                try {
+                    checkpoint.close();
+                } catch (IOException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+                throw e;
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+        
+        List<String> failedOrderIds = new ArrayList<>();
+        ids.stream().filter(failed::containsKey).forEach(failedOrderIds::add);
+        int refreshedOrders = checkpoint.getCompletedCount() - resumedOrders;
+        int shipmentsUpdated = checkpoint.getShipmentsUpdated();
+        try {
+            if (failedOrderIds.isEmpty()) {
+                checkpoint.delete();
+            } else {
+                checkpoint.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close tracking refresh checkpoint " + checkpointFile, e);
+        }
+        
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+        logger.info("Tracking refresh: {} orders, {} resumed, {} refreshed in {} chunks, {} not pending, {} failed, "
+                        + "{} shipments updated in {} ms", ids.size(), resumedOrders, refreshedOrders, chunks.size(),
+                notPending.size(), failedOrderIds.size(), shipmentsUpdated, String.format("%.1f", elapsedMillis));
+        return new TrackingRefreshResult(ids.size(), resumedOrders, refreshedOrders, notPending, failedOrderIds,
+                shipmentsUpdated, new ArrayList<>(chunks), elapsedMillis);
+    }
+    
+    private Map<String, List<PendingShipment>> pendingByOrder() {
+        Response response = trackingApi.getPendingShipments();
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("GET /api/tracking/pending returned HTTP " + response.getStatusCode());
+        }
+        List<PendingShipment> pending = BaseApiClient.readDataList(response, PendingShipment.class);
+        Map<String, List<PendingShipment>> byOrder = new HashMap<>();
+        if (pending != null) {
+            for (PendingShipment shipment : pending) {
+                if (shipment.getOrderId() != null && shipment.getTrackingNumber() != null) {
+                    byOrder.computeIfAbsent(shipment.getOrderId().toLowerCase(), id -> new ArrayList<>()).add(shipment);
+                }
+            }
+        }
+        return byOrder;
+    }
+    
+    private void drain(Lane lane, TrackingRefreshCheckpoint checkpoint, List<TrackingRefreshChunk> chunks,
+                       Map<String, Boolean> failed) {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<String> orderIds = lane.take();
+            if (orderIds.isEmpty()) {
+                return;
+            }
+            rateLimiter.acquire(lane.distributorId);
+            List<String> trackingNumbers = lane.trackingNumbers(orderIds);
+            long chunkStart = System.nanoTime();
+            Response response;
+            try {
+                response = trackingApi.triggerTrackingUpdate(
+                        TrackingUpdateRequest.builder().trackingNumbers(trackingNumbers).build());
+            } catch (RuntimeException e) {
+                retryOrFail(lane, orderIds, failed, e.getMessage());
+                continue;
+            }
+            double elapsedMillis = (System.nanoTime() - chunkStart) / 1_000_000.0;
+            
+            if (response.getStatusCode() == 429) {
+                String retryAfter = response.getHeader("Retry-After");
+                rateLimiter.pause(lane.distributorId, retryAfter != null && retryAfter.matches("\\d+")
+                        ? Duration.ofSeconds(Long.parseLong(retryAfter)) : Duration.ofSeconds(1));
+                lane.requeue(orderIds);
+            } else if (response.getStatusCode() != 200) {
+                retryOrFail(lane, orderIds, failed, "HTTP " + response.getStatusCode());
+            } else {
+                TrackingUpdateResponse result = BaseApiClient.readData(response, TrackingUpdateResponse.class);
+                TrackingRefreshChunk chunk = new TrackingRefreshChunk(lane.distributorId, orderIds,
+                        trackingNumbers.size(), result == null ? 0 : result.getShipmentsUpdated(), elapsedMillis);
+                try {
+                    checkpoint.append(chunk);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot write tracking refresh checkpoint", e);
+                }
+                chunks.add(chunk);
+                lane.tune(trackingNumbers.size(), elapsedMillis);
+                logger.debug("Refreshed {} tracking numbers for {} in {} ms ({} updated)", trackingNumbers.size(),
+                        lane.distributorId, String.format("%.1f", elapsedMillis), chunk.getShipmentsUpdated());
+            }
+        }
+    }
+    
+    private void retryOrFail(Lane lane, List<String> orderIds, Map<String, Boolean> failed, String reason) {
+        lane.shrink();
+        List<String> retry = new ArrayList<>();
+        for (String orderId : orderIds) {
+            if (lane.attempt(orderId) < maxAttempts) {
+                retry.add(orderId);
+            } else {
+                failed.put(orderId, Boolean.TRUE);
+            }
+        }
+        logger.warn("Tracking refresh chunk of {} orders for {} failed ({}); {} requeued",
+                orderIds.size(), lane.distributorId, reason, retry.size());
+        lane.requeue(retry);
+    }
+    
+    /**
+     * Remaining orders of one distributor and its current chunk size.
+     */
+    private final class Lane {
+        private final String distributorId;
+        private final Deque<String> remaining = new ArrayDeque<>();
+        private final Map<String, List<String>> trackingNumbers = new HashMap<>();
+        private final Map<String, Integer> attempts = new HashMap<>();
+        private int chunkSize = initialChunkSize;
+        
+        private Lane(String distributorId) {
+            this.distributorId = distributorId;
+        }
+        
+        private void add(String orderId, List<PendingShipment> shipments) {
+            remaining.addLast(orderId);
+            List<String> numbers = new ArrayList<>(shipments.size());
+            shipments.forEach(shipment -> numbers.add(shipment.getTrackingNumber()));
+            trackingNumbers.put(orderId, numbers);
+        }
+        
+        private synchronized List<String> take() {
+            List<String> chunk = new ArrayList<>(Math.min(chunkSize, remaining.size()));
+            while (chunk.size() < chunkSize && !remaining.isEmpty()) {
+                chunk.add(remaining.pollFirst());
+            }
+            return chunk;
+        }
+        
+        private synchronized List<String> trackingNumbers(List<String> orderIds) {
+            List<String> numbers = new ArrayList<>();
+            orderIds.forEach(orderId -> numbers.addAll(trackingNumbers.get(orderId)));
+            return numbers;
+        }
+        
+        private synchronized void requeue(List<String> orderIds) {
+            for (int i = orderIds.size() - 1; i >= 0; i--) {
+                remaining.addFirst(orderIds.get(i));
+            }
+        }
+        
+        private synchronized int attempt(String orderId) {
+            return attempts.merge(orderId, 1, Integer::sum);
+        }
+        
+        private synchronized void tune(int size, double elapsedMillis) {
+            // Move halfway toward the size that would have hit the target latency
+            double proposed = size * targetChunkMillis / Math.max(1.0, elapsedMillis);
+            chunkSize = (int) Math.max(minChunkSize, Math.min(maxChunkSize, Math.round((chunkSize + proposed) / 2)));
+        }
+        
+        private synchronized void shrink() {
+            chunkSize = Math.max(minChunkSize, chunkSize / 2);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.dif.api.tracking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk tracking refresh. Totals include chunks completed by an earlier, interrupted run
+ * that this run resumed from its checkpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackingRefreshResult {
+    
+    private int requestedOrders;
+    private int resumedOrders;
+    private int refreshedOrders;
+    private List<String> notPendingOrderIds;
+    private List<String> failedOrderIds;
+    private int shipmentsUpdated;
+    private List<TrackingRefreshChunk> chunks;
+    private double elapsedMillis;
+    
+    /**
+     * Checks whether every pending order was refreshed.
+     * @return True if no chunk failed
+     */
+    public boolean isComplete() {
+        return failedOrderIds.isEmpty();
+    }
+}
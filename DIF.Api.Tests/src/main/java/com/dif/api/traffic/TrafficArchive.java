@@ -0,0 +1,201 @@
+package com.dif.api.traffic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only, memory-mapped view of a traffic archive indexed by request key.
+ * Response bodies are served as read-only slices of the mapping, so replay never copies them.
+ * <p>
+ * Layout: a 32-byte header (magic "DIFTRAF2", end offset, record count, reserved) followed by records of
+ * {@code int size | int keyLength | key | short status | short typeLength | contentType | int headersLength | headers |
+ * long recordedAt | int bodyLength | body}. Headers are UTF-8 {@code "Name: value\n"} lines, without the content
+ * type and the transfer headers (Content-Length, Transfer-Encoding, Content-Encoding) that the body no longer matches.
+ */
+public class TrafficArchive {
+    
+    static final byte[] MAGIC = "DIFTRAF2".getBytes(StandardCharsets.US_ASCII);
+    static final int END_OFFSET_POSITION = 8;
+    static final int RECORD_COUNT_POSITION = 16;
+    static final int HEADER_SIZE = 32;
+    
+    private final Path file;
+    private final MappedByteBuffer mapping;
+    private final Map<String, List<RecordedResponse>> index = new HashMap<>();
+    private final Map<String, AtomicInteger> cursors = new HashMap<>();
+    private final long recordCount;
+    
+    /**
+     * One recorded response; the body is a read-only slice of the archive mapping.
+     */
+    public static final class RecordedResponse {
+        private final int statusCode;
+        private final String contentType;
+        private final List<Map.Entry<String, String>> headers;
+        private final long recordedAtMillis;
+        private final ByteBuffer body;
+        
+        RecordedResponse(int statusCode, String contentType, List<Map.Entry<String, String>> headers,
+                         long recordedAtMillis, ByteBuffer body) {
+            this.statusCode = statusCode;
+            this.contentType = contentType;
+            this.headers = headers;
+            this.recordedAtMillis = recordedAtMillis;
+            this.body = body;
+        }
+        
+        public int getStatusCode() {
+            return statusCode;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        /**
+         * Gets the recorded response headers, e.g. Retry-After and X-RateLimit-* on a 429.
+         * @return Header names and values in response order
+         */
+        public List<Map.Entry<String, String>> getHeaders() {
+            return headers;
+        }
+        
+        public long getRecordedAtMillis() {
+            return recordedAtMillis;
+        }
+        
+        /**
+         * Gets the body as a fresh read-only view positioned at its start.
+         * @return Body buffer
+         */
+        public ByteBuffer getBody() {
+            return body.duplicate();
+        }
+    }
+    
+    /**
+     * Maps an archive file and indexes its records.
+     * @param file Archive file
+     * @throws IOException if the file cannot be read or is not an archive
+     */
+    public TrafficArchive(Path file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Traffic archive " + file + " is larger than 2 GB");
+            }
+            this.mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        checkMagic(mapping, file);
+        long end = Math.min(mapping.getLong(END_OFFSET_POSITION), mapping.capacity());
+        this.recordCount = mapping.getLong(RECORD_COUNT_POSITION);
+        
+        int position = HEADER_SIZE;
+        while (position + Integer.BYTES <= end) {
+            int size = mapping.getInt(position);
+            if (size <= 0 || position + size > end) {
+                break;
+            }
+            int cursor = position + Integer.BYTES;
+            int keyLength = mapping.getInt(cursor);
+            cursor += Integer.BYTES;
+            String key = decode(cursor, keyLength);
+            cursor += keyLength;
+            int status = mapping.getShort(cursor);
+            int typeLength = mapping.getShort(cursor + Short.BYTES);
+            cursor += 2 * Short.BYTES;
+            String contentType = decode(cursor, typeLength);
+            cursor += typeLength;
+            int headersLength = mapping.getInt(cursor);
+            cursor += Integer.BYTES;
+            List<Map.Entry<String, String>> headers = parseHeaders(decode(cursor, headersLength));
+            cursor += headersLength;
+            long recordedAt = mapping.getLong(cursor);
+            cursor += Long.BYTES;
+            int bodyLength = mapping.getInt(cursor);
+            cursor += Integer.BYTES;
+            ByteBuffer body = mapping.slice(cursor, bodyLength).asReadOnlyBuffer();
+            index.computeIfAbsent(key, k -> new ArrayList<>())
+                    .add(new RecordedResponse(status, contentType.isEmpty() ? null : contentType, headers, recordedAt, body));
+            position += size;
+        }
+        index.keySet().forEach(key -> cursors.put(key, new AtomicInteger()));
+    }
+    
+    static int recordSize(int keyLength, int typeLength, int headersLength, int bodyLength) {
+        return Integer.BYTES * 4 + Short.BYTES * 2 + Long.BYTES + keyLength + typeLength + headersLength + bodyLength;
+    }
+    
+    private static List<Map.Entry<String, String>> parseHeaders(String text) {
+        List<Map.Entry<String, String>> headers = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.add(Map.entry(line.substring(0, colon), line.substring(colon + 1).trim()));
+            }
+        }
+        return Collections.unmodifiableList(headers);
+    }
+    
+    static void checkMagic(ByteBuffer buffer, Path file) throws IOException {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.capacity() <= i || buffer.get(i) != MAGIC[i]) {
+                throw new IOException(file + " is not a traffic archive");
+            }
+        }
+    }
+    
+    private String decode(int position, int length) {
+        byte[] bytes = new byte[length];
+        mapping.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Gets the next recorded response for a key; repeated requests cycle through
+     * the responses in recording order.
+     * @param key Request key from {@link TrafficKey}
+     * @return Recorded response, or null if the key was never recorded
+     */
+    public RecordedResponse next(String key) {
+        List<RecordedResponse> responses = index.get(key);
+        if (responses == null) {
+            return null;
+        }
+        int slot = cursors.get(key).getAndIncrement();
+        return responses.get(Math.floorMod(slot, responses.size()));
+    }
+    
+    /**
+     * Gets all recorded responses for a key in recording order.
+     * @param key Request key
+     * @return Recorded responses, empty if none
+     */
+    public List<RecordedResponse> all(String key) {
+        return Collections.unmodifiableList(index.getOrDefault(key, Collections.emptyList()));
+    }
+    
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+    
+    public long getRecordCount() {
+        return recordCount;
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+}
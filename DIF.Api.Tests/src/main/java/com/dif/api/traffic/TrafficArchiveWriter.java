@@ -0,0 +1,137 @@
+package com.dif.api.traffic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Appends recorded request/response pairs to a memory-mapped archive file.
+ * The mapping doubles when full; the header's end offset is updated after every record,
+ * so a crashed run still leaves a readable prefix. See {@link TrafficArchive} for the layout.
+ */
+public class TrafficArchiveWriter implements Closeable {
+    
+    private static final Set<String> SKIPPED_HEADERS =
+            Set.of("content-type", "content-length", "transfer-encoding", "content-encoding");
+    
+    private final Path file;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long recordCount;
+    
+    /**
+     * Opens an archive for appending, creating it if needed.
+     * @param file Archive file
+     * @param initialCapacity Initial mapped size in bytes
+     * @throws IOException if the file cannot be opened or is not an archive
+     */
+    public TrafficArchiveWriter(Path file, long initialCapacity) throws IOException {
+        this.file = file;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean existing = channel.size() >= TrafficArchive.HEADER_SIZE;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                Math.max(Math.max(initialCapacity, TrafficArchive.HEADER_SIZE), channel.size()));
+        if (existing) {
+            TrafficArchive.checkMagic(buffer, file);
+            buffer.position((int) buffer.getLong(TrafficArchive.END_OFFSET_POSITION));
+            recordCount = buffer.getLong(TrafficArchive.RECORD_COUNT_POSITION);
+        } else {
+            buffer.put(TrafficArchive.MAGIC);
+            buffer.putLong(TrafficArchive.HEADER_SIZE);
+            buffer.putLong(0);
+            buffer.position(TrafficArchive.HEADER_SIZE);
+        }
+    }
+    
+    /**
+     * Appends one request/response pair.
+     * @param key Request key from {@link TrafficKey}
+     * @param statusCode HTTP status code
+     * @param contentType Response content type, may be null
+     * @param headers Response headers in response order; content type and transfer headers are skipped
+     * @param body Response body
+     * @throws IOException if the archive cannot grow
+     */
+    public synchronized void append(String key, int statusCode, String contentType,
+                                    List<Map.Entry<String, String>> headers, byte[] body) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] typeBytes = (contentType == null ? "" : contentType).getBytes(StandardCharsets.UTF_8);
+        StringBuilder headerText = new StringBuilder();
+        for (Map.Entry<String, String> header : headers) {
+            if (!SKIPPED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                headerText.append(header.getKey()).append(": ").append(header.getValue()).append('\n');
+            }
+        }
+        byte[] headerBytes = headerText.toString().getBytes(StandardCharsets.UTF_8);
+        int recordSize = TrafficArchive.recordSize(keyBytes.length, typeBytes.length, headerBytes.length, body.length);
+        ensureCapacity(recordSize);
+        
+        buffer.putInt(recordSize);
+        buffer.putInt(keyBytes.length);
+        buffer.put(keyBytes);
+        buffer.putShort((short) statusCode);
+        buffer.putShort((short) typeBytes.length);
+        buffer.put(typeBytes);
+        buffer.putInt(headerBytes.length);
+        buffer.put(headerBytes);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putInt(body.length);
+        buffer.put(body);
+        
+        // Publish the record only after it is fully written
+        recordCount++;
+        buffer.putLong(TrafficArchive.RECORD_COUNT_POSITION, recordCount);
+        buffer.putLong(TrafficArchive.END_OFFSET_POSITION, buffer.position());
+    }
+    
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    private void ensureCapacity(int recordSize) throws IOException {
+        if (buffer.remaining() >= recordSize) {
+            return;
+        }
+        long needed = (long) buffer.position() + recordSize;
+        long capacity = Math.max((long) buffer.capacity() * 2, needed);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("Traffic archive " + file + " would exceed 2 GB; start a new archive");
+        }
+        int position = buffer.position();
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.position(position);
+    }
+    
+    /**
+     * Flushes the mapping and trims the file to the last record.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        long end = buffer.getLong(TrafficArchive.END_OFFSET_POSITION);
+        buffer.force();
+        buffer = null;
+        try {
+            channel.truncate(end);
+        } catch (IOException e) {
+            // Some platforms refuse to truncate a mapped file; readers stop at the end offset anyway
+        }
+        channel.close();
+    }
+}
@@ -0,0 +1,87 @@
+package com.dif.api.traffic;
+
+import com.dif.api.config.ApiConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Shared traffic archive of the test run, opened lazily according to traffic.mode.
+ */
+public final class TrafficArchives {
+    
+    public static final String MODE_RECORD = "record";
+    public static final String MODE_REPLAY = "replay";
+    
+    private static final Logger logger = LoggerFactory.getLogger(TrafficArchives.class);
+    private static TrafficArchiveWriter writer;
+    private static TrafficArchive archive;
+    
+    private TrafficArchives() {
+        // Utility class
+    }
+    
+    public static boolean isRecording() {
+        return MODE_RECORD.equals(ApiConfig.getTrafficMode());
+    }
+    
+    public static boolean isReplaying() {
+        return MODE_REPLAY.equals(ApiConfig.getTrafficMode());
+    }
+    
+    /**
+     * Gets the shared writer, opening the configured archive for appending on first use.
+     * @return Archive writer
+     */
+    public static synchronized TrafficArchiveWriter writer() {
+        if (writer == null) {
+            Path file = Paths.get(ApiConfig.getTrafficArchiveFile());
+            try {
+                writer = new TrafficArchiveWriter(file, ApiConfig.getTrafficArchiveInitialSizeMb() * 1024L * 1024L);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open traffic archive " + file, e);
+            }
+            logger.info("Recording API traffic to {}", file.toAbsolutePath());
+        }
+        return writer;
+    }
+    
+    /**
+     * Gets the shared read-only archive, mapping the configured file on first use.
+     * @return Traffic archive
+     */
+    public static synchronized TrafficArchive archive() {
+        if (archive == null) {
+            Path file = Paths.get(ApiConfig.getTrafficArchiveFile());
+            try {
+                archive = new TrafficArchive(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open traffic archive " + file, e);
+            }
+            logger.info("Replaying {} recorded API responses ({} keys) from {}",
+                    archive.getRecordCount(), archive.keys().size(), file.toAbsolutePath());
+        }
+        return archive;
+    }
+    
+    /**
+     * Closes the shared writer so the archive is flushed and trimmed.
+     */
+    public static synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+            logger.info("Recorded {} API responses to {}", writer.getRecordCount(), writer.getFile().toAbsolutePath());
+        } catch (IOException e) {
+            logger.warn("Failed to close traffic archive {}: {}", writer.getFile(), e.getMessage());
+        } finally {
+            writer = null;
+        }
+    }
+}
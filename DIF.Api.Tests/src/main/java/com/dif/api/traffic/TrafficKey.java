@@ -0,0 +1,108 @@
+package com.dif.api.traffic;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.config.ApiConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.specification.FilterableRequestSpecification;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Builds the archive key of a request: method, path with sorted query string, and normalized body.
+ * Bodies are re-serialized with sorted object keys and without the fields listed in
+ * traffic.key.ignored.fields, so generated values such as PO numbers do not defeat replay.
+ */
+public final class TrafficKey {
+    
+    private static final Set<String> IGNORED_FIELDS = Set.of(ApiConfig.getTrafficKeyIgnoredFields());
+    
+    private TrafficKey() {
+        // Utility class
+    }
+    
+    /**
+     * Builds the key of a Rest Assured request.
+     * @param requestSpec Request about to be sent
+     * @return Archive key
+     */
+    public static String of(FilterableRequestSpecification requestSpec) {
+        URI uri = URI.create(requestSpec.getURI());
+        return of(requestSpec.getMethod(), uri.getRawPath(), uri.getRawQuery(), requestSpec.getBody());
+    }
+    
+    /**
+     * Builds a key from its parts.
+     * @param method HTTP method
+     * @param path Request path without host
+     * @param rawQuery Raw query string, may be null
+     * @param body Request body (String, byte[] or object), may be null
+     * @return Archive key
+     */
+    public static String of(String method, String path, String rawQuery, Object body) {
+        StringBuilder key = new StringBuilder(method).append(' ').append(path);
+        if (rawQuery != null && !rawQuery.isEmpty()) {
+            String[] pairs = rawQuery.split("&");
+            Arrays.sort(pairs);
+            key.append('?').append(String.join("&", pairs));
+        }
+        String normalized = normalizeBody(body);
+        if (!normalized.isEmpty()) {
+            key.append(' ').append(normalized);
+        }
+        return key.toString();
+    }
+    
+    /**
+     * Normalizes a JSON body to compact, key-sorted form; non-JSON bodies are used as-is.
+     * @param body Request body, may be null
+     * @return Normalized body or an empty string
+     */
+    public static String normalizeBody(Object body) {
+        if (body == null) {
+            return "";
+        }
+        try {
+            JsonNode tree;
+            if (body instanceof byte[]) {
+                tree = BaseApiClient.getObjectMapper().readTree((byte[]) body);
+            } else if (body instanceof String) {
+                tree = BaseApiClient.getObjectMapper().readTree((String) body);
+            } else {
+                tree = BaseApiClient.getObjectMapper().valueToTree(body);
+            }
+            return tree == null ? "" : BaseApiClient.getObjectMapper().writeValueAsString(canonical(tree));
+        } catch (IOException e) {
+            return body instanceof byte[] ? new String((byte[]) body, StandardCharsets.UTF_8) : body.toString();
+        }
+    }
+    
+    private static JsonNode canonical(JsonNode node) {
+        if (node.isObject()) {
+            TreeMap<String, JsonNode> sorted = new TreeMap<>();
+            Iterator<String> names = node.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (!IGNORED_FIELDS.contains(name)) {
+                    sorted.put(name, canonical(node.get(name)));
+                }
+            }
+            ObjectNode result = BaseApiClient.getObjectMapper().createObjectNode();
+            sorted.forEach(result::set);
+            return result;
+        }
+        if (node.isArray()) {
+            ArrayNode result = BaseApiClient.getObjectMapper().createArrayNode();
+            node.forEach(element -> result.add(canonical(element)));
+            return result;
+        }
+        return node;
+    }
+}
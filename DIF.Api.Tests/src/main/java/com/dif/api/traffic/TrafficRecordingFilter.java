@@ -0,0 +1,36 @@
+package com.dif.api.traffic;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rest Assured filter that appends every request/response pair to the shared traffic archive.
+ */
+public class TrafficRecordingFilter implements Filter {
+    
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String key = TrafficKey.of(requestSpec);
+        Response response = ctx.next(requestSpec, responseSpec);
+        try {
+            List<Map.Entry<String, String>> headers = new ArrayList<>();
+            response.getHeaders().forEach(header -> headers.add(Map.entry(header.getName(), header.getValue())));
+            TrafficArchives.writer().append(key, response.getStatusCode(), response.getContentType(), headers,
+                    response.asByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record response for " + key, e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,63 @@
+package com.dif.api.traffic;
+
+import com.dif.api.config.ApiConfig;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.ContentType;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rest Assured filter that answers requests from the traffic archive instead of the network.
+ * Unrecorded requests get a 404 failure envelope, or go to the real API when traffic.replay.passthrough is set.
+ */
+public class TrafficReplayFilter implements Filter {
+    
+    private final boolean passthrough = ApiConfig.isTrafficReplayPassthrough();
+    
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String key = TrafficKey.of(requestSpec);
+        TrafficArchive.RecordedResponse recorded = TrafficArchives.archive().next(key);
+        if (recorded == null) {
+            if (passthrough) {
+                return ctx.next(requestSpec, responseSpec);
+            }
+            return new ResponseBuilder()
+                    .setStatusCode(404)
+                    .setStatusLine("HTTP/1.1 404 Not Found")
+                    .setContentType(ContentType.JSON)
+                    .setBody("{\"success\":false,\"data\":null,\"message\":\"Recorded response not found for " + escape(key)
+                            + "\",\"errors\":[]}")
+                    .build();
+        }
+        
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(recorded.getStatusCode())
+                .setStatusLine("HTTP/1.1 " + recorded.getStatusCode())
+                .setBody(new ByteBufferBackedInputStream(recorded.getBody()));
+        if (!recorded.getHeaders().isEmpty()) {
+            List<Header> headers = new ArrayList<>();
+            recorded.getHeaders().forEach(header -> headers.add(new Header(header.getKey(), header.getValue())));
+            builder.setHeaders(new Headers(headers));
+        }
+        if (recorded.getContentType() != null) {
+            builder.setContentType(recorded.getContentType());
+        }
+        return builder.build();
+    }
+    
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -1,24 +1,59 @@
 package com.dif.api.util;
 
 import com.dif.api.client.OrdersApiClient;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.db.BatchTiming;
+import com.dif.api.db.BulkQueryResult;
+import com.dif.api.db.JdbcOrderQueries;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
- * Database helper utility that simulates SQL database queries.
- * Internally uses API clients to fetch data, presenting a database query interface.
+ * Database helper utility for SQL database queries.
+ * With db.backend=api (the default) queries are simulated through the API clients; with db.backend=jdbc
+ * they run against the database at db.connection.string through a pooled DataSource.
+ * The shared client keeps no per-request state, so queries are safe from tests running in parallel.
  */
 public class DatabaseHelper {
     
     private static final Logger logger = LoggerFactory.getLogger(DatabaseHelper.class);
     private static final OrdersApiClient ordersApiClient = new OrdersApiClient();
     
+    private static ExecutorService bulkExecutor;
+    
+    @FunctionalInterface
+    private interface JdbcQuery<T> {
+        T run() throws SQLException;
+    }
+    
+    @FunctionalInterface
+    private interface ApiLookup<T> {
+        T fetch(String orderId);
+    }
+    
+    @FunctionalInterface
+    private interface JdbcBatch<T> {
+        Map<String, T> query(List<String> orderIds) throws SQLException;
+    }
+    
     /**
      * Executes a SQL query to fetch order by OrderId.
      * Simulates: SELECT * FROM Orders WHERE OrderId = ?
@@ -28,6 +63,10 @@ public class DatabaseHelper {
      */
     public static Map<String, Object> queryOrderById(String orderId) {
         logger.info("Executing SQL: SELECT * FROM Orders WHERE OrderId = '{}'", orderId);
+        if (ApiConfig.isDatabaseJdbcBackend()) {
+            return queryDatabase("OrderId: " + orderId,
+                    () -> JdbcOrderQueries.getShared().queryOrdersByIds(List.of(orderId)).get(orderId));
+        }
         
         try {
             Response response = ordersApiClient.getOrder(orderId);
@@ -37,22 +76,7 @@ public class DatabaseHelper {
                 return null;
             }
             
-            // Extract data from API response and map to database row format
-            Map<String, Object> orderRecord = new HashMap<>();
-            orderRecord.put("orderId", response.jsonPath().getString("data.orderId"));
-            orderRecord.put("distributorOrderId", response.jsonPath().getString("data.distributorOrderId"));
-            orderRecord.put("poNumber", response.jsonPath().getString("data.poNumber"));
-            orderRecord.put("distributorId", response.jsonPath().getString("data.distributorId"));
-            orderRecord.put("status", response.jsonPath().getString("data.status"));
-            orderRecord.put("subtotal", response.jsonPath().getDouble("data.costs.subtotal"));
-            orderRecord.put("total", response.jsonPath().getDouble("data.costs.total"));
-            orderRecord.put("shipping", response.jsonPath().getDouble("data.costs.shipping"));
-            orderRecord.put("tax", response.jsonPath().getDouble("data.costs.tax"));
-            orderRecord.put("smallOrderFee", response.jsonPath().get("data.costs.smallOrderFee"));
-            orderRecord.put("warehouseCode", response.jsonPath().getString("data.warehouseCode"));
-            orderRecord.put("warehouseName", response.jsonPath().getString("data.warehouseName"));
-            orderRecord.put("orderTimestamp", response.jsonPath().getString("data.orderTimestamp"));
-            orderRecord.put("expectedDeliveryDate", response.jsonPath().getString("data.expectedDeliveryDate"));
+            Map<String, Object> orderRecord = toOrderRecord(response);
             
             logger.info("SQL query executed successfully. Rows returned: 1");
             return orderRecord;
@@ -72,6 +96,10 @@ public class DatabaseHelper {
      */
     public static Map<String, Object> queryOrderCostsById(String orderId) {
         logger.info("Executing SQL: SELECT Subtotal, Total, Shipping, Tax FROM OrderCosts WHERE OrderId = '{}'", orderId);
+        if (ApiConfig.isDatabaseJdbcBackend()) {
+            return queryDatabase("OrderId: " + orderId,
+                    () -> JdbcOrderQueries.getShared().queryOrderCostsByIds(List.of(orderId)).get(orderId));
+        }
         
         try {
             Response response = ordersApiClient.getOrderCosts(orderId);
@@ -81,13 +109,7 @@ public class DatabaseHelper {
                 return null;
             }
             
-            // Extract cost data from API response
-            Map<String, Object> costsRecord = new HashMap<>();
-            costsRecord.put("subtotal", response.jsonPath().getDouble("data.subtotal"));
-            costsRecord.put("total", response.jsonPath().getDouble("data.total"));
-            costsRecord.put("shipping", response.jsonPath().getDouble("data.shipping"));
-            costsRecord.put("tax", response.jsonPath().getDouble("data.tax"));
-            costsRecord.put("smallOrderFee", response.jsonPath().get("data.smallOrderFee"));
+            Map<String, Object> costsRecord = toCostsRecord(response);
             
             logger.info("SQL query executed successfully. Rows returned: 1");
             return costsRecord;
@@ -107,6 +129,10 @@ public class DatabaseHelper {
      */
     public static List<Map<String, Object>> queryOrderLineItemsById(String orderId) {
         logger.info("Executing SQL: SELECT * FROM OrderLineItems WHERE OrderId = '{}'", orderId);
+        if (ApiConfig.isDatabaseJdbcBackend()) {
+            return queryDatabase("OrderId: " + orderId,
+                    () -> JdbcOrderQueries.getShared().queryOrderLineItemsByIds(List.of(orderId)).get(orderId));
+        }
         
         try {
             Response response = ordersApiClient.getOrder(orderId);
@@ -145,4 +171,205 @@ public class DatabaseHelper {
             return null;
         }
     }
+    
+    /**
+     * Executes SQL queries to fetch many orders at once.
+     * Simulates: SELECT * FROM Orders WHERE OrderId IN (...)
+     * The API backend fetches the orders concurrently (db.bulk.parallelism at a time); the JDBC backend
+     * runs its IN (...) batches concurrently. A failed lookup is reported for its ID instead of as null.
+     * 
+     * @param orderIds Order IDs (GUIDs) to query
+     * @return Rows found, missing IDs, failures per ID and per-batch timings
+     */
+    public static BulkQueryResult<Map<String, Object>> queryOrdersByIds(Collection<String> orderIds) {
+        return queryOrdersByIds(orderIds, ordersApiClient, ApiConfig.isDatabaseJdbcBackend() ? JdbcOrderQueries.getShared() : null);
+    }
+    
+    /**
+     * Executes SQL queries to fetch many orders at once through the given backend.
+     * 
+     * @param orderIds Order IDs (GUIDs) to query
+     * @param ordersApi Client used when jdbcQueries is null
+     * @param jdbcQueries JDBC queries, or null to go through the API
+     * @return Rows found, missing IDs, failures per ID and per-batch timings
+     */
+    public static BulkQueryResult<Map<String, Object>> queryOrdersByIds(Collection<String> orderIds, OrdersApiClient ordersApi,
+                                                                        JdbcOrderQueries jdbcQueries) {
+        logger.info("Executing SQL: SELECT * FROM Orders WHERE OrderId IN ({} ids)", orderIds.size());
+        return bulkQuery("Orders", orderIds,
+                orderId -> fetchRecord(ordersApi.getOrder(orderId), DatabaseHelper::toOrderRecord),
+                jdbcQueries == null ? null : jdbcQueries::queryOrdersByIds);
+    }
+    
+    /**
+     * Executes SQL queries to fetch the costs of many orders at once.
+     * Simulates: SELECT Subtotal, Total, Shipping, Tax FROM OrderCosts WHERE OrderId IN (...)
+     * 
+     * @param orderIds Order IDs (GUIDs) to query
+     * @return Cost rows found, missing IDs, failures per ID and per-batch timings
+     */
+    public static BulkQueryResult<Map<String, Object>> queryOrderCostsByIds(Collection<String> orderIds) {
+        return queryOrderCostsByIds(orderIds, ordersApiClient,
+                ApiConfig.isDatabaseJdbcBackend() ? JdbcOrderQueries.getShared() : null);
+    }
+    
+    /**
+     * Executes SQL queries to fetch the costs of many orders at once through the given backend.
+     * 
+     * @param orderIds Order IDs (GUIDs) to query
+     * @param ordersApi Client used when jdbcQueries is null
+     * @param jdbcQueries JDBC queries, or null to go through the API
+     * @return Cost rows found, missing IDs, failures per ID and per-batch timings
+     */
+    public static BulkQueryResult<Map<String, Object>> queryOrderCostsByIds(Collection<String> orderIds, OrdersApiClient ordersApi,
+                                                                            JdbcOrderQueries jdbcQueries) {
+        logger.info("Executing SQL: SELECT Subtotal, Total, Shipping, Tax FROM OrderCosts WHERE OrderId IN ({} ids)",
+                orderIds.size());
+        return bulkQuery("OrderCosts", orderIds,
+                orderId -> fetchRecord(ordersApi.getOrderCosts(orderId), DatabaseHelper::toCostsRecord),
+                jdbcQueries == null ? null : jdbcQueries::queryOrderCostsByIds);
+    }
+    
+    private static <T> BulkQueryResult<T> bulkQuery(String table, Collection<String> orderIds, ApiLookup<T> apiLookup,
+                                                    JdbcBatch<T> jdbcBatch) {
+        boolean jdbc = jdbcBatch != null;
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        int batchSize = jdbc ? ApiConfig.getDbInBatchSize() : ApiConfig.getDbBulkBatchSize();
+        Map<String, T> found = new ConcurrentHashMap<>();
+        Set<String> missing = ConcurrentHashMap.newKeySet();
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        List<CompletableFuture<BatchTiming>> batches = new ArrayList<>();
+        long start = System.nanoTime();
+        
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<String> batch = ids.subList(from, Math.min(ids.size(), from + batchSize));
+            int number = batches.size() + 1;
+            CompletableFuture<Void> done;
+            AtomicLong batchStart = new AtomicLong();
+            if (jdbc) {
+                // One IN (...) query per batch; a failed query fails every ID in it
+                done = CompletableFuture.runAsync(() -> {
+                    batchStart.compareAndSet(0, System.nanoTime());
+                    try {
+                        Map<String, T> rows = jdbcBatch.query(batch);
+                        batch.forEach(id -> collect(id, rows.get(id), found, missing));
+                    } catch (SQLException | RuntimeException e) {
+                        batch.forEach(id -> failures.put(id, e));
+                    }
+                }, bulkExecutor());
+            } else {
+                done = CompletableFuture.allOf(batch.stream().map(id -> CompletableFuture.runAsync(() -> {
+                    batchStart.compareAndSet(0, System.nanoTime());
+                    try {
+                        collect(id, apiLookup.fetch(id), found, missing);
+                    } catch (RuntimeException e) {
+                        failures.put(id, e);
+                    }
+                }, bulkExecutor())).toArray(CompletableFuture[]::new));
+            }
+            batches.add(done.thenApply(ignored -> new BatchTiming(number, batch.size(),
+                    (int) batch.stream().filter(found::containsKey).count(),
+                    (int) batch.stream().filter(missing::contains).count(),
+                    (int) batch.stream().filter(failures::containsKey).count(),
+                    (System.nanoTime() - batchStart.get()) / 1_000_000.0)));
+        }
+        
+        List<BatchTiming> timings = batches.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+        Map<String, T> rows = new LinkedHashMap<>();
+        Set<String> missingInOrder = new LinkedHashSet<>();
+        Map<String, Exception> failuresInOrder = new LinkedHashMap<>();
+        for (String id : ids) {
+            if (found.containsKey(id)) {
+                rows.put(id, found.get(id));
+            } else if (failures.containsKey(id)) {
+                failuresInOrder.put(id, failures.get(id));
+            } else {
+                missingInOrder.add(id);
+            }
+        }
+        
+        timings.forEach(timing -> logger.debug("{} batch {}: {} ids in {} ms", table, timing.getBatch(),
+                timing.getSize(), String.format("%.1f", timing.getElapsedMillis())));
+        logger.info("Bulk {} query: {} ids in {} batches, {} found, {} missing, {} failed in {} ms (slowest batch {} ms)",
+                table, ids.size(), timings.size(), rows.size(), missingInOrder.size(), failuresInOrder.size(),
+                String.format("%.1f", elapsedMillis),
+                String.format("%.1f", timings.stream().mapToDouble(BatchTiming::getElapsedMillis).max().orElse(0)));
+        return new BulkQueryResult<>(rows, missingInOrder, failuresInOrder, timings, elapsedMillis);
+    }
+    
+    private static <T> void collect(String id, T row, Map<String, T> found, Set<String> missing) {
+        if (row == null) {
+            missing.add(id);
+        } else {
+            found.put(id, row);
+        }
+    }
+    
+    private static Map<String, Object> fetchRecord(Response response, Function<Response, Map<String, Object>> mapper) {
+        if (response.getStatusCode() == 404) {
+            return null;
+        }
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("API returned HTTP " + response.getStatusCode() + ": " + response.asString());
+        }
+        return mapper.apply(response);
+    }
+    
+    private static synchronized ExecutorService bulkExecutor() {
+        if (bulkExecutor == null) {
+            bulkExecutor = Executors.newFixedThreadPool(Math.max(1, ApiConfig.getDbBulkParallelism()), runnable -> {
+                Thread thread = new Thread(runnable, "db-bulk-query");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return bulkExecutor;
+    }
+    
+    // Extract data from API response and map to database row format
+    private static Map<String, Object> toOrderRecord(Response response) {
+        Map<String, Object> orderRecord = new HashMap<>();
+        orderRecord.put("orderId", response.jsonPath().getString("data.orderId"));
+        orderRecord.put("distributorOrderId", response.jsonPath().getString("data.distributorOrderId"));
+        orderRecord.put("poNumber", response.jsonPath().getString("data.poNumber"));
+        orderRecord.put("distributorId", response.jsonPath().getString("data.distributorId"));
+        orderRecord.put("status", response.jsonPath().getString("data.status"));
+        orderRecord.put("subtotal", response.jsonPath().getDouble("data.costs.subtotal"));
+        orderRecord.put("total", response.jsonPath().getDouble("data.costs.total"));
+        orderRecord.put("shipping", response.jsonPath().getDouble("data.costs.shipping"));
+        orderRecord.put("tax", response.jsonPath().getDouble("data.costs.tax"));
+        orderRecord.put("smallOrderFee", response.jsonPath().get("data.costs.smallOrderFee"));
+        orderRecord.put("warehouseCode", response.jsonPath().getString("data.warehouseCode"));
+        orderRecord.put("warehouseName", response.jsonPath().getString("data.warehouseName"));
+        orderRecord.put("orderTimestamp", response.jsonPath().getString("data.orderTimestamp"));
+        orderRecord.put("expectedDeliveryDate", response.jsonPath().getString("data.expectedDeliveryDate"));
+        return orderRecord;
+    }
+    
+    // Extract cost data from API response
+    private static Map<String, Object> toCostsRecord(Response response) {
+        Map<String, Object> costsRecord = new HashMap<>();
+        costsRecord.put("subtotal", response.jsonPath().getDouble("data.subtotal"));
+        costsRecord.put("total", response.jsonPath().getDouble("data.total"));
+        costsRecord.put("shipping", response.jsonPath().getDouble("data.shipping"));
+        costsRecord.put("tax", response.jsonPath().getDouble("data.tax"));
+        costsRecord.put("smallOrderFee", response.jsonPath().get("data.smallOrderFee"));
+        return costsRecord;
+    }
+    
+    private static <T> T queryDatabase(String subject, JdbcQuery<T> query) {
+        try {
+            T result = query.run();
+            if (result == null) {
+                logger.warn("SQL query returned no results for {}", subject);
+            } else {
+                logger.info("SQL query executed successfully over JDBC for {}", subject);
+            }
+            return result;
+        } catch (SQLException e) {
+            logger.error("SQL query execution failed for {}", subject, e);
+            return null;
+        }
+    }
 }
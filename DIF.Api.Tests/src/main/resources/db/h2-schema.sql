@@ -0,0 +1,40 @@
+-- Embedded H2 stand-in for the DIF order tables queried by DatabaseHelper.
+-- Column names follow the SQL Server schema so the same queries run against both.
+
+CREATE TABLE IF NOT EXISTS Orders (
+    OrderId              VARCHAR(36)   NOT NULL PRIMARY KEY,
+    DistributorOrderId   VARCHAR(64),
+    PoNumber             VARCHAR(64),
+    DistributorId        VARCHAR(32)   NOT NULL,
+    Status               VARCHAR(32),
+    WarehouseCode        VARCHAR(32),
+    WarehouseName        VARCHAR(128),
+    OrderTimestamp       VARCHAR(40),
+    ExpectedDeliveryDate VARCHAR(40)
+);
+
+CREATE INDEX IF NOT EXISTS IX_Orders_DistributorOrderId ON Orders (DistributorOrderId);
+
+CREATE TABLE IF NOT EXISTS OrderCosts (
+    OrderId       VARCHAR(36)    NOT NULL PRIMARY KEY REFERENCES Orders (OrderId),
+    Subtotal      DECIMAL(12, 2) NOT NULL,
+    Shipping      DECIMAL(12, 2) NOT NULL,
+    Tax           DECIMAL(12, 2) NOT NULL,
+    SmallOrderFee DECIMAL(12, 2),
+    Total         DECIMAL(12, 2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS OrderLineItems (
+    OrderId         VARCHAR(36)    NOT NULL REFERENCES Orders (OrderId),
+    LineNumber      INT            NOT NULL,
+    Sku             VARCHAR(64)    NOT NULL,
+    Gtin            VARCHAR(32),
+    Quantity        INT            NOT NULL,
+    QuantityShipped INT            NOT NULL,
+    Price           DECIMAL(12, 2) NOT NULL,
+    LineTotal       DECIMAL(12, 2) NOT NULL,
+    StyleCode       VARCHAR(32),
+    Color           VARCHAR(64),
+    Size            VARCHAR(16),
+    PRIMARY KEY (OrderId, LineNumber)
+);
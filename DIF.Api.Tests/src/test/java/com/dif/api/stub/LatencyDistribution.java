@@ -0,0 +1,90 @@
+package com.dif.api.stub;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Latency distribution used by the stub server to delay responses.
+ * Parsed from specs such as "none", "fixed:25", "uniform:10:40",
+ * "normal:30:5", "lognormal:20:0.6" and "exponential:15" (all values in milliseconds).
+ */
+public final class LatencyDistribution {
+    
+    public static final LatencyDistribution NONE = new LatencyDistribution("none", 0, 0);
+    
+    private final String kind;
+    private final double first;
+    private final double second;
+    
+    private LatencyDistribution(String kind, double first, double second) {
+        this.kind = kind;
+        this.first = first;
+        this.second = second;
+    }
+    
+    /**
+     * Parses a latency spec.
+     * @param spec Spec such as "lognormal:20:0.6"
+     * @return Parsed distribution
+     */
+    public static LatencyDistribution parse(String spec) {
+        if (spec == null || spec.isBlank() || spec.trim().equalsIgnoreCase("none")) {
+            return NONE;
+        }
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                case "exponential":
+                    return new LatencyDistribution(parts[0], Double.parseDouble(parts[1]), 0);
+                case "uniform":
+                case "normal":
+                case "lognormal":
+                    return new LatencyDistribution(parts[0], Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default:
+                    throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid latency spec: " + spec, e);
+        }
+    }
+    
+    /**
+     * Draws a delay from the distribution.
+     * @param random Random source
+     * @return Delay in milliseconds, never negative
+     */
+    public long sampleMillis(Random random) {
+        double value;
+        switch (kind) {
+            case "fixed":
+                value = first;
+                break;
+            case "uniform":
+                value = first + random.nextDouble() * (second - first);
+                break;
+            case "normal":
+                value = first + random.nextGaussian() * second;
+                break;
+            case "lognormal":
+                // first = median, second = sigma of the underlying normal
+                value = first * Math.exp(random.nextGaussian() * second);
+                break;
+            case "exponential":
+                value = -first * Math.log(1 - random.nextDouble());
+                break;
+            default:
+                value = 0;
+        }
+        return Math.max(0, Math.round(value));
+    }
+    
+    public boolean isNone() {
+        return this == NONE;
+    }
+    
+    @Override
+    public String toString() {
+        return isNone() ? kind : kind + ":" + first + (second != 0 ? ":" + second : "");
+    }
+}
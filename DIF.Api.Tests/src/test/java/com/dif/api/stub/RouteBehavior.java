@@ -0,0 +1,74 @@
+package com.dif.api.stub;
+
+import com.dif.api.config.ApiConfig;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Injected latency and error rate for one stub route.
+ * Configured per route name with stub.latency.&lt;route&gt;, stub.error.rate.&lt;route&gt;
+ * and stub.error.status.&lt;route&gt;, falling back to the ".default" keys.
+ */
+public class RouteBehavior {
+    
+    private final String route;
+    private final LatencyDistribution latency;
+    private final double errorRate;
+    private final int errorStatus;
+    
+    public RouteBehavior(String route, LatencyDistribution latency, double errorRate, int errorStatus) {
+        this.route = route;
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+    }
+    
+    /**
+     * Builds the behavior for a route from config.properties.
+     * @param route Route name (e.g., "orders.place")
+     * @return Configured behavior
+     */
+    public static RouteBehavior fromConfig(String route) {
+        return new RouteBehavior(route,
+                LatencyDistribution.parse(ApiConfig.getStubLatency(route)),
+                ApiConfig.getStubErrorRate(route),
+                ApiConfig.getStubErrorStatus(route));
+    }
+    
+    /**
+     * Sleeps for a delay drawn from the route's latency distribution.
+     */
+    public void applyLatency() throws InterruptedException {
+        if (latency.isNone()) {
+            return;
+        }
+        long delay = latency.sampleMillis(ThreadLocalRandom.current());
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+    
+    /**
+     * Decides whether this call should fail with the injected error status.
+     * @return true if an error should be returned
+     */
+    public boolean shouldFail() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+    
+    public String getRoute() {
+        return route;
+    }
+    
+    public LatencyDistribution getLatency() {
+        return latency;
+    }
+    
+    public double getErrorRate() {
+        return errorRate;
+    }
+    
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+}
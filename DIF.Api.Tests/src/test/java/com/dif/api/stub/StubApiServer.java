@@ -0,0 +1,743 @@
+package com.dif.api.stub;
+
+import com.dif.api.config.ApiConfig;
+import com.dif.api.db.DataSources;
+import com.dif.api.db.OrderTables;
+import com.dif.api.models.request.OrderLine;
+import com.dif.api.models.request.PlaceOrderRequest;
+import com.dif.api.models.request.ShippingEstimateItem;
+import com.dif.api.models.request.ShippingEstimateRequest;
+import com.dif.api.models.request.TrackingUpdateRequest;
+import com.dif.api.models.response.ComponentHealth;
+import com.dif.api.models.response.DeliveryConfirmation;
+import com.dif.api.models.response.Distributor;
+import com.dif.api.models.response.InventoryStock;
+import com.dif.api.models.response.OrderDetail;
+import com.dif.api.models.response.OrderResponse;
+import com.dif.api.models.response.RateLimitStatus;
+import com.dif.api.models.response.ShippingEstimate;
+import com.dif.api.models.response.ShippingOptionEstimate;
+import com.dif.api.models.response.TrackingDetail;
+import com.dif.api.models.response.TrackingInfo;
+import com.dif.api.models.response.TrackingUpdateResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-JVM stand-in for the DIF API, serving the routes of the Orders, Tracking, Products,
+ * Distributors and Health controllers with the same envelopes and status codes.
+ * Catalog and order data are generated from a seed (millions of rows at no heap cost) and every
+ * route can be given a latency distribution and an error rate, so suites and load tests can run
+ * without the .NET service and under controlled, reproducible conditions.
+ */
+public class StubApiServer implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StubApiServer.class);
+    private static final String GUID = "([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})";
+    private static final String SEGMENT = "([^/]+)";
+    private static final int MAX_RECENT_ERRORS = 500;
+    
+    private static StubApiServer shared;
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final StubCatalog catalog;
+    private final StubOrderStore orders;
+    private final boolean enforceRateLimits;
+    private final boolean mirrorToDatabase;
+    private final List<Route> routes = new ArrayList<>();
+    private final Map<String, RouteBehavior> behaviors = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentLinkedDeque<Long>> requestWindows = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<Map<String, Object>> recentErrors = new ConcurrentLinkedDeque<>();
+    
+    @FunctionalInterface
+    private interface Handler {
+        StubResponse handle(Matcher path, Map<String, String> query, byte[] body) throws IOException;
+    }
+    
+    private static final class Route {
+        private final String method;
+        private final Pattern pattern;
+        private final String name;
+        private final Handler handler;
+        
+        private Route(String method, String pattern, String name, Handler handler) {
+            this.method = method;
+            this.pattern = Pattern.compile("^" + pattern + "/?$");
+            this.name = name;
+            this.handler = handler;
+        }
+    }
+    
+    private static final class StubResponse {
+        private final int status;
+        private final Object body;
+        private final String contentType;
+        
+        private StubResponse(int status, Object body, String contentType) {
+            this.status = status;
+            this.body = body;
+            this.contentType = contentType;
+        }
+        
+        private static StubResponse json(int status, Object body) {
+            return new StubResponse(status, body, "application/json; charset=utf-8");
+        }
+    }
+    
+    /**
+     * Creates a stub server from config.properties without starting it.
+     * @param port Port to bind, 0 for an ephemeral port
+     * @throws IOException if the port cannot be bound
+     */
+    public StubApiServer(int port) throws IOException {
+        this(port, new StubCatalog(ApiConfig.getStubSeed(), ApiConfig.getStubProductCount()));
+    }
+    
+    private StubApiServer(int port, StubCatalog catalog) throws IOException {
+        this.catalog = catalog;
+        this.orders = new StubOrderStore(catalog, ApiConfig.getStubOrderCount(), ApiConfig.getStubTrackingWindow());
+        this.enforceRateLimits = ApiConfig.isStubRateLimitEnforced();
+        this.mirrorToDatabase = ApiConfig.isStubDatabaseMirrorEnabled();
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(ApiConfig.getStubWorkerThreads(), r -> {
+            Thread thread = new Thread(r, "stub-api-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::dispatch);
+        registerRoutes();
+    }
+    
+    /**
+     * Starts the process-wide stub server on the port of base.url unless it is already running.
+     * @return Shared server
+     */
+    public static synchronized StubApiServer startShared() {
+        if (shared == null) {
+            try {
+                shared = new StubApiServer(ApiConfig.getStubServerPort());
+                shared.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(shared::stop, "stub-api-shutdown"));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not start stub API server", e);
+            }
+        }
+        return shared;
+    }
+    
+    public static synchronized StubApiServer getShared() {
+        return shared;
+    }
+    
+    public void start() {
+        server.start();
+        logger.info("Stub API server listening on port {} ({} products, {} seeded orders)",
+                getPort(), catalog.getProductCount(), orders.getSeededCount());
+    }
+    
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+    
+    @Override
+    public void close() {
+        stop();
+    }
+    
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+    
+    public StubCatalog getCatalog() {
+        return catalog;
+    }
+    
+    public StubOrderStore getOrders() {
+        return orders;
+    }
+    
+    /**
+     * Overrides the latency and error behavior of a route at runtime.
+     * @param behavior Behavior to apply
+     */
+    public void setBehavior(RouteBehavior behavior) {
+        behaviors.put(behavior.getRoute(), behavior);
+    }
+    
+    /**
+     * Gets the names of all routes, usable as keys for stub.latency.* and stub.error.* settings.
+     * @return Route names
+     */
+    public List<String> getRouteNames() {
+        List<String> names = new ArrayList<>();
+        routes.forEach(r -> names.add(r.name));
+        return names;
+    }
+    
+    // ===================== Dispatch =====================
+    
+    private void dispatch(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            Route route = null;
+            Matcher matcher = null;
+            for (Route candidate : routes) {
+                if (candidate.method.equals(method)) {
+                    Matcher m = candidate.pattern.matcher(path);
+                    if (m.matches()) {
+                        route = candidate;
+                        matcher = m;
+                        break;
+                    }
+                }
+            }
+            byte[] body = readBody(exchange.getRequestBody());
+            if (route == null) {
+                write(exchange, new StubResponse(404, new byte[0], "text/plain"));
+                return;
+            }
+            RouteBehavior behavior = behaviors.computeIfAbsent(route.name, RouteBehavior::fromConfig);
+            behavior.applyLatency();
+            StubResponse response;
+            if (behavior.shouldFail()) {
+                recordError(route, method, path, behavior.getErrorStatus());
+                response = StubResponse.json(behavior.getErrorStatus(),
+                        StubJson.fail("Injected failure on " + route.name + " (HTTP " + behavior.getErrorStatus() + ")"));
+            } else {
+                response = route.handler.handle(matcher, parseQuery(exchange.getRequestURI().getRawQuery()), body);
+            }
+            write(exchange, response);
+        } catch (JsonProcessingException e) {
+            write(exchange, validationProblem("$", e.getOriginalMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("Stub handler failed: {}", e.toString());
+            write(exchange, StubResponse.json(500, StubJson.fail("Stub server error: " + e.getMessage())));
+        }
+    }
+    
+    private static void write(HttpExchange exchange, StubResponse response) throws IOException {
+        byte[] bytes = response.body instanceof byte[] ? (byte[]) response.body
+                : response.body instanceof String ? ((String) response.body).getBytes(StandardCharsets.UTF_8)
+                : StubJson.mapper().writeValueAsBytes(response.body);
+        exchange.getResponseHeaders().set("Content-Type", response.contentType);
+        exchange.sendResponseHeaders(response.status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+    
+    private static byte[] readBody(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+    
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            if (!value.isEmpty()) {
+                query.putIfAbsent(key, value);
+            }
+        }
+        return query;
+    }
+    
+    private void recordError(Route route, String method, String path, int status) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("errorId", UUID.randomUUID().toString());
+        error.put("timestamp", StubJson.now());
+        error.put("distributor", "ss");
+        error.put("endpoint", path);
+        error.put("httpMethod", method);
+        error.put("httpStatusCode", status);
+        error.put("errorType", "InjectedFailure");
+        error.put("severity", status == 429 ? 1 : 2);
+        error.put("errorMessage", "Injected failure on " + route.name);
+        recentErrors.addFirst(error);
+        while (recentErrors.size() > MAX_RECENT_ERRORS) {
+            recentErrors.pollLast();
+        }
+    }
+    
+    // ===================== Rate limits =====================
+    
+    private int recordRequest(String distributorId) {
+        long now = System.currentTimeMillis();
+        ConcurrentLinkedDeque<Long> window = requestWindows.computeIfAbsent(distributorId.toLowerCase(Locale.ROOT),
+                k -> new ConcurrentLinkedDeque<>());
+        window.addLast(now);
+        return countRequests(window, now);
+    }
+    
+    private int countRequests(ConcurrentLinkedDeque<Long> window, long now) {
+        Long oldest;
+        while ((oldest = window.peekFirst()) != null && oldest < now - 60_000) {
+            window.pollFirst();
+        }
+        return window.size();
+    }
+    
+    // ===================== Routes =====================
+    
+    private void registerRoutes() {
+        // Orders
+        routes.add(new Route("POST", "/api/orders", "orders.place", (p, q, b) -> placeOrder(b)));
+        routes.add(new Route("GET", "/api/orders", "orders.list", (p, q, b) -> listOrders(q)));
+        routes.add(new Route("GET", "/api/orders/" + GUID, "orders.get", (p, q, b) -> getOrder(p.group(1))));
+        routes.add(new Route("GET", "/api/orders/" + GUID + "/costs", "orders.costs", (p, q, b) -> getOrderCosts(p.group(1))));
+        routes.add(new Route("GET", "/api/orders/by-distributor-id/" + SEGMENT, "orders.byDistributorId",
+                (p, q, b) -> getOrderByDistributorId(p.group(1))));
+        // Tracking
+        routes.add(new Route("GET", "/api/tracking/pending", "tracking.pending", (p, q, b) -> pendingShipments()));
+        routes.add(new Route("GET", "/api/tracking/misshipments", "tracking.misshipments", (p, q, b) -> misshipments()));
+        routes.add(new Route("POST", "/api/tracking/update", "tracking.update", (p, q, b) -> triggerTrackingUpdate(b)));
+        routes.add(new Route("GET", "/api/tracking/shipment/" + SEGMENT, "tracking.byNumber",
+                (p, q, b) -> getTrackingByNumber(p.group(1))));
+        routes.add(new Route("GET", "/api/tracking/" + GUID, "tracking.byOrder", (p, q, b) -> getTrackingByOrderId(p.group(1))));
+        routes.add(new Route("GET", "/api/tracking/" + GUID + "/all", "tracking.all", (p, q, b) -> getAllTracking(p.group(1))));
+        routes.add(new Route("GET", "/api/tracking/" + GUID + "/delivery-confirmation", "tracking.deliveryConfirmation",
+                (p, q, b) -> getDeliveryConfirmation(p.group(1))));
+        // Products
+        routes.add(new Route("GET", "/api/products", "products.list", (p, q, b) -> listProducts(q)));
+        routes.add(new Route("GET", "/api/products/inventory/batch", "products.batchInventory", (p, q, b) -> batchInventory(q)));
+        routes.add(new Route("GET", "/api/products/" + SEGMENT + "/inventory", "products.inventory",
+                (p, q, b) -> getInventory(p.group(1), q)));
+        routes.add(new Route("GET", "/api/products/" + SEGMENT, "products.get", (p, q, b) -> getProduct(p.group(1), q)));
+        // Distributors
+        routes.add(new Route("GET", "/api/distributors", "distributors.list", (p, q, b) -> listDistributors()));
+        routes.add(new Route("GET", "/api/distributors/" + SEGMENT, "distributors.get", (p, q, b) -> getDistributor(p.group(1))));
+        routes.add(new Route("GET", "/api/distributors/" + SEGMENT + "/warehouses", "distributors.warehouses",
+                (p, q, b) -> ok(catalog.getWarehouses(p.group(1)), null)));
+        routes.add(new Route("GET", "/api/distributors/" + SEGMENT + "/shipping-options", "distributors.shippingOptions",
+                (p, q, b) -> ok(catalog.getShippingOptions(p.group(1)), null)));
+        routes.add(new Route("GET", "/api/distributors/" + SEGMENT + "/rate-limit-status", "distributors.rateLimitStatus",
+                (p, q, b) -> rateLimitStatus(p.group(1))));
+        routes.add(new Route("POST", "/api/distributors/" + SEGMENT + "/shipping-estimate", "distributors.shippingEstimate",
+                (p, q, b) -> shippingEstimate(p.group(1), b)));
+        // Health
+        routes.add(new Route("GET", "/api/health", "health.get", (p, q, b) -> health()));
+        routes.add(new Route("GET", "/api/health/ping", "health.ping", (p, q, b) -> new StubResponse(200, "pong", "text/plain; charset=utf-8")));
+        routes.add(new Route("GET", "/api/health/distributors", "health.distributors", (p, q, b) -> distributorHealth()));
+        routes.add(new Route("GET", "/api/health/errors", "health.errors", (p, q, b) -> errorStats(q)));
+        routes.add(new Route("GET", "/api/health/errors/recent", "health.recentErrors", (p, q, b) -> recentErrors(q)));
+    }
+    
+    private static StubResponse ok(Object data, String message) {
+        return StubResponse.json(200, StubJson.ok(data, message));
+    }
+    
+    private static StubResponse notFound(String message) {
+        return StubResponse.json(404, StubJson.fail(message));
+    }
+    
+    private static StubResponse validationProblem(String field, String message) {
+        Map<String, Object> problem = new LinkedHashMap<>();
+        problem.put("type", "https://tools.ietf.org/html/rfc9110#section-15.5.1");
+        problem.put("title", "One or more validation errors occurred.");
+        problem.put("status", 400);
+        problem.put("errors", Map.of(field, List.of(message)));
+        return new StubResponse(400, problem, "application/problem+json; charset=utf-8");
+    }
+    
+    private static int intParam(Map<String, String> query, String key, int defaultValue) {
+        try {
+            return query.containsKey(key) ? Integer.parseInt(query.get(key)) : defaultValue;
+        } catch (NumberFormatException e) {
+            return Integer.MIN_VALUE;
+        }
+    }
+    
+    // ----- Orders -----
+    
+    private StubResponse placeOrder(byte[] body) throws IOException {
+        PlaceOrderRequest request = StubJson.mapper().readValue(body, PlaceOrderRequest.class);
+        if (request.getDistributorId() == null || request.getDistributorId().isEmpty()) {
+            return validationProblem("DistributorId", "The DistributorId field is required.");
+        }
+        if (request.getShippingAddress() == null) {
+            return validationProblem("ShippingAddress", "The ShippingAddress field is required.");
+        }
+        if (request.getPoNumber() == null || request.getPoNumber().isEmpty()) {
+            return validationProblem("PoNumber", "The PoNumber field is required.");
+        }
+        if (request.getLines() == null || request.getLines().isEmpty()) {
+            return validationProblem("Lines", "At least one line item is required");
+        }
+        for (OrderLine line : request.getLines()) {
+            if (line.getQty() < 1) {
+                return validationProblem("Lines[0].Qty", "Quantity must be at least 1");
+            }
+        }
+        int count = recordRequest(request.getDistributorId());
+        if (enforceRateLimits && count > 60) {
+            return StubResponse.json(429, StubJson.fail("Rate limit exceeded. Request has been queued."));
+        }
+        if (request.getShippingMethod() == null) {
+            request.setShippingMethod("1");
+        }
+        StubOrderStore.StoredOrder order = orders.place(request);
+        if (mirrorToDatabase) {
+            mirrorToDatabase(order);
+        }
+        OrderDetail detail = order.getDetail();
+        OrderResponse response = new OrderResponse();
+        response.setOrderId(detail.getOrderId());
+        response.setDistributorOrderId(detail.getDistributorOrderId());
+        response.setPoNumber(detail.getPoNumber());
+        response.setStatus(detail.getStatus());
+        response.setWarehouseCode(detail.getWarehouseCode());
+        response.setWarehouseName(detail.getWarehouseName());
+        response.setExpectedDeliveryDate(detail.getExpectedDeliveryDate());
+        response.setOrderTimestamp(detail.getOrderTimestamp());
+        response.setCosts(order.getCosts());
+        return StubResponse.json(201, StubJson.ok(response, "Order placed successfully"));
+    }
+    
+    private void mirrorToDatabase(StubOrderStore.StoredOrder order) {
+        try {
+            OrderTables.insert(DataSources.getShared(), order.getDetail(), order.getCosts());
+        } catch (SQLException e) {
+            logger.warn("Failed to mirror order {} to the database: {}", order.getDetail().getOrderId(), e.getMessage());
+        }
+    }
+    
+    private StubResponse listOrders(Map<String, String> query) {
+        int page = Math.max(1, intParam(query, "page", 1));
+        int pageSize = Math.max(1, intParam(query, "pageSize", 50));
+        long[] total = new long[1];
+        List<OrderDetail> items = orders.list(query.get("distributorId"), query.get("status"), page, pageSize, total);
+        return StubResponse.json(200, StubJson.page(items, page, pageSize, total[0]));
+    }
+    
+    private StubResponse getOrder(String orderId) {
+        StubOrderStore.StoredOrder order = orders.find(UUID.fromString(orderId));
+        return order == null ? notFound("Order with ID " + orderId + " not found") : ok(withCosts(order), null);
+    }
+    
+    private StubResponse getOrderCosts(String orderId) {
+        StubOrderStore.StoredOrder order = orders.find(UUID.fromString(orderId));
+        return order == null ? notFound("Costs for order " + orderId + " not found") : ok(order.getCosts(), null);
+    }
+    
+    private StubResponse getOrderByDistributorId(String distributorOrderId) {
+        StubOrderStore.StoredOrder order = orders.findByDistributorOrderId(distributorOrderId);
+        return order == null ? notFound("Order with distributor ID " + distributorOrderId + " not found")
+                : ok(withCosts(order), null);
+    }
+    
+    private static ObjectNode withCosts(StubOrderStore.StoredOrder order) {
+        ObjectNode node = StubJson.mapper().valueToTree(order.getDetail());
+        node.set("costs", StubJson.mapper().valueToTree(order.getCosts()));
+        return node;
+    }
+    
+    // ----- Tracking -----
+    
+    private StubResponse getTrackingByOrderId(String orderId) {
+        TrackingDetail shipment = orders.shipmentForOrder(UUID.fromString(orderId));
+        if (shipment == null) {
+            return notFound("Tracking for order " + orderId + " not found");
+        }
+        TrackingInfo info = new TrackingInfo();
+        info.setShipmentId(shipment.getShipmentId());
+        info.setOrderId(shipment.getOrderId());
+        info.setTrackingNumber(shipment.getTrackingNumber());
+        info.setTrackingUrl(shipment.getTrackingUrl());
+        info.setCarrier(shipment.getCarrier());
+        info.setCurrentStatus(shipment.getCurrentStatus());
+        info.setShipDate(shipment.getShipDate());
+        info.setEstimatedDelivery(shipment.getEstimatedDelivery());
+        info.setActualDeliveryDate(shipment.getActualDeliveryDate());
+        info.setNumBoxes(shipment.getNumBoxes());
+        info.setTotalWeight(shipment.getTotalWeight());
+        info.setOriginWarehouse(shipment.getOriginWarehouseZip());
+        info.setDestination(shipment.getDestinationPrinterZip());
+        info.setLegType(shipment.getLegType());
+        info.setLastUpdated(shipment.getLastUpdated());
+        return ok(info, null);
+    }
+    
+    private StubResponse getTrackingByNumber(String trackingNumber) {
+        TrackingDetail shipment = orders.shipmentByTrackingNumber(trackingNumber);
+        return shipment == null ? notFound("Tracking for " + trackingNumber + " not found") : ok(shipment, null);
+    }
+    
+    private StubResponse getAllTracking(String orderId) {
+        TrackingDetail shipment = orders.shipmentForOrder(UUID.fromString(orderId));
+        return ok(shipment == null ? List.of() : List.of(shipment), null);
+    }
+    
+    private StubResponse getDeliveryConfirmation(String orderId) {
+        DeliveryConfirmation confirmation = orders.deliveryConfirmation(UUID.fromString(orderId));
+        return confirmation == null ? notFound("Delivery confirmation for order " + orderId + " not found")
+                : ok(confirmation, null);
+    }
+    
+    private StubResponse pendingShipments() {
+        List<String> pending = Arrays.asList(StubOrderStore.PENDING_STATUSES);
+        List<TrackingDetail> shipments = orders.activeShipments(s -> pending.contains(s.getCurrentStatus()));
+        return ok(shipments, "Found " + shipments.size() + " pending shipments");
+    }
+    
+    private StubResponse misshipments() {
+        List<TrackingDetail> shipments = orders.activeShipments(TrackingDetail::isMisshipmentFlag);
+        return ok(shipments, "Found " + shipments.size() + " misshipment alerts");
+    }
+    
+    private StubResponse triggerTrackingUpdate(byte[] body) throws IOException {
+        TrackingUpdateRequest request = body.length == 0 ? null
+                : StubJson.mapper().readValue(body, TrackingUpdateRequest.class);
+        int updated = 0;
+        if (request != null && request.getTrackingNumbers() != null && !request.getTrackingNumbers().isEmpty()) {
+            for (String trackingNumber : request.getTrackingNumbers()) {
+                if (orders.advance(trackingNumber) != null) {
+                    updated++;
+                }
+            }
+        } else {
+            updated = orders.batchAdvance();
+        }
+        TrackingUpdateResponse result = new TrackingUpdateResponse();
+        result.setShipmentsUpdated(updated);
+        result.setUpdatedAt(StubJson.now());
+        return ok(result, "Updated " + updated + " shipments");
+    }
+    
+    // ----- Products -----
+    
+    private StubResponse listProducts(Map<String, String> query) {
+        int page = intParam(query, "page", 1);
+        int pageSize = intParam(query, "pageSize", 50);
+        if (page < 1) {
+            return validationProblem("Page", "The field Page must be between 1 and 2147483647.");
+        }
+        if (pageSize < 1 || pageSize > 100) {
+            return validationProblem("PageSize", "The field PageSize must be between 1 and 100.");
+        }
+        if (query.containsKey("distributorId")) {
+            recordRequest(query.get("distributorId"));
+        }
+        long[] total = new long[1];
+        return StubResponse.json(200, StubJson.page(catalog.listProducts(query, page, pageSize, total), page, pageSize, total[0]));
+    }
+    
+    private StubResponse getProduct(String sku, Map<String, String> query) {
+        long n = catalog.indexOfSku(sku);
+        String distributorId = query.getOrDefault("distributorId", "ss").toLowerCase(Locale.ROOT);
+        if (n < 0 || !catalog.carries(n / StubCatalog.PER_STYLE, distributorId)) {
+            return notFound("Product with SKU " + sku + " not found");
+        }
+        return ok(catalog.product(n, distributorId), null);
+    }
+    
+    private StubResponse getInventory(String sku, Map<String, String> query) {
+        List<InventoryStock> inventory = inventoryFor(sku, query.get("distributorId"));
+        if (inventory.isEmpty()) {
+            return ok(inventory, "No inventory found for SKU " + sku);
+        }
+        int totalAvailable = inventory.stream().mapToInt(InventoryStock::getQuantityAvailable).sum();
+        return ok(inventory, "Total available: " + totalAvailable + " across " + inventory.size() + " warehouses");
+    }
+    
+    private StubResponse batchInventory(Map<String, String> query) {
+        String[] skus = query.getOrDefault("skus", "").split(",");
+        Map<String, List<InventoryStock>> result = new LinkedHashMap<>();
+        int requested = 0;
+        for (String sku : skus) {
+            if (!sku.isBlank()) {
+                requested++;
+                result.put(sku.trim(), inventoryFor(sku.trim(), query.get("distributorId")));
+            }
+        }
+        return ok(result, "Retrieved inventory for " + requested + " SKUs");
+    }
+    
+    private List<InventoryStock> inventoryFor(String sku, String distributorId) {
+        long n = catalog.indexOfSku(sku);
+        if (n < 0) {
+            return new ArrayList<>();
+        }
+        List<InventoryStock> inventory = new ArrayList<>();
+        for (String candidate : StubCatalog.API_DISTRIBUTORS) {
+            if ((distributorId == null || distributorId.equalsIgnoreCase(candidate))
+                    && catalog.carries(n / StubCatalog.PER_STYLE, candidate)) {
+                inventory.addAll(catalog.inventory(n, candidate));
+            }
+        }
+        return inventory;
+    }
+    
+    // ----- Distributors -----
+    
+    private StubResponse listDistributors() {
+        List<Distributor> distributors = catalog.getDistributors();
+        return ok(distributors, "Found " + distributors.size() + " distributors");
+    }
+    
+    private StubResponse getDistributor(String distributorId) {
+        Distributor distributor = catalog.getDistributor(distributorId);
+        return distributor == null ? notFound("Distributor " + distributorId + " not found") : ok(distributor, null);
+    }
+    
+    private StubResponse rateLimitStatus(String distributorId) {
+        ConcurrentLinkedDeque<Long> window = requestWindows.get(distributorId.toLowerCase(Locale.ROOT));
+        long now = System.currentTimeMillis();
+        int current = window == null ? 0 : countRequests(window, now);
+        Long oldest = window == null ? null : window.peekFirst();
+        RateLimitStatus status = new RateLimitStatus();
+        status.setDistributorId(distributorId);
+        status.setDistributorName("ss".equalsIgnoreCase(distributorId) ? "S&S Activewear" : distributorId.toUpperCase(Locale.ROOT));
+        status.setRequestsPerMinute(60);
+        status.setCurrentRequestCount(current);
+        status.setRemainingRequests(Math.max(0, 60 - current));
+        status.setApproachingLimit(current >= 54);
+        status.setRateLimited(current >= 60);
+        status.setSecondsUntilReset(oldest == null ? 0 : (int) Math.max(0, (oldest + 60_000 - now) / 1000));
+        status.setQueueDepth(0);
+        return ok(status, null);
+    }
+    
+    private StubResponse shippingEstimate(String distributorId, byte[] body) throws IOException {
+        ShippingEstimateRequest request = StubJson.mapper().readValue(body, ShippingEstimateRequest.class);
+        if (request.getItems() == null) {
+            return validationProblem("Items", "The Items field is required.");
+        }
+        recordRequest(distributorId);
+        int quantity = request.getItems().stream().mapToInt(ShippingEstimateItem::getQuantity).sum();
+        Instant now = Instant.now();
+        List<ShippingOptionEstimate> options = new ArrayList<>();
+        options.add(estimate("1", "Ground", "8.50", "0.25", quantity, 5, now));
+        options.add(estimate("2", "Next Day Air", "25.00", "0.75", quantity, 1, now));
+        options.add(estimate("3", "2nd Day Air", "18.00", "0.50", quantity, 2, now));
+        ShippingEstimate estimate = new ShippingEstimate();
+        estimate.setDistributorId(distributorId);
+        estimate.setWarehouseCode(request.getOriginWarehouseCode() == null ? "IL" : request.getOriginWarehouseCode());
+        estimate.setDestinationZip(request.getDestinationZip());
+        estimate.setOptions(options);
+        estimate.setEstimatedAt(now.toString());
+        return ok(estimate, null);
+    }
+    
+    private static ShippingOptionEstimate estimate(String code, String name, String base, String perUnit, int quantity,
+                                                   int days, Instant now) {
+        ShippingOptionEstimate option = new ShippingOptionEstimate();
+        option.setMethodCode(code);
+        option.setMethodName(name);
+        option.setCarrier("UPS");
+        option.setEstimatedCost(new BigDecimal(base).add(new BigDecimal(perUnit).multiply(BigDecimal.valueOf(quantity))));
+        option.setEstimatedTransitDays(days);
+        option.setEstimatedDeliveryDate(now.plus(days, ChronoUnit.DAYS).toString());
+        return option;
+    }
+    
+    // ----- Health -----
+    
+    private StubResponse health() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        Map<String, ComponentHealth> components = new LinkedHashMap<>();
+        components.put("api", component("Healthy", "API is operational", null));
+        components.put("mockServices", component("Healthy", "Stub API server with generated data", null));
+        components.put("alerts", component("Healthy", "No critical errors", null));
+        response.put("status", "Healthy");
+        response.put("version", "1.0.0-stub");
+        response.put("timestamp", StubJson.now());
+        response.put("components", components);
+        return StubResponse.json(200, response);
+    }
+    
+    private StubResponse distributorHealth() {
+        Map<String, ComponentHealth> health = new LinkedHashMap<>();
+        for (Distributor distributor : catalog.getDistributors()) {
+            health.put(distributor.getDistributorId(), component(distributor.getHealthStatus(),
+                    distributor.isHasApiIntegration() ? "API integration active - " + distributor.getApiVersion()
+                            : "No API integration available",
+                    distributor.isHasApiIntegration() ? 150L : null));
+        }
+        return ok(health, "Checked " + health.size() + " distributors");
+    }
+    
+    private static ComponentHealth component(String status, String message, Long responseTimeMs) {
+        ComponentHealth component = new ComponentHealth();
+        component.setStatus(status);
+        component.setMessage(message);
+        component.setLastSuccessful(StubJson.now());
+        component.setResponseTimeMs(responseTimeMs);
+        return component;
+    }
+    
+    private StubResponse errorStats(Map<String, String> query) {
+        int hours = intParam(query, "hours", 24);
+        Instant since = Instant.now().minus(hours, ChronoUnit.HOURS);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("Info", 0);
+        counts.put("Warning", 0);
+        counts.put("Critical", 0);
+        for (Map<String, Object> error : recentErrors) {
+            if (Instant.parse((String) error.get("timestamp")).isAfter(since)) {
+                counts.merge((Integer) error.get("severity") == 1 ? "Warning" : "Critical", 1, Integer::sum);
+            }
+        }
+        return ok(counts, "Error counts for the last " + hours + " hours");
+    }
+    
+    private StubResponse recentErrors(Map<String, String> query) {
+        int hours = intParam(query, "hours", 24);
+        Instant since = Instant.now().minus(hours, ChronoUnit.HOURS);
+        String severity = query.get("severity");
+        List<Map<String, Object>> errors = new ArrayList<>();
+        for (Map<String, Object> error : recentErrors) {
+            boolean severityMatches = severity == null
+                    || ("Warning".equalsIgnoreCase(severity) ? 1 : "Critical".equalsIgnoreCase(severity) ? 2 : 0)
+                    == (Integer) error.get("severity");
+            if (Instant.parse((String) error.get("timestamp")).isAfter(since) && severityMatches
+                    && (query.get("distributorId") == null || query.get("distributorId").equalsIgnoreCase((String) error.get("distributor")))) {
+                errors.add(error);
+            }
+        }
+        return ok(errors, "Found " + errors.size() + " errors in the last " + hours + " hours");
+    }
+}
@@ -0,0 +1,533 @@
+package com.dif.api.stub;
+
+import com.dif.api.models.response.Distributor;
+import com.dif.api.models.response.InventoryStock;
+import com.dif.api.models.response.Product;
+import com.dif.api.models.response.RateLimitConfig;
+import com.dif.api.models.response.ShippingOption;
+import com.dif.api.models.response.Warehouse;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Procedurally generated product catalog, inventory and distributor reference data.
+ * Products are never stored: product number n is derived from the seed, so catalogs of
+ * millions of SKUs cost no heap and SKUs, GTINs and style codes map back to n.
+ */
+public class StubCatalog {
+    
+    static final String[] COLORS = {"Black", "White", "Navy", "Red", "Royal", "Charcoal", "Forest", "Maroon"};
+    static final String[] SIZES = {"S", "M", "L", "XL", "2XL", "3XL"};
+    static final int PER_STYLE = COLORS.length * SIZES.length;
+    
+    private static final String[][] BRANDS = {
+            {"Gildan", "G"}, {"Bella+Canvas", "BC"}, {"Port & Company", "PC"}, {"Next Level", "NL"},
+            {"Comfort Colors", "CC"}, {"Hanes", "H"}, {"Jerzees", "J"}, {"Champion", "CH"}
+    };
+    private static final String[] GARMENTS = {"Tee", "Long Sleeve Tee", "Hoodie", "Crewneck Sweatshirt", "Tank Top", "Polo"};
+    private static final int SYNTHETIC_STYLE_OFFSET = 10000;
+    private static final long GTIN_BASE = 40_000_000_000_000L;
+    private static final Pattern SKU_PATTERN = Pattern.compile("^([A-Z+]+)(\\d+)-([A-Z]{3})-([0-9A-Z]+)$");
+    private static final Pattern STYLE_PATTERN = Pattern.compile("^([A-Z]+)(\\d+)$");
+    
+    /** Styles of the .NET mock catalog, kept as the first styles so its SKUs (e.g. G500-BLA-M) resolve. */
+    private static final Object[][] KNOWN_STYLES = {
+            {"G500", "Gildan", "Heavy Cotton T-Shirt", "3.25"},
+            {"BC3001", "Bella+Canvas", "Unisex Jersey Tee", "4.50"},
+            {"PC61", "Port & Company", "Essential Tee", "2.75"},
+            {"G185", "Gildan", "Heavy Blend Hoodie", "12.50"}
+    };
+    
+    static final String[] API_DISTRIBUTORS = {"ss", "img", "sanmar", "staton", "carolina"};
+    
+    private final long seed;
+    private final long productCount;
+    private final long styleCount;
+    private final Instant catalogTimestamp;
+    private final Map<String, Distributor> distributors = new LinkedHashMap<>();
+    private final Map<String, List<Warehouse>> warehouses = new LinkedHashMap<>();
+    
+    public StubCatalog(long seed, long productCount) {
+        this.seed = seed;
+        this.productCount = Math.max(productCount, KNOWN_STYLES.length * (long) PER_STYLE);
+        this.styleCount = (this.productCount + PER_STYLE - 1) / PER_STYLE;
+        this.catalogTimestamp = Instant.now();
+        createDistributors();
+    }
+    
+    // ===================== Products =====================
+    
+    public long getProductCount() {
+        return productCount;
+    }
+    
+    public long getStyleCount() {
+        return styleCount;
+    }
+    
+    /**
+     * Gets the SKU of product number n.
+     * @param n Product number
+     * @return SKU in STYLE-COL-SIZE form
+     */
+    public String skuOf(long n) {
+        long style = n / PER_STYLE;
+        int rest = (int) (n % PER_STYLE);
+        return styleCode(style) + "-" + colorCode(rest / SIZES.length) + "-" + SIZES[rest % SIZES.length];
+    }
+    
+    /**
+     * Resolves a SKU back to its product number.
+     * @param sku SKU to resolve
+     * @return Product number, or -1 if the SKU is not in the catalog
+     */
+    public long indexOfSku(String sku) {
+        if (sku == null) {
+            return -1;
+        }
+        Matcher matcher = SKU_PATTERN.matcher(sku.toUpperCase(Locale.ROOT));
+        if (!matcher.matches()) {
+            return -1;
+        }
+        long style = styleIndex(matcher.group(1) + matcher.group(2));
+        int color = colorIndex(matcher.group(3));
+        int size = indexOf(SIZES, matcher.group(4));
+        if (style < 0 || color < 0 || size < 0) {
+            return -1;
+        }
+        long n = style * PER_STYLE + (long) color * SIZES.length + size;
+        return n < productCount ? n : -1;
+    }
+    
+    /**
+     * Resolves a GTIN back to its product number.
+     * @param gtin GTIN to resolve
+     * @return Product number, or -1 if unknown
+     */
+    public long indexOfGtin(String gtin) {
+        try {
+            long n = Long.parseLong(gtin) - GTIN_BASE;
+            return n >= 0 && n < productCount ? n : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Resolves a style code to its style number.
+     * @param styleCode Style code (case-insensitive)
+     * @return Style number, or -1 if unknown
+     */
+    public long styleIndex(String styleCode) {
+        String code = styleCode.toUpperCase(Locale.ROOT);
+        for (int i = 0; i < KNOWN_STYLES.length; i++) {
+            if (KNOWN_STYLES[i][0].equals(code)) {
+                return i;
+            }
+        }
+        Matcher matcher = STYLE_PATTERN.matcher(code);
+        if (!matcher.matches() || matcher.group(2).length() > 12) {
+            return -1;
+        }
+        long style = Long.parseLong(matcher.group(2)) - SYNTHETIC_STYLE_OFFSET;
+        if (style < KNOWN_STYLES.length || style >= styleCount || !brandPrefix(style).equals(matcher.group(1))) {
+            return -1;
+        }
+        return style;
+    }
+    
+    public String styleCode(long style) {
+        if (style < KNOWN_STYLES.length) {
+            return (String) KNOWN_STYLES[(int) style][0];
+        }
+        return brandPrefix(style) + (style + SYNTHETIC_STYLE_OFFSET);
+    }
+    
+    public String brandName(long style) {
+        if (style < KNOWN_STYLES.length) {
+            return (String) KNOWN_STYLES[(int) style][1];
+        }
+        return BRANDS[(int) (style % BRANDS.length)][0];
+    }
+    
+    private String brandPrefix(long style) {
+        return BRANDS[(int) (style % BRANDS.length)][1];
+    }
+    
+    private String styleName(long style) {
+        if (style < KNOWN_STYLES.length) {
+            return (String) KNOWN_STYLES[(int) style][2];
+        }
+        return GARMENTS[(int) (mix(style, 11) % GARMENTS.length)];
+    }
+    
+    static String colorCode(int color) {
+        return COLORS[color].substring(0, 3).toUpperCase(Locale.ROOT);
+    }
+    
+    static int colorIndex(String colorOrCode) {
+        for (int i = 0; i < COLORS.length; i++) {
+            if (COLORS[i].equalsIgnoreCase(colorOrCode) || colorCode(i).equalsIgnoreCase(colorOrCode)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    static int indexOf(String[] values, String value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].equalsIgnoreCase(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Checks whether a distributor carries a style; S&amp;S carries every style.
+     * @param style Style number
+     * @param distributorId Distributor ID
+     * @return true if the distributor lists the style
+     */
+    public boolean carries(long style, String distributorId) {
+        int slot = indexOf(API_DISTRIBUTORS, distributorId);
+        if (slot < 0) {
+            return false;
+        }
+        return slot == 0 || mix(style, 100 + slot) % 3 == 0;
+    }
+    
+    /**
+     * Builds product number n as listed by a distributor.
+     * @param n Product number
+     * @param distributorId Distributor ID (prices vary slightly per distributor)
+     * @return Product
+     */
+    public Product product(long n, String distributorId) {
+        long style = n / PER_STYLE;
+        int rest = (int) (n % PER_STYLE);
+        int color = rest / SIZES.length;
+        String size = SIZES[rest % SIZES.length];
+        String styleName = styleName(style);
+        boolean fleece = styleName.contains("Hoodie") || styleName.contains("Sweatshirt");
+        
+        Product product = new Product();
+        product.setProductId(uuid(n, 1).toString());
+        product.setSku(skuOf(n));
+        product.setStyleCode(styleCode(style));
+        product.setStyleName(styleName);
+        product.setBrandName(brandName(style));
+        product.setGtin(String.format("%014d", GTIN_BASE + n));
+        product.setColor(COLORS[color]);
+        product.setColorCode(colorCode(color));
+        product.setSize(size);
+        product.setSizeCode(size);
+        product.setImageUrl("https://images.ssactivewear.com/" + product.getStyleCode() + "_"
+                + COLORS[color].toLowerCase(Locale.ROOT) + ".jpg");
+        BigDecimal cost = blankCost(n, distributorId);
+        product.setBlankCost(cost);
+        product.setMsrp(cost.multiply(BigDecimal.valueOf(2)).setScale(2, RoundingMode.HALF_UP));
+        product.setDescription(product.getBrandName() + " " + styleName + " - " + COLORS[color] + " " + size);
+        product.setCategory(fleece ? "Fleece" : styleName.contains("Polo") ? "Polos" : "T-Shirts");
+        product.setWeight(fleece ? new BigDecimal("1.20") : new BigDecimal("0.35"));
+        product.setDistributorId(distributorId);
+        product.setActive(true);
+        product.setDiscontinued(mix(n, 3) % 200 == 0);
+        product.setLastUpdated(catalogTimestamp.minusSeconds(mix(n, 4) % 86_400).toString());
+        return product;
+    }
+    
+    /**
+     * Gets the blank cost of product number n at a distributor.
+     * @param n Product number
+     * @param distributorId Distributor ID
+     * @return Blank cost
+     */
+    public BigDecimal blankCost(long n, String distributorId) {
+        long style = n / PER_STYLE;
+        int color = (int) (n % PER_STYLE) / SIZES.length;
+        BigDecimal base = style < KNOWN_STYLES.length
+                ? new BigDecimal((String) KNOWN_STYLES[(int) style][3])
+                : BigDecimal.valueOf(250 + mix(style, 12) % 1250, 2);
+        if ("White".equals(COLORS[color])) {
+            base = base.subtract(new BigDecimal("0.30"));
+        }
+        int slot = Math.max(0, indexOf(API_DISTRIBUTORS, distributorId));
+        if (slot > 0) {
+            long pct = mix(style, 200 + slot) % 15 - 5;
+            base = base.multiply(BigDecimal.valueOf(100 + pct)).movePointLeft(2);
+        }
+        return base.setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    /**
+     * Lists products with the filter semantics of GET /api/products.
+     * Style, color and size filters narrow the scan; without sku or inStockOnly filters
+     * whole styles are counted without building their products.
+     * @param filters Query parameters (sku, styleCode, brandName, gtin, color, size, distributorId, inStockOnly)
+     * @param page 1-based page
+     * @param pageSize Page size
+     * @param totalOut Receives the total number of matches at index 0
+     * @return Products of the requested page
+     */
+    public List<Product> listProducts(Map<String, String> filters, int page, int pageSize, long[] totalOut) {
+        String distributorId = filters.getOrDefault("distributorId", "ss").toLowerCase(Locale.ROOT);
+        String sku = filters.get("sku");
+        String brand = filters.get("brandName");
+        boolean inStockOnly = Boolean.parseBoolean(filters.get("inStockOnly"));
+        long skip = (long) (page - 1) * pageSize;
+        List<Product> items = new ArrayList<>();
+        totalOut[0] = 0;
+        
+        long firstStyle = 0;
+        long lastStyle = styleCount - 1;
+        if (filters.get("gtin") != null) {
+            long n = indexOfGtin(filters.get("gtin"));
+            if (n < 0) {
+                return items;
+            }
+            firstStyle = lastStyle = n / PER_STYLE;
+        }
+        if (filters.get("styleCode") != null) {
+            long style = styleIndex(filters.get("styleCode"));
+            if (style < 0 || style < firstStyle || style > lastStyle) {
+                return items;
+            }
+            firstStyle = lastStyle = style;
+        }
+        int[] colors = narrow(COLORS.length, filters.get("color") == null ? -2 : indexOf(COLORS, filters.get("color")));
+        int[] sizes = narrow(SIZES.length, filters.get("size") == null ? -2 : indexOf(SIZES, filters.get("size")));
+        boolean perProduct = sku != null || inStockOnly || filters.get("gtin") != null;
+        
+        long total = 0;
+        for (long style = firstStyle; style <= lastStyle; style++) {
+            if (!carries(style, distributorId)
+                    || (brand != null && !brandName(style).toLowerCase(Locale.ROOT).contains(brand.toLowerCase(Locale.ROOT)))) {
+                continue;
+            }
+            if (!perProduct && (total + (long) colors.length * sizes.length <= skip || items.size() >= pageSize)
+                    && style * PER_STYLE + PER_STYLE <= productCount) {
+                total += (long) colors.length * sizes.length;
+                continue;
+            }
+            for (int color : colors) {
+                for (int size : sizes) {
+                    long n = style * PER_STYLE + (long) color * SIZES.length + size;
+                    if (n >= productCount
+                            || (sku != null && !skuOf(n).toLowerCase(Locale.ROOT).contains(sku.toLowerCase(Locale.ROOT)))
+                            || (filters.get("gtin") != null && n != indexOfGtin(filters.get("gtin")))
+                            || (inStockOnly && !inStock(n, distributorId))) {
+                        continue;
+                    }
+                    if (total >= skip && items.size() < pageSize) {
+                        items.add(product(n, distributorId));
+                    }
+                    total++;
+                }
+            }
+        }
+        totalOut[0] = total;
+        return items;
+    }
+    
+    private static int[] narrow(int length, int selected) {
+        if (selected == -1) {
+            return new int[0];
+        }
+        if (selected >= 0) {
+            return new int[] {selected};
+        }
+        int[] all = new int[length];
+        for (int i = 0; i < length; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+    
+    // ===================== Inventory =====================
+    
+    /**
+     * Builds inventory of product number n across a distributor's warehouses.
+     * @param n Product number
+     * @param distributorId Distributor ID
+     * @return Stock per warehouse
+     */
+    public List<InventoryStock> inventory(long n, String distributorId) {
+        List<InventoryStock> stock = new ArrayList<>();
+        for (Warehouse warehouse : getWarehouses(distributorId)) {
+            long h = mix(n, warehouse.getWarehouseCode().hashCode());
+            InventoryStock entry = new InventoryStock();
+            entry.setStockId(uuid(n, 1000 + warehouse.getWarehouseCode().hashCode()).toString());
+            entry.setSku(skuOf(n));
+            entry.setWarehouseCode(warehouse.getWarehouseCode());
+            entry.setWarehouseName(warehouse.getWarehouseName());
+            entry.setQuantityAvailable((int) (h % 500));
+            entry.setQuantityReserved((int) ((h >>> 16) % 20));
+            entry.setQuantityOnBackorder((h >>> 24) % 5 == 0 ? 10 + (int) ((h >>> 32) % 40) : 0);
+            entry.setInStock(entry.getQuantityAvailable() > 0);
+            entry.setDistributorId(distributorId);
+            entry.setLastUpdated(catalogTimestamp.toString());
+            stock.add(entry);
+        }
+        return stock;
+    }
+    
+    /**
+     * Checks whether product number n has stock anywhere at a distributor.
+     * @param n Product number
+     * @param distributorId Distributor ID
+     * @return true if any warehouse has quantity available
+     */
+    public boolean inStock(long n, String distributorId) {
+        for (Warehouse warehouse : getWarehouses(distributorId)) {
+            if (mix(n, warehouse.getWarehouseCode().hashCode()) % 500 > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // ===================== Distributors =====================
+    
+    public List<Distributor> getDistributors() {
+        return new ArrayList<>(distributors.values());
+    }
+    
+    public Distributor getDistributor(String distributorId) {
+        return distributorId == null ? null : distributors.get(distributorId.toLowerCase(Locale.ROOT));
+    }
+    
+    public List<Warehouse> getWarehouses(String distributorId) {
+        if (distributorId == null) {
+            return Collections.emptyList();
+        }
+        return warehouses.getOrDefault(distributorId.toLowerCase(Locale.ROOT), Collections.emptyList());
+    }
+    
+    /**
+     * Gets the shipping options of a distributor; distributors without API integration have none.
+     * @param distributorId Distributor ID
+     * @return Shipping options
+     */
+    public List<ShippingOption> getShippingOptions(String distributorId) {
+        Distributor distributor = getDistributor(distributorId);
+        if (distributor == null || !distributor.isHasApiIntegration()) {
+            return Collections.emptyList();
+        }
+        List<ShippingOption> options = new ArrayList<>();
+        options.add(shippingOption(distributor.getDistributorId(), "1", "Ground", 5, "UPS Ground - 3-5 business days"));
+        options.add(shippingOption(distributor.getDistributorId(), "2", "Next Day Air", 1, "UPS Next Day Air - 1 business day"));
+        options.add(shippingOption(distributor.getDistributorId(), "3", "2nd Day Air", 2, "UPS 2nd Day Air - 2 business days"));
+        options.add(shippingOption(distributor.getDistributorId(), "4", "3 Day Select", 3, "UPS 3 Day Select - 3 business days"));
+        return options;
+    }
+    
+    private ShippingOption shippingOption(String distributorId, String code, String name, int days, String description) {
+        ShippingOption option = new ShippingOption();
+        option.setShippingOptionId(uuid(code.hashCode(), distributorId.hashCode()).toString());
+        option.setMethodCode(code);
+        option.setMethodName(name);
+        option.setCarrier("UPS");
+        option.setEstimatedTransitDays(days);
+        option.setDistributorId(distributorId);
+        option.setAvailable(true);
+        option.setDescription(description);
+        return option;
+    }
+    
+    private void createDistributors() {
+        addDistributor("ss", "S&S Activewear (Alpha Broder)", "SS", "https://api.ssactivewear.com/v2", "v2",
+                "api-support@ssactivewear.com");
+        addDistributor("img", "IMG (Imageware)", "IMG", "https://api.imageware.com/v1", "v1", null);
+        addDistributor("sanmar", "SanMar", "SANMAR", "https://ws.sanmar.com/v1", "v1", null);
+        addDistributor("staton", "Staton Corporate", "STATON", "https://api.staton.com/v1", "v1", null);
+        addDistributor("carolina", "Carolina Made", "CAROLINA", "https://api.carolinamade.com/v1", "v1", null);
+        addDistributor("laapparel", "LA Apparel", "LAAPPAREL", null, null, null);
+        addDistributor("drivingimpressions", "Driving Impressions", "DI", null, null, null);
+        
+        addWarehouse("ss", "IL", "S&S Activewear - Bolingbrook, IL", "Bolingbrook", "IL", "60440", "America/Chicago");
+        addWarehouse("ss", "CA", "S&S Activewear - Ontario, CA", "Ontario", "CA", "91761", "America/Los_Angeles");
+        addWarehouse("ss", "KS", "S&S Activewear - Kansas City, KS", "Lenexa", "KS", "66214", "America/Chicago");
+        addWarehouse("ss", "GA", "S&S Activewear - Atlanta, GA", "Duluth", "GA", "30097", "America/New_York");
+        addWarehouse("img", "TX", "IMG - Dallas, TX", "Dallas", "TX", "75201", "America/Chicago");
+        addWarehouse("img", "NJ", "IMG - Edison, NJ", "Edison", "NJ", "08817", "America/New_York");
+        addWarehouse("sanmar", "WA", "SanMar - Preston, WA", "Preston", "WA", "98050", "America/Los_Angeles");
+        addWarehouse("sanmar", "OH", "SanMar - Cincinnati, OH", "Cincinnati", "OH", "45246", "America/New_York");
+        addWarehouse("sanmar", "VA", "SanMar - Richmond, VA", "Richmond", "VA", "23237", "America/New_York");
+        addWarehouse("staton", "MN", "Staton - Minneapolis, MN", "Minneapolis", "MN", "55401", "America/Chicago");
+        addWarehouse("carolina", "NC", "Carolina Made - Indian Trail, NC", "Indian Trail", "NC", "28079", "America/New_York");
+        addWarehouse("carolina", "NV", "Carolina Made - Reno, NV", "Reno", "NV", "89502", "America/Los_Angeles");
+    }
+    
+    private void addDistributor(String id, String name, String code, String apiBaseUrl, String apiVersion, String email) {
+        boolean hasApi = apiBaseUrl != null;
+        Distributor distributor = new Distributor();
+        distributor.setDistributorId(id);
+        distributor.setName(name);
+        distributor.setCode(code);
+        distributor.setApiBaseUrl(apiBaseUrl);
+        distributor.setHasApiIntegration(hasApi);
+        distributor.setActive(true);
+        distributor.setApiVersion(apiVersion);
+        distributor.setHealthStatus(hasApi ? "Healthy" : "NoApi");
+        distributor.setContactEmail(email);
+        distributor.setLastSuccessfulConnection(hasApi ? catalogTimestamp.minusSeconds(300).toString() : null);
+        RateLimitConfig rateLimit = new RateLimitConfig();
+        rateLimit.setDistributorId(id);
+        rateLimit.setDistributorName("ss".equals(id) ? "S&S Activewear" : id.toUpperCase(Locale.ROOT));
+        rateLimit.setRequestsPerMinute(60);
+        rateLimit.setThresholdPercentage(90);
+        rateLimit.setThresholdRequestCount(54);
+        rateLimit.setBurstAllowance(5);
+        distributor.setRateLimitConfig(rateLimit);
+        distributors.put(id, distributor);
+    }
+    
+    private void addWarehouse(String distributorId, String code, String name, String city, String state, String zip,
+                              String timezone) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setWarehouseId(uuid(code.hashCode(), distributorId.hashCode()).toString());
+        warehouse.setWarehouseCode(code);
+        warehouse.setWarehouseName(name);
+        warehouse.setAddress("1 Distribution Way");
+        warehouse.setCity(city);
+        warehouse.setState(state);
+        warehouse.setZip(zip);
+        warehouse.setCountry("US");
+        warehouse.setCutoffTime("15:00:00");
+        warehouse.setTimezone(timezone);
+        warehouse.setDistributorId(distributorId);
+        warehouse.setActive(true);
+        warehouses.computeIfAbsent(distributorId, k -> new ArrayList<>()).add(warehouse);
+    }
+    
+    // ===================== Hashing =====================
+    
+    /**
+     * Deterministic, well-mixed hash of (seed, n, salt); never negative.
+     * @param n Entity number
+     * @param salt Field-specific salt
+     * @return Non-negative hash
+     */
+    public long mix(long n, long salt) {
+        long z = seed + n * 0x9E3779B97F4A7C15L + salt * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) & Long.MAX_VALUE;
+    }
+    
+    UUID uuid(long n, long salt) {
+        return new UUID(mix(n, salt) & 0xFFFFFFFFFFFF0FFFL | 0x4000L, mix(n, salt + 1) & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L);
+    }
+}
@@ -0,0 +1,92 @@
+package com.dif.api.stub;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JSON wire format of the stub server.
+ * Writes the same envelopes and property names as the .NET API; the models keep "isActive"-style
+ * boolean names themselves with {@code @JsonProperty}.
+ */
+public final class StubJson {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    
+    private StubJson() {
+        // Utility class
+    }
+    
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+    
+    /**
+     * Builds a successful ApiResponse envelope.
+     * @param data Payload
+     * @param message Optional message
+     * @return Envelope as an ordered map
+     */
+    public static Map<String, Object> ok(Object data, String message) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("success", true);
+        envelope.put("data", data);
+        envelope.put("message", message);
+        envelope.put("errors", List.of());
+        envelope.put("timestamp", now());
+        envelope.put("correlationId", UUID.randomUUID().toString());
+        return envelope;
+    }
+    
+    /**
+     * Builds a failed ApiResponse envelope.
+     * @param message Failure message
+     * @return Envelope as an ordered map
+     */
+    public static Map<String, Object> fail(String message) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("success", false);
+        envelope.put("data", null);
+        envelope.put("message", message);
+        envelope.put("errors", List.of(message));
+        envelope.put("timestamp", now());
+        envelope.put("correlationId", UUID.randomUUID().toString());
+        return envelope;
+    }
+    
+    /**
+     * Builds a PaginatedResponse envelope.
+     * @param items Items of the requested page
+     * @param page 1-based page number
+     * @param pageSize Page size
+     * @param totalItems Total number of matching items
+     * @return Envelope as an ordered map
+     */
+    public static Map<String, Object> page(List<?> items, int page, int pageSize, long totalItems) {
+        int totalPages = (int) ((totalItems + pageSize - 1) / pageSize);
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("success", true);
+        envelope.put("items", items);
+        envelope.put("page", page);
+        envelope.put("pageSize", pageSize);
+        envelope.put("totalItems", totalItems);
+        envelope.put("totalPages", totalPages);
+        envelope.put("hasNextPage", page < totalPages);
+        envelope.put("hasPreviousPage", page > 1);
+        envelope.put("message", null);
+        envelope.put("timestamp", now());
+        return envelope;
+    }
+    
+    public static String now() {
+        return Instant.now().toString();
+    }
+}
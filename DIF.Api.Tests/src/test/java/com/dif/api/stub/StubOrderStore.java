@@ -0,0 +1,646 @@
+package com.dif.api.stub;
+
+import com.dif.api.models.request.OrderLine;
+import com.dif.api.models.request.PlaceOrderRequest;
+import com.dif.api.models.response.DeliveryConfirmation;
+import com.dif.api.models.response.OrderCosts;
+import com.dif.api.models.response.OrderDetail;
+import com.dif.api.models.response.OrderLineDetail;
+import com.dif.api.models.response.ShippingAddressResponse;
+import com.dif.api.models.response.TrackingDetail;
+import com.dif.api.models.response.TrackingStatusEvent;
+import com.dif.api.models.response.Warehouse;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Orders and tracking shipments of the stub server.
+ * Seeded orders are derived from their number like the catalog; orders placed through the
+ * API and shipments changed by tracking updates live in concurrent overlay maps.
+ * Every order has one shipment, created with status "Label Created" when the order is placed.
+ */
+public class StubOrderStore {
+    
+    public static final String[] PENDING_STATUSES = {"Label Created", "Picked Up", "In Transit", "Out for Delivery"};
+    
+    private static final String[] ORDER_STATUSES = {"Placed", "Processing", "Shipped", "Delivered"};
+    private static final String[][] CITIES = {
+            {"Chicago", "IL", "60601"}, {"Austin", "TX", "78701"}, {"Denver", "CO", "80202"},
+            {"Portland", "OR", "97201"}, {"Atlanta", "GA", "30303"}, {"Columbus", "OH", "43215"},
+            {"Phoenix", "AZ", "85004"}, {"Brooklyn", "NY", "11201"}
+    };
+    private static final String[] LOCATIONS = {
+            "Bolingbrook, IL", "Hodgkins, IL", "Chicago, IL", "Indianapolis, IN", "Columbus, OH", "Louisville, KY"
+    };
+    private static final long SEEDED_ID_HIGH = 0x5354554200004000L;
+    private static final long SEEDED_ID_LOW_MASK = 0x0FFFFFFFFFFFFFFFL;
+    private static final Pattern TRACKING_PATTERN = Pattern.compile("^1Z(\\d{3})V(\\d{8})$");
+    private static final Pattern DISTRIBUTOR_ORDER_PATTERN = Pattern.compile("^[A-Z]+\\d{8}(\\d+)$");
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    
+    private final StubCatalog catalog;
+    private final long seededCount;
+    private final int activeWindow;
+    private final Instant epoch;
+    private final AtomicLong placedSequence = new AtomicLong();
+    private final Map<UUID, StoredOrder> placedOrders = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<UUID> placedNewestFirst = new ConcurrentLinkedDeque<>();
+    private final Map<String, UUID> placedByDistributorOrderId = new ConcurrentHashMap<>();
+    private final Map<UUID, TrackingDetail> shipmentOverlay = new ConcurrentHashMap<>();
+    private final Map<String, UUID> placedByTrackingNumber = new ConcurrentHashMap<>();
+    
+    /**
+     * Order with its costs; the list endpoints return the order without costs.
+     */
+    public static class StoredOrder {
+        private final OrderDetail detail;
+        private final OrderCosts costs;
+        
+        StoredOrder(OrderDetail detail, OrderCosts costs) {
+            this.detail = detail;
+            this.costs = costs;
+        }
+        
+        public OrderDetail getDetail() {
+            return detail;
+        }
+        
+        public OrderCosts getCosts() {
+            return costs;
+        }
+    }
+    
+    /**
+     * @param catalog Catalog the order lines are drawn from
+     * @param seededCount Number of seeded orders
+     * @param activeWindow Number of seeded shipments visible to /pending, /misshipments and batch updates
+     */
+    public StubOrderStore(StubCatalog catalog, long seededCount, int activeWindow) {
+        this.catalog = catalog;
+        this.seededCount = seededCount;
+        this.activeWindow = (int) Math.min(activeWindow, seededCount);
+        this.epoch = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+    
+    public long getSeededCount() {
+        return seededCount;
+    }
+    
+    public int getPlacedCount() {
+        return placedOrders.size();
+    }
+    
+    // ===================== Orders =====================
+    
+    /**
+     * Places an order.
+     * @param request Validated order request
+     * @return Stored order
+     */
+    public StoredOrder place(PlaceOrderRequest request) {
+        long number = seededCount + placedSequence.getAndIncrement();
+        UUID orderId = UUID.randomUUID();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Warehouse> warehouses = catalog.getWarehouses(request.getDistributorId());
+        Warehouse warehouse = warehouses.isEmpty() ? catalog.getWarehouses("ss").get(0)
+                : warehouses.get(random.nextInt(warehouses.size()));
+        Instant now = Instant.now();
+        
+        OrderDetail detail = new OrderDetail();
+        detail.setOrderId(orderId.toString());
+        detail.setDistributorOrderId(distributorCode(request.getDistributorId()) + DAY.format(now) + (10000 + number - seededCount));
+        detail.setPoNumber(request.getPoNumber());
+        detail.setDistributorId(request.getDistributorId());
+        List<OrderLineDetail> lines = new ArrayList<>();
+        for (OrderLine line : request.getLines()) {
+            long n = catalog.indexOfSku(line.getIdentifier());
+            BigDecimal price = n >= 0 ? catalog.blankCost(n, request.getDistributorId())
+                    : BigDecimal.valueOf(random.nextInt(250, 1500), 2);
+            lines.add(line(line.getIdentifier(), n, line.getQty(), price));
+        }
+        detail.setLines(lines);
+        ShippingAddressResponse address = new ShippingAddressResponse();
+        if (request.getShippingAddress() != null) {
+            address.setCustomer(request.getShippingAddress().getCustomer());
+            address.setAddress(request.getShippingAddress().getAddress());
+            address.setAddress2(request.getShippingAddress().getAddress2() == null ? "" : request.getShippingAddress().getAddress2());
+            address.setCity(request.getShippingAddress().getCity());
+            address.setState(request.getShippingAddress().getState());
+            address.setZip(request.getShippingAddress().getZip());
+            address.setCountry(request.getShippingAddress().getCountry());
+            address.setPhone(request.getShippingAddress().getPhone());
+        }
+        detail.setShippingAddress(address);
+        detail.setShippingMethod(request.getShippingMethod());
+        detail.setWarehouseCode(warehouse.getWarehouseCode());
+        detail.setWarehouseName(warehouse.getWarehouseName());
+        detail.setOrderTimestamp(now.toString());
+        detail.setExpectedDeliveryDate(now.plus(deliveryDays(request.getShippingMethod()), ChronoUnit.DAYS).toString());
+        detail.setStatus("Placed");
+        detail.setSplitShipEnabled(request.isAutoselectWarehouse());
+        completeTotals(detail);
+        
+        StoredOrder order = new StoredOrder(detail, costs(orderId, detail));
+        TrackingDetail shipment = shipment(number, orderId, detail, now);
+        placedOrders.put(orderId, order);
+        placedByDistributorOrderId.put(detail.getDistributorOrderId(), orderId);
+        placedByTrackingNumber.put(shipment.getTrackingNumber().toUpperCase(Locale.ROOT), orderId);
+        shipmentOverlay.put(orderId, shipment);
+        placedNewestFirst.addFirst(orderId);
+        return order;
+    }
+    
+    /**
+     * Finds an order by its ID.
+     * @param orderId Order ID
+     * @return Order, or null if not found
+     */
+    public StoredOrder find(UUID orderId) {
+        StoredOrder placed = placedOrders.get(orderId);
+        if (placed != null) {
+            return placed;
+        }
+        long n = seededNumber(orderId);
+        return n >= 0 ? seeded(n) : null;
+    }
+    
+    /**
+     * Finds an order by the distributor's order ID.
+     * @param distributorOrderId Distributor order ID
+     * @return Order, or null if not found
+     */
+    public StoredOrder findByDistributorOrderId(String distributorOrderId) {
+        UUID placed = placedByDistributorOrderId.get(distributorOrderId);
+        if (placed != null) {
+            return placedOrders.get(placed);
+        }
+        Matcher matcher = DISTRIBUTOR_ORDER_PATTERN.matcher(distributorOrderId);
+        if (!matcher.matches() || matcher.group(1).length() > 12) {
+            return null;
+        }
+        long n = Long.parseLong(matcher.group(1));
+        if (n >= seededCount) {
+            return null;
+        }
+        StoredOrder order = seeded(n);
+        return order.getDetail().getDistributorOrderId().equals(distributorOrderId) ? order : null;
+    }
+    
+    /**
+     * Lists orders newest-placed first, then seeded orders in order.
+     * @param distributorId Optional distributor filter
+     * @param status Optional status filter
+     * @param page 1-based page
+     * @param pageSize Page size
+     * @param totalOut Receives the total number of matches at index 0
+     * @return Orders of the requested page
+     */
+    public List<OrderDetail> list(String distributorId, String status, int page, int pageSize, long[] totalOut) {
+        Predicate<OrderDetail> filter = o -> (distributorId == null || distributorId.equalsIgnoreCase(o.getDistributorId()))
+                && (status == null || status.equalsIgnoreCase(o.getStatus()));
+        long skip = (long) (page - 1) * pageSize;
+        long total = 0;
+        List<OrderDetail> items = new ArrayList<>();
+        for (UUID orderId : placedNewestFirst) {
+            OrderDetail detail = placedOrders.get(orderId).getDetail();
+            if (filter.test(detail)) {
+                if (total >= skip && items.size() < pageSize) {
+                    items.add(detail);
+                }
+                total++;
+            }
+        }
+        boolean unfiltered = distributorId == null && status == null;
+        if (unfiltered) {
+            for (long n = Math.max(0, skip - total); n < seededCount && items.size() < pageSize; n++) {
+                items.add(seeded(n).getDetail());
+            }
+            total += seededCount;
+        } else {
+            for (long n = 0; n < seededCount; n++) {
+                if ((distributorId == null || distributorId.equalsIgnoreCase(seededDistributor(n)))
+                        && (status == null || status.equalsIgnoreCase(seededStatus(n)))) {
+                    if (total >= skip && items.size() < pageSize) {
+                        items.add(seeded(n).getDetail());
+                    }
+                    total++;
+                }
+            }
+        }
+        totalOut[0] = total;
+        return items;
+    }
+    
+    // ===================== Tracking =====================
+    
+    /**
+     * Gets the current shipment of an order.
+     * @param orderId Order ID
+     * @return Shipment, or null if the order is unknown
+     */
+    public TrackingDetail shipmentForOrder(UUID orderId) {
+        TrackingDetail shipment = shipmentOverlay.get(orderId);
+        if (shipment != null) {
+            return shipment;
+        }
+        long n = seededNumber(orderId);
+        if (n < 0) {
+            return null;
+        }
+        OrderDetail detail = seeded(n).getDetail();
+        return shipment(n, orderId, detail, Instant.parse(detail.getOrderTimestamp()));
+    }
+    
+    /**
+     * Gets a shipment by its tracking number.
+     * @param trackingNumber Tracking number (case-insensitive)
+     * @return Shipment, or null if not found
+     */
+    public TrackingDetail shipmentByTrackingNumber(String trackingNumber) {
+        String normalized = trackingNumber.toUpperCase(Locale.ROOT);
+        UUID placed = placedByTrackingNumber.get(normalized);
+        if (placed != null) {
+            return shipmentOverlay.get(placed);
+        }
+        Matcher matcher = TRACKING_PATTERN.matcher(normalized);
+        if (!matcher.matches()) {
+            return null;
+        }
+        long n = (Long.parseLong(matcher.group(1)) - 100) * 100_000_000L + Long.parseLong(matcher.group(2));
+        return n >= 0 && n < seededCount ? shipmentForOrder(seededId(n)) : null;
+    }
+    
+    /**
+     * Lists shipments in the active window (placed orders plus the first seeded orders) matching a filter.
+     * @param filter Shipment filter
+     * @return Matching shipments
+     */
+    public List<TrackingDetail> activeShipments(Predicate<TrackingDetail> filter) {
+        List<TrackingDetail> result = new ArrayList<>();
+        for (UUID orderId : placedNewestFirst) {
+            TrackingDetail shipment = shipmentOverlay.get(orderId);
+            if (filter.test(shipment)) {
+                result.add(shipment);
+            }
+        }
+        for (long n = 0; n < activeWindow; n++) {
+            TrackingDetail shipment = shipmentForOrder(seededId(n));
+            if (filter.test(shipment)) {
+                result.add(shipment);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Advances one shipment to its next status, mirroring the .NET mock progression.
+     * @param trackingNumber Tracking number
+     * @return Updated shipment, or null if the tracking number is unknown
+     */
+    public TrackingDetail advance(String trackingNumber) {
+        TrackingDetail current = shipmentByTrackingNumber(trackingNumber);
+        if (current == null) {
+            return null;
+        }
+        UUID orderId = UUID.fromString(current.getOrderId());
+        return shipmentOverlay.compute(orderId, (id, existing) -> advanced(existing != null ? existing : current));
+    }
+    
+    /**
+     * Advances roughly 30% of the undelivered shipments in the active window.
+     * @return Number of shipments whose status changed
+     */
+    public int batchAdvance() {
+        int updated = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (TrackingDetail shipment : activeShipments(s -> !"Delivered".equals(s.getCurrentStatus()))) {
+            if (random.nextInt(10) < 3) {
+                TrackingDetail after = advance(shipment.getTrackingNumber());
+                if (!after.getCurrentStatus().equals(shipment.getCurrentStatus())) {
+                    updated++;
+                }
+            }
+        }
+        return updated;
+    }
+    
+    /**
+     * Builds the delivery confirmation of a delivered shipment.
+     * @param orderId Order ID
+     * @return Confirmation, or null if the order has no delivered shipment
+     */
+    public DeliveryConfirmation deliveryConfirmation(UUID orderId) {
+        TrackingDetail shipment = shipmentForOrder(orderId);
+        if (shipment == null || !"Delivered".equals(shipment.getCurrentStatus())) {
+            return null;
+        }
+        DeliveryConfirmation confirmation = new DeliveryConfirmation();
+        confirmation.setShipmentId(shipment.getShipmentId());
+        confirmation.setDeliveryDateTime(shipment.getActualDeliveryDate());
+        confirmation.setBoxesDelivered(shipment.getBoxesDelivered() == null ? shipment.getNumBoxes() : shipment.getBoxesDelivered());
+        confirmation.setWeightDelivered(shipment.getWeightDelivered() == null ? shipment.getTotalWeight() : shipment.getWeightDelivered());
+        confirmation.setDeliveryLocation("Front Door");
+        confirmation.setSignedBy(shipment.getDeliverySignature());
+        confirmation.setExpectedBoxes(shipment.getNumBoxes());
+        confirmation.setExpectedWeight(shipment.getTotalWeight());
+        confirmation.setBoxCountMismatch(confirmation.getBoxesDelivered() != shipment.getNumBoxes());
+        confirmation.setWeightMismatch(confirmation.getWeightDelivered().compareTo(shipment.getTotalWeight()) != 0);
+        return confirmation;
+    }
+    
+    // ===================== Generation =====================
+    
+    private StoredOrder seeded(long n) {
+        UUID orderId = seededId(n);
+        String distributorId = seededDistributor(n);
+        String status = seededStatus(n);
+        Instant timestamp = epoch.minusSeconds(catalog.mix(n, 21) % (14 * 86_400L));
+        String[] city = CITIES[(int) (catalog.mix(n, 22) % CITIES.length)];
+        List<Warehouse> warehouses = catalog.getWarehouses(distributorId);
+        Warehouse warehouse = warehouses.get((int) (catalog.mix(n, 23) % warehouses.size()));
+        long methodRoll = catalog.mix(n, 24) % 5;
+        String method = methodRoll == 0 ? "2" : methodRoll == 1 ? "3" : "1";
+        
+        OrderDetail detail = new OrderDetail();
+        detail.setOrderId(orderId.toString());
+        detail.setDistributorOrderId(distributorCode(distributorId) + DAY.format(timestamp) + n);
+        detail.setPoNumber("FP" + DAY.format(timestamp) + (1000 + n));
+        detail.setDistributorId(distributorId);
+        int lineCount = 1 + (int) (catalog.mix(n, 25) % 4);
+        List<OrderLineDetail> lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            long product = catalog.mix(n, 30 + i) % catalog.getProductCount();
+            int qty = 6 + (int) (catalog.mix(n, 40 + i) % 19);
+            lines.add(line(catalog.skuOf(product), product, qty, catalog.blankCost(product, distributorId)));
+        }
+        detail.setLines(lines);
+        ShippingAddressResponse address = new ShippingAddressResponse();
+        address.setCustomer("Test Printer " + (n + 1));
+        address.setAddress((100 + n % 900) + " Main Street");
+        address.setAddress2("");
+        address.setCity(city[0]);
+        address.setState(city[1]);
+        address.setZip(city[2]);
+        address.setCountry("US");
+        detail.setShippingAddress(address);
+        detail.setShippingMethod(method);
+        detail.setWarehouseCode(warehouse.getWarehouseCode());
+        detail.setWarehouseName(warehouse.getWarehouseName());
+        detail.setOrderTimestamp(timestamp.toString());
+        detail.setExpectedDeliveryDate(timestamp.plus(deliveryDays(method), ChronoUnit.DAYS).toString());
+        detail.setStatus(status);
+        detail.setSplitShipEnabled(true);
+        completeTotals(detail);
+        if ("Shipped".equals(status) || "Delivered".equals(status)) {
+            detail.setShipDate(timestamp.plus(1, ChronoUnit.DAYS).toString());
+            detail.setTrackingNumber(trackingNumber(n));
+            detail.setDeliveryStatus("Delivered".equals(status) ? "Delivered" : "In Transit");
+        }
+        return new StoredOrder(detail, costs(orderId, detail));
+    }
+    
+    private TrackingDetail shipment(long n, UUID orderId, OrderDetail order, Instant orderTime) {
+        String status = order.getStatus();
+        String current = "Delivered".equals(status) ? "Delivered" : "Shipped".equals(status) ? "In Transit" : "Label Created";
+        Instant shipDate = orderTime.plus(1, ChronoUnit.DAYS);
+        String trackingNumber = trackingNumber(n);
+        
+        TrackingDetail shipment = new TrackingDetail();
+        shipment.setShipmentId(catalog.uuid(n, 50).toString());
+        shipment.setOrderId(orderId.toString());
+        shipment.setOrderItemId(catalog.uuid(n, 51).toString());
+        shipment.setPurchaseOrderNumber(order.getPoNumber());
+        shipment.setTrackingNumber(trackingNumber);
+        shipment.setTrackingUrl("https://www.ups.com/track?tracknum=" + trackingNumber);
+        shipment.setCarrier("UPS");
+        shipment.setShippingType("1".equals(order.getShippingMethod()) ? "Ground" : "Air");
+        shipment.setLegType("L1");
+        shipment.setNumBoxes(order.getTotalBoxes());
+        shipment.setTotalWeight(order.getTotalWeight());
+        shipment.setShipDate(shipDate.toString());
+        shipment.setEstimatedDelivery(shipDate.plus("1".equals(order.getShippingMethod()) ? 5 : 2, ChronoUnit.DAYS).toString());
+        shipment.setOriginWarehouseZip(originZip(order));
+        shipment.setDestinationPrinterZip(order.getShippingAddress().getZip());
+        shipment.setCurrentStatus(current);
+        shipment.setStatusHistory(history(n, current, shipDate));
+        shipment.setLastUpdated(orderTime.toString());
+        shipment.setCurrentLocation(shipment.getStatusHistory().get(shipment.getStatusHistory().size() - 1).getLocation());
+        shipment.setDistributorId(order.getDistributorId());
+        shipment.setDistributorOrderId(order.getDistributorOrderId());
+        if ("Delivered".equals(current)) {
+            boolean misshipped = n < seededCount && catalog.mix(n, 52) % 50 == 0;
+            shipment.setActualDeliveryDate(shipDate.plus(3, ChronoUnit.DAYS).plus(14, ChronoUnit.HOURS).toString());
+            shipment.setDeliveryConfirmed(true);
+            shipment.setDeliverySignature("J. SMITH");
+            shipment.setMisshipmentFlag(misshipped);
+            if (misshipped && shipment.getNumBoxes() > 1) {
+                shipment.setBoxesDelivered(shipment.getNumBoxes() - 1);
+                shipment.setWeightDelivered(shipment.getTotalWeight().multiply(BigDecimal.valueOf(shipment.getNumBoxes() - 1))
+                        .divide(BigDecimal.valueOf(shipment.getNumBoxes()), 2, RoundingMode.HALF_UP));
+            } else {
+                shipment.setBoxesDelivered(shipment.getNumBoxes());
+                shipment.setWeightDelivered(misshipped ? shipment.getTotalWeight().subtract(new BigDecimal("0.35"))
+                        : shipment.getTotalWeight());
+            }
+        }
+        return shipment;
+    }
+    
+    private List<TrackingStatusEvent> history(long n, String current, Instant shipDate) {
+        List<TrackingStatusEvent> history = new ArrayList<>();
+        history.add(event("Label Created", shipDate, "Bolingbrook, IL", "Shipping label created"));
+        if (!"Label Created".equals(current)) {
+            history.add(event("Picked Up", shipDate.plus(4, ChronoUnit.HOURS), "Bolingbrook, IL", "Package picked up by carrier"));
+            history.add(event("In Transit", shipDate.plus(1, ChronoUnit.DAYS), "Hodgkins, IL", "In transit to destination"));
+            // Seeded shipments carry a variable number of intermediate scans
+            int scans = (int) (catalog.mix(n, 53) % 8);
+            for (int i = 0; i < scans; i++) {
+                history.add(event("In Transit", shipDate.plus(1, ChronoUnit.DAYS).plus(3L * (i + 1), ChronoUnit.HOURS),
+                        LOCATIONS[(int) (catalog.mix(n, 60 + i) % LOCATIONS.length)], "Arrived at facility"));
+            }
+        }
+        if ("Delivered".equals(current)) {
+            history.add(event("Out for Delivery", shipDate.plus(3, ChronoUnit.DAYS).plus(8, ChronoUnit.HOURS), "Chicago, IL", "Out for delivery"));
+            history.add(event("Delivered", shipDate.plus(3, ChronoUnit.DAYS).plus(14, ChronoUnit.HOURS), "Chicago, IL",
+                    "Delivered - Signed by: J. SMITH"));
+        }
+        return history;
+    }
+    
+    private TrackingDetail advanced(TrackingDetail shipment) {
+        String status = shipment.getCurrentStatus();
+        String next;
+        switch (status) {
+            case "Label Created":
+                next = "Picked Up";
+                break;
+            case "Picked Up":
+                next = "In Transit";
+                break;
+            case "In Transit":
+                next = ThreadLocalRandom.current().nextInt(3) == 0 ? "Out for Delivery" : "In Transit";
+                break;
+            case "Out for Delivery":
+                next = "Delivered";
+                break;
+            default:
+                next = status;
+        }
+        if (next.equals(status)) {
+            return shipment;
+        }
+        // Copy on write so concurrent readers never see a half-updated shipment
+        TrackingDetail copy = StubJson.mapper().convertValue(shipment, TrackingDetail.class);
+        Instant now = Instant.now();
+        String location = LOCATIONS[ThreadLocalRandom.current().nextInt(LOCATIONS.length)];
+        List<TrackingStatusEvent> history = new ArrayList<>(shipment.getStatusHistory());
+        history.add(event(next, now, location, description(next)));
+        copy.setStatusHistory(history);
+        copy.setCurrentStatus(next);
+        copy.setCurrentLocation(location);
+        copy.setLastUpdated(now.toString());
+        if ("Delivered".equals(next)) {
+            copy.setActualDeliveryDate(now.toString());
+            copy.setDeliveryConfirmed(true);
+            copy.setDeliverySignature("J. SMITH");
+            copy.setBoxesDelivered(copy.getNumBoxes());
+            copy.setWeightDelivered(copy.getTotalWeight());
+        }
+        return copy;
+    }
+    
+    private static String description(String status) {
+        switch (status) {
+            case "Picked Up":
+                return "Package picked up by carrier";
+            case "In Transit":
+                return "In transit to destination";
+            case "Out for Delivery":
+                return "Out for delivery";
+            case "Delivered":
+                return "Delivered - Left at front door";
+            default:
+                return status;
+        }
+    }
+    
+    private static TrackingStatusEvent event(String status, Instant timestamp, String location, String description) {
+        TrackingStatusEvent event = new TrackingStatusEvent();
+        event.setStatus(status);
+        event.setTimestamp(timestamp.toString());
+        event.setLocation(location);
+        event.setDescription(description);
+        return event;
+    }
+    
+    private static OrderLineDetail line(String sku, long product, int qty, BigDecimal price) {
+        OrderLineDetail line = new OrderLineDetail();
+        line.setSku(sku);
+        line.setGtin(product >= 0 ? String.format("%014d", 40_000_000_000_000L + product) : null);
+        line.setQuantity(qty);
+        line.setQuantityShipped(qty);
+        line.setPrice(price);
+        line.setLineTotal(price.multiply(BigDecimal.valueOf(qty)));
+        line.setStyleCode(sku.split("-")[0]);
+        String[] parts = sku.split("-");
+        if (parts.length == 3) {
+            int color = StubCatalog.colorIndex(parts[1]);
+            line.setColor(color >= 0 ? StubCatalog.COLORS[color] : parts[1]);
+            line.setSize(parts[2]);
+        }
+        return line;
+    }
+    
+    private static void completeTotals(OrderDetail detail) {
+        int units = detail.getLines().stream().mapToInt(OrderLineDetail::getQuantity).sum();
+        detail.setShippingCarrier("UPS");
+        detail.setTotalBoxes(Math.max(1, units / 10));
+        detail.setTotalWeight(new BigDecimal("0.35").multiply(BigDecimal.valueOf(units)));
+    }
+    
+    private OrderCosts costs(UUID orderId, OrderDetail detail) {
+        // Same arithmetic as the .NET mock: subtotal is the sum of unit prices
+        BigDecimal subtotal = detail.getLines().stream().map(OrderLineDetail::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add);
+        int units = detail.getLines().stream().mapToInt(OrderLineDetail::getQuantity).sum();
+        BigDecimal shipping = new BigDecimal("8.50").add(new BigDecimal("0.25").multiply(BigDecimal.valueOf(units)))
+                .setScale(2, RoundingMode.HALF_EVEN);
+        BigDecimal tax = shipping.multiply(new BigDecimal("0.07")).setScale(2, RoundingMode.HALF_EVEN);
+        BigDecimal smallOrderFee = subtotal.compareTo(BigDecimal.valueOf(50)) <= 0 ? new BigDecimal("5.00") : null;
+        Map<String, BigDecimal> blankCostPerSku = new LinkedHashMap<>();
+        detail.getLines().forEach(l -> blankCostPerSku.putIfAbsent(l.getSku(), l.getPrice()));
+        
+        OrderCosts costs = new OrderCosts();
+        costs.setOrderItemId(catalog.uuid(orderId.getLeastSignificantBits(), 70).toString());
+        costs.setSubtotal(subtotal);
+        costs.setShipping(shipping);
+        costs.setTax(tax);
+        costs.setSmallOrderFee(smallOrderFee);
+        costs.setTotal(subtotal.add(shipping).add(tax).add(smallOrderFee == null ? BigDecimal.ZERO : smallOrderFee));
+        costs.setBlankCostPerSku(blankCostPerSku);
+        costs.setPaymentMethod("CreditCard");
+        costs.setWarehouseId(detail.getWarehouseCode());
+        costs.setSurcharges(new ArrayList<>());
+        return costs;
+    }
+    
+    private String seededDistributor(long n) {
+        long roll = catalog.mix(n, 20) % 10;
+        return roll < 6 ? "ss" : StubCatalog.API_DISTRIBUTORS[(int) (roll % 4) + 1];
+    }
+    
+    private String seededStatus(long n) {
+        return ORDER_STATUSES[(int) (catalog.mix(n, 26) % ORDER_STATUSES.length)];
+    }
+    
+    private String originZip(OrderDetail order) {
+        for (Warehouse warehouse : catalog.getWarehouses(order.getDistributorId())) {
+            if (warehouse.getWarehouseCode().equals(order.getWarehouseCode())) {
+                return warehouse.getZip();
+            }
+        }
+        return "60440";
+    }
+    
+    private String distributorCode(String distributorId) {
+        return catalog.getDistributor(distributorId) != null
+                ? catalog.getDistributor(distributorId).getCode() : distributorId.toUpperCase(Locale.ROOT);
+    }
+    
+    private static int deliveryDays(String shippingMethod) {
+        return "1".equals(shippingMethod) ? 3 : "2".equals(shippingMethod) ? 2 : 1;
+    }
+    
+    static String trackingNumber(long n) {
+        return String.format("1Z%03dV%08d", 100 + n / 100_000_000L, n % 100_000_000L);
+    }
+    
+    static UUID seededId(long n) {
+        return new UUID(SEEDED_ID_HIGH, 0x8000000000000000L | n);
+    }
+    
+    private long seededNumber(UUID orderId) {
+        if (orderId.getMostSignificantBits() != SEEDED_ID_HIGH) {
+            return -1;
+        }
+        long n = orderId.getLeastSignificantBits() & SEEDED_ID_LOW_MASK;
+        return n < seededCount ? n : -1;
+    }
+}
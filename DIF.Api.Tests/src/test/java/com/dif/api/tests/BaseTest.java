@@ -1,13 +1,28 @@
 package com.dif.api.tests;
 
+import com.dif.api.client.BaseApiClient;
 import com.dif.api.client.HealthApiClient;
 import com.dif.api.config.ApiConfig;
+import com.dif.api.db.DataSources;
+import com.dif.api.instrumentation.AllocationTracker;
+import com.dif.api.instrumentation.FlightRecordingSuiteListener;
+import com.dif.api.instrumentation.PhaseTimingFilter;
+import com.dif.api.stub.StubApiServer;
+import com.dif.api.testng.LongestFirstScheduler;
+import com.dif.api.traffic.TrafficArchives;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.qameta.allure.Step;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Listeners;
+
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -15,10 +30,43 @@ import static org.assertj.core.api.Assertions.assertThat;
  * Base test class providing common setup and utilities for all tests.
  * All test classes should extend this class.
  */
+@Listeners({FlightRecordingSuiteListener.class, LongestFirstScheduler.class})
 public abstract class BaseTest {
     
     protected static final Logger logger = LoggerFactory.getLogger(BaseTest.class);
     
+    /**
+     * Writes the per-endpoint and per-model allocation ranking for the suite.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void writeAllocationReport() {
+        AllocationTracker.writeReport();
+    }
+    
+    /**
+     * Writes the per-endpoint phase timing and response size report for the suite.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void writePhaseTimingReport() {
+        PhaseTimingFilter.writeReport();
+    }
+    
+    /**
+     * Flushes and closes the traffic archive when recording.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void closeTrafficArchive() {
+        TrafficArchives.close();
+    }
+    
+    /**
+     * Closes the JDBC connection pool if DatabaseHelper or the stub opened it.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void closeDatabasePool() {
+        DataSources.close();
+    }
+    
     /**
      * Verify API is accessible before running any tests.
      * This runs once before the entire test suite.
@@ -26,6 +74,9 @@ public abstract class BaseTest {
     @BeforeSuite(alwaysRun = true)
     @Step("Verify API is running at {ApiConfig.getBaseUrl()}")
     public void verifyApiIsRunning() {
+        if (ApiConfig.isStubServerEnabled()) {
+            StubApiServer.startShared();
+        }
         logger.info("Verifying API is running at: {}", ApiConfig.getBaseUrl());
         
         HealthApiClient healthClient = new HealthApiClient();
@@ -95,4 +146,36 @@ public abstract class BaseTest {
                 .as("Response should indicate failure")
                 .isFalse();
     }
+    
+    /**
+     * Builds a response in the API envelope without sending a request, for client doubles that script calls.
+     * @param statusCode HTTP status code; 400 and above give a failed envelope
+     * @param data Envelope data, serialized as JSON
+     * @return Response
+     */
+    protected static Response envelope(int statusCode, Object data) {
+        return envelope(statusCode, data, Map.of());
+    }
+    
+    /**
+     * Builds a response in the API envelope with extra headers, e.g. the Retry-After of a 429.
+     * @param statusCode HTTP status code; 400 and above give a failed envelope
+     * @param data Envelope data, serialized as JSON
+     * @param headers Response headers
+     * @return Response
+     */
+    protected static Response envelope(int statusCode, Object data, Map<String, String> headers) {
+        ObjectNode body = BaseApiClient.getObjectMapper().createObjectNode()
+                .put("success", statusCode < 400);
+        body.set("data", BaseApiClient.getObjectMapper().valueToTree(data));
+        body.put("message", statusCode < 400 ? "OK" : "HTTP " + statusCode);
+        body.putArray("errors");
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(statusCode)
+                .setStatusLine("HTTP/1.1 " + statusCode)
+                .setContentType(ContentType.JSON)
+                .setBody(body.toString());
+        headers.forEach(builder::setHeader);
+        return builder.build();
+    }
 }
@@ -0,0 +1,165 @@
+package com.dif.api.tests.catalog;
+
+import com.dif.api.catalog.CatalogIndex;
+import com.dif.api.catalog.CatalogLoader;
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.ProductsApiClient;
+import com.dif.api.models.request.ProductQuery;
+import com.dif.api.models.response.PaginatedResponse;
+import com.dif.api.models.response.Product;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import com.dif.api.tests.BaseTest;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.restassured.response.Response;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the in-process catalog index.
+ * Loads one style of one distributor through CatalogLoader and checks that local queries
+ * return what GET /api/products returns for the same filters.
+ */
+@Feature("Catalog Index")
+public class CatalogIndexTests extends BaseTest {
+    
+    // One style keeps the load to a single page while still spanning every color and size
+    private static final String STYLE_CODE = "G500";
+    private static final String DISTRIBUTOR_ID = "ss";
+    
+    private ProductsApiClient productsApi;
+    private CatalogIndex index;
+    
+    @BeforeClass
+    @Override
+    public void setUp() {
+        super.setUp();
+        productsApi = new ProductsApiClient();
+        index = new CatalogLoader(productsApi, DistributorRateLimiter.getShared()).load(scope().build());
+    }
+    
+    @Test(groups = {"regression", "catalog"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify catalog index pages match GET /api/products pages for the loaded scope")
+    public void catalogIndex_queryPages_matchListProducts() {
+        logTestStart("catalogIndex_queryPages_matchListProducts");
+        
+        assertQueryMatches("the scope", scope().build());
+        assertQueryMatches("the second page", scope().page(2).pageSize(10).build());
+        
+        logTestEnd("catalogIndex_queryPages_matchListProducts");
+    }
+    
+    @Test(groups = {"regression", "catalog"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify catalog index color and size filters match GET /api/products, ignoring case")
+    public void catalogIndex_equalityFilters_matchListProducts() {
+        logTestStart("catalogIndex_equalityFilters_matchListProducts");
+        
+        assertQueryMatches("color", scope().color("black").build());
+        assertQueryMatches("size", scope().size("M").build());
+        assertQueryMatches("color and size", scope().color("Navy").size("xl").build());
+        
+        logTestEnd("catalogIndex_equalityFilters_matchListProducts");
+    }
+    
+    @Test(groups = {"regression", "catalog"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify catalog index SKU and brand substring filters match GET /api/products")
+    public void catalogIndex_substringFilters_matchListProducts() {
+        logTestStart("catalogIndex_substringFilters_matchListProducts");
+        
+        assertQueryMatches("SKU substring", scope().sku("bla").build());
+        assertQueryMatches("brand substring", scope().brandName("gild").build());
+        
+        logTestEnd("catalogIndex_substringFilters_matchListProducts");
+    }
+    
+    @Test(groups = {"negative", "catalog"})
+    @Severity(SeverityLevel.MINOR)
+    @Description("Verify a catalog index filter without matches returns an empty page like GET /api/products")
+    public void catalogIndex_unmatchedFilter_matchesEmptyListProducts() {
+        logTestStart("catalogIndex_unmatchedFilter_matchesEmptyListProducts");
+        
+        assertQueryMatches("unknown color", scope().color("Teal").build());
+        
+        logTestEnd("catalogIndex_unmatchedFilter_matchesEmptyListProducts");
+    }
+    
+    @Test(groups = {"regression", "catalog"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify SKU and GTIN lookups return the product GET /api/products/{sku} returns")
+    public void catalogIndex_getBySku_matchesGetProduct() {
+        logTestStart("catalogIndex_getBySku_matchesGetProduct");
+        
+        Product first = index.query(scope().pageSize(1).build()).getItems().get(0);
+        Response response = productsApi.getProductBySku(first.getSku(), DISTRIBUTOR_ID);
+        assertStatusCode(response, 200);
+        Product expected = BaseApiClient.readData(response, Product.class);
+        
+        // Product equality covers every field, including the isActive and isDiscontinued flags
+        assertThat(index.getBySku(first.getSku().toLowerCase(Locale.ROOT),
+                DISTRIBUTOR_ID.toUpperCase(Locale.ROOT)))
+                .as("SKU lookup should ignore case and match the API product")
+                .isEqualTo(expected);
+        assertThat(index.getByGtin(expected.getGtin()))
+                .as("GTIN lookup should find the product")
+                .containsExactly(expected);
+        
+        logTestEnd("catalogIndex_getBySku_matchesGetProduct");
+    }
+    
+    private void assertQueryMatches(String name, ProductQuery query) {
+        Response response = productsApi.listProducts(params(query));
+        assertStatusCode(response, 200);
+        PaginatedResponse<Product> expected = BaseApiClient.readPage(response, Product.class);
+        
+        PaginatedResponse<Product> actual = index.query(query);
+        
+        assertThat(actual.getTotalItems())
+                .as("Total items of %s", name)
+                .isEqualTo(expected.getTotalItems());
+        assertThat(actual.getTotalPages())
+                .as("Total pages of %s", name)
+                .isEqualTo(expected.getTotalPages());
+        assertThat(actual.getItems())
+                .as("Items of %s", name)
+                .containsExactlyElementsOf(expected.getItems());
+    }
+    
+    private static ProductQuery.ProductQueryBuilder scope() {
+        return ProductQuery.builder().styleCode(STYLE_CODE).distributorId(DISTRIBUTOR_ID);
+    }
+    
+    private static Map<String, String> params(ProductQuery query) {
+        Map<String, String> params = new HashMap<>();
+        putIfSet(params, "sku", query.getSku());
+        putIfSet(params, "styleCode", query.getStyleCode());
+        putIfSet(params, "brandName", query.getBrandName());
+        putIfSet(params, "gtin", query.getGtin());
+        putIfSet(params, "color", query.getColor());
+        putIfSet(params, "size", query.getSize());
+        putIfSet(params, "distributorId", query.getDistributorId());
+        if (query.getPage() != null) {
+            params.put("page", query.getPage().toString());
+        }
+        if (query.getPageSize() != null) {
+            params.put("pageSize", query.getPageSize().toString());
+        }
+        return params;
+    }
+    
+    private static void putIfSet(Map<String, String> params, String name, String value) {
+        if (value != null) {
+            params.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.dif.api.tests.catalog;
+
+import com.dif.api.catalog.CatalogIndex;
+import com.dif.api.catalog.CatalogLoader;
+import com.dif.api.catalog.CatalogSnapshot;
+import com.dif.api.client.ProductsApiClient;
+import com.dif.api.models.request.ProductQuery;
+import com.dif.api.models.response.PaginatedResponse;
+import com.dif.api.models.response.Product;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import com.dif.api.tests.BaseTest;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the memory-mapped catalog snapshot.
+ * Writes a catalog index loaded from GET /api/products, reopens the file and checks that the
+ * reopened index answers lookups and queries exactly like the index it was written from.
+ */
+@Feature("Catalog Snapshot")
+public class CatalogSnapshotTests extends BaseTest {
+    
+    private static final String STYLE_CODE = "G500";
+    private static final String DISTRIBUTOR_ID = "ss";
+    
+    private CatalogIndex index;
+    private ProductQuery scope;
+    private Path directory;
+    private Path file;
+    
+    @BeforeClass
+    @Override
+    public void setUp() {
+        super.setUp();
+        scope = ProductQuery.builder().styleCode(STYLE_CODE).distributorId(DISTRIBUTOR_ID).build();
+        index = new CatalogLoader(new ProductsApiClient(), DistributorRateLimiter.getShared()).load(scope);
+        try {
+            directory = Files.createTempDirectory("catalog-snapshot");
+            file = directory.resolve("snapshot.bin");
+            CatalogSnapshot.write(file, index, scope, CatalogSnapshot.watermark(index));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write a catalog snapshot", e);
+        }
+    }
+    
+    @Test(groups = {"regression", "catalog"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify a reopened catalog snapshot returns the same products by SKU as the index it was written from")
+    public void catalogSnapshot_reopened_matchesIndexBySku() throws IOException {
+        logTestStart("catalogSnapshot_reopened_matchesIndexBySku");
+        
+        CatalogSnapshot reopened = new CatalogSnapshot(file);
+        
+        assertThat(reopened.getIndex().size())
+                .as("Reopened snapshot should hold every product")
+                .isEqualTo(index.size());
+        assertThat(reopened.getScope())
+                .as("Reopened snapshot should keep its scope")
+                .isEqualTo(scope);
+        assertThat(reopened.getWatermark())
+                .as("Reopened snapshot should keep its watermark")
+                .isEqualTo(CatalogSnapshot.watermark(index));
+        
+        List<Product> products = index.query(ProductQuery.builder().pageSize(100).build()).getItems();
+        assertThat(products)
+                .as("Loaded index should not be empty")
+                .isNotEmpty();
+        for (Product product : products) {
+            assertThat(reopened.getIndex().getBySku(product.getSku(), product.getDistributorId()))
+                    .as("Product %s of %s", product.getSku(), product.getDistributorId())
+                    .isEqualTo(product);
+            assertThat(reopened.getIndex().getByGtin(product.getGtin()))
+                    .as("Products with GTIN %s", product.getGtin())
+                    .isEqualTo(index.getByGtin(product.getGtin()));
+        }
+        
+        logTestEnd("catalogSnapshot_reopened_matchesIndexBySku");
+    }
+    
+    @Test(groups = {"regression", "catalog"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify a reopened catalog snapshot answers queries like the index it was written from")
+    public void catalogSnapshot_reopened_matchesIndexQueries() throws IOException {
+        logTestStart("catalogSnapshot_reopened_matchesIndexQueries");
+        
+        CatalogIndex reopened = new CatalogSnapshot(file).getIndex();
+        
+        List<ProductQuery> queries = Arrays.asList(
+                ProductQuery.builder().build(),
+                ProductQuery.builder().color("black").build(),
+                ProductQuery.builder().color("Navy").size("xl").build(),
+                ProductQuery.builder().sku("bla").build(),
+                ProductQuery.builder().brandName("gild").build(),
+                ProductQuery.builder().page(2).pageSize(10).build(),
+                ProductQuery.builder().color("Teal").build());
+        for (ProductQuery query : queries) {
+            PaginatedResponse<Product> expected = index.query(query);
+            PaginatedResponse<Product> actual = reopened.query(query);
+            assertThat(actual.getTotalItems())
+                    .as("Total items of %s", query)
+                    .isEqualTo(expected.getTotalItems());
+            assertThat(actual.getItems())
+                    .as("Items of %s", query)
+                    .containsExactlyElementsOf(expected.getItems());
+        }
+        
+        logTestEnd("catalogSnapshot_reopened_matchesIndexQueries");
+    }
+    
+    @Test(groups = {"negative", "catalog"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify a truncated catalog snapshot is rejected instead of read")
+    public void catalogSnapshot_truncated_isRejected() throws IOException {
+        logTestStart("catalogSnapshot_truncated_isRejected");
+        
+        byte[] bytes = Files.readAllBytes(file);
+        // Cut inside the header, inside the columns, and one byte short of the end
+        for (int length : new int[]{12, bytes.length / 2, bytes.length - 1}) {
+            Path truncated = directory.resolve("truncated-" + length + ".bin");
+            Files.write(truncated, Arrays.copyOf(bytes, length));
+            
+            assertThatThrownBy(() -> new CatalogSnapshot(truncated))
+                    .as("Snapshot cut to %d of %d bytes", length, bytes.length)
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("is truncated");
+        }
+        
+        logTestEnd("catalogSnapshot_truncated_isRejected");
+    }
+}
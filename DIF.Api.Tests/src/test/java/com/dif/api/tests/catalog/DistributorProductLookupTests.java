@@ -0,0 +1,216 @@
+package com.dif.api.tests.catalog;
+
+import com.dif.api.catalog.DistributorOffer;
+import com.dif.api.catalog.DistributorProductLookup;
+import com.dif.api.catalog.ProductComparison;
+import com.dif.api.client.DistributorTopology;
+import com.dif.api.client.DistributorsApiClient;
+import com.dif.api.client.ProductsApiClient;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import com.dif.api.tests.BaseTest;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the scatter-gather product lookup across distributors.
+ * Answers product and inventory requests from a products client double scripted per distributor, and gives
+ * each lookup a private rate limiter, so timeouts and rate-limit outcomes are known per distributor.
+ */
+@Feature("Distributor Product Lookup")
+public class DistributorProductLookupTests extends BaseTest {
+    
+    private static final String SKU = "G500-BLA-M";
+    private static final Duration DEADLINE = Duration.ofMillis(500);
+    
+    @Test(groups = {"regression", "catalog"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify a lookup ends at its deadline, reports a slow distributor as timed out and keeps a product whose inventory is late")
+    public void bySku_withSlowDistributors_reportsTimeoutsAtDeadline() {
+        logTestStart("bySku_withSlowDistributors_reportsTimeoutsAtDeadline");
+        
+        CountDownLatch release = new CountDownLatch(1);
+        // ps answers its product and ds its inventory only after the deadline
+        ScriptedProductsApi productsApi = new ScriptedProductsApi(
+                distributorId -> {
+                    switch (distributorId) {
+                        case "ps":
+                            return await(release, product(distributorId, "4.10"));
+                        case "ds":
+                            return product(distributorId, "2.90");
+                        default:
+                            return product(distributorId, "3.25");
+                    }
+                },
+                distributorId -> "ds".equals(distributorId) ? await(release, inventory(distributorId)) : inventory(distributorId));
+        ProductComparison comparison;
+        try (DistributorProductLookup lookup = lookup(productsApi, new DistributorRateLimiter(6000, 100), "ss", "ds", "ps")) {
+            try {
+                comparison = lookup.bySku(SKU, DEADLINE);
+            } finally {
+                release.countDown();
+            }
+        }
+        
+        Map<String, DistributorOffer> offers = offers(comparison);
+        assertThat(offers.get("ss").getStatus())
+                .as("Distributor that answered in time")
+                .isEqualTo(DistributorOffer.Status.FOUND);
+        assertThat(offers.get("ss").getInventory())
+                .as("Inventory that answered in time")
+                .isNotNull();
+        assertThat(offers.get("ps").getStatus())
+                .as("Distributor whose product is late")
+                .isEqualTo(DistributorOffer.Status.TIMED_OUT);
+        assertThat(offers.get("ds").getStatus())
+                .as("Distributor whose inventory is late")
+                .isEqualTo(DistributorOffer.Status.FOUND);
+        assertThat(offers.get("ds").getInventory())
+                .as("Late inventory")
+                .isNull();
+        assertThat(offers.get("ds").getDetail())
+                .as("Detail of the late inventory")
+                .startsWith("no inventory within");
+        assertThat(comparison.getElapsedMillis())
+                .as("Lookup should end at the deadline, not when the slow distributors answer")
+                .isBetween((double) DEADLINE.toMillis() * 0.9, 10_000.0);
+        assertThat(comparison.cheapest(0).getDistributorId())
+                .as("Cheapest found offer, with or without inventory")
+                .isEqualTo("ds");
+        assertThat(comparison.isComplete())
+                .as("Lookup with a timed out distributor and late inventory")
+                .isFalse();
+        
+        logTestEnd("bySku_withSlowDistributors_reportsTimeoutsAtDeadline");
+    }
+    
+    @Test(groups = {"negative", "catalog"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify 429s and empty buckets are classified as rate limited, a 429 pauses the bucket and other errors fail")
+    public void bySku_withRateLimitedDistributors_classifiesAndPauses() {
+        logTestStart("bySku_withRateLimitedDistributors_classifiesAndPauses");
+        
+        ScriptedProductsApi productsApi = new ScriptedProductsApi(
+                distributorId -> {
+                    switch (distributorId) {
+                        case "rl":
+                            return envelope(429, null, Map.of("Retry-After", "30"));
+                        case "fs":
+                            return envelope(503, null);
+                        case "nf":
+                            return envelope(404, null);
+                        default:
+                            return product(distributorId, "3.25");
+                    }
+                },
+                DistributorProductLookupTests::inventory);
+        DistributorRateLimiter rateLimiter = new DistributorRateLimiter(6000, 100);
+        rateLimiter.pause("cl", Duration.ofMinutes(5));
+        ProductComparison comparison;
+        try (DistributorProductLookup lookup = lookup(productsApi, rateLimiter, "ss", "rl", "cl", "fs", "nf")) {
+            comparison = lookup.bySku(SKU, Duration.ofSeconds(10));
+        }
+        
+        assertThat(offers(comparison).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getStatus())))
+                .as("Outcome per distributor")
+                .containsExactlyInAnyOrderEntriesOf(Map.of(
+                        "ss", DistributorOffer.Status.FOUND,
+                        "rl", DistributorOffer.Status.RATE_LIMITED,
+                        "cl", DistributorOffer.Status.RATE_LIMITED,
+                        "fs", DistributorOffer.Status.FAILED,
+                        "nf", DistributorOffer.Status.NOT_FOUND));
+        assertThat(offers(comparison).get("cl").getDetail())
+                .as("Distributor skipped for its empty bucket")
+                .isEqualTo("client-side rate limit exhausted");
+        assertThat(productsApi.productCalls)
+                .as("Distributors asked for the product")
+                .doesNotContainKey("cl");
+        assertThat(rateLimiter.reserve("rl", Duration.ofSeconds(20).toNanos()))
+                .as("Permit within 20 seconds of a Retry-After of 30")
+                .isEqualTo(-1);
+        assertThat(comparison.getOffers().get(0).getDistributorId())
+                .as("Found offers should come first")
+                .isEqualTo("ss");
+        
+        logTestEnd("bySku_withRateLimitedDistributors_classifiesAndPauses");
+    }
+    
+    private static DistributorProductLookup lookup(ProductsApiClient productsApi, DistributorRateLimiter rateLimiter,
+                                                   String... distributorIds) {
+        DistributorsApiClient distributorsApi = new DistributorsApiClient() {
+            @Override
+            public Response listDistributors() {
+                return envelope(200, List.of(distributorIds).stream()
+                        .map(id -> Map.of("distributorId", id, "isActive", true, "hasApiIntegration", true))
+                        .collect(Collectors.toList()));
+            }
+        };
+        return new DistributorProductLookup(productsApi, new DistributorTopology(distributorsApi, Duration.ofMinutes(5)),
+                rateLimiter, 8);
+    }
+    
+    private static Map<String, DistributorOffer> offers(ProductComparison comparison) {
+        return comparison.getOffers().stream()
+                .collect(Collectors.toMap(DistributorOffer::getDistributorId, Function.identity()));
+    }
+    
+    private static Response product(String distributorId, String blankCost) {
+        return envelope(200, Map.of("sku", SKU, "distributorId", distributorId, "blankCost", blankCost));
+    }
+    
+    private static Response inventory(String distributorId) {
+        return envelope(200, List.of(Map.of("sku", SKU, "warehouseCode", "WH-" + distributorId,
+                "quantityAvailable", 40, "inStock", true, "distributorId", distributorId)));
+    }
+    
+    private static Response await(CountDownLatch release, Response response) {
+        try {
+            release.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return response;
+    }
+    
+    /**
+     * Products client double answering product and inventory requests from scripts keyed by distributor,
+     * and counting product requests per distributor.
+     */
+    private static final class ScriptedProductsApi extends ProductsApiClient {
+        
+        private final Function<String, Response> products;
+        private final Function<String, Response> inventories;
+        private final Map<String, Integer> productCalls = new ConcurrentHashMap<>();
+        
+        private ScriptedProductsApi(Function<String, Response> products, Function<String, Response> inventories) {
+            this.products = products;
+            this.inventories = inventories;
+        }
+        
+        @Override
+        public Response getProductBySku(String sku, String distributorId) {
+            productCalls.merge(distributorId, 1, Integer::sum);
+            return products.apply(distributorId);
+        }
+        
+        @Override
+        public Response getInventory(String sku, String distributorId) {
+            return inventories.apply(distributorId);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.dif.api.tests.database;
+
+import com.dif.api.client.OrdersApiClient;
+import com.dif.api.db.BatchTiming;
+import com.dif.api.db.BulkQueryResult;
+import com.dif.api.db.JdbcOrderQueries;
+import com.dif.api.fixtures.LineMix;
+import com.dif.api.fixtures.OrderFixturePool;
+import com.dif.api.tests.BaseTest;
+import com.dif.api.util.DatabaseHelper;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.h2.jdbcx.JdbcDataSource;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for DatabaseHelper's bulk queries.
+ * Checks that every requested order ID ends up as a row, as missing or as a failure, and that
+ * a failure is never reported as a missing order.
+ */
+@Feature("Database Queries")
+public class DatabaseHelperTests extends BaseTest {
+    
+    private static final String VALID_DISTRIBUTOR_ID = "ss";
+    
+    private String orderId;
+    
+    @BeforeClass
+    @Override
+    public void setUp() {
+        super.setUp();
+        orderId = OrderFixturePool.getShared().lease(VALID_DISTRIBUTOR_ID, LineMix.SINGLE_LINE).getOrderId();
+    }
+    
+    @Test(groups = {"regression", "database"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify bulk order queries report 404s as missing and other error statuses as failures")
+    public void queryOrdersByIds_withApiErrors_splitsMissingAndFailures() {
+        logTestStart("queryOrdersByIds_withApiErrors_splitsMissingAndFailures");
+        
+        String unknownId = UUID.randomUUID().toString();
+        String failingId = UUID.randomUUID().toString();
+        
+        BulkQueryResult<Map<String, Object>> result = DatabaseHelper.queryOrdersByIds(
+                List.of(orderId, unknownId, failingId), failingOrdersApi(Set.of(failingId)), null);
+        
+        assertThat(result.getRows().keySet())
+                .as("Found orders")
+                .containsExactly(orderId);
+        assertThat(result.getMissing())
+                .as("A 404 should be missing")
+                .containsExactly(unknownId);
+        assertThat(result.getFailures().keySet())
+                .as("A 503 should be a failure, not missing")
+                .containsExactly(failingId);
+        assertThat(result.getFailures().get(failingId))
+                .as("Failure of %s", failingId)
+                .hasMessageContaining("HTTP 503");
+        assertThat(result.isComplete())
+                .as("Result with missing and failed ids")
+                .isFalse();
+        
+        logTestEnd("queryOrdersByIds_withApiErrors_splitsMissingAndFailures");
+    }
+    
+    @Test(groups = {"regression", "database"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify bulk order cost queries report 404s as missing and other error statuses as failures")
+    public void queryOrderCostsByIds_withApiErrors_splitsMissingAndFailures() {
+        logTestStart("queryOrderCostsByIds_withApiErrors_splitsMissingAndFailures");
+        
+        String unknownId = UUID.randomUUID().toString();
+        String failingId = UUID.randomUUID().toString();
+        
+        BulkQueryResult<Map<String, Object>> result = DatabaseHelper.queryOrderCostsByIds(
+                List.of(failingId, orderId, unknownId), failingOrdersApi(Set.of(failingId)), null);
+        
+        assertThat(result.getRows().keySet())
+                .as("Found costs")
+                .containsExactly(orderId);
+        assertThat(result.getRows().get(orderId))
+                .as("Cost row of %s", orderId)
+                .containsKeys("subtotal", "total", "shipping", "tax");
+        assertThat(result.getMissing())
+                .as("A 404 should be missing")
+                .containsExactly(unknownId);
+        assertThat(result.getFailures().keySet())
+                .as("A 503 should be a failure, not missing")
+                .containsExactly(failingId);
+        
+        logTestEnd("queryOrderCostsByIds_withApiErrors_splitsMissingAndFailures");
+    }
+    
+    @Test(groups = {"negative", "database"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify a failed JDBC batch marks every id of the batch failed and leaves other batches alone")
+    public void queryOrdersByIds_withFailedJdbcBatch_failsEveryIdOfBatch() {
+        logTestStart("queryOrdersByIds_withFailedJdbcBatch_failsEveryIdOfBatch");
+        
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:database-helper-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;"
+                + "INIT=RUNSCRIPT FROM 'classpath:/db/h2-schema.sql'");
+        String poisonId = UUID.randomUUID().toString();
+        JdbcOrderQueries queries = new JdbcOrderQueries(dataSource, 100) {
+            @Override
+            public Map<String, Map<String, Object>> queryOrdersByIds(Collection<String> orderIds) throws SQLException {
+                if (orderIds.contains(poisonId)) {
+                    throw new SQLException("Injected failure");
+                }
+                return super.queryOrdersByIds(orderIds);
+            }
+        };
+        // db.in.batch.size ids per batch: the poisoned first batch fails, the rest are queried
+        List<String> ids = new ArrayList<>(List.of(poisonId));
+        while (ids.size() < 150) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        
+        BulkQueryResult<Map<String, Object>> result = DatabaseHelper.queryOrdersByIds(ids, new OrdersApiClient(), queries);
+        
+        List<BatchTiming> batches = result.getBatchTimings();
+        assertThat(batches)
+                .as("Batches")
+                .hasSize(2);
+        assertThat(result.getFailures().keySet())
+                .as("Every id of the failed batch")
+                .containsExactlyElementsOf(ids.subList(0, batches.get(0).getSize()));
+        assertThat(result.getMissing())
+                .as("Every id of the successful batch")
+                .containsExactlyElementsOf(ids.subList(batches.get(0).getSize(), ids.size()));
+        assertThat(result.getRows())
+                .as("Rows")
+                .isEmpty();
+        
+        logTestEnd("queryOrdersByIds_withFailedJdbcBatch_failsEveryIdOfBatch");
+    }
+    
+    /**
+     * Orders client that answers the given IDs with HTTP 503 and every other ID from the API.
+     */
+    private static OrdersApiClient failingOrdersApi(Set<String> failingIds) {
+        return new OrdersApiClient() {
+            @Override
+            public Response getOrder(String orderId) {
+                return failingIds.contains(orderId) ? serviceUnavailable() : super.getOrder(orderId);
+            }
+            
+            @Override
+            public Response getOrderCosts(String orderId) {
+                return failingIds.contains(orderId) ? serviceUnavailable() : super.getOrderCosts(orderId);
+            }
+        };
+    }
+    
+    private static Response serviceUnavailable() {
+        return new ResponseBuilder()
+                .setStatusCode(503)
+                .setStatusLine("HTTP/1.1 503 Service Unavailable")
+                .setContentType(ContentType.JSON)
+                .setBody("{\"success\":false,\"data\":null,\"message\":\"Service unavailable\",\"errors\":[]}")
+                .build();
+    }
+}
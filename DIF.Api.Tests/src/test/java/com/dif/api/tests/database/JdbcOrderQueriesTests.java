@@ -0,0 +1,217 @@
+package com.dif.api.tests.database;
+
+import com.dif.api.db.JdbcOrderQueries;
+import com.dif.api.db.OrderTables;
+import com.dif.api.models.response.OrderCosts;
+import com.dif.api.models.response.OrderDetail;
+import com.dif.api.models.response.OrderLineDetail;
+import com.dif.api.tests.BaseTest;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.h2.jdbcx.JdbcDataSource;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the JDBC order queries behind DatabaseHelper's jdbc backend.
+ * Fills a private embedded H2 database through OrderTables and checks the IN (...) queries against it.
+ */
+@Feature("Database Queries")
+public class JdbcOrderQueriesTests extends BaseTest {
+    
+    private static final int ORDER_COUNT = 17;
+    private static final int IN_BATCH_SIZE = 8;
+    
+    private JdbcDataSource dataSource;
+    private List<String> orderIds;
+    
+    @BeforeClass
+    @Override
+    public void setUp() {
+        super.setUp();
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:jdbc-order-queries-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        orderIds = new ArrayList<>();
+        try {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("RUNSCRIPT FROM 'classpath:/db/h2-schema.sql'");
+            }
+            for (int i = 0; i < ORDER_COUNT; i++) {
+                OrderDetail order = order("G500-BLA-M", "G500-NAV-L");
+                OrderTables.insert(dataSource, order, costs());
+                orderIds.add(order.getOrderId());
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot fill the H2 test database", e);
+        }
+    }
+    
+    @Test(groups = {"regression", "database"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify IN queries of 1, 3, 5 and 17 ids return every order and reuse power-of-two statements")
+    public void queryOrdersByIds_paddedInLists_reuseStatements() throws SQLException {
+        logTestStart("queryOrdersByIds_paddedInLists_reuseStatements");
+        
+        List<String> statements = Collections.synchronizedList(new ArrayList<>());
+        JdbcOrderQueries queries = new JdbcOrderQueries(recording(dataSource, statements), IN_BATCH_SIZE);
+        
+        for (int count : new int[]{1, 3, 5, 17}) {
+            List<String> ids = orderIds.subList(0, count);
+            Map<String, Map<String, Object>> orders = queries.queryOrdersByIds(ids);
+            assertThat(orders.keySet())
+                    .as("Orders of %d ids in request order", count)
+                    .containsExactlyElementsOf(ids);
+            assertThat(queries.queryOrderCostsByIds(ids).keySet())
+                    .as("Costs of %d ids in request order", count)
+                    .containsExactlyElementsOf(ids);
+            assertThat(queries.queryOrderLineItemsByIds(ids).values())
+                    .as("Line items of %d ids", count)
+                    .allSatisfy(lines -> assertThat(lines).hasSize(2));
+        }
+        
+        // 1 -> (1); 3 -> (4); 5 -> (8); 17 -> (8), (8), (1): three IN-list sizes per query
+        Set<Integer> slots = new LinkedHashSet<>();
+        statements.forEach(sql -> slots.add(sql.length() - sql.replace("?", "").length()));
+        assertThat(slots)
+                .as("IN-list sizes should be padded to powers of two")
+                .containsExactlyInAnyOrder(1, 4, 8);
+        assertThat(new LinkedHashSet<>(statements))
+                .as("Distinct statements over orders, costs and line items")
+                .hasSize(9);
+        
+        logTestEnd("queryOrdersByIds_paddedInLists_reuseStatements");
+    }
+    
+    @Test(groups = {"negative", "database"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify ids without a row are left out of the results while the other ids keep request order")
+    public void queryOrdersByIds_withNonExistentIds_leavesThemOut() throws SQLException {
+        logTestStart("queryOrdersByIds_withNonExistentIds_leavesThemOut");
+        
+        JdbcOrderQueries queries = new JdbcOrderQueries(dataSource, IN_BATCH_SIZE);
+        String unknown = UUID.randomUUID().toString();
+        List<String> ids = List.of(unknown, orderIds.get(3), UUID.randomUUID().toString(), orderIds.get(1), orderIds.get(3));
+        
+        assertThat(queries.queryOrdersByIds(ids).keySet())
+                .as("Only existing orders, in request order and once each")
+                .containsExactly(orderIds.get(3), orderIds.get(1));
+        assertThat(queries.queryOrderCostsByIds(ids).keySet())
+                .as("Only costs of existing orders")
+                .containsExactly(orderIds.get(3), orderIds.get(1));
+        assertThat(queries.queryOrdersByIds(List.of(unknown)))
+                .as("Unknown id alone")
+                .isEmpty();
+        assertThat(queries.queryOrderLineItemsByIds(List.of()))
+                .as("No ids")
+                .isEmpty();
+        
+        logTestEnd("queryOrdersByIds_withNonExistentIds_leavesThemOut");
+    }
+    
+    @Test(groups = {"negative", "database"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify a failed order insert rolls back the order and its costs")
+    public void insertOrder_whenLineInsertFails_rollsBackOrder() throws SQLException {
+        logTestStart("insertOrder_whenLineInsertFails_rollsBackOrder");
+        
+        // The second line has no SKU, so the line batch fails after the order and costs rows went in
+        OrderDetail order = order("G500-BLA-M", null);
+        JdbcOrderQueries queries = new JdbcOrderQueries(dataSource, IN_BATCH_SIZE);
+        
+        assertThatThrownBy(() -> OrderTables.insert(dataSource, order, costs()))
+                .as("Insert with an invalid line")
+                .isInstanceOf(SQLException.class);
+        assertThat(queries.queryOrdersByIds(List.of(order.getOrderId())))
+                .as("Order row should be rolled back")
+                .isEmpty();
+        assertThat(queries.queryOrderCostsByIds(List.of(order.getOrderId())))
+                .as("Costs row should be rolled back")
+                .isEmpty();
+        
+        order.getLines().get(1).setSku("G500-NAV-L");
+        OrderTables.insert(dataSource, order, costs());
+        assertThat(queries.queryOrderLineItemsByIds(List.of(order.getOrderId())).get(order.getOrderId()))
+                .as("Retried insert should write every line")
+                .hasSize(2);
+        
+        logTestEnd("insertOrder_whenLineInsertFails_rollsBackOrder");
+    }
+    
+    private static OrderDetail order(String... skus) {
+        OrderDetail order = new OrderDetail();
+        order.setOrderId(UUID.randomUUID().toString());
+        order.setDistributorId("ss");
+        order.setStatus("Pending");
+        List<OrderLineDetail> lines = new ArrayList<>();
+        for (String sku : skus) {
+            OrderLineDetail line = new OrderLineDetail();
+            line.setSku(sku);
+            line.setQuantity(2);
+            line.setPrice(new BigDecimal("3.50"));
+            line.setLineTotal(new BigDecimal("7.00"));
+            lines.add(line);
+        }
+        order.setLines(lines);
+        return order;
+    }
+    
+    private static OrderCosts costs() {
+        OrderCosts costs = new OrderCosts();
+        costs.setSubtotal(new BigDecimal("14.00"));
+        costs.setShipping(new BigDecimal("5.00"));
+        costs.setTax(new BigDecimal("1.12"));
+        costs.setTotal(new BigDecimal("20.12"));
+        return costs;
+    }
+    
+    /**
+     * Wraps a DataSource so every SQL string passed to prepareStatement is recorded.
+     */
+    private static DataSource recording(DataSource target, List<String> statements) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (!"getConnection".equals(method.getName())) {
+                        return result;
+                    }
+                    Connection connection = (Connection) result;
+                    return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                            (connectionProxy, connectionMethod, connectionArgs) -> {
+                                if ("prepareStatement".equals(connectionMethod.getName())) {
+                                    statements.add((String) connectionArgs[0]);
+                                }
+                                return invoke(connection, connectionMethod, connectionArgs);
+                            });
+                });
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
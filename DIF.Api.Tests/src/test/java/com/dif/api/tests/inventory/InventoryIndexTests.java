@@ -0,0 +1,229 @@
+package com.dif.api.tests.inventory;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.ProductsApiClient;
+import com.dif.api.inventory.InventoryIndex;
+import com.dif.api.models.response.InventoryStock;
+import com.dif.api.models.response.PaginatedResponse;
+import com.dif.api.models.response.Product;
+import com.dif.api.tests.BaseTest;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.restassured.response.Response;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the in-memory inventory index.
+ * Loads SKUs from GET /api/products/inventory/batch and checks the index against
+ * GET /api/products/{sku}/inventory for the same SKUs.
+ */
+@Feature("Inventory Index")
+public class InventoryIndexTests extends BaseTest {
+    
+    private static final int SKU_COUNT = 6;
+    
+    private ProductsApiClient productsApi;
+    private List<String> skus;
+    
+    @BeforeClass
+    @Override
+    public void setUp() {
+        super.setUp();
+        productsApi = new ProductsApiClient();
+        Response response = productsApi.listProducts(1, 20);
+        assertStatusCode(response, 200);
+        PaginatedResponse<Product> page = BaseApiClient.readPage(response, Product.class);
+        Set<String> unique = new LinkedHashSet<>();
+        for (Product product : page.getItems()) {
+            if (unique.size() < SKU_COUNT) {
+                unique.add(product.getSku());
+            }
+        }
+        skus = new ArrayList<>(unique);
+    }
+    
+    @Test(groups = {"regression", "inventory"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify loaded SKUs get dense case-insensitive ids and the quantities of the inventory endpoint")
+    public void inventoryIndex_load_internsSkusAndMatchesInventory() {
+        logTestStart("inventoryIndex_load_internsSkusAndMatchesInventory");
+        
+        try (InventoryIndex index = new InventoryIndex(productsApi, 2, 2)) {
+            index.load(skus);
+            
+            assertThat(index.getSkuCount())
+                    .as("Every loaded SKU should be interned once")
+                    .isEqualTo(skus.size());
+            assertThat(index.skuIds(skus))
+                    .as("SKU ids should be dense")
+                    .containsExactlyInAnyOrder(ids(skus.size()));
+            assertThat(index.skuId(skus.get(0).toLowerCase(Locale.ROOT)))
+                    .as("SKU lookup should ignore case")
+                    .isEqualTo(index.skuId(skus.get(0)));
+            assertThat(index.skuId("INVALID-SKU-999"))
+                    .as("Unknown SKU should have no id")
+                    .isEqualTo(-1);
+            
+            for (String sku : skus) {
+                assertMatchesInventory(index, sku);
+            }
+        }
+        
+        logTestEnd("inventoryIndex_load_internsSkusAndMatchesInventory");
+    }
+    
+    @Test(groups = {"regression", "inventory"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify a cart can be fulfilled by a warehouse exactly up to its available quantity")
+    public void inventoryIndex_canFulfill_followsAvailableQuantity() {
+        logTestStart("inventoryIndex_canFulfill_followsAvailableQuantity");
+        
+        try (InventoryIndex index = new InventoryIndex(productsApi, 2, 2)) {
+            index.load(skus);
+            InventoryStock stock = skus.stream()
+                    .flatMap(sku -> inventory(sku).stream())
+                    .filter(candidate -> candidate.getWarehouseCode() != null && candidate.getQuantityAvailable() > 0)
+                    .findFirst()
+                    .orElse(null);
+            assertThat(stock)
+                    .as("Some loaded SKU should be in stock")
+                    .isNotNull();
+            
+            int warehouseId = index.warehouseId(stock.getDistributorId(), stock.getWarehouseCode());
+            int[] cart = index.skuIds(List.of(stock.getSku()));
+            int available = stock.getQuantityAvailable();
+            assertThat(index.canFulfill(warehouseId, cart, new int[]{available}))
+                    .as("Warehouse should fulfill its available quantity")
+                    .isTrue();
+            assertThat(index.canFulfill(warehouseId, cart, new int[]{available + 1}))
+                    .as("Warehouse should not fulfill more than its available quantity")
+                    .isFalse();
+            assertThat(index.canFulfill(stock.getDistributorId(), stock.getWarehouseCode(), Map.of(stock.getSku(), available)))
+                    .as("Code-based check should agree with the id-based check")
+                    .isTrue();
+            assertThat(index.fulfillingWarehouses(cart, new int[]{available}))
+                    .as("Fulfilling warehouses should include the warehouse")
+                    .contains(warehouseId);
+            assertThat(index.canFulfill(warehouseId, new int[]{-1}, new int[]{1}))
+                    .as("Unknown SKU should never be fulfilled")
+                    .isFalse();
+            assertThat(index.canFulfill(-1, cart, new int[]{1}))
+                    .as("Unknown warehouse should never fulfill")
+                    .isFalse();
+        }
+        
+        logTestEnd("inventoryIndex_canFulfill_followsAvailableQuantity");
+    }
+    
+    @Test(groups = {"regression", "inventory"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify growing the quantity arrays keeps the cells loaded before")
+    public void inventoryIndex_grow_keepsLoadedQuantities() {
+        logTestStart("inventoryIndex_grow_keepsLoadedQuantities");
+        
+        // One warehouse and one SKU of capacity, so nearly every interned SKU or warehouse grows the arrays
+        try (InventoryIndex index = new InventoryIndex(productsApi, 1, 1, 1, 1)) {
+            index.load(skus.subList(0, 1));
+            int firstSku = index.skuId(skus.get(0));
+            int[] before = new int[index.getWarehouseCount()];
+            for (int warehouse = 0; warehouse < before.length; warehouse++) {
+                before[warehouse] = index.getAvailable(firstSku, warehouse);
+            }
+            
+            index.load(skus);
+            
+            assertThat(index.getSkuCount())
+                    .as("Grown index should hold every SKU")
+                    .isEqualTo(skus.size());
+            for (int warehouse = 0; warehouse < before.length; warehouse++) {
+                assertThat(index.getAvailable(firstSku, warehouse))
+                        .as("Available of %s at %s after growing", skus.get(0), index.getWarehouse(warehouse))
+                        .isEqualTo(before[warehouse]);
+            }
+            for (String sku : skus) {
+                assertMatchesInventory(index, sku);
+            }
+        }
+        
+        logTestEnd("inventoryIndex_grow_keepsLoadedQuantities");
+    }
+    
+    @Test(groups = {"regression", "inventory"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify refreshing re-fetches known SKUs without interning them again")
+    public void inventoryIndex_refreshNext_keepsIdsAndQuantities() {
+        logTestStart("inventoryIndex_refreshNext_keepsIdsAndQuantities");
+        
+        try (InventoryIndex index = new InventoryIndex(productsApi, 2, 2)) {
+            index.load(skus);
+            int[] ids = index.skuIds(skus);
+            int warehouses = index.getWarehouseCount();
+            
+            for (int tick = 0; tick < skus.size(); tick++) {
+                assertThat(index.refreshNext())
+                        .as("Changed cell count")
+                        .isGreaterThanOrEqualTo(0);
+            }
+            
+            assertThat(index.getSkuCount())
+                    .as("Refresh should not add SKUs")
+                    .isEqualTo(skus.size());
+            assertThat(index.getWarehouseCount())
+                    .as("Refresh should keep the known warehouses")
+                    .isGreaterThanOrEqualTo(warehouses);
+            assertThat(index.skuIds(skus))
+                    .as("Refresh should keep SKU ids")
+                    .containsExactly(ids);
+            for (String sku : skus) {
+                assertMatchesInventory(index, sku);
+            }
+        }
+        
+        logTestEnd("inventoryIndex_refreshNext_keepsIdsAndQuantities");
+    }
+    
+    private void assertMatchesInventory(InventoryIndex index, String sku) {
+        int skuId = index.skuId(sku);
+        for (InventoryStock stock : inventory(sku)) {
+            if (stock.getWarehouseCode() == null) {
+                continue;
+            }
+            int warehouseId = index.warehouseId(stock.getDistributorId(), stock.getWarehouseCode());
+            assertThat(warehouseId)
+                    .as("Warehouse %s/%s should be interned", stock.getDistributorId(), stock.getWarehouseCode())
+                    .isNotNegative();
+            assertThat(index.getAvailable(skuId, warehouseId))
+                    .as("Available of %s at %s/%s", sku, stock.getDistributorId(), stock.getWarehouseCode())
+                    .isEqualTo(stock.getQuantityAvailable());
+            assertThat(index.getReserved(skuId, warehouseId))
+                    .as("Reserved of %s at %s/%s", sku, stock.getDistributorId(), stock.getWarehouseCode())
+                    .isEqualTo(stock.getQuantityReserved());
+        }
+    }
+    
+    private List<InventoryStock> inventory(String sku) {
+        Response response = productsApi.getInventory(sku);
+        assertStatusCode(response, 200);
+        return BaseApiClient.readDataList(response, InventoryStock.class);
+    }
+    
+    private static int[] ids(int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+}
@@ -2,6 +2,10 @@ package com.dif.api.tests.orders;
 
 import com.dif.api.builders.PlaceOrderRequestBuilder;
 import com.dif.api.client.OrdersApiClient;
+import com.dif.api.factory.TestDataFactory;
+import com.dif.api.fixtures.LineMix;
+import com.dif.api.fixtures.OrderFixture;
+import com.dif.api.fixtures.OrderFixturePool;
 import com.dif.api.models.request.PlaceOrderRequest;
 import com.dif.api.tests.BaseTest;
 import com.dif.api.util.DatabaseHelper;
@@ -34,10 +38,6 @@ public class OrdersTests extends BaseTest {
     private static final String VALID_SKU_2 = "G500-BLA-L";
     private static final String VALID_DISTRIBUTOR_ID = "ss";
     
-    // Will be set after creating an order
-    private String createdOrderId;
-    private String createdDistributorOrderId;
-    
     @BeforeClass
     @Override
     public void setUp() {
@@ -51,7 +51,7 @@ public class OrdersTests extends BaseTest {
     public void placeOrder_withValidRequest_returns201Created() {
         logTestStart("placeOrder_withValidRequest_returns201Created");
         
-        String poNumber = "TEST-" + System.currentTimeMillis();
+        String poNumber = TestDataFactory.generatePoNumber("TEST");
         
         PlaceOrderRequest request = PlaceOrderRequestBuilder.builder()
                 .withDistributorId(VALID_DISTRIBUTOR_ID)
@@ -86,10 +86,6 @@ public class OrdersTests extends BaseTest {
                 .as("Status validation")
                 .isEqualTo("Processing");
         
-        // Store for later tests
-        createdOrderId = response.jsonPath().getString("data.orderId");
-        createdDistributorOrderId = response.jsonPath().getString("data.distributorOrderId");
-        
         logTestEnd("placeOrder_withValidRequest_returns201Created");
     }
     
@@ -162,17 +158,13 @@ public class OrdersTests extends BaseTest {
         logTestEnd("listOrders_withPagination_returnsRequestedPage");
     }
     
-    @Test(groups = {"smoke", "orders"}, dependsOnMethods = "placeOrder_withValidRequest_returns201Created")
+    @Test(groups = {"smoke", "orders"})
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify getting order by valid ID returns order details")
     public void getOrder_withValidId_returnsOrderDetails() {
         logTestStart("getOrder_withValidId_returnsOrderDetails");
         
-        // Skip if no order was created
-        if (createdOrderId == null) {
-            logger.warn("Skipping test - no order was created");
-            return;
-        }
+        String createdOrderId = OrderFixturePool.getShared().lease(VALID_DISTRIBUTOR_ID, LineMix.TWO_LINE).getOrderId();
         
         Response response = ordersApi.getOrder(createdOrderId);
         
@@ -217,17 +209,13 @@ public class OrdersTests extends BaseTest {
         logTestEnd("getOrder_withInvalidId_returns404");
     }
     
-    @Test(groups = {"smoke", "orders"}, dependsOnMethods = "placeOrder_withValidRequest_returns201Created")
+    @Test(groups = {"smoke", "orders"})
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify getting order costs returns cost breakdown")
     public void getOrderCosts_withValidId_returnsCostBreakdown() {
         logTestStart("getOrderCosts_withValidId_returnsCostBreakdown");
         
-        // Skip if no order was created
-        if (createdOrderId == null) {
-            logger.warn("Skipping test - no order was created");
-            return;
-        }
+        String createdOrderId = OrderFixturePool.getShared().lease(VALID_DISTRIBUTOR_ID, LineMix.TWO_LINE).getOrderId();
         
         Response response = ordersApi.getOrderCosts(createdOrderId);
         
@@ -266,17 +254,13 @@ public class OrdersTests extends BaseTest {
         logTestEnd("getOrderCosts_withInvalidId_returns404");
     }
     
-    @Test(groups = {"smoke", "orders"}, dependsOnMethods = "placeOrder_withValidRequest_returns201Created")
+    @Test(groups = {"smoke", "orders"})
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify getting order by distributor ID returns order summary")
     public void getOrderByDistributorId_withValidId_returnsOrderSummary() {
         logTestStart("getOrderByDistributorId_withValidId_returnsOrderSummary");
         
-        // Skip if no order was created
-        if (createdDistributorOrderId == null) {
-            logger.warn("Skipping test - no distributor order ID available");
-            return;
-        }
+        String createdDistributorOrderId = OrderFixturePool.getShared().lease(VALID_DISTRIBUTOR_ID, LineMix.TWO_LINE).getDistributorOrderId();
         
         Response response = ordersApi.getOrderByDistributorId(createdDistributorOrderId);
         
@@ -317,7 +301,7 @@ public class OrdersTests extends BaseTest {
     public void placeOrder_responseContainsCostBreakdown() {
         logTestStart("placeOrder_responseContainsCostBreakdown");
         
-        String poNumber = "TEST-COST-" + System.currentTimeMillis();
+        String poNumber = TestDataFactory.generatePoNumber("TEST-COST");
         
         PlaceOrderRequest request = PlaceOrderRequestBuilder.builder()
                 .withDistributorId(VALID_DISTRIBUTOR_ID)
@@ -351,26 +335,13 @@ public class OrdersTests extends BaseTest {
     public void verifyOrderCostsForMultipleOrders_matchesExpectedValues() {
         logTestStart("verifyOrderCostsForMultipleOrders_matchesExpectedValues");
         
-        // Step 1: Create first order with specific quantity
-        String poNumber1 = "TEST-ORDER-1-" + System.currentTimeMillis();
-        PlaceOrderRequest request1 = PlaceOrderRequestBuilder.builder()
-                .withDistributorId(VALID_DISTRIBUTOR_ID)
-                .withShippingAddress(PlaceOrderRequestBuilder.createDefaultShippingAddress())
-                .withShippingMethod("1")
-                .withPoNumber(poNumber1)
-                .withTestOrder(true)
-                .withLine(VALID_SKU, 10)  // 10 units of G500-BLA-M
-                .withDefaultPayment()
-                .build();
-        
-        Response response1 = ordersApi.placeOrder(request1);
-        assertStatusCode(response1, 201);
-        assertSuccess(response1);
+        // Step 1: Lease a pooled order with a single line of 10 units of G500-BLA-M
+        OrderFixture order1 = OrderFixturePool.getShared().lease(VALID_DISTRIBUTOR_ID, LineMix.SINGLE_LINE);
         
-        String orderId1 = response1.jsonPath().getString("data.orderId");
-        Double expectedSubtotal1 = response1.jsonPath().getDouble("data.costs.subtotal");
-        Double expectedTotal1 = response1.jsonPath().getDouble("data.costs.total");
-        String distributorOrderId1 = response1.jsonPath().getString("data.distributorOrderId");
+        String orderId1 = order1.getOrderId();
+        Double expectedSubtotal1 = order1.getPlacement().getCosts().getSubtotal().doubleValue();
+        Double expectedTotal1 = order1.getPlacement().getCosts().getTotal().doubleValue();
+        String distributorOrderId1 = order1.getDistributorOrderId();
         
         assertThat(orderId1)
                 .as("Order #1 ID should be present")
@@ -479,26 +450,12 @@ public class OrdersTests extends BaseTest {
     public void verifyOrderLineItems_matchCreatedQuantities() {
         logTestStart("verifyOrderLineItems_matchCreatedQuantities");
         
-        // Step 1: Create an order with multiple line items
-        String poNumber = "TEST-LINE-ITEMS-" + System.currentTimeMillis();
-        PlaceOrderRequest request = PlaceOrderRequestBuilder.builder()
-                .withDistributorId(VALID_DISTRIBUTOR_ID)
-                .withShippingAddress(PlaceOrderRequestBuilder.createDefaultShippingAddress())
-                .withShippingMethod("1")
-                .withPoNumber(poNumber)
-                .withTestOrder(true)
-                .withLine(VALID_SKU, 15)
-                .withLine(VALID_SKU_2, 25)
-                .withDefaultPayment()
-                .build();
-        
-        Response response = ordersApi.placeOrder(request);
-        assertStatusCode(response, 201);
-        assertSuccess(response);
+        // Step 1: Lease a pooled order with two lines of 15 and 25 units
+        OrderFixture order = OrderFixturePool.getShared().lease(VALID_DISTRIBUTOR_ID, LineMix.MIXED_QUANTITY);
         
-        String orderId = response.jsonPath().getString("data.orderId");
-        Double expectedSubtotal = response.jsonPath().getDouble("data.costs.subtotal");
-        Double expectedTotal = response.jsonPath().getDouble("data.costs.total");
+        String orderId = order.getOrderId();
+        Double expectedSubtotal = order.getPlacement().getCosts().getSubtotal().doubleValue();
+        Double expectedTotal = order.getPlacement().getCosts().getTotal().doubleValue();
         
         assertThat(orderId)
                 .as("Order ID validation")
@@ -0,0 +1,221 @@
+package com.dif.api.tests.shipping;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.client.DistributorTopology;
+import com.dif.api.client.DistributorsApiClient;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.models.request.ShippingEstimateItem;
+import com.dif.api.models.request.ShippingEstimateRequest;
+import com.dif.api.models.response.ShippingEstimate;
+import com.dif.api.models.response.ShippingOptionEstimate;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import com.dif.api.shipping.RateMatrix;
+import com.dif.api.shipping.RateMatrixBuilder;
+import com.dif.api.shipping.RateQuote;
+import com.dif.api.shipping.RateShopCriterion;
+import com.dif.api.tests.BaseTest;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the precomputed shipping rate matrix.
+ * Builds a one-prefix matrix with RateMatrixBuilder and checks its cells against
+ * POST /api/distributors/{id}/shipping-estimate answered directly for the same lane and cart size.
+ */
+@Feature("Rate Matrix")
+public class RateMatrixTests extends BaseTest {
+    
+    private static final int ZIP_PREFIX = 100;
+    private static final String DESTINATION_ZIP = "10001";
+    
+    private DistributorsApiClient distributorsApi;
+    private Path directory;
+    private RateMatrix matrix;
+    
+    @BeforeClass
+    @Override
+    public void setUp() {
+        super.setUp();
+        distributorsApi = new DistributorsApiClient();
+        try {
+            directory = Files.createTempDirectory("rate-matrix");
+            matrix = new RateMatrixBuilder(distributorsApi, DistributorTopology.getShared(),
+                    DistributorRateLimiter.getShared(), ZIP_PREFIX, ZIP_PREFIX).build(directory.resolve("rates.bin"));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create a rate matrix directory", e);
+        }
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+    
+    @Test(groups = {"regression", "shipping"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify every rate matrix cell matches the shipping estimate of the same lane and cart size")
+    public void rateMatrix_cells_matchDirectShippingEstimates() {
+        logTestStart("rateMatrix_cells_matchDirectShippingEstimates");
+        
+        assertThat(matrix.isComplete())
+                .as("Every cell of the matrix should be filled")
+                .isTrue();
+        
+        // A cart size between the two quoted unit counts checks the fitted per-unit rate, not just the quotes
+        int units = (matrix.getLowUnits() + matrix.getHighUnits()) / 2 + 1;
+        List<RateQuote> quotes = matrix.quotes(DESTINATION_ZIP, units);
+        assertThat(quotes)
+                .as("Matrix should hold quotes for the destination")
+                .isNotEmpty();
+        
+        Map<String, ShippingEstimate> estimates = new HashMap<>();
+        for (RateQuote quote : quotes) {
+            ShippingEstimate estimate = estimates.computeIfAbsent(quote.getDistributorId() + "|" + quote.getWarehouseCode(),
+                    lane -> estimate(quote.getDistributorId(), quote.getWarehouseCode(), units));
+            ShippingOptionEstimate option = estimate.getOptions().stream()
+                    .filter(candidate -> quote.getMethodCode().equals(candidate.getMethodCode()))
+                    .findFirst()
+                    .orElse(null);
+            assertThat(option)
+                    .as("Estimate for %s/%s should offer method %s", quote.getDistributorId(), quote.getWarehouseCode(),
+                            quote.getMethodCode())
+                    .isNotNull();
+            assertThat(quote.getEstimatedCost())
+                    .as("Cost of %s/%s method %s", quote.getDistributorId(), quote.getWarehouseCode(), quote.getMethodCode())
+                    .isEqualByComparingTo(option.getEstimatedCost());
+            assertThat(quote.getEstimatedTransitDays())
+                    .as("Transit days of %s/%s method %s", quote.getDistributorId(), quote.getWarehouseCode(),
+                            quote.getMethodCode())
+                    .isEqualTo(option.getEstimatedTransitDays());
+        }
+        
+        logTestEnd("rateMatrix_cells_matchDirectShippingEstimates");
+    }
+    
+    @Test(groups = {"regression", "shipping"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify the best matrix quote is the cheapest option of any lane's shipping estimate")
+    public void rateMatrix_best_matchesCheapestDirectEstimate() {
+        logTestStart("rateMatrix_best_matchesCheapestDirectEstimate");
+        
+        int units = matrix.getLowUnits();
+        RateQuote best = matrix.best(DESTINATION_ZIP, units, RateShopCriterion.COST);
+        assertThat(best)
+                .as("Matrix should have a best quote for the destination")
+                .isNotNull();
+        
+        Map<String, RateQuote> lanes = new LinkedHashMap<>();
+        matrix.quotes(DESTINATION_ZIP, units).forEach(quote ->
+                lanes.putIfAbsent(quote.getDistributorId() + "|" + quote.getWarehouseCode(), quote));
+        BigDecimal cheapest = null;
+        for (RateQuote lane : lanes.values()) {
+            BigDecimal laneCheapest = estimate(lane.getDistributorId(), lane.getWarehouseCode(), units).getOptions().stream()
+                    .map(ShippingOptionEstimate::getEstimatedCost)
+                    .min(Comparator.naturalOrder())
+                    .orElse(null);
+            if (laneCheapest != null && (cheapest == null || laneCheapest.compareTo(cheapest) < 0)) {
+                cheapest = laneCheapest;
+            }
+        }
+        assertThat(best.getEstimatedCost())
+                .as("Best matrix cost should be the cheapest direct estimate")
+                .isEqualByComparingTo(cheapest);
+        
+        logTestEnd("rateMatrix_best_matchesCheapestDirectEstimate");
+    }
+    
+    @Test(groups = {"regression", "shipping"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify rebuilding a matrix file with a partly written row fetches that row again")
+    public void rateMatrix_resumedWithPartlyWrittenRow_completesIt() throws IOException {
+        logTestStart("rateMatrix_resumedWithPartlyWrittenRow_completesIt");
+        
+        Path partial = directory.resolve("partial.bin");
+        Files.copy(matrix.getFile(), partial);
+        int methodCount = matrix.getCellCount() / (matrix.getPrefixCount() * matrix.getLanes().size());
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            // A builder killed while writing the first row: its last cell is still empty and the row was never
+            // added to the filled count. RateMatrix keeps the cell offset at byte 40, the filled count at 44 and
+            // the state in the last two bytes of each 12-byte cell.
+            int lastCell = mapping.getInt(40) + (methodCount - 1) * 12;
+            mapping.putShort(lastCell + 10, (short) 0);
+            mapping.putInt(44, mapping.getInt(44) - methodCount);
+            mapping.force();
+        }
+        
+        RateMatrix resumed = new RateMatrixBuilder(distributorsApi, DistributorTopology.getShared(),
+                DistributorRateLimiter.getShared(), ZIP_PREFIX, ZIP_PREFIX).build(partial);
+        
+        assertThat(resumed.isComplete())
+                .as("Resumed matrix should be complete")
+                .isTrue();
+        assertThat(resumed.getFilledCells())
+                .as("Filled cells of the resumed matrix")
+                .isEqualTo(resumed.getCellCount());
+        assertThat(resumed.quotes(DESTINATION_ZIP, matrix.getLowUnits()))
+                .as("Quotes of the resumed matrix")
+                .isEqualTo(matrix.quotes(DESTINATION_ZIP, matrix.getLowUnits()));
+        
+        logTestEnd("rateMatrix_resumedWithPartlyWrittenRow_completesIt");
+    }
+    
+    @Test(groups = {"negative", "shipping"})
+    @Severity(SeverityLevel.MINOR)
+    @Description("Verify a destination outside the matrix prefixes has no rates")
+    public void rateMatrix_uncoveredPrefix_returnsNoRates() {
+        logTestStart("rateMatrix_uncoveredPrefix_returnsNoRates");
+        
+        RateQuote covered = matrix.quotes(DESTINATION_ZIP, 1).get(0);
+        
+        assertThat(matrix.quotes("90210", 1))
+                .as("Quotes outside the matrix should be empty")
+                .isEmpty();
+        assertThat(matrix.getCost("90210", covered.getDistributorId(), covered.getWarehouseCode(),
+                        covered.getMethodCode(), 1))
+                .as("Cost outside the matrix should be null")
+                .isNull();
+        
+        logTestEnd("rateMatrix_uncoveredPrefix_returnsNoRates");
+    }
+    
+    private ShippingEstimate estimate(String distributorId, String warehouseCode, int units) {
+        ShippingEstimateRequest request = ShippingEstimateRequest.builder()
+                .distributorId(distributorId)
+                .originWarehouseCode(warehouseCode)
+                .destinationZip(DESTINATION_ZIP)
+                .items(List.of(ShippingEstimateItem.builder().sku(ApiConfig.getRateMatrixSku()).quantity(units).build()))
+                .build();
+        Response response = distributorsApi.getShippingEstimate(distributorId, request);
+        assertStatusCode(response, 200);
+        return BaseApiClient.readData(response, ShippingEstimate.class);
+    }
+}
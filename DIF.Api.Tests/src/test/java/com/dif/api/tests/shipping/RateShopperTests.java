@@ -0,0 +1,193 @@
+package com.dif.api.tests.shipping;
+
+import com.dif.api.client.DistributorTopology;
+import com.dif.api.client.DistributorsApiClient;
+import com.dif.api.models.request.ShippingEstimateItem;
+import com.dif.api.models.request.ShippingEstimateRequest;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import com.dif.api.shipping.RateQuote;
+import com.dif.api.shipping.RateShopCriterion;
+import com.dif.api.shipping.RateShopLane;
+import com.dif.api.shipping.RateShopResult;
+import com.dif.api.shipping.RateShopper;
+import com.dif.api.shipping.ShippingQuoteCache;
+import com.dif.api.tests.BaseTest;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for rate shopping across distributors.
+ * Serves the distributor list, warehouses and estimates from a distributors client double in which one
+ * distributor answers slowly, one fails and one is rate limited, so each lane outcome is known.
+ */
+@Feature("Rate Shopping")
+public class RateShopperTests extends BaseTest {
+    
+    private static final Duration DEADLINE = Duration.ofMillis(500);
+    
+    @Test(groups = {"regression", "shipping"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify a run returns the quotes that arrived by its deadline and reports every other lane")
+    public void shop_withSlowLane_returnsPartialResultAtDeadline() {
+        logTestStart("shop_withSlowLane_returnsPartialResultAtDeadline");
+        
+        ScriptedDistributorsApi distributorsApi = new ScriptedDistributorsApi();
+        DistributorRateLimiter rateLimiter = new DistributorRateLimiter(6000, 100);
+        rateLimiter.pause("rl", Duration.ofMinutes(5));
+        try (ShippingQuoteCache quoteCache = new ShippingQuoteCache(distributorsApi, rateLimiter, Duration.ofMinutes(5), 100, 0.8);
+             RateShopper shopper = new RateShopper(new DistributorTopology(distributorsApi, Duration.ofMinutes(5)),
+                     quoteCache, rateLimiter, 8)) {
+            RateShopResult result;
+            try {
+                result = shopper.shop(request(), RateShopCriterion.COST, DEADLINE);
+            } finally {
+                distributorsApi.release.countDown();
+            }
+            
+            assertThat(statuses(result))
+                    .as("Lane outcomes")
+                    .containsExactlyInAnyOrderEntriesOf(Map.of(
+                            "ss", RateShopLane.Status.QUOTED,
+                            "ds", RateShopLane.Status.QUOTED,
+                            "ps", RateShopLane.Status.TIMED_OUT,
+                            "fs", RateShopLane.Status.FAILED,
+                            "rl", RateShopLane.Status.RATE_LIMITED));
+            assertThat(result.getElapsedMillis())
+                    .as("Run should end at the deadline, not when the slow lane answers")
+                    .isBetween((double) DEADLINE.toMillis() * 0.9, 10_000.0);
+            assertThat(result.getQuotes())
+                    .as("Quotes of the lanes that answered")
+                    .extracting(RateQuote::getDistributorId)
+                    .containsExactly("ds", "ss");
+            assertThat(result.getBest().getDistributorId())
+                    .as("Cheapest quote that arrived in time")
+                    .isEqualTo("ds");
+            assertThat(result.isComplete())
+                    .as("Run with timed out, failed and rate limited lanes")
+                    .isFalse();
+        }
+        
+        logTestEnd("shop_withSlowLane_returnsPartialResultAtDeadline");
+    }
+    
+    @Test(groups = {"regression", "shipping"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify a lane that timed out finishes in the background and is served from the cache next run")
+    public void shop_afterTimedOutLane_servesItFromCacheNextRun() throws InterruptedException {
+        logTestStart("shop_afterTimedOutLane_servesItFromCacheNextRun");
+        
+        ScriptedDistributorsApi distributorsApi = new ScriptedDistributorsApi();
+        DistributorRateLimiter rateLimiter = new DistributorRateLimiter(6000, 100);
+        try (ShippingQuoteCache quoteCache = new ShippingQuoteCache(distributorsApi, rateLimiter, Duration.ofMinutes(5), 100, 0.8);
+             RateShopper shopper = new RateShopper(new DistributorTopology(distributorsApi, Duration.ofMinutes(5)),
+                     quoteCache, rateLimiter, 8)) {
+            try {
+                assertThat(statuses(shopper.shop(request(), RateShopCriterion.TRANSIT_DAYS, DEADLINE)).get("ps"))
+                        .as("Slow lane of the first run")
+                        .isEqualTo(RateShopLane.Status.TIMED_OUT);
+            } finally {
+                distributorsApi.release.countDown();
+            }
+            // ss, ds and the slow ps lane end up cached; fs and rl never answer with an estimate
+            long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (quoteCache.size() < 3 && System.nanoTime() < waitUntil) {
+                Thread.sleep(20);
+            }
+            
+            RateShopResult next = shopper.shop(request(), RateShopCriterion.TRANSIT_DAYS, DEADLINE);
+            
+            RateShopLane slowLane = next.getLanes().stream()
+                    .filter(lane -> "ps".equals(lane.getDistributorId()))
+                    .findFirst()
+                    .orElseThrow();
+            assertThat(slowLane.getStatus())
+                    .as("Slow lane of the next run")
+                    .isEqualTo(RateShopLane.Status.QUOTED);
+            assertThat(slowLane.getDetail())
+                    .as("Slow lane should be served from the cache")
+                    .isEqualTo("cached");
+            assertThat(next.getBest().getDistributorId())
+                    .as("Fastest quote once the slow lane is cached")
+                    .isEqualTo("ps");
+        }
+        
+        logTestEnd("shop_afterTimedOutLane_servesItFromCacheNextRun");
+    }
+    
+    private static Map<String, RateShopLane.Status> statuses(RateShopResult result) {
+        return result.getLanes().stream()
+                .collect(Collectors.toMap(RateShopLane::getDistributorId, RateShopLane::getStatus));
+    }
+    
+    private static ShippingEstimateRequest request() {
+        return ShippingEstimateRequest.builder()
+                .destinationZip("10001")
+                .items(List.of(ShippingEstimateItem.builder().sku("G500-BLA-M").quantity(2).build()))
+                .build();
+    }
+    
+    /**
+     * Distributors client double with five active distributors of one warehouse each. ss and ds quote at once,
+     * ps quotes the fastest option only after {@link #release}, and fs and rl answer 503; a test that pauses
+     * rl's bucket never reaches it.
+     */
+    private static final class ScriptedDistributorsApi extends DistributorsApiClient {
+        
+        private static final List<String> DISTRIBUTOR_IDS = List.of("ss", "ds", "ps", "fs", "rl");
+        
+        private final CountDownLatch release = new CountDownLatch(1);
+        
+        @Override
+        public Response listDistributors() {
+            return envelope(200, DISTRIBUTOR_IDS.stream()
+                    .map(id -> Map.of("distributorId", id, "isActive", true, "hasApiIntegration", true))
+                    .collect(Collectors.toList()));
+        }
+        
+        @Override
+        public Response getWarehouses(String distributorId) {
+            return envelope(200, List.of(Map.of("warehouseCode", "WH-" + distributorId, "isActive", true)));
+        }
+        
+        @Override
+        public Response getShippingEstimate(String distributorId, ShippingEstimateRequest request) {
+            switch (distributorId) {
+                case "ss":
+                    return estimate(request, "12.50", 5);
+                case "ds":
+                    return estimate(request, "9.00", 7);
+                case "ps":
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return estimate(request, "30.00", 1);
+                default:
+                    return envelope(503, null);
+            }
+        }
+        
+        private static Response estimate(ShippingEstimateRequest request, String cost, int transitDays) {
+            return envelope(200, Map.of(
+                    "distributorId", request.getDistributorId(),
+                    "warehouseCode", request.getOriginWarehouseCode(),
+                    "destinationZip", request.getDestinationZip(),
+                    "options", List.of(Map.of("methodCode", "GROUND", "methodName", "Ground", "carrier", "UPS",
+                            "estimatedCost", cost, "estimatedTransitDays", transitDays))));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.dif.api.tests.shipping;
+
+import com.dif.api.client.ApiStatusException;
+import com.dif.api.client.DistributorsApiClient;
+import com.dif.api.models.request.ShippingEstimateItem;
+import com.dif.api.models.request.ShippingEstimateRequest;
+import com.dif.api.models.response.ShippingEstimate;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import com.dif.api.shipping.ShippingQuoteCache;
+import com.dif.api.tests.BaseTest;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the shipping quote cache.
+ * Answers estimate requests from a distributors client double that counts them, and gives each cache a
+ * private rate limiter, so fetches and bucket pauses are checked without touching shared state.
+ */
+@Feature("Shipping Quote Cache")
+public class ShippingQuoteCacheTests extends BaseTest {
+    
+    private static final String DISTRIBUTOR_ID = "ss";
+    
+    @Test(groups = {"regression", "shipping"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify an estimate is served from the cache for its zone until the TTL expires")
+    public void getShippingEstimate_withinTtl_servedFromCache() throws InterruptedException {
+        logTestStart("getShippingEstimate_withinTtl_servedFromCache");
+        
+        CountingDistributorsApi distributorsApi = new CountingDistributorsApi(distributorId -> envelope(200, estimate()));
+        try (ShippingQuoteCache cache = cache(distributorsApi, new DistributorRateLimiter(6000, 100), Duration.ofSeconds(1))) {
+            cache.getShippingEstimate(DISTRIBUTOR_ID, request("10001"));
+            ShippingEstimate sameZone = cache.getShippingEstimate(DISTRIBUTOR_ID, request("10002"));
+            
+            assertThat(distributorsApi.calls.get())
+                    .as("Estimate requests within the TTL")
+                    .isEqualTo(1);
+            assertThat(sameZone.getDestinationZip())
+                    .as("Cached estimate should carry the caller's ZIP")
+                    .isEqualTo("10002");
+            assertThat(cache.getHitCount())
+                    .as("Hits within the TTL")
+                    .isEqualTo(1);
+            
+            Thread.sleep(1200);
+            cache.getShippingEstimate(DISTRIBUTOR_ID, request("10001"));
+            
+            assertThat(distributorsApi.calls.get())
+                    .as("Estimate requests after the TTL")
+                    .isEqualTo(2);
+            assertThat(cache.getMissCount())
+                    .as("Misses after the TTL")
+                    .isEqualTo(2);
+        }
+        
+        logTestEnd("getShippingEstimate_withinTtl_servedFromCache");
+    }
+    
+    @Test(groups = {"regression", "shipping"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify concurrent misses on one lane share a single estimate request")
+    public void getShippingEstimate_concurrentMisses_shareOneRequest() throws Exception {
+        logTestStart("getShippingEstimate_concurrentMisses_shareOneRequest");
+        
+        int callers = 8;
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountingDistributorsApi distributorsApi = new CountingDistributorsApi(distributorId -> {
+            entered.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return envelope(200, estimate());
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try (ShippingQuoteCache cache = cache(distributorsApi, new DistributorRateLimiter(6000, 100), Duration.ofMinutes(5))) {
+            List<CompletableFuture<ShippingEstimate>> estimates = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                String zip = "1000" + i;
+                estimates.add(CompletableFuture.supplyAsync(
+                        () -> cache.getShippingEstimate(DISTRIBUTOR_ID, request(zip)), executor));
+            }
+            try {
+                assertThat(entered.await(10, TimeUnit.SECONDS))
+                        .as("First estimate request should start")
+                        .isTrue();
+                // Let the other callers reach the cache while the first request is outstanding
+                Thread.sleep(300);
+            } finally {
+                release.countDown();
+            }
+            
+            for (int i = 0; i < callers; i++) {
+                assertThat(estimates.get(i).get(30, TimeUnit.SECONDS).getDestinationZip())
+                        .as("Estimate of caller %d", i)
+                        .isEqualTo("1000" + i);
+            }
+            assertThat(distributorsApi.calls.get())
+                    .as("Estimate requests for %d concurrent callers", callers)
+                    .isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        logTestEnd("getShippingEstimate_concurrentMisses_shareOneRequest");
+    }
+    
+    @Test(groups = {"negative", "shipping"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify a 429 pauses the distributor's bucket for the Retry-After, or 1 second without one")
+    public void getShippingEstimate_rateLimited_pausesDistributorBucket() {
+        logTestStart("getShippingEstimate_rateLimited_pausesDistributorBucket");
+        
+        CountingDistributorsApi distributorsApi = new CountingDistributorsApi(distributorId ->
+                "ss".equals(distributorId)
+                        ? envelope(429, null, Map.of("Retry-After", "30"))
+                        : envelope(429, null));
+        DistributorRateLimiter rateLimiter = new DistributorRateLimiter(6000, 100);
+        try (ShippingQuoteCache cache = cache(distributorsApi, rateLimiter, Duration.ofMinutes(5))) {
+            for (String distributorId : List.of("ss", "ds")) {
+                assertThatThrownBy(() -> cache.getShippingEstimate(distributorId, request("10001")))
+                        .as("Rate limited estimate of %s", distributorId)
+                        .isInstanceOfSatisfying(ApiStatusException.class,
+                                e -> assertThat(e.isRateLimited()).as("Rate limited").isTrue());
+            }
+            
+            assertThat(rateLimiter.getAvailablePermits("ss"))
+                    .as("Permits of the paused bucket")
+                    .isZero();
+            assertThat(rateLimiter.reserve("ss", Duration.ofSeconds(20).toNanos()))
+                    .as("Permit within 20 seconds of a Retry-After of 30")
+                    .isEqualTo(-1);
+            assertThat(rateLimiter.reserve("ds", Duration.ofMillis(500).toNanos()))
+                    .as("Permit within half a second of a 429 without Retry-After")
+                    .isEqualTo(-1);
+            assertThat(rateLimiter.reserve("ds", Duration.ofSeconds(5).toNanos()))
+                    .as("Permit within 5 seconds of a 429 without Retry-After")
+                    .isNotNegative();
+        }
+        
+        logTestEnd("getShippingEstimate_rateLimited_pausesDistributorBucket");
+    }
+    
+    private static ShippingQuoteCache cache(DistributorsApiClient distributorsApi, DistributorRateLimiter rateLimiter,
+                                            Duration ttl) {
+        return new ShippingQuoteCache(distributorsApi, rateLimiter, ttl, 100, 0.8);
+    }
+    
+    private static ShippingEstimateRequest request(String destinationZip) {
+        return ShippingEstimateRequest.builder()
+                .originWarehouseCode("WH-01")
+                .destinationZip(destinationZip)
+                .items(List.of(ShippingEstimateItem.builder().sku("G500-BLA-M").quantity(2).build()))
+                .preferredShippingMethod("GROUND")
+                .build();
+    }
+    
+    private static ShippingEstimate estimate() {
+        ShippingEstimate estimate = new ShippingEstimate();
+        estimate.setDistributorId(DISTRIBUTOR_ID);
+        estimate.setWarehouseCode("WH-01");
+        estimate.setOptions(List.of());
+        return estimate;
+    }
+    
+    /**
+     * Distributors client double answering estimate requests from a script keyed by distributor and counting them.
+     */
+    private static final class CountingDistributorsApi extends DistributorsApiClient {
+        
+        private final Function<String, Response> script;
+        private final AtomicInteger calls = new AtomicInteger();
+        
+        private CountingDistributorsApi(Function<String, Response> script) {
+            this.script = script;
+        }
+        
+        @Override
+        public Response getShippingEstimate(String distributorId, ShippingEstimateRequest request) {
+            calls.incrementAndGet();
+            return script.apply(distributorId);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.dif.api.tests.tracking;
+
+import com.dif.api.client.TrackingApiClient;
+import com.dif.api.tests.BaseTest;
+import com.dif.api.tracking.BulkTrackingLookup;
+import com.dif.api.tracking.TrackingLookupRecord;
+import com.dif.api.tracking.TrackingLookupSummary;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the bulk tracking lookup.
+ * Serves tracking numbers from a tracking client double that counts its calls, so reads, lookups and
+ * 404 caching can be checked per tracking number.
+ */
+@Feature("Bulk Tracking Lookup")
+public class BulkTrackingLookupTests extends BaseTest {
+    
+    @Test(groups = {"regression", "tracking"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify a blocked sink stops lookups and input reads at the in-flight limit")
+    public void run_withBlockedSink_boundsReadsAndLookups() throws Exception {
+        logTestStart("run_withBlockedSink_boundsReadsAndLookups");
+        
+        int maxInFlight = 4;
+        CountingTrackingApi trackingApi = new CountingTrackingApi(Set.of(), Set.of());
+        BulkTrackingLookup lookup = new BulkTrackingLookup(trackingApi, 2, maxInFlight, 2, Duration.ofMinutes(10));
+        List<String> trackingNumbers = IntStream.range(0, 50).mapToObj(i -> "TRK-" + i).collect(Collectors.toList());
+        AtomicInteger read = new AtomicInteger();
+        Iterator<String> source = trackingNumbers.iterator();
+        Iterator<String> input = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+            
+            @Override
+            public String next() {
+                read.incrementAndGet();
+                return source.next();
+            }
+        };
+        CountDownLatch firstDelivered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<TrackingLookupRecord> delivered = Collections.synchronizedList(new ArrayList<>());
+        
+        CompletableFuture<TrackingLookupSummary> run = CompletableFuture.supplyAsync(() -> lookup.run(input, record -> {
+            delivered.add(record);
+            firstDelivered.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        try {
+            assertThat(firstDelivered.await(10, TimeUnit.SECONDS))
+                    .as("First record should reach the sink")
+                    .isTrue();
+            // Give the reader and lookup threads time to run ahead if nothing held them back
+            Thread.sleep(300);
+            
+            assertThat(read.get())
+                    .as("Tracking numbers read while the sink is blocked")
+                    .isLessThanOrEqualTo(maxInFlight + 1);
+            assertThat(trackingApi.totalShipmentCalls())
+                    .as("Lookups started while the sink is blocked")
+                    .isLessThanOrEqualTo(maxInFlight);
+        } finally {
+            release.countDown();
+        }
+        TrackingLookupSummary summary = run.get(30, TimeUnit.SECONDS);
+        
+        assertThat(summary.getFound())
+                .as("Found after the sink is released")
+                .isEqualTo(trackingNumbers.size());
+        assertThat(delivered)
+                .as("Records delivered to the sink")
+                .hasSize(trackingNumbers.size());
+        
+        logTestEnd("run_withBlockedSink_boundsReadsAndLookups");
+    }
+    
+    @Test(groups = {"regression", "tracking"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify a repeated tracking number is looked up and delivered once")
+    public void run_withDuplicateTrackingNumbers_looksUpEachOnce() {
+        logTestStart("run_withDuplicateTrackingNumbers_looksUpEachOnce");
+        
+        CountingTrackingApi trackingApi = new CountingTrackingApi(Set.of(), Set.of());
+        BulkTrackingLookup lookup = new BulkTrackingLookup(trackingApi, 4, 8, 4, Duration.ofMinutes(10));
+        List<TrackingLookupRecord> delivered = new ArrayList<>();
+        
+        TrackingLookupSummary summary = lookup.run(
+                List.of("TRK-A", "TRK-B", "TRK-A", "TRK-C", "TRK-B", "TRK-A").iterator(), delivered::add);
+        
+        assertThat(summary.getRead())
+                .as("Read")
+                .isEqualTo(6);
+        assertThat(summary.getDuplicates())
+                .as("Duplicates")
+                .isEqualTo(3);
+        assertThat(summary.getFound())
+                .as("Found")
+                .isEqualTo(3);
+        assertThat(trackingApi.shipmentCalls)
+                .as("Lookups per tracking number")
+                .containsExactlyInAnyOrderEntriesOf(Map.of("TRK-A", 1, "TRK-B", 1, "TRK-C", 1));
+        assertThat(delivered)
+                .as("Records delivered to the sink")
+                .extracting(TrackingLookupRecord::getTrackingNumber)
+                .containsExactlyInAnyOrder("TRK-A", "TRK-B", "TRK-C");
+        
+        logTestEnd("run_withDuplicateTrackingNumbers_looksUpEachOnce");
+    }
+    
+    @Test(groups = {"negative", "tracking"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify 404s are served from the negative cache until its TTL expires")
+    public void run_repeatedAfterNotFound_usesNegativeCacheUntilTtl() throws InterruptedException {
+        logTestStart("run_repeatedAfterNotFound_usesNegativeCacheUntilTtl");
+        
+        CountingTrackingApi trackingApi = new CountingTrackingApi(Set.of("TRK-GONE"), Set.of("TRK-DELIVERED"));
+        BulkTrackingLookup lookup = new BulkTrackingLookup(trackingApi, 2, 4, 2, Duration.ofSeconds(1));
+        List<String> input = List.of("TRK-GONE", "TRK-DELIVERED");
+        
+        TrackingLookupSummary first = lookup.run(input.iterator(), record -> { });
+        List<TrackingLookupRecord> cached = new ArrayList<>();
+        TrackingLookupSummary second = lookup.run(input.iterator(), cached::add);
+        
+        assertThat(first.getNegativeCacheHits())
+                .as("Negative cache hits of the first run")
+                .isZero();
+        assertThat(second.getNotFound())
+                .as("Not found in the second run")
+                .isEqualTo(1);
+        assertThat(second.getNegativeCacheHits())
+                .as("Negative cache hits of the second run")
+                .isEqualTo(1);
+        assertThat(cached)
+                .as("Record of the cached 404")
+                .filteredOn(TrackingLookupRecord::isNegativeCacheHit)
+                .extracting(TrackingLookupRecord::getTrackingNumber)
+                .containsExactly("TRK-GONE");
+        assertThat(trackingApi.shipmentCalls)
+                .as("Lookups within the TTL")
+                .containsExactlyInAnyOrderEntriesOf(Map.of("TRK-GONE", 1, "TRK-DELIVERED", 2));
+        assertThat(trackingApi.confirmationCalls.get())
+                .as("Missing delivery confirmation fetches within the TTL")
+                .isEqualTo(1);
+        
+        Thread.sleep(1200);
+        TrackingLookupSummary third = lookup.run(input.iterator(), record -> { });
+        
+        assertThat(third.getNegativeCacheHits())
+                .as("Negative cache hits after the TTL")
+                .isZero();
+        assertThat(trackingApi.shipmentCalls.get("TRK-GONE"))
+                .as("Lookups of the 404 after the TTL")
+                .isEqualTo(2);
+        assertThat(trackingApi.confirmationCalls.get())
+                .as("Missing delivery confirmation fetches after the TTL")
+                .isEqualTo(2);
+        
+        logTestEnd("run_repeatedAfterNotFound_usesNegativeCacheUntilTtl");
+    }
+    
+    /**
+     * Tracking client double counting its calls. Missing tracking numbers answer 404, delivered ones
+     * have a delivery confirmation that answers 404, and every other one is in transit.
+     */
+    private static final class CountingTrackingApi extends TrackingApiClient {
+        
+        private final Set<String> missing;
+        private final Set<String> delivered;
+        private final Map<String, Integer> shipmentCalls = new ConcurrentHashMap<>();
+        private final AtomicInteger confirmationCalls = new AtomicInteger();
+        
+        private CountingTrackingApi(Set<String> missing, Set<String> delivered) {
+            this.missing = missing;
+            this.delivered = delivered;
+        }
+        
+        private int totalShipmentCalls() {
+            return shipmentCalls.values().stream().mapToInt(Integer::intValue).sum();
+        }
+        
+        @Override
+        public Response getTrackingByNumber(String trackingNumber) {
+            shipmentCalls.merge(trackingNumber, 1, Integer::sum);
+            if (missing.contains(trackingNumber)) {
+                return envelope(404, null);
+            }
+            String status = delivered.contains(trackingNumber) ? "Delivered" : "In Transit";
+            return envelope(200, Map.of("trackingNumber", trackingNumber, "currentStatus", status,
+                    "distributorId", "ss", "orderId", "order-" + trackingNumber));
+        }
+        
+        @Override
+        public Response getDeliveryConfirmation(String orderId) {
+            confirmationCalls.incrementAndGet();
+            return envelope(404, null);
+        }
+    }
+}
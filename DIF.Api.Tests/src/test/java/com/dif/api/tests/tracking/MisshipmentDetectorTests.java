@@ -0,0 +1,182 @@
+package com.dif.api.tests.tracking;
+
+import com.dif.api.client.OrdersApiClient;
+import com.dif.api.client.TrackingApiClient;
+import com.dif.api.models.response.OrderDetail;
+import com.dif.api.models.response.OrderLineDetail;
+import com.dif.api.models.response.TrackingDetail;
+import com.dif.api.tests.BaseTest;
+import com.dif.api.tracking.MisshipmentDetector;
+import com.dif.api.tracking.MisshipmentFinding;
+import com.dif.api.tracking.MisshipmentReason;
+import com.dif.api.tracking.MisshipmentReport;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the streaming misshipment detector.
+ * Feeds scripted orders, tracking legs and server alerts through client doubles and checks the
+ * mismatch rules, the weight tolerance and the agreement tally with the server.
+ */
+@Feature("Misshipment Detection")
+public class MisshipmentDetectorTests extends BaseTest {
+    
+    private static final BigDecimal TOLERANCE = new BigDecimal("0.5");
+    
+    @Test(groups = {"regression", "tracking"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify a weight difference is a mismatch only beyond the tolerance")
+    public void check_weightDifference_flaggedOnlyBeyondTolerance() {
+        logTestStart("check_weightDifference_flaggedOnlyBeyondTolerance");
+        
+        OrderDetail order = order(1, "10.0");
+        TrackingDetail atTolerance = shipment("TRK-AT", 1, "10.0", null, "10.5", false);
+        TrackingDetail beyondTolerance = shipment("TRK-BEYOND", 1, "10.0", null, "10.51", false);
+        
+        assertThat(MisshipmentDetector.check(List.of(atTolerance), order, TOLERANCE))
+                .as("Delivered weight exactly at the tolerance")
+                .isEmpty();
+        assertThat(MisshipmentDetector.check(List.of(beyondTolerance), order, TOLERANCE))
+                .as("Delivered weight beyond the tolerance")
+                .containsExactly(Map.entry("TRK-BEYOND", List.of(MisshipmentReason.WEIGHT)));
+        
+        logTestEnd("check_weightDifference_flaggedOnlyBeyondTolerance");
+    }
+    
+    @Test(groups = {"regression", "tracking"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify order-level mismatches flag every shipment of the order")
+    public void check_orderMismatches_flagEveryShipment() {
+        logTestStart("check_orderMismatches_flagEveryShipment");
+        
+        OrderDetail order = order(3, "12.0");
+        OrderLineDetail line = new OrderLineDetail();
+        line.setQuantity(4);
+        line.setQuantityShipped(3);
+        order.setLines(List.of(line));
+        TrackingDetail first = shipment("TRK-1", 1, "6.0", 1, "6.0", false);
+        TrackingDetail second = shipment("TRK-2", 1, "6.0", 1, "6.0", false);
+        
+        Map<String, List<MisshipmentReason>> flagged = MisshipmentDetector.check(List.of(first, second), order, TOLERANCE);
+        
+        assertThat(flagged)
+                .as("Two boxes shipped for a three-box order, one line short, all delivered")
+                .containsOnlyKeys("TRK-1", "TRK-2");
+        assertThat(flagged.get("TRK-1"))
+                .as("Reasons of TRK-1")
+                .containsExactly(MisshipmentReason.ORDER_BOXES, MisshipmentReason.LINE_QUANTITY);
+        
+        logTestEnd("check_orderMismatches_flagEveryShipment");
+    }
+    
+    @Test(groups = {"regression", "tracking"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify a run tallies agreement with the server flags and alerts per shipment")
+    public void run_tallyAgainstServer_countsEachOutcome() {
+        logTestStart("run_tallyAgainstServer_countsEachOutcome");
+        
+        Map<String, List<TrackingDetail>> tracking = Map.of(
+                // Box count mismatch, also alerted by the server: agreed
+                "order-1", List.of(shipment("TRK-S1", 2, "20.0", 1, null, false),
+                        shipment("TRK-S2", 1, "10.0", 1, "10.4", false)),
+                // Weight beyond tolerance, not flagged by the server: detected only
+                "order-2", List.of(shipment("TRK-S3", 1, "5.0", 1, "5.6", false)),
+                // Clean, but flagged by the server: server only
+                "order-3", List.of(shipment("TRK-S4", 1, "2.0", 1, "2.0", true)),
+                "order-4", List.of());
+        Map<String, OrderDetail> orders = Map.of(
+                "order-1", order(3, "30.0"),
+                "order-2", order(1, "5.0"),
+                "order-3", order(1, "2.0"));
+        TrackingApiClient trackingApi = new TrackingApiClient() {
+            @Override
+            public Response getMisshipments() {
+                return envelope(200, List.of(Map.of("trackingNumber", "TRK-S1"), Map.of("trackingNumber", "TRK-ELSEWHERE")));
+            }
+            
+            @Override
+            public Response getAllTrackingForOrder(String orderId) {
+                return tracking.containsKey(orderId) ? envelope(200, tracking.get(orderId)) : envelope(503, null);
+            }
+        };
+        OrdersApiClient ordersApi = new OrdersApiClient() {
+            @Override
+            public Response getOrder(String orderId) {
+                return envelope(200, orders.get(orderId));
+            }
+        };
+        List<MisshipmentFinding> findings = new ArrayList<>();
+        
+        MisshipmentReport report = new MisshipmentDetector(trackingApi, ordersApi, 2, 2, TOLERANCE)
+                .run(List.of("order-1", "order-2", "order-3", "order-4", "order-5").iterator(), findings::add);
+        
+        assertThat(report.getOrdersProcessed())
+                .as("Orders processed")
+                .isEqualTo(4);
+        assertThat(report.getOrdersWithoutTracking())
+                .as("Orders without tracking")
+                .isEqualTo(1);
+        assertThat(report.getOrdersFailed())
+                .as("Orders whose tracking failed")
+                .isEqualTo(1);
+        assertThat(report.getShipmentsChecked())
+                .as("Shipments checked")
+                .isEqualTo(4);
+        assertThat(report.getDetected())
+                .as("Detected")
+                .isEqualTo(2);
+        assertThat(report.getServerFlagged())
+                .as("Server flagged")
+                .isEqualTo(2);
+        assertThat(report.getAgreed())
+                .as("Agreed")
+                .isEqualTo(1);
+        assertThat(report.getDetectedOnly())
+                .as("Detected only")
+                .isEqualTo(1);
+        assertThat(report.getServerOnly())
+                .as("Server only")
+                .isEqualTo(1);
+        assertThat(report.getAlertsNotStreamed())
+                .as("Alerts of orders outside the stream")
+                .isEqualTo(1);
+        assertThat(findings)
+                .as("Findings")
+                .extracting(MisshipmentFinding::getTrackingNumber)
+                .containsExactlyInAnyOrder("TRK-S1", "TRK-S3");
+        
+        logTestEnd("run_tallyAgainstServer_countsEachOutcome");
+    }
+    
+    private static OrderDetail order(int totalBoxes, String totalWeight) {
+        OrderDetail order = new OrderDetail();
+        order.setTotalBoxes(totalBoxes);
+        order.setTotalWeight(new BigDecimal(totalWeight));
+        return order;
+    }
+    
+    private static TrackingDetail shipment(String trackingNumber, int boxes, String weight, Integer boxesDelivered,
+                                           String weightDelivered, boolean misshipmentFlag) {
+        TrackingDetail shipment = new TrackingDetail();
+        shipment.setTrackingNumber(trackingNumber);
+        shipment.setDistributorId("ss");
+        shipment.setCurrentStatus("Delivered");
+        shipment.setNumBoxes(boxes);
+        shipment.setTotalWeight(new BigDecimal(weight));
+        shipment.setBoxesDelivered(boxesDelivered);
+        shipment.setWeightDelivered(weightDelivered == null ? null : new BigDecimal(weightDelivered));
+        shipment.setMisshipmentFlag(misshipmentFlag);
+        return shipment;
+    }
+}
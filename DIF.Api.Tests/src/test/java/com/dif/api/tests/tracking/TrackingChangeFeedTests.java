@@ -0,0 +1,151 @@
+package com.dif.api.tests.tracking;
+
+import com.dif.api.client.TrackingApiClient;
+import com.dif.api.ratelimit.DistributorRateLimiter;
+import com.dif.api.tests.BaseTest;
+import com.dif.api.tracking.TrackingChangeEvent;
+import com.dif.api.tracking.TrackingChangeFeed;
+import com.dif.api.tracking.TrackingChangeType;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the incremental tracking change feed.
+ * Scripts GET /api/tracking/pending through a tracking client double, so each cycle's diff and the
+ * detail fetches it causes are known exactly.
+ */
+@Feature("Tracking Change Feed")
+public class TrackingChangeFeedTests extends BaseTest {
+    
+    @Test(groups = {"regression", "tracking"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify a feed cycle fetches detail only for added, updated and completed shipments")
+    public void changeFeed_poll_fetchesOnlyChangedShipments() {
+        logTestStart("changeFeed_poll_fetchesOnlyChangedShipments");
+        
+        ScriptedTrackingApi trackingApi = new ScriptedTrackingApi();
+        trackingApi.pending.set(List.of(
+                pending("TRK-A", "In Transit", "2026-01-01T10:00:00Z"),
+                pending("TRK-B", "Shipped", "2026-01-01T10:00:00Z"),
+                pending("TRK-C", "In Transit", "2026-01-01T10:00:00Z")));
+        try (TrackingChangeFeed feed = new TrackingChangeFeed(trackingApi, new DistributorRateLimiter(6000, 100), 4)) {
+            assertThat(feed.baseline())
+                    .as("Baselined shipments")
+                    .isEqualTo(3);
+            assertThat(trackingApi.detailFetches)
+                    .as("Baseline should not fetch detail")
+                    .isEmpty();
+            
+            // A is unchanged, B moved, C left the list and D is new
+            trackingApi.pending.set(List.of(
+                    pending("TRK-A", "In Transit", "2026-01-01T10:00:00Z"),
+                    pending("TRK-B", "In Transit", "2026-01-01T11:00:00Z"),
+                    pending("TRK-D", "Shipped", "2026-01-01T11:00:00Z")));
+            List<TrackingChangeEvent> events = feed.poll();
+            
+            assertThat(trackingApi.detailFetches)
+                    .as("Detail should be fetched for changed shipments only")
+                    .containsExactlyInAnyOrder("TRK-B", "TRK-C", "TRK-D");
+            Map<String, TrackingChangeType> types = events.stream()
+                    .collect(Collectors.toMap(TrackingChangeEvent::getTrackingNumber, TrackingChangeEvent::getType));
+            assertThat(types)
+                    .as("Events of the cycle")
+                    .containsExactlyInAnyOrderEntriesOf(Map.of(
+                            "TRK-B", TrackingChangeType.UPDATED,
+                            "TRK-C", TrackingChangeType.COMPLETED,
+                            "TRK-D", TrackingChangeType.ADDED));
+            assertThat(feed.getTrackedCount())
+                    .as("Tracked shipments after the cycle")
+                    .isEqualTo(3);
+            
+            trackingApi.detailFetches.clear();
+            assertThat(feed.poll())
+                    .as("Unchanged pending list should give no events")
+                    .isEmpty();
+            assertThat(trackingApi.detailFetches)
+                    .as("Unchanged pending list should fetch nothing")
+                    .isEmpty();
+        }
+        
+        logTestEnd("changeFeed_poll_fetchesOnlyChangedShipments");
+    }
+    
+    @Test(groups = {"negative", "tracking"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify a shipment whose detail fetch fails is reported again on the next cycle")
+    public void changeFeed_failedDetailFetch_isRetriedNextCycle() {
+        logTestStart("changeFeed_failedDetailFetch_isRetriedNextCycle");
+        
+        ScriptedTrackingApi trackingApi = new ScriptedTrackingApi();
+        trackingApi.pending.set(List.of());
+        try (TrackingChangeFeed feed = new TrackingChangeFeed(trackingApi, new DistributorRateLimiter(6000, 100), 2)) {
+            feed.baseline();
+            trackingApi.pending.set(List.of(pending("TRK-E", "Shipped", "2026-01-01T10:00:00Z")));
+            trackingApi.failing.add("TRK-E");
+            
+            assertThat(feed.poll())
+                    .as("Cycle with a failed detail fetch")
+                    .isEmpty();
+            assertThat(feed.getTrackedCount())
+                    .as("Failed shipment should not be tracked yet")
+                    .isZero();
+            
+            trackingApi.failing.clear();
+            assertThat(feed.poll())
+                    .as("Next cycle should report the shipment")
+                    .extracting(TrackingChangeEvent::getType)
+                    .containsExactly(TrackingChangeType.ADDED);
+        }
+        
+        logTestEnd("changeFeed_failedDetailFetch_isRetriedNextCycle");
+    }
+    
+    private static Map<String, Object> pending(String trackingNumber, String status, String lastUpdated) {
+        return Map.of("trackingNumber", trackingNumber, "currentStatus", status, "lastUpdated", lastUpdated,
+                "distributorId", "ss", "orderId", "order-" + trackingNumber);
+    }
+    
+    /**
+     * Tracking client double serving a scripted pending list and recording detail fetches.
+     * Shipments no longer pending answer 404, like delivered shipments of the mock API.
+     */
+    private static final class ScriptedTrackingApi extends TrackingApiClient {
+        
+        private final AtomicReference<List<Map<String, Object>>> pending = new AtomicReference<>();
+        private final List<String> detailFetches = Collections.synchronizedList(new ArrayList<>());
+        private final Set<String> failing = ConcurrentHashMap.newKeySet();
+        
+        @Override
+        public Response getPendingShipments() {
+            return envelope(200, pending.get());
+        }
+        
+        @Override
+        public Response getTrackingByNumber(String trackingNumber) {
+            detailFetches.add(trackingNumber);
+            if (failing.contains(trackingNumber)) {
+                return envelope(503, null);
+            }
+            return pending.get().stream()
+                    .filter(shipment -> trackingNumber.equals(shipment.get("trackingNumber")))
+                    .findFirst()
+                    .map(shipment -> envelope(200, shipment))
+                    .orElseGet(() -> envelope(404, null));
+        }
+    }
+}
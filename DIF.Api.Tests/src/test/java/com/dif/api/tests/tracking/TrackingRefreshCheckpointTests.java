@@ -0,0 +1,155 @@
+package com.dif.api.tests.tracking;
+
+import com.dif.api.client.BaseApiClient;
+import com.dif.api.tests.BaseTest;
+import com.dif.api.tracking.TrackingRefreshCheckpoint;
+import com.dif.api.tracking.TrackingRefreshChunk;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the tracking refresh checkpoint file.
+ * Writes checkpoints into a temporary directory and reopens them the way an interrupted refresh would.
+ */
+@Feature("Tracking Refresh")
+public class TrackingRefreshCheckpointTests extends BaseTest {
+    
+    private static final List<String> ORDER_IDS = List.of("order-a", "order-b", "order-c", "order-d");
+    
+    private Path directory;
+    
+    @BeforeClass
+    @Override
+    public void setUp() {
+        super.setUp();
+        try {
+            directory = Files.createTempDirectory("tracking-checkpoint");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create a checkpoint directory", e);
+        }
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+    
+    @Test(groups = {"regression", "tracking"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify a reopened checkpoint resumes its chunks and drops a partial last line before appending")
+    public void checkpoint_reopenedAfterPartialWrite_resumesAndAppendsCleanly() throws IOException {
+        logTestStart("checkpoint_reopenedAfterPartialWrite_resumesAndAppendsCleanly");
+        
+        Path file = directory.resolve("resume.jsonl");
+        try (TrackingRefreshCheckpoint checkpoint = new TrackingRefreshCheckpoint(file, ORDER_IDS)) {
+            checkpoint.append(chunk(3, "order-a", "order-b"));
+        }
+        // A run killed in the middle of writing its next chunk
+        Files.write(file, "{\"distributorId\":\"ss\",\"orderIds\":[\"order-c\"".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        
+        try (TrackingRefreshCheckpoint checkpoint = new TrackingRefreshCheckpoint(file, ORDER_IDS)) {
+            assertThat(checkpoint.getCompletedCount())
+                    .as("Orders of the complete chunk")
+                    .isEqualTo(2);
+            assertThat(checkpoint.getShipmentsUpdated())
+                    .as("Shipments of the complete chunk")
+                    .isEqualTo(3);
+            assertThat(checkpoint.isCompleted("order-c"))
+                    .as("Order of the partial line should be refreshed again")
+                    .isFalse();
+            checkpoint.append(chunk(1, "order-c"));
+        }
+        
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines)
+                .as("Header and two chunks")
+                .hasSize(3);
+        for (String line : lines.subList(1, lines.size())) {
+            assertThat(BaseApiClient.getObjectMapper().readValue(line, TrackingRefreshChunk.class).getOrderIds())
+                    .as("Chunk line %s", line)
+                    .isNotEmpty();
+        }
+        try (TrackingRefreshCheckpoint checkpoint = new TrackingRefreshCheckpoint(file, ORDER_IDS)) {
+            assertThat(checkpoint.getCompletedCount())
+                    .as("Orders after the resumed run")
+                    .isEqualTo(3);
+            assertThat(checkpoint.isCompleted("order-c"))
+                    .as("Order appended after resuming")
+                    .isTrue();
+        }
+        
+        logTestEnd("checkpoint_reopenedAfterPartialWrite_resumesAndAppendsCleanly");
+    }
+    
+    @Test(groups = {"negative", "tracking"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify a checkpoint written for other order IDs is started over")
+    public void checkpoint_withDifferentOrderIds_startsOver() throws IOException {
+        logTestStart("checkpoint_withDifferentOrderIds_startsOver");
+        
+        Path file = directory.resolve("mismatch.jsonl");
+        try (TrackingRefreshCheckpoint checkpoint = new TrackingRefreshCheckpoint(file, ORDER_IDS)) {
+            checkpoint.append(chunk(2, "order-a", "order-b"));
+        }
+        
+        try (TrackingRefreshCheckpoint checkpoint = new TrackingRefreshCheckpoint(file, List.of("order-a", "order-e"))) {
+            assertThat(checkpoint.getCompletedCount())
+                    .as("Nothing should be resumed for another refresh")
+                    .isZero();
+            assertThat(checkpoint.isCompleted("order-a"))
+                    .as("Order shared with the old refresh")
+                    .isFalse();
+        }
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8))
+                .as("Restarted checkpoint should hold only its header")
+                .hasSize(1);
+        
+        logTestEnd("checkpoint_withDifferentOrderIds_startsOver");
+    }
+    
+    @Test(groups = {"negative", "tracking"})
+    @Severity(SeverityLevel.MINOR)
+    @Description("Verify appending to a closed checkpoint fails clearly")
+    public void checkpoint_appendAfterClose_throwsIllegalState() throws IOException {
+        logTestStart("checkpoint_appendAfterClose_throwsIllegalState");
+        
+        TrackingRefreshCheckpoint checkpoint = new TrackingRefreshCheckpoint(directory.resolve("closed.jsonl"), ORDER_IDS);
+        checkpoint.close();
+        
+        assertThatThrownBy(() -> checkpoint.append(chunk(1, "order-a")))
+                .as("Append after close")
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("is closed");
+        
+        logTestEnd("checkpoint_appendAfterClose_throwsIllegalState");
+    }
+    
+    private static TrackingRefreshChunk chunk(int shipmentsUpdated, String... orderIds) {
+        return new TrackingRefreshChunk("ss", List.of(orderIds), orderIds.length, shipmentsUpdated, 1.0);
+    }
+}
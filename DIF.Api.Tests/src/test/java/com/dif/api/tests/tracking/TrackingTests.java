@@ -3,21 +3,30 @@ package com.dif.api.tests.tracking;
 import com.dif.api.builders.PlaceOrderRequestBuilder;
 import com.dif.api.client.OrdersApiClient;
 import com.dif.api.client.TrackingApiClient;
+import com.dif.api.config.ApiConfig;
+import com.dif.api.factory.TestDataFactory;
+import com.dif.api.fixtures.LineMix;
+import com.dif.api.fixtures.OrderFixturePool;
 import com.dif.api.models.request.PlaceOrderRequest;
 import com.dif.api.models.request.TrackingUpdateRequest;
+import com.dif.api.models.response.TrackingDetail;
+import com.dif.api.polling.PollingScheduler;
 import com.dif.api.tests.BaseTest;
 import io.qameta.allure.Description;
 import io.qameta.allure.Feature;
 import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.restassured.response.Response;
+import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -38,22 +47,20 @@ public class TrackingTests extends BaseTest {
     private static final String VALID_SKU = "G500-BLA-M";
     private static final String VALID_DISTRIBUTOR_ID = "ss";
     
-    // Will be set after creating an order
-    private String createdOrderId;
-    
     @BeforeClass
     @Override
     public void setUp() {
         super.setUp();
         trackingApi = new TrackingApiClient();
         ordersApi = new OrdersApiClient();
-        
-        // Create an order to test tracking
-        createTestOrder();
     }
     
-    private void createTestOrder() {
-        String poNumber = "TRACK-TEST-" + System.currentTimeMillis();
+    /**
+     * Places an order owned by the calling test, so tests can run in parallel.
+     * @return Order ID
+     */
+    private String createTestOrder() {
+        String poNumber = TestDataFactory.generatePoNumber("TRACK-TEST");
         
         PlaceOrderRequest request = PlaceOrderRequestBuilder.builder()
                 .withDistributorId(VALID_DISTRIBUTOR_ID)
@@ -66,10 +73,11 @@ public class TrackingTests extends BaseTest {
                 .build();
         
         Response response = ordersApi.placeOrder(request);
-        if (response.getStatusCode() == 201) {
-            createdOrderId = response.jsonPath().getString("data.orderId");
-            logger.info("Created test order: {}", createdOrderId);
-        }
+        assertStatusCode(response, 201);
+        
+        String orderId = response.jsonPath().getString("data.orderId");
+        logger.info("Created test order: {}", orderId);
+        return orderId;
     }
     
     @Test(groups = {"smoke", "tracking"})
@@ -78,13 +86,9 @@ public class TrackingTests extends BaseTest {
     public void getTrackingByOrderId_withValidId_returnsTrackingInfoOr404() {
         logTestStart("getTrackingByOrderId_withValidId_returnsTrackingInfoOr404");
         
-        // Skip if no order was created
-        if (createdOrderId == null) {
-            logger.warn("Skipping test - no order was created");
-            return;
-        }
+        String orderId = OrderFixturePool.getShared().lease(VALID_DISTRIBUTOR_ID, LineMix.SINGLE_LINE).getOrderId();
         
-        Response response = trackingApi.getTrackingByOrderId(createdOrderId);
+        Response response = trackingApi.getTrackingByOrderId(orderId);
         
         // May return 200 with tracking or 404 if order not yet shipped
         int statusCode = response.getStatusCode();
@@ -167,13 +171,9 @@ public class TrackingTests extends BaseTest {
     public void getAllTrackingForOrder_withValidId_returnsTrackingList() {
         logTestStart("getAllTrackingForOrder_withValidId_returnsTrackingList");
         
-        // Skip if no order was created
-        if (createdOrderId == null) {
-            logger.warn("Skipping test - no order was created");
-            return;
-        }
+        String orderId = OrderFixturePool.getShared().lease(VALID_DISTRIBUTOR_ID, LineMix.SINGLE_LINE).getOrderId();
         
-        Response response = trackingApi.getAllTrackingForOrder(createdOrderId);
+        Response response = trackingApi.getAllTrackingForOrder(orderId);
         
         assertStatusCode(response, 200);
         assertSuccess(response);
@@ -238,14 +238,11 @@ public class TrackingTests extends BaseTest {
     public void triggerTrackingUpdate_withOrderIds_returnsUpdateCount() {
         logTestStart("triggerTrackingUpdate_withOrderIds_returnsUpdateCount");
         
-        // Skip if no order was created
-        if (createdOrderId == null) {
-            logger.warn("Skipping test - no order was created");
-            return;
-        }
+        // Tracking updates change the shipment, so this test places its own order instead of leasing one
+        String orderId = createTestOrder();
         
         TrackingUpdateRequest request = TrackingUpdateRequest.builder()
-                .orderIds(Arrays.asList(createdOrderId))
+                .orderIds(Arrays.asList(orderId))
                 .build();
         
         Response response = trackingApi.triggerTrackingUpdate(request);
@@ -262,13 +259,9 @@ public class TrackingTests extends BaseTest {
     public void getDeliveryConfirmation_withValidId_returnsConfirmation() {
         logTestStart("getDeliveryConfirmation_withValidId_returnsConfirmation");
         
-        // Skip if no order was created
-        if (createdOrderId == null) {
-            logger.warn("Skipping test - no order was created");
-            return;
-        }
+        String orderId = OrderFixturePool.getShared().lease(VALID_DISTRIBUTOR_ID, LineMix.SINGLE_LINE).getOrderId();
         
-        Response response = trackingApi.getDeliveryConfirmation(createdOrderId);
+        Response response = trackingApi.getDeliveryConfirmation(orderId);
         
         // May return 200 with data or 404 if not delivered yet
         int statusCode = response.getStatusCode();
@@ -279,6 +272,44 @@ public class TrackingTests extends BaseTest {
         logTestEnd("getDeliveryConfirmation_withValidId_returnsConfirmation");
     }
     
+    @Test(groups = {"regression", "tracking"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify a shipment driven to delivery gets a delivery confirmation")
+    public void getDeliveryConfirmation_afterDelivery_returnsConfirmation() {
+        if (!ApiConfig.isStubServerEnabled()) {
+            // The mock API only tracks its shared sample shipments, which this test must not deliver
+            throw new SkipException("Needs tracking for a placed order, which only the stub server creates");
+        }
+        logTestStart("getDeliveryConfirmation_afterDelivery_returnsConfirmation");
+        
+        // Delivering changes the shipment, so this test places its own order instead of leasing one
+        String orderId = createTestOrder();
+        Response tracking = trackingApi.getTrackingByOrderId(orderId);
+        assertStatusCode(tracking, 200);
+        String trackingNumber = tracking.jsonPath().getString("data.trackingNumber");
+        
+        CompletableFuture<TrackingDetail> delivered =
+                trackingApi.awaitShipmentStatusAsync(trackingNumber, "Delivered", Instant.now().plusSeconds(30));
+        TrackingUpdateRequest update = TrackingUpdateRequest.builder()
+                .trackingNumbers(List.of(trackingNumber))
+                .build();
+        // In Transit moves on with a one-in-three chance per update, so allow plenty of updates
+        for (int i = 0; i < 30 && !delivered.isDone(); i++) {
+            assertStatusCode(trackingApi.triggerTrackingUpdate(update), 200);
+        }
+        TrackingDetail shipment = PollingScheduler.join(delivered);
+        
+        Response response = trackingApi.getDeliveryConfirmation(orderId);
+        
+        assertStatusCode(response, 200);
+        assertSuccess(response);
+        assertThat(response.jsonPath().getString("data.shipmentId"))
+                .as("Confirmation should name the delivered shipment")
+                .isEqualTo(shipment.getShipmentId());
+        
+        logTestEnd("getDeliveryConfirmation_afterDelivery_returnsConfirmation");
+    }
+    
     @Test(groups = {"negative", "tracking"})
     @Severity(SeverityLevel.NORMAL)
     @Description("Verify getting delivery confirmation for invalid order returns 404")